@@ -0,0 +1,72 @@
+package com.example.rentello.service;
+
+import com.example.rentello.repository.FleetProjectionRepository.VehicleRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs. Vector API range scan of the fleet snapshot.
+ * Run with: mvn -Pbenchmark test-compile exec:exec -Dbenchmark=FleetSnapshotBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class FleetSnapshotBenchmark {
+
+    @Param({ "100000", "1000000" })
+    private int vehicles;
+
+    // Dar: birkaç yüz eşleşme, geniş: filonun yaklaşık yarısı
+    @Param({ "narrow", "wide" })
+    private String selectivity;
+
+    private FleetSnapshot snapshot;
+    private FleetSnapshot.Criteria criteria;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<VehicleRow> rows = new ArrayList<>(vehicles);
+        for (int id = 1; id <= vehicles; id++) {
+            rows.add(new VehicleRow(id, "34 BM " + id, "Fiat", "Egea", "Ekonomi", "Beyaz",
+                    random.nextInt(200_000), BigDecimal.valueOf(50_000 + random.nextInt(250_000), 2),
+                    "Musait", random.nextInt(10) != 0, "Merkez", "İstanbul",
+                    2010 + random.nextInt(16), "Benzin", "Manuel", 2 + random.nextInt(7)));
+        }
+        snapshot = new FleetSnapshot();
+        snapshot.replaceAll(rows);
+        criteria = "narrow".equals(selectivity)
+                ? FleetSnapshot.Criteria.of(new BigDecimal("1000"), new BigDecimal("1100"), null, 20_000,
+                        2024, null, 7, null, FleetSnapshot.SortKey.RATE, false, 20)
+                : FleetSnapshot.Criteria.of(null, new BigDecimal("2000"), null, null,
+                        2015, null, null, null, FleetSnapshot.SortKey.RATE, false, 20);
+    }
+
+    @Benchmark
+    public FleetSnapshot.Result scalar() {
+        return snapshot.query(criteria, false);
+    }
+
+    @Benchmark
+    public FleetSnapshot.Result vector() {
+        return snapshot.query(criteria, true);
+    }
+}
@@ -47,6 +47,22 @@ PRINT 'Step 10: Setting up Automation Jobs...';
 PRINT 'Step 11: Setting up Full-Text Search...';
 :r "11_FULLTEXT_SEARCH.sql"
 
+-- Step 12: Setup Exchange Rates
+PRINT 'Step 12: Setting up Exchange Rates...';
+:r "12_EXCHANGE_RATES.sql"
+
+-- Step 13: Setup Saved Searches
+PRINT 'Step 13: Setting up Saved Searches and Availability Alerts...';
+:r "13_SAVED_SEARCHES.sql"
+
+-- Step 14: Setup Revenue Period Closes
+PRINT 'Step 14: Setting up Revenue Period Closes...';
+:r "14_REVENUE_PERIODS.sql"
+
+-- Step 15: Setup Customer Analytics
+PRINT 'Step 15: Setting up Customer Analytics...';
+:r "15_CUSTOMER_ANALYTICS.sql"
+
 PRINT '';
 PRINT '================================================';
 PRINT 'DATABASE SETUP COMPLETED SUCCESSFULLY!';
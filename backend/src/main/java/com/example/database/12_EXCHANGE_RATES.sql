@@ -0,0 +1,31 @@
+-- ================================================
+-- EXCHANGE RATES
+-- Currency rates used by the in-memory rate table of the application
+-- ================================================
+
+USE CarRentalDB;
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'ExchangeRates')
+BEGIN
+    CREATE TABLE ExchangeRates (
+        CurrencyCode CHAR(3) PRIMARY KEY,
+        RateToTry DECIMAL(18,6) NOT NULL,     -- 1 birim döviz = RateToTry TL
+        EffectiveDate DATETIME2 DEFAULT GETDATE(),
+        UpdatedBy INT,
+        FOREIGN KEY (UpdatedBy) REFERENCES Users(UserID),
+        CONSTRAINT CK_ExchangeRates_Positive CHECK (RateToTry > 0)
+    );
+    PRINT 'ExchangeRates table created successfully';
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM ExchangeRates)
+BEGIN
+    INSERT INTO ExchangeRates (CurrencyCode, RateToTry) VALUES
+    ('TRY', 1.000000),
+    ('EUR', 44.500000),
+    ('USD', 38.500000);
+    PRINT 'Default exchange rates inserted';
+END
+GO
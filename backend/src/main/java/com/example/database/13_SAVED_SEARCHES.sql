@@ -0,0 +1,50 @@
+-- ================================================
+-- SAVED SEARCHES AND AVAILABILITY ALERTS
+-- Customers save a search that returned nothing and get an alert
+-- when a matching vehicle is freed by a cancellation or early return
+-- ================================================
+
+USE CarRentalDB;
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'SavedSearches')
+BEGIN
+    CREATE TABLE SavedSearches (
+        SavedSearchID INT IDENTITY(1,1) PRIMARY KEY,
+        CustomerID INT NOT NULL,
+        CityName NVARCHAR(50),                -- NULL = herhangi bir şehir
+        CategoryName NVARCHAR(50),            -- NULL = herhangi bir kategori
+        PickupDate DATETIME2 NOT NULL,
+        ReturnDate DATETIME2 NOT NULL,
+        MaxDailyRate DECIMAL(10,2),           -- NULL = limitsiz
+        IsActive BIT DEFAULT 1,
+        LastNotifiedDate DATETIME2,
+        CreatedDate DATETIME2 DEFAULT GETDATE(),
+        FOREIGN KEY (CustomerID) REFERENCES Users(UserID),
+        CONSTRAINT CK_SavedSearches_Dates CHECK (ReturnDate > PickupDate)
+    );
+    CREATE INDEX IX_SavedSearches_Customer ON SavedSearches(CustomerID, IsActive);
+    PRINT 'SavedSearches table created successfully';
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'AvailabilityAlerts')
+BEGIN
+    CREATE TABLE AvailabilityAlerts (
+        AlertID INT IDENTITY(1,1) PRIMARY KEY,
+        SavedSearchID INT NOT NULL,
+        CustomerID INT NOT NULL,
+        VehicleID INT NOT NULL,
+        DailyRentalRate DECIMAL(10,2),
+        Reason NVARCHAR(30),                  -- CANCELLATION, EARLY_RETURN
+        IsRead BIT DEFAULT 0,
+        CreatedDate DATETIME2 DEFAULT GETDATE(),
+        FOREIGN KEY (SavedSearchID) REFERENCES SavedSearches(SavedSearchID),
+        FOREIGN KEY (CustomerID) REFERENCES Users(UserID),
+        FOREIGN KEY (VehicleID) REFERENCES Vehicles(VehicleID),
+        CONSTRAINT UQ_AvailabilityAlerts_SearchVehicle UNIQUE (SavedSearchID, VehicleID)
+    );
+    CREATE INDEX IX_AvailabilityAlerts_Customer ON AvailabilityAlerts(CustomerID, IsRead);
+    PRINT 'AvailabilityAlerts table created successfully';
+END
+GO
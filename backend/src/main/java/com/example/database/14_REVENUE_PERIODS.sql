@@ -0,0 +1,62 @@
+-- ================================================
+-- REVENUE PERIOD CLOSES
+-- Completed payments of a finished month are aggregated once per
+-- day / pickup location / vehicle category and never rescanned
+-- ================================================
+
+USE CarRentalDB;
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'RevenuePeriods')
+BEGIN
+    CREATE TABLE RevenuePeriods (
+        PeriodStart DATE PRIMARY KEY,
+        PeriodEnd DATE NOT NULL,              -- hariç
+        PaymentCount INT NOT NULL,
+        TotalAmount DECIMAL(14,2) NOT NULL,
+        ClosedDate DATETIME2 DEFAULT GETDATE(),
+        CONSTRAINT CK_RevenuePeriods_Dates CHECK (PeriodEnd > PeriodStart)
+    );
+    PRINT 'RevenuePeriods table created successfully';
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'RevenuePeriodDetails')
+BEGIN
+    CREATE TABLE RevenuePeriodDetails (
+        PeriodStart DATE NOT NULL,
+        RevenueDate DATE NOT NULL,
+        LocationID INT NOT NULL,
+        CategoryID INT NOT NULL,
+        PaymentCount INT NOT NULL,
+        Amount DECIMAL(14,2) NOT NULL,
+        PRIMARY KEY (RevenueDate, LocationID, CategoryID),
+        FOREIGN KEY (PeriodStart) REFERENCES RevenuePeriods(PeriodStart),
+        FOREIGN KEY (LocationID) REFERENCES Locations(LocationID),
+        FOREIGN KEY (CategoryID) REFERENCES VehicleCategories(CategoryID)
+    );
+    CREATE INDEX IX_RevenuePeriodDetails_Period ON RevenuePeriodDetails(PeriodStart);
+    PRINT 'RevenuePeriodDetails table created successfully';
+END
+GO
+
+-- Kapanmış dönem satırları değiştirilemez
+CREATE OR ALTER TRIGGER trg_RevenuePeriods_Immutable
+ON RevenuePeriods
+INSTEAD OF UPDATE, DELETE
+AS
+BEGIN
+    RAISERROR('Closed revenue periods are immutable', 16, 1);
+    ROLLBACK TRANSACTION;
+END
+GO
+
+CREATE OR ALTER TRIGGER trg_RevenuePeriodDetails_Immutable
+ON RevenuePeriodDetails
+INSTEAD OF UPDATE, DELETE
+AS
+BEGIN
+    RAISERROR('Closed revenue periods are immutable', 16, 1);
+    ROLLBACK TRANSACTION;
+END
+GO
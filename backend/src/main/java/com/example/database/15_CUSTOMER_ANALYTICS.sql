@@ -0,0 +1,62 @@
+-- ================================================
+-- CUSTOMER ANALYTICS
+-- RFM scores and signup-cohort retention written by the
+-- customer analytics batch job; reports read these tables only
+-- ================================================
+
+USE CarRentalDB;
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'CustomerRfmScores')
+BEGIN
+    CREATE TABLE CustomerRfmScores (
+        CustomerID INT PRIMARY KEY,
+        LastRentalDate DATE NOT NULL,
+        Frequency INT NOT NULL,
+        Monetary DECIMAL(14,2) NOT NULL,
+        RecencyScore TINYINT NOT NULL,
+        FrequencyScore TINYINT NOT NULL,
+        MonetaryScore TINYINT NOT NULL,
+        Segment NVARCHAR(20) NOT NULL,
+        CalculatedDate DATETIME2 DEFAULT GETDATE(),
+        FOREIGN KEY (CustomerID) REFERENCES Users(UserID),
+        CONSTRAINT CK_CustomerRfmScores_Scores CHECK (RecencyScore BETWEEN 1 AND 5
+            AND FrequencyScore BETWEEN 1 AND 5 AND MonetaryScore BETWEEN 1 AND 5)
+    );
+    CREATE INDEX IX_CustomerRfmScores_Segment ON CustomerRfmScores(Segment);
+    CREATE INDEX IX_CustomerRfmScores_Monetary ON CustomerRfmScores(Monetary DESC);
+    PRINT 'CustomerRfmScores table created successfully';
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'CustomerCohortRetention')
+BEGIN
+    CREATE TABLE CustomerCohortRetention (
+        CohortMonth DATE NOT NULL,            -- ayın ilk günü
+        MonthOffset INT NOT NULL,             -- 0 = kayıt ayı
+        CohortSize INT NOT NULL,
+        ActiveCustomers INT NOT NULL,
+        CalculatedDate DATETIME2 DEFAULT GETDATE(),
+        PRIMARY KEY (CohortMonth, MonthOffset),
+        CONSTRAINT CK_CustomerCohortRetention_Offset CHECK (MonthOffset >= 0)
+    );
+    PRINT 'CustomerCohortRetention table created successfully';
+END
+GO
+
+IF NOT EXISTS (SELECT * FROM sys.tables WHERE name = 'CustomerAnalyticsRuns')
+BEGIN
+    CREATE TABLE CustomerAnalyticsRuns (
+        RunID INT IDENTITY(1,1) PRIMARY KEY,
+        RunType NVARCHAR(20) NOT NULL,        -- FULL / INCREMENTAL
+        LastRentalID INT NOT NULL,
+        LastPaymentID INT NOT NULL,
+        LastUserID INT NOT NULL,
+        RowsProcessed INT NOT NULL,
+        CustomersScored INT NOT NULL,
+        DurationMs BIGINT NOT NULL,
+        RunDate DATETIME2 DEFAULT GETDATE()
+    );
+    PRINT 'CustomerAnalyticsRuns table created successfully';
+END
+GO
@@ -0,0 +1,33 @@
+package com.example.rentello.config;
+
+import com.example.rentello.repository.DatabaseFunctionRepository;
+import com.example.rentello.repository.LocalScalarFunctionRepository;
+import com.example.rentello.repository.ScalarFunctionRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.Clock;
+
+@Configuration
+public class ScalarFunctionConfig {
+
+    @Bean
+    public LocalScalarFunctionRepository localScalarFunctionRepository(JdbcTemplate jdbcTemplate) {
+        return new LocalScalarFunctionRepository(jdbcTemplate, Clock.systemDefaultZone());
+    }
+
+    /**
+     * Select where scalar functions run: "local" (in-process) or "database" (dbo.fn_* round trip)
+     */
+    @Bean
+    @Primary
+    public ScalarFunctionRepository scalarFunctionRepository(
+            @Value("${app.functions.mode:local}") String mode,
+            DatabaseFunctionRepository databaseFunctionRepository,
+            LocalScalarFunctionRepository localScalarFunctionRepository) {
+        return "database".equalsIgnoreCase(mode) ? databaseFunctionRepository : localScalarFunctionRepository;
+    }
+}
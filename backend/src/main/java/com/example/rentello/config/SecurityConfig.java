@@ -41,6 +41,7 @@ public class SecurityConfig {
                 .requestMatchers("/api/test/**").permitAll()
                 .requestMatchers("/api/vehicles/available").permitAll()
                 .requestMatchers("/api/vehicles/search").permitAll()
+                .requestMatchers("/api/search/vehicles", "/api/search/vehicles/facets", "/api/search/vehicles/range").permitAll()
                 .requestMatchers("/api/locations").permitAll()
                 .requestMatchers("/api/reference/**").permitAll()
                 .requestMatchers("/api/database-integration/**").permitAll()
@@ -2,17 +2,32 @@ package com.example.rentello.controller;
 
 import com.example.rentello.dto.AdminUserManagementDto;
 import com.example.rentello.dto.AdminVehicleManagementDto;
-import com.example.rentello.dto.DashboardStatsDto;
 import com.example.rentello.dto.AdminRentalDto;
+import com.example.rentello.dto.CursorPageDto;
+import com.example.rentello.service.AdminSearchIndex;
+import com.example.rentello.service.AdminSearchService;
 import com.example.rentello.service.AdminService;
+import com.example.rentello.service.DashboardSnapshotService;
+import com.example.rentello.service.RecommendationService;
+import com.example.rentello.service.RevenueCounterService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDate;
+import java.util.EnumSet;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -22,20 +37,138 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private AdminSearchService adminSearchService;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private DashboardSnapshotService dashboardSnapshotService;
+
+    @Autowired
+    private RevenueCounterService revenueCounterService;
+
+    /**
+     * Materialized dashboard; polls sending the current ETag in If-None-Match get 304 without touching the database
+     */
     @GetMapping("/dashboard/stats")
-    public ResponseEntity<DashboardStatsDto> getDashboardStats() {
+    public ResponseEntity<?> getDashboardStats(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         try {
-            System.out.println("🔍 CONTROLLER: Dashboard stats request received");
-            DashboardStatsDto stats = adminService.getDashboardStats();
-            System.out.println("✅ CONTROLLER: Dashboard stats returned successfully");
-            return ResponseEntity.ok(stats);
+            DashboardSnapshotService.Snapshot snapshot = dashboardSnapshotService.getSnapshot();
+            if (snapshot.matches(ifNoneMatch)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                        .eTag(snapshot.etag())
+                        .cacheControl(CacheControl.noCache())
+                        .build();
+            }
+            return ResponseEntity.ok()
+                    .eTag(snapshot.etag())
+                    .cacheControl(CacheControl.noCache())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(snapshot.body());
         } catch (Exception e) {
             System.err.println("❌ CONTROLLER: Error in getDashboardStats: " + e.getMessage());
-            e.printStackTrace();
             return ResponseEntity.internalServerError().build();
         }
     }
 
+    @PostMapping("/dashboard/refresh")
+    public ResponseEntity<?> refreshDashboard() {
+        try {
+            dashboardSnapshotService.refresh();
+            return ResponseEntity.ok(dashboardSnapshotService.getStats());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * One search box for users, vehicles and rentals; results are type-tagged and ranked together
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> universalSearch(
+            @RequestParam String q,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "20") int limit
+    ) {
+        try {
+            Set<AdminSearchIndex.Type> selected = EnumSet.noneOf(AdminSearchIndex.Type.class);
+            if (types != null) {
+                for (String type : types) {
+                    try {
+                        selected.add(AdminSearchIndex.Type.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        throw new RuntimeException("Unknown search type: " + type);
+                    }
+                }
+            }
+            return ResponseEntity.ok(adminSearchService.search(q, selected, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/search/rebuild")
+    public ResponseEntity<?> rebuildSearchIndex() {
+        try {
+            return ResponseEntity.ok(adminSearchService.rebuild());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Recommendation model size, last offline evaluation and serving latency
+     */
+    @GetMapping("/recommendations/stats")
+    public ResponseEntity<?> getRecommendationStats() {
+        return ResponseEntity.ok(recommendationService.getStats());
+    }
+
+    @PostMapping("/recommendations/rebuild")
+    public ResponseEntity<?> rebuildRecommendations() {
+        try {
+            return ResponseEntity.ok(recommendationService.rebuild());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Open period revenue by day, location and category, plus the closed periods
+     */
+    @GetMapping("/revenue/counters")
+    public ResponseEntity<?> getRevenueCounters() {
+        try {
+            Map<String, Object> response = new HashMap<>(revenueCounterService.getBreakdown());
+            response.put("stats", revenueCounterService.getStats());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/revenue/periods/{periodStart}")
+    public ResponseEntity<?> getClosedRevenuePeriod(
+            @PathVariable @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate periodStart) {
+        try {
+            return ResponseEntity.ok(revenueCounterService.getClosedPeriodDetails(periodStart));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/revenue/reconcile")
+    public ResponseEntity<?> reconcileRevenue() {
+        try {
+            return ResponseEntity.ok(revenueCounterService.reconcile());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/users")
     public ResponseEntity<Page<AdminUserManagementDto>> getAllUsers(
             @RequestParam(defaultValue = "0") int page,
@@ -51,6 +184,22 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/users/scroll")
+    public ResponseEntity<?> getUsersByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "userId") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        try {
+            CursorPageDto<AdminUserManagementDto> result = adminService.getUsersByCursor(cursor, size, sortBy, sortDirection, includeTotal);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/users/search")
     public ResponseEntity<Page<AdminUserManagementDto>> searchUsers(
             @RequestParam String searchTerm,
@@ -174,6 +323,22 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/vehicles/scroll")
+    public ResponseEntity<?> getVehiclesByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "vehicleId") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        try {
+            CursorPageDto<AdminVehicleManagementDto> result = adminService.getVehiclesByCursor(cursor, size, sortBy, sortDirection, includeTotal);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/vehicles/search")
     public ResponseEntity<Page<AdminVehicleManagementDto>> searchVehicles(
             @RequestParam String searchTerm,
@@ -282,6 +447,22 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/rentals/scroll")
+    public ResponseEntity<?> getRentalsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "rentalId") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        try {
+            CursorPageDto<AdminRentalDto> result = adminService.getRentalsByCursor(cursor, size, sortBy, sortDirection, includeTotal);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     @GetMapping("/rentals/search")
     public ResponseEntity<Page<AdminRentalDto>> searchRentals(
             @RequestParam String searchTerm,
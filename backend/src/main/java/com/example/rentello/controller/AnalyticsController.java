@@ -0,0 +1,110 @@
+package com.example.rentello.controller;
+
+import com.example.rentello.service.RentalFactService;
+import com.example.rentello.service.RentalFactTable;
+import com.example.rentello.service.TimeBucket;
+import com.example.rentello.service.TimeSeriesService;
+import com.example.rentello.service.UtilizationEngine;
+import com.example.rentello.service.UtilizationService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+public class AnalyticsController {
+
+    private final TimeSeriesService timeSeriesService;
+    private final UtilizationService utilizationService;
+    private final RentalFactService rentalFactService;
+
+    /**
+     * Rentals or revenue per hour/day/week/month, optionally filtered or split by location or category.
+     * Long ranges are paged: request the next page with from = nextFrom.
+     */
+    @GetMapping("/timeseries")
+    public ResponseEntity<?> getTimeSeries(
+            @RequestParam String metric,
+            @RequestParam(defaultValue = "day") String bucket,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Integer locationId,
+            @RequestParam(required = false) Integer categoryId,
+            @RequestParam(required = false) String splitBy) {
+        try {
+            TimeSeriesService.TimeSeries series = timeSeriesService.getSeries(TimeSeriesService.Metric.from(metric),
+                TimeBucket.from(bucket), from, to, locationId, categoryId, TimeSeriesService.Dimension.from(splitBy));
+            return ResponseEntity.ok(series);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Fleet, category and location utilization (%) for a window; per-vehicle rates on request
+     */
+    @GetMapping("/utilization")
+    public ResponseEntity<?> getUtilization(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean includeVehicles) {
+        try {
+            UtilizationEngine.Result result = utilizationService.getUtilization(from, to);
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("from", from);
+            response.put("to", to);
+            response.put("fleetRate", result.fleetRate());
+            response.put("byCategory", result.byCategory());
+            response.put("byLocation", result.byLocation());
+            if (includeVehicles) {
+                response.put("byVehicle", result.byVehicle());
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/utilization/stats")
+    public ResponseEntity<Map<String, Object>> getUtilizationStats() {
+        return ResponseEntity.ok(utilizationService.getStats());
+    }
+
+    /**
+     * Ad hoc slice over the in-memory rental facts; revenue by brand by month for one-way rentals is
+     * groupBy=brand,month with filter=one_way:true
+     */
+    @GetMapping("/facts")
+    public ResponseEntity<?> queryFacts(
+            @RequestParam(defaultValue = "") List<String> groupBy,
+            @RequestParam(defaultValue = "count,revenue") List<String> measures,
+            @RequestParam(required = false) List<String> filter,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String sortBy,
+            @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            RentalFactTable.Result result = rentalFactService.query(groupBy, measures,
+                filter != null ? filter : List.of(), from, to, sortBy, limit);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/facts/stats")
+    public ResponseEntity<Map<String, Object>> getFactStats() {
+        return ResponseEntity.ok(rentalFactService.getStats());
+    }
+}
@@ -6,6 +6,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
@@ -242,6 +243,18 @@ public class DatabaseIntegrationController {
         return ResponseEntity.ok(formattedAmount);
     }
 
+    /**
+     * Skaler fonksiyon gecikme karşılaştırması (veritabanı / yerel).
+     * Veritabanı modunda her tekrar bir sorgu olduğundan yalnızca yöneticiye açık ve 100 tekrarla sınırlı.
+     */
+    @GetMapping("/functions/benchmark")
+    @PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<Map<String, Object>> benchmarkScalarFunctions(
+            @RequestParam(defaultValue = "20") Integer iterations) {
+        int bounded = Math.max(1, Math.min(iterations, 100));
+        return ResponseEntity.ok(databaseService.benchmarkScalarFunctions(bounded));
+    }
+
     // ===== TABLE-VALUED FUNCTION ENDPOINTS =====
 
     /**
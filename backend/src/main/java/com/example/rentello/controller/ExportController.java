@@ -0,0 +1,57 @@
+package com.example.rentello.controller;
+
+import com.example.rentello.service.ExportService;
+import com.example.rentello.util.TabularExportWriter;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.LocalDateTime;
+
+@RestController
+@RequestMapping("/api/export")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+public class ExportController {
+
+    private final ExportService exportService;
+
+    @Value("${app.export.timeout-ms:1800000}")
+    private long exportTimeoutMs;
+
+    /**
+     * Stream rentals, payments or vehicles as CSV or NDJSON (optionally gzipped) filtered by date.
+     * The download runs as its own async task so only exports get the long timeout.
+     */
+    @GetMapping("/{dataset}")
+    public WebAsyncTask<Void> export(
+            @PathVariable String dataset,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            HttpServletResponse response) {
+        // Geçersiz parametreler akış başlamadan GlobalExceptionHandler üzerinden 400 döner
+        ExportService.Dataset target = ExportService.Dataset.from(dataset);
+        TabularExportWriter.Format exportFormat = TabularExportWriter.Format.from(format);
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new RuntimeException("'from' must be before 'to'");
+        }
+
+        String fileName = target.getFileName() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip" : exportFormat.getContentType() + ";charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+
+        return new WebAsyncTask<>(exportTimeoutMs, () -> {
+            exportService.export(target, exportFormat, gzip, from, to, response.getOutputStream());
+            return null;
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.rentello.controller;
+
+import com.example.rentello.service.LiveFeedService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/live")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "*")
+@PreAuthorize("hasRole('CALISAN') or hasRole('YONETİCİ') or hasRole('MUDUR')")
+public class LiveFeedController {
+
+    private final LiveFeedService liveFeedService;
+
+    /**
+     * Server-Sent Events stream of rental, return, payment and vehicle deltas plus periodic counters.
+     * Reconnecting clients send Last-Event-ID and get the missed deltas, or a resync event when too many were missed.
+     */
+    @GetMapping(value = "/feed", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribe(
+            @RequestParam(required = false) String types,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        try {
+            Set<String> typeFilter = types == null || types.isBlank() ? Set.of()
+                : Arrays.stream(types.split(",")).map(type -> type.trim().toLowerCase(Locale.ROOT))
+                    .filter(type -> !type.isEmpty()).collect(Collectors.toSet());
+            return ResponseEntity.ok(liveFeedService.subscribe(typeFilter, lastEventId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().contentType(MediaType.APPLICATION_JSON).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<?> getStats() {
+        return ResponseEntity.ok(liveFeedService.getStats());
+    }
+}
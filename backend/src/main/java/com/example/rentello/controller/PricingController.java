@@ -1,14 +1,23 @@
 package com.example.rentello.controller;
 
+import com.example.rentello.dto.PriceCalendarDto;
+import com.example.rentello.dto.PricingSimulationResultDto;
+import com.example.rentello.service.CurrencyService;
+import com.example.rentello.service.PriceCalendarService;
+import com.example.rentello.service.PricingSimulationService;
 import com.example.rentello.service.PricingService;
 import com.example.rentello.service.VehicleService;
 import com.example.rentello.entity.Vehicle;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.concurrent.TimeUnit;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,6 +32,15 @@ public class PricingController {
     @Autowired
     private VehicleService vehicleService;
 
+    @Autowired
+    private PriceCalendarService priceCalendarService;
+
+    @Autowired
+    private PricingSimulationService pricingSimulationService;
+
+    @Autowired
+    private CurrencyService currencyService;
+
     /**
      * Calculate dynamic price for a vehicle and date range
      */
@@ -53,6 +71,11 @@ public class PricingController {
             response.put("totalPrice", dynamicPrice);
             response.put("breakdown", breakdown);
 
+            // Yabancı para birimi istenmişse yerel kur tablosu ile çevir
+            if (request.getCurrency() != null && !request.getCurrency().isBlank()) {
+                response.put("quote", currencyService.quote(dynamicPrice, request.getCurrency(), request.getLocale()));
+            }
+
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -84,6 +107,66 @@ public class PricingController {
         }
     }
 
+    /**
+     * Get per-day prices, availability and cheapest windows of a vehicle for a month or quarter
+     */
+    @GetMapping("/calendar")
+    public ResponseEntity<?> getPriceCalendar(
+            @RequestParam Integer vehicleId,
+            @RequestParam(required = false) String month,
+            @RequestParam(defaultValue = "1") int months,
+            @RequestParam(defaultValue = "3") int windowLength,
+            @RequestParam(defaultValue = "5") int top) {
+        try {
+            YearMonth firstMonth = month != null ? YearMonth.parse(month) : YearMonth.now();
+            PriceCalendarDto calendar = priceCalendarService.getCalendar(vehicleId, firstMonth, months, windowLength, top);
+            return ResponseEntity.ok()
+                    .cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePrivate())
+                    .body(calendar);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Replay historical rentals through candidate multipliers and report the revenue delta
+     */
+    @PostMapping("/simulate")
+    @PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<?> simulatePricing(@RequestBody PricingSimulationRequest request) {
+        try {
+            PricingSimulationResultDto result = pricingSimulationService.simulate(
+                    request.getStartDate(), request.getEndDate(), request.getMultipliers());
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Get the exchange rate table used for foreign currency quotes
+     */
+    @GetMapping("/currencies")
+    public ResponseEntity<CurrencyService.RateTable> getCurrencies() {
+        return ResponseEntity.ok(currencyService.getRateTable());
+    }
+
+    /**
+     * Reload exchange rates from the configured rate file or the ExchangeRates table
+     */
+    @PostMapping("/currencies/reload")
+    @PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<?> reloadCurrencies(@RequestParam(defaultValue = "file") String source) {
+        try {
+            CurrencyService.RateTable table = "database".equalsIgnoreCase(source)
+                    ? currencyService.reloadFromDatabase()
+                    : currencyService.reloadFromFile();
+            return ResponseEntity.ok(table);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
     /**
      * Get pricing multipliers info
      */
@@ -114,6 +197,8 @@ public class PricingController {
         private Integer vehicleId;
         private LocalDate startDate;
         private LocalDate endDate;
+        private String currency;
+        private String locale;
 
         // Getters and Setters
         public Integer getVehicleId() { return vehicleId; }
@@ -124,5 +209,30 @@ public class PricingController {
         
         public LocalDate getEndDate() { return endDate; }
         public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+        
+        public String getCurrency() { return currency; }
+        public void setCurrency(String currency) { this.currency = currency; }
+        
+        public String getLocale() { return locale; }
+        public void setLocale(String locale) { this.locale = locale; }
+    }
+
+    /**
+     * Request DTO for what-if pricing simulation
+     */
+    public static class PricingSimulationRequest {
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private PricingService.Multipliers multipliers;
+
+        // Getters and Setters
+        public LocalDate getStartDate() { return startDate; }
+        public void setStartDate(LocalDate startDate) { this.startDate = startDate; }
+        
+        public LocalDate getEndDate() { return endDate; }
+        public void setEndDate(LocalDate endDate) { this.endDate = endDate; }
+        
+        public PricingService.Multipliers getMultipliers() { return multipliers; }
+        public void setMultipliers(PricingService.Multipliers multipliers) { this.multipliers = multipliers; }
     }
-} 
\ No newline at end of file
+}
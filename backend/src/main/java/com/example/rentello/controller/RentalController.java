@@ -29,6 +29,21 @@ public class RentalController {
     public ResponseEntity<Page<Rental>> getAllRentals(Pageable pageable) {
         return ResponseEntity.ok(rentalService.getAllRentals(pageable));
     }
+
+    @GetMapping("/scroll")
+    @PreAuthorize("hasRole('ADMIN') or hasRole('MANAGER') or hasRole('EMPLOYEE')")
+    public ResponseEntity<?> getRentalsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "rentalId") String sortBy,
+            @RequestParam(defaultValue = "desc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
+        try {
+            return ResponseEntity.ok(rentalService.getRentalsByCursor(cursor, size, sortBy, sortDirection, includeTotal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
     
     @GetMapping("/{id}")
     public ResponseEntity<Rental> getRentalById(@PathVariable Integer id) {
@@ -1,12 +1,22 @@
 package com.example.rentello.controller;
 
+import com.example.rentello.service.CustomerAnalyticsService;
+import com.example.rentello.service.ReportJobService;
+import com.example.rentello.service.ReportResultCache;
 import com.example.rentello.service.ReportService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.nio.file.Path;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.Map;
 
 @RestController
@@ -17,6 +27,9 @@ import java.util.Map;
 public class ReportController {
     
     private final ReportService reportService;
+    private final ReportJobService reportJobService;
+    private final ReportResultCache reportResultCache;
+    private final CustomerAnalyticsService customerAnalyticsService;
     
     @GetMapping("/dashboard")
     public ResponseEntity<Map<String, Object>> getDashboardSummary() {
@@ -45,6 +58,65 @@ public class ReportController {
         return ResponseEntity.ok(report);
     }
     
+    /**
+     * RFM scores and cohort retention are read from the tables written by the customer analytics job
+     */
+    @GetMapping("/customers/segments")
+    public ResponseEntity<Map<String, Long>> getCustomerSegments() {
+        return ResponseEntity.ok(customerAnalyticsService.getSegmentCounts());
+    }
+    
+    @GetMapping("/customers/top")
+    public ResponseEntity<?> getTopCustomers(
+            @RequestParam(required = false) String segment,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            return ResponseEntity.ok(customerAnalyticsService.getTopCustomers(segment, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/customers/{customerId}/rfm")
+    public ResponseEntity<?> getCustomerRfm(@PathVariable int customerId) {
+        try {
+            return ResponseEntity.ok(customerAnalyticsService.getCustomerScore(customerId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/customers/cohorts")
+    public ResponseEntity<?> getCohortRetention(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        try {
+            YearMonth end = to != null ? to : YearMonth.now();
+            YearMonth start = from != null ? from : end.minusMonths(11);
+            return ResponseEntity.ok(customerAnalyticsService.getCohortRetention(start, end));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/customers/analytics/stats")
+    public ResponseEntity<Map<String, Object>> getCustomerAnalyticsStats() {
+        return ResponseEntity.ok(customerAnalyticsService.getStats());
+    }
+    
+    /**
+     * Run the job now; incremental unless full=true
+     */
+    @PostMapping("/customers/analytics/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> runCustomerAnalytics(@RequestParam(defaultValue = "false") boolean full) {
+        try {
+            return ResponseEntity.ok(full ? customerAnalyticsService.rebuild() : customerAnalyticsService.refresh());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
     @GetMapping("/maintenance")
     public ResponseEntity<Map<String, Object>> getMaintenanceReport() {
         Map<String, Object> report = reportService.getMaintenanceReport();
@@ -58,9 +130,15 @@ public class ReportController {
     }
     
     @GetMapping("/location-performance")
-    public ResponseEntity<Map<String, Object>> getLocationPerformanceReport() {
-        Map<String, Object> report = reportService.getLocationPerformanceReport();
-        return ResponseEntity.ok(report);
+    public ResponseEntity<?> getLocationPerformanceReport(
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        try {
+            Map<String, Object> report = reportService.getLocationPerformanceReport(from, to);
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
     
     @GetMapping("/analytics")
@@ -72,4 +150,71 @@ public class ReportController {
         Map<String, Object> analytics = reportService.getAdvancedAnalytics(startDate, endDate);
         return ResponseEntity.ok(analytics);
     }
-} 
\ No newline at end of file
+    
+    /**
+     * Run a report in the background; poll the returned job and download its result when completed.
+     * Reports over a period that has already ended are served from the on-disk cache.
+     */
+    @PostMapping("/jobs")
+    public ResponseEntity<?> submitReportJob(
+            @RequestParam String type,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth from,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM") YearMonth to) {
+        try {
+            ReportJobService.JobView job = reportJobService.submit(ReportJobService.ReportType.from(type),
+                new ReportJobService.Params(startDate, endDate, from, to));
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(job);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    @GetMapping("/jobs")
+    public ResponseEntity<?> getReportJobs() {
+        return ResponseEntity.ok(reportJobService.getJobs());
+    }
+    
+    @GetMapping("/jobs/stats")
+    public ResponseEntity<Map<String, Object>> getReportJobStats() {
+        return ResponseEntity.ok(reportJobService.getStats());
+    }
+    
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<?> getReportJob(@PathVariable String id) {
+        return reportJobService.getJob(id)
+            .<ResponseEntity<?>>map(ResponseEntity::ok)
+            .orElse(ResponseEntity.notFound().build());
+    }
+    
+    @DeleteMapping("/jobs/{id}")
+    public ResponseEntity<?> cancelReportJob(@PathVariable String id) {
+        try {
+            return ResponseEntity.ok(reportJobService.cancel(id));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+    
+    /**
+     * The stored gzip is sent as-is to clients that accept it, decompressed otherwise
+     */
+    @GetMapping("/jobs/{id}/result")
+    public ResponseEntity<?> getReportJobResult(
+            @PathVariable String id,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        try {
+            Path file = reportJobService.getResult(id);
+            boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+            StreamingResponseBody body = out -> reportResultCache.copyTo(file, gzip, out);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON);
+            if (gzip) {
+                response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+            }
+            return response.body(body);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.rentello.controller;
+
+import com.example.rentello.entity.AvailabilityAlert;
+import com.example.rentello.entity.SavedSearch;
+import com.example.rentello.service.SavedSearchService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/saved-searches")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class SavedSearchController {
+
+    private final SavedSearchService savedSearchService;
+
+    /**
+     * Save a search; the customer is alerted when a matching vehicle frees up for these dates
+     */
+    @PostMapping
+    public ResponseEntity<?> saveSearch(
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String category,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime pickupDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime returnDate,
+            @RequestParam(required = false) BigDecimal maxDailyRate) {
+        try {
+            SavedSearch search = savedSearchService.saveSearch(currentUsername(), city, category,
+                pickupDate, returnDate, maxDailyRate);
+            return ResponseEntity.ok(search);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<?> getSavedSearches() {
+        try {
+            List<SavedSearch> searches = savedSearchService.getSavedSearches(currentUsername());
+            return ResponseEntity.ok(searches);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deleteSavedSearch(@PathVariable Integer id) {
+        try {
+            savedSearchService.deleteSavedSearch(currentUsername(), id);
+            return ResponseEntity.ok(Map.of("message", "Saved search deleted"));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/alerts")
+    public ResponseEntity<?> getAlerts() {
+        try {
+            List<AvailabilityAlert> alerts = savedSearchService.getAlerts(currentUsername());
+            return ResponseEntity.ok(alerts);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/alerts/{id}/read")
+    public ResponseEntity<?> markAlertRead(@PathVariable Integer id) {
+        try {
+            AvailabilityAlert alert = savedSearchService.markAlertRead(currentUsername(), id);
+            return ResponseEntity.ok(alert);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<?> getStats() {
+        return ResponseEntity.ok(savedSearchService.getStats());
+    }
+
+    @PostMapping("/reload")
+    @PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<?> reload() {
+        try {
+            int loaded = savedSearchService.reload();
+            return ResponseEntity.ok(Map.of("activeSearches", loaded));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private static String currentUsername() {
+        return SecurityContextHolder.getContext().getAuthentication().getName();
+    }
+}
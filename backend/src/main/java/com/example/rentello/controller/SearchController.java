@@ -0,0 +1,185 @@
+package com.example.rentello.controller;
+
+import com.example.rentello.dto.FacetedSearchResultDto;
+import com.example.rentello.dto.VehicleSearchResultDto;
+import com.example.rentello.service.FacetedSearchService;
+import com.example.rentello.service.FleetSnapshot;
+import com.example.rentello.service.FleetSnapshotService;
+import com.example.rentello.service.FullTextSearchService;
+import com.example.rentello.service.TypeaheadService;
+import com.example.rentello.service.VehicleFacetIndex;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.math.BigDecimal;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/search")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:3000")
+public class SearchController {
+
+    private final FullTextSearchService fullTextSearchService;
+    private final FacetedSearchService facetedSearchService;
+    private final FleetSnapshotService fleetSnapshotService;
+    private final TypeaheadService typeaheadService;
+
+    /**
+     * Ranked vehicle search over description, model, brand, category, color and registration
+     */
+    @GetMapping("/vehicles")
+    public ResponseEntity<?> searchVehicles(
+            @RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Page<VehicleSearchResultDto> results = fullTextSearchService.search(q, page, size);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Faceted search over available vehicles; multiple values of a facet are OR'ed, facets are AND'ed
+     */
+    @GetMapping("/vehicles/facets")
+    public ResponseEntity<?> facetedSearch(
+            @RequestParam(required = false) List<String> city,
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) List<String> brand,
+            @RequestParam(required = false) List<String> fuelType,
+            @RequestParam(required = false) List<String> transmission,
+            @RequestParam(required = false) List<String> seats,
+            @RequestParam(required = false) BigDecimal minRate,
+            @RequestParam(required = false) BigDecimal maxRate,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        try {
+            Map<VehicleFacetIndex.Facet, Set<String>> selection = new EnumMap<>(VehicleFacetIndex.Facet.class);
+            putSelection(selection, VehicleFacetIndex.Facet.CITY, city);
+            putSelection(selection, VehicleFacetIndex.Facet.CATEGORY, category);
+            putSelection(selection, VehicleFacetIndex.Facet.BRAND, brand);
+            putSelection(selection, VehicleFacetIndex.Facet.FUEL_TYPE, fuelType);
+            putSelection(selection, VehicleFacetIndex.Facet.TRANSMISSION, transmission);
+            putSelection(selection, VehicleFacetIndex.Facet.SEATING_CAPACITY, seats);
+
+            FacetedSearchResultDto result = facetedSearchService.search(selection, minRate, maxRate, page, size);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Rate, mileage, year and seat range filters over the in-memory fleet snapshot, with top-N sorting
+     */
+    @GetMapping("/vehicles/range")
+    public ResponseEntity<?> rangeFilter(
+            @RequestParam(required = false) BigDecimal minRate,
+            @RequestParam(required = false) BigDecimal maxRate,
+            @RequestParam(required = false) Integer minMileage,
+            @RequestParam(required = false) Integer maxMileage,
+            @RequestParam(required = false) Integer minYear,
+            @RequestParam(required = false) Integer maxYear,
+            @RequestParam(required = false) Integer minSeats,
+            @RequestParam(required = false) Integer maxSeats,
+            @RequestParam(defaultValue = "RATE") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "20") int limit) {
+        try {
+            FleetSnapshot.Criteria criteria = FleetSnapshot.Criteria.of(minRate, maxRate, minMileage, maxMileage,
+                    minYear, maxYear, minSeats, maxSeats,
+                    FleetSnapshot.SortKey.valueOf(sortBy.toUpperCase(Locale.ROOT)),
+                    "desc".equalsIgnoreCase(sortDirection),
+                    Math.max(1, Math.min(limit, FleetSnapshotService.MAX_LIMIT)));
+            return ResponseEntity.ok(fleetSnapshotService.filter(criteria));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Prefix suggestions for the counter search box (plates, customers, usernames, models)
+     */
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasRole('CALISAN') or hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<?> typeahead(
+            @RequestParam String q,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "5") int limit) {
+        try {
+            Set<TypeaheadService.Kind> kinds = EnumSet.noneOf(TypeaheadService.Kind.class);
+            if (types != null) {
+                types.forEach(type -> kinds.add(TypeaheadService.Kind.from(type)));
+            }
+            return ResponseEntity.ok(typeaheadService.suggest(q, kinds, limit));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping("/typeahead/rebuild")
+    @PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<?> rebuildTypeahead() {
+        try {
+            return ResponseEntity.ok(typeaheadService.rebuild());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Search index status
+     */
+    @GetMapping("/index/stats")
+    @PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<Map<String, Object>> getIndexStats() {
+        return ResponseEntity.ok(fullTextSearchService.getIndexStats());
+    }
+
+    /**
+     * Rebuild the search index from the database
+     */
+    @PostMapping("/index/rebuild")
+    @PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<?> rebuildIndex() {
+        try {
+            int vehicles = fullTextSearchService.rebuildIndex();
+            return ResponseEntity.ok(Map.of("vehicles", vehicles));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    /**
+     * Compare index latency with the LIKE based query
+     */
+    @GetMapping("/index/benchmark")
+    @PreAuthorize("hasRole('YONETİCİ') or hasRole('MUDUR')")
+    public ResponseEntity<?> benchmark(@RequestParam String q,
+                                       @RequestParam(defaultValue = "20") int iterations) {
+        try {
+            int bounded = Math.max(1, Math.min(iterations, 1000));
+            return ResponseEntity.ok(fullTextSearchService.benchmark(q, bounded));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    private void putSelection(Map<VehicleFacetIndex.Facet, Set<String>> selection,
+                              VehicleFacetIndex.Facet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            selection.put(facet, Set.copyOf(values));
+        }
+    }
+}
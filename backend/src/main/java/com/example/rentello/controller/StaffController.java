@@ -80,4 +80,19 @@ public class StaffController {
             return ResponseEntity.internalServerError().build();
         }
     }
-} 
\ No newline at end of file
+
+    @GetMapping("/vehicles/scroll")
+    public ResponseEntity<?> getVehiclesForStaffByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "vehicleId") String sortBy,
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        try {
+            return ResponseEntity.ok(staffService.getVehiclesForStaffByCursor(cursor, size, sortBy, sortDirection, includeTotal));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
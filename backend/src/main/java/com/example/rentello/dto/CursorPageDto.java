@@ -0,0 +1,23 @@
+package com.example.rentello.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPageDto<T> {
+
+    private List<T> content;
+    private int size;
+    private boolean hasNext;
+
+    // Sonraki sayfa için opak token, son sayfada null
+    private String nextCursor;
+
+    // Sadece includeTotal=true istendiğinde dolu (önbellekten gelebilir)
+    private Long totalElements;
+}
@@ -6,6 +6,8 @@ import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 @Data
@@ -44,4 +46,11 @@ public class DashboardStatsDto {
     // Lokasyon İstatistikleri
     private Long totalLocations;
     private Long activeLocations;
+
+    // Zaman aşımına uğrayan / hata veren metrikler varsayılan değerle döner
+    private Boolean partial;
+    private List<String> unavailableMetrics;
+
+    // Snapshot'ın hesaplandığı an
+    private LocalDateTime asOf;
 } 
\ No newline at end of file
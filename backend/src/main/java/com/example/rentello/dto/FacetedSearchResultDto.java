@@ -0,0 +1,23 @@
+package com.example.rentello.dto;
+
+import com.example.rentello.entity.view.AvailableVehicle;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class FacetedSearchResultDto {
+
+    private List<AvailableVehicle> vehicles;
+    private int page;
+    private int size;
+    private long totalElements;
+
+    // facet anahtarı (city, category, brand, fuelType, transmission, seats) -> değer -> araç sayısı
+    private Map<String, Map<String, Integer>> facets;
+}
@@ -0,0 +1,51 @@
+package com.example.rentello.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceCalendarDto {
+    
+    private Integer vehicleId;
+    private BigDecimal baseRate;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private LocalDateTime generatedAt;
+    
+    // Günlük fiyatlar
+    private List<CalendarDay> days;
+    
+    // En ucuz N pencere
+    private Integer windowLength;
+    private List<PriceWindow> cheapestWindows;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CalendarDay {
+        private LocalDate date;
+        private BigDecimal rate;
+        private boolean available;
+        private boolean weekend;
+        private boolean holiday;
+        private boolean highDemand;
+    }
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PriceWindow {
+        private LocalDate startDate;
+        private LocalDate endDate;
+        private BigDecimal totalPrice;
+        private BigDecimal averageRate;
+    }
+}
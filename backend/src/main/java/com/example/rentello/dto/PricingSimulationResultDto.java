@@ -0,0 +1,42 @@
+package com.example.rentello.dto;
+
+import com.example.rentello.service.PricingService;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PricingSimulationResultDto {
+    
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private PricingService.Multipliers baselineMultipliers;
+    private PricingService.Multipliers candidateMultipliers;
+    
+    // Çalışma istatistikleri
+    private Long rentalsProcessed;
+    private Long elapsedMillis;
+    
+    // Gelir farkları
+    private RevenueDelta total;
+    private Map<String, RevenueDelta> byCategory;
+    private Map<String, RevenueDelta> byLocation;
+    private Map<String, RevenueDelta> byMonth;
+    
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class RevenueDelta {
+        private Long rentals;
+        private BigDecimal baselineRevenue;
+        private BigDecimal candidateRevenue;
+        private BigDecimal delta;
+        private BigDecimal deltaPercent;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.rentello.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class VehicleSearchResultDto {
+
+    private Integer vehicleId;
+    private String vehicleRegistration;
+    private String brandName;
+    private String modelName;
+    private String categoryName;
+    private String color;
+    private Integer manufactureYear;
+    private BigDecimal dailyRentalRate;
+    private String statusName;
+    private String description;
+    private float score;
+}
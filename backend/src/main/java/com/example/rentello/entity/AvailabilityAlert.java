@@ -0,0 +1,45 @@
+package com.example.rentello.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "AvailabilityAlerts")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "alertId")
+public class AvailabilityAlert {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "AlertID")
+    private Integer alertId;
+
+    @Column(name = "SavedSearchID", nullable = false)
+    private Integer savedSearchId;
+
+    @Column(name = "CustomerID", nullable = false)
+    private Integer customerId;
+
+    @Column(name = "VehicleID", nullable = false)
+    private Integer vehicleId;
+
+    @Column(name = "DailyRentalRate", precision = 10, scale = 2)
+    private BigDecimal dailyRentalRate;
+
+    @Column(name = "Reason", length = 30)
+    private String reason;
+
+    @Column(name = "IsRead")
+    private Boolean isRead = false;
+
+    @Column(name = "CreatedDate", updatable = false)
+    private LocalDateTime createdDate = LocalDateTime.now();
+}
@@ -0,0 +1,51 @@
+package com.example.rentello.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "SavedSearches")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@EqualsAndHashCode(of = "savedSearchId")
+public class SavedSearch {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @Column(name = "SavedSearchID")
+    private Integer savedSearchId;
+
+    @Column(name = "CustomerID", nullable = false)
+    private Integer customerId;
+
+    @Column(name = "CityName", length = 50)
+    private String cityName;
+
+    @Column(name = "CategoryName", length = 50)
+    private String categoryName;
+
+    @Column(name = "PickupDate", nullable = false)
+    private LocalDateTime pickupDate;
+
+    @Column(name = "ReturnDate", nullable = false)
+    private LocalDateTime returnDate;
+
+    @Column(name = "MaxDailyRate", precision = 10, scale = 2)
+    private BigDecimal maxDailyRate;
+
+    @Column(name = "IsActive")
+    private Boolean isActive = true;
+
+    @Column(name = "LastNotifiedDate")
+    private LocalDateTime lastNotifiedDate;
+
+    @Column(name = "CreatedDate", updatable = false)
+    private LocalDateTime createdDate = LocalDateTime.now();
+}
@@ -0,0 +1,13 @@
+package com.example.rentello.event;
+
+/**
+ * Published after a payment row is inserted, updated or deleted, through JPA or a stored procedure
+ */
+public record PaymentChangedEvent(Integer paymentId, ChangeType changeType) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
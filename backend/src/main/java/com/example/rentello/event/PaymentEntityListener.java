@@ -0,0 +1,34 @@
+package com.example.rentello.event;
+
+import com.example.rentello.entity.Payment;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA callbacks on Payment, turned into application events for in-memory snapshots
+ */
+@Component
+@RequiredArgsConstructor
+public class PaymentEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreated(Payment payment) {
+        eventPublisher.publishEvent(new PaymentChangedEvent(payment.getPaymentId(), PaymentChangedEvent.ChangeType.CREATED));
+    }
+
+    @PostUpdate
+    public void onUpdated(Payment payment) {
+        eventPublisher.publishEvent(new PaymentChangedEvent(payment.getPaymentId(), PaymentChangedEvent.ChangeType.UPDATED));
+    }
+
+    @PostRemove
+    public void onDeleted(Payment payment) {
+        eventPublisher.publishEvent(new PaymentChangedEvent(payment.getPaymentId(), PaymentChangedEvent.ChangeType.DELETED));
+    }
+}
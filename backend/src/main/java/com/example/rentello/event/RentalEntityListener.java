@@ -0,0 +1,34 @@
+package com.example.rentello.event;
+
+import com.example.rentello.entity.Rental;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA callbacks on Rental, turned into application events for in-memory indexes
+ */
+@Component
+@RequiredArgsConstructor
+public class RentalEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreated(Rental rental) {
+        eventPublisher.publishEvent(new RentalChangedEvent(rental.getRentalId(), RentalChangedEvent.ChangeType.CREATED));
+    }
+
+    @PostUpdate
+    public void onUpdated(Rental rental) {
+        eventPublisher.publishEvent(new RentalChangedEvent(rental.getRentalId(), RentalChangedEvent.ChangeType.UPDATED));
+    }
+
+    @PostRemove
+    public void onDeleted(Rental rental) {
+        eventPublisher.publishEvent(new RentalChangedEvent(rental.getRentalId(), RentalChangedEvent.ChangeType.DELETED));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.rentello.event;
+
+/**
+ * Published after a user row is inserted, updated or deleted through JPA
+ */
+public record UserChangedEvent(Integer userId, ChangeType changeType) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.rentello.event;
+
+import com.example.rentello.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA callbacks on User, turned into application events for in-memory indexes
+ */
+@Component
+@RequiredArgsConstructor
+public class UserEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreated(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), UserChangedEvent.ChangeType.CREATED));
+    }
+
+    @PostUpdate
+    public void onUpdated(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), UserChangedEvent.ChangeType.UPDATED));
+    }
+
+    @PostRemove
+    public void onDeleted(User user) {
+        eventPublisher.publishEvent(new UserChangedEvent(user.getUserId(), UserChangedEvent.ChangeType.DELETED));
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.rentello.event;
+
+/**
+ * Published after a vehicle row is inserted, updated or deleted through JPA
+ */
+public record VehicleChangedEvent(Integer vehicleId, ChangeType changeType) {
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.rentello.event;
+
+import com.example.rentello.entity.Vehicle;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA callbacks on Vehicle, turned into application events for in-memory indexes
+ */
+@Component
+@RequiredArgsConstructor
+public class VehicleEntityListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    public void onCreated(Vehicle vehicle) {
+        eventPublisher.publishEvent(new VehicleChangedEvent(vehicle.getVehicleId(), VehicleChangedEvent.ChangeType.CREATED));
+    }
+
+    @PostUpdate
+    public void onUpdated(Vehicle vehicle) {
+        eventPublisher.publishEvent(new VehicleChangedEvent(vehicle.getVehicleId(), VehicleChangedEvent.ChangeType.UPDATED));
+    }
+
+    @PostRemove
+    public void onDeleted(Vehicle vehicle) {
+        eventPublisher.publishEvent(new VehicleChangedEvent(vehicle.getVehicleId(), VehicleChangedEvent.ChangeType.DELETED));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.rentello.event;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a cancellation or an early return frees a vehicle for [freeFrom, freeTo)
+ */
+public record VehicleFreedEvent(Integer vehicleId, Integer rentalId, LocalDateTime freeFrom,
+                                LocalDateTime freeTo, Reason reason) {
+
+    public enum Reason {
+        CANCELLATION,
+        EARLY_RETURN
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.rentello.repository;
+
+import com.example.rentello.entity.AvailabilityAlert;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AvailabilityAlertRepository extends JpaRepository<AvailabilityAlert, Integer> {
+
+    List<AvailabilityAlert> findByCustomerIdOrderByCreatedDateDesc(Integer customerId);
+
+    boolean existsBySavedSearchIdAndVehicleId(Integer savedSearchId, Integer vehicleId);
+}
@@ -0,0 +1,185 @@
+package com.example.rentello.repository;
+
+import com.example.rentello.service.CustomerAnalytics;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Persisted RFM scores, cohort retention and batch run watermarks written by the customer analytics job
+ */
+@Repository
+@RequiredArgsConstructor
+public class CustomerAnalyticsRepository {
+
+    private static final int BATCH_SIZE = 1000;
+
+    private static final String SCORE_COLUMNS =
+        "CustomerID, LastRentalDate, Frequency, Monetary, RecencyScore, FrequencyScore, MonetaryScore, Segment";
+
+    // Gün cinsinden recency okurken hesaplanır; satırlar sırf gün geçtiği için değişmez
+    private static final String SCORE_SELECT =
+        "s.*, DATEDIFF(DAY, s.LastRentalDate, GETDATE()) AS RecencyDays, u.FirstName, u.LastName, u.Email";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Full rebuild: the previous scores are replaced in one transaction, readers never see a partial table
+     */
+    @Transactional
+    public void replaceScores(List<CustomerAnalytics.Score> scores) {
+        jdbcTemplate.update("DELETE FROM CustomerRfmScores");
+        jdbcTemplate.batchUpdate("INSERT INTO CustomerRfmScores (" + SCORE_COLUMNS + ") VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+            scores, BATCH_SIZE, CustomerAnalyticsRepository::bindScore);
+    }
+
+    /**
+     * Incremental refresh: only rows whose values changed are written
+     */
+    @Transactional
+    public void upsertScores(List<CustomerAnalytics.Score> scores) {
+        jdbcTemplate.batchUpdate(
+            "MERGE CustomerRfmScores AS t " +
+            "USING (SELECT ? AS CustomerID, ? AS LastRentalDate, ? AS Frequency, ? AS Monetary, " +
+            "? AS RecencyScore, ? AS FrequencyScore, ? AS MonetaryScore, ? AS Segment) AS s " +
+            "ON t.CustomerID = s.CustomerID " +
+            "WHEN MATCHED THEN UPDATE SET LastRentalDate = s.LastRentalDate, " +
+            "Frequency = s.Frequency, Monetary = s.Monetary, RecencyScore = s.RecencyScore, " +
+            "FrequencyScore = s.FrequencyScore, MonetaryScore = s.MonetaryScore, Segment = s.Segment, " +
+            "CalculatedDate = GETDATE() " +
+            "WHEN NOT MATCHED THEN INSERT (" + SCORE_COLUMNS + ") VALUES (s.CustomerID, s.LastRentalDate, " +
+            "s.Frequency, s.Monetary, s.RecencyScore, s.FrequencyScore, s.MonetaryScore, s.Segment);",
+            scores, BATCH_SIZE, CustomerAnalyticsRepository::bindScore);
+    }
+
+    private static void bindScore(PreparedStatement ps, CustomerAnalytics.Score score) throws SQLException {
+        ps.setInt(1, score.customerId());
+        ps.setDate(2, Date.valueOf(score.lastRentalDate()));
+        ps.setInt(3, score.frequency());
+        ps.setBigDecimal(4, BigDecimal.valueOf(score.monetary()).setScale(2, RoundingMode.HALF_UP));
+        ps.setInt(5, score.recencyScore());
+        ps.setInt(6, score.frequencyScore());
+        ps.setInt(7, score.monetaryScore());
+        ps.setString(8, score.segment());
+    }
+
+    /**
+     * The cohort matrix is small, it is always rewritten whole
+     */
+    @Transactional
+    public void replaceCohorts(List<CustomerAnalytics.Cohort> cohorts) {
+        List<Object[]> rows = new ArrayList<>();
+        for (CustomerAnalytics.Cohort cohort : cohorts) {
+            Date month = Date.valueOf(cohort.month().atDay(1));
+            for (int offset = 0; offset < cohort.active().length; offset++) {
+                rows.add(new Object[] { month, offset, cohort.size(), cohort.active()[offset] });
+            }
+            if (cohort.active().length == 0) {
+                rows.add(new Object[] { month, 0, cohort.size(), 0L });
+            }
+        }
+        jdbcTemplate.update("DELETE FROM CustomerCohortRetention");
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO CustomerCohortRetention (CohortMonth, MonthOffset, CohortSize, ActiveCustomers) VALUES (?, ?, ?, ?)",
+            rows);
+    }
+
+    public void saveRun(Run run) {
+        jdbcTemplate.update(
+            "INSERT INTO CustomerAnalyticsRuns (RunType, LastRentalID, LastPaymentID, LastUserID, RowsProcessed, " +
+            "CustomersScored, DurationMs) VALUES (?, ?, ?, ?, ?, ?, ?)",
+            run.runType(), run.lastRentalId(), run.lastPaymentId(), run.lastUserId(), run.rowsProcessed(),
+            run.customersScored(), run.durationMs());
+    }
+
+    public Optional<Run> findLastRun() {
+        List<Run> runs = jdbcTemplate.query(
+            "SELECT TOP 1 RunType, LastRentalID, LastPaymentID, LastUserID, RowsProcessed, CustomersScored, DurationMs, " +
+            "RunDate FROM CustomerAnalyticsRuns ORDER BY RunID DESC",
+            (rs, rowNum) -> {
+                Timestamp runDate = rs.getTimestamp("RunDate");
+                return new Run(rs.getString("RunType"), rs.getInt("LastRentalID"), rs.getInt("LastPaymentID"),
+                    rs.getInt("LastUserID"), rs.getInt("RowsProcessed"), rs.getInt("CustomersScored"),
+                    rs.getLong("DurationMs"), runDate != null ? runDate.toLocalDateTime() : null);
+            });
+        return runs.isEmpty() ? Optional.empty() : Optional.of(runs.get(0));
+    }
+
+    public Map<String, Long> countBySegment() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT Segment, COUNT(*) AS Customers FROM CustomerRfmScores GROUP BY Segment ORDER BY Segment",
+            rs -> {
+                counts.put(rs.getString("Segment"), rs.getLong("Customers"));
+            });
+        return counts;
+    }
+
+    public Optional<ScoreRow> findScore(int customerId) {
+        List<ScoreRow> rows = jdbcTemplate.query(
+            "SELECT " + SCORE_SELECT + " FROM CustomerRfmScores s " +
+            "JOIN Users u ON u.UserID = s.CustomerID WHERE s.CustomerID = ?",
+            (rs, rowNum) -> toScoreRow(rs), customerId);
+        return rows.isEmpty() ? Optional.empty() : Optional.of(rows.get(0));
+    }
+
+    /**
+     * Highest-spending customers, optionally within one segment
+     */
+    public List<ScoreRow> findTopCustomers(String segment, int limit) {
+        String sql = "SELECT TOP (?) " + SCORE_SELECT + " FROM CustomerRfmScores s " +
+            "JOIN Users u ON u.UserID = s.CustomerID " +
+            (segment != null ? "WHERE s.Segment = ? " : "") +
+            "ORDER BY s.Monetary DESC, s.Frequency DESC";
+        return segment != null
+            ? jdbcTemplate.query(sql, (rs, rowNum) -> toScoreRow(rs), limit, segment)
+            : jdbcTemplate.query(sql, (rs, rowNum) -> toScoreRow(rs), limit);
+    }
+
+    public List<CohortRow> findCohorts(YearMonth from, YearMonth to) {
+        return jdbcTemplate.query(
+            "SELECT CohortMonth, MonthOffset, CohortSize, ActiveCustomers FROM CustomerCohortRetention " +
+            "WHERE CohortMonth BETWEEN ? AND ? ORDER BY CohortMonth, MonthOffset",
+            (rs, rowNum) -> new CohortRow(YearMonth.from(rs.getDate("CohortMonth").toLocalDate()),
+                rs.getInt("MonthOffset"), rs.getLong("CohortSize"), rs.getLong("ActiveCustomers")),
+            Date.valueOf(from.atDay(1)), Date.valueOf(to.atDay(1)));
+    }
+
+    private static ScoreRow toScoreRow(ResultSet rs) throws SQLException {
+        Timestamp calculated = rs.getTimestamp("CalculatedDate");
+        return new ScoreRow(rs.getInt("CustomerID"), rs.getString("FirstName"), rs.getString("LastName"),
+            rs.getString("Email"), rs.getDate("LastRentalDate").toLocalDate(), rs.getInt("RecencyDays"),
+            rs.getInt("Frequency"), rs.getBigDecimal("Monetary"), rs.getInt("RecencyScore"),
+            rs.getInt("FrequencyScore"), rs.getInt("MonetaryScore"), rs.getString("Segment"),
+            calculated != null ? calculated.toLocalDateTime() : null);
+    }
+
+    public record Run(String runType, int lastRentalId, int lastPaymentId, int lastUserId, int rowsProcessed,
+                      int customersScored, long durationMs, LocalDateTime runDate) {
+    }
+
+    public record ScoreRow(int customerId, String firstName, String lastName, String email,
+                           LocalDate lastRentalDate, int recencyDays, int frequency, BigDecimal monetary,
+                           int recencyScore, int frequencyScore, int monetaryScore, String segment,
+                           LocalDateTime calculatedDate) {
+    }
+
+    public record CohortRow(YearMonth cohortMonth, int monthOffset, long cohortSize, long activeCustomers) {
+    }
+}
@@ -15,13 +15,14 @@ import java.util.Map;
 
 @Repository
 @RequiredArgsConstructor
-public class DatabaseFunctionRepository {
+public class DatabaseFunctionRepository implements ScalarFunctionRepository {
 
     private final JdbcTemplate jdbcTemplate;
 
     /**
      * Yaş hesaplama fonksiyonu
      */
+    @Override
     public Integer calculateAge(LocalDate dateOfBirth) {
         String sql = "SELECT dbo.fn_CalculateAge(?)";
         return jdbcTemplate.queryForObject(sql, Integer.class, dateOfBirth);
@@ -30,6 +31,7 @@ public class DatabaseFunctionRepository {
     /**
      * Kiralama süresi hesaplama
      */
+    @Override
     public Integer calculateRentalDuration(LocalDateTime startDate, LocalDateTime endDate) {
         String sql = "SELECT dbo.fn_CalculateRentalDuration(?, ?)";
         return jdbcTemplate.queryForObject(sql, Integer.class, startDate, endDate);
@@ -38,6 +40,7 @@ public class DatabaseFunctionRepository {
     /**
      * Geç ücret hesaplama
      */
+    @Override
     public BigDecimal calculateLateFee(LocalDateTime plannedReturnDate,
                                       LocalDateTime actualReturnDate,
                                       BigDecimal dailyRate) {
@@ -49,6 +52,7 @@ public class DatabaseFunctionRepository {
     /**
      * Müşteri sadakat seviyesi
      */
+    @Override
     public String getCustomerLoyaltyTier(Integer customerId) {
         String sql = "SELECT dbo.fn_GetCustomerLoyaltyTier(?)";
         return jdbcTemplate.queryForObject(sql, String.class, customerId);
@@ -57,6 +61,7 @@ public class DatabaseFunctionRepository {
     /**
      * İndirim yüzdesi hesaplama
      */
+    @Override
     public BigDecimal calculateDiscountPercentage(Integer customerId, Integer rentalDays) {
         String sql = "SELECT dbo.fn_CalculateDiscountPercentage(?, ?)";
         return jdbcTemplate.queryForObject(sql, BigDecimal.class, customerId, rentalDays);
@@ -82,6 +87,7 @@ public class DatabaseFunctionRepository {
     /**
      * Para formatı
      */
+    @Override
     public String formatCurrency(BigDecimal amount) {
         String sql = "SELECT dbo.fn_FormatCurrency(?)";
         return jdbcTemplate.queryForObject(sql, String.class, amount);
@@ -0,0 +1,82 @@
+package com.example.rentello.repository;
+
+import com.example.rentello.entity.view.AvailableVehicle;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Flat vehicle projection (same columns as vw_AvailableVehicles, without the availability filter)
+ * used to build the in-memory fleet indexes
+ */
+@Repository
+@RequiredArgsConstructor
+public class FleetProjectionRepository {
+
+    private static final String VEHICLE_ROW_SQL =
+        "SELECT v.VehicleID, v.VehicleRegistration, vb.BrandName, vm.ModelName, vc.CategoryName, v.Color, " +
+        "       v.Mileage, v.DailyRentalRate, vs.StatusName, vs.IsAvailableForRent, l.LocationName, c.CityName, " +
+        "       vm.ManufactureYear, vm.FuelType, vm.TransmissionType, vm.SeatingCapacity " +
+        "FROM Vehicles v " +
+        "INNER JOIN VehicleModels vm ON v.ModelID = vm.ModelID " +
+        "INNER JOIN VehicleBrands vb ON vm.BrandID = vb.BrandID " +
+        "INNER JOIN VehicleCategories vc ON vm.CategoryID = vc.CategoryID " +
+        "INNER JOIN VehicleStatus vs ON v.CurrentStatusID = vs.StatusID " +
+        "INNER JOIN Locations l ON v.CurrentLocationID = l.LocationID " +
+        "INNER JOIN Cities c ON l.CityID = c.CityID";
+
+    private static final RowMapper<VehicleRow> VEHICLE_ROW_MAPPER = (rs, rowNum) ->
+        new VehicleRow(
+            rs.getInt("VehicleID"),
+            rs.getString("VehicleRegistration"),
+            rs.getString("BrandName"),
+            rs.getString("ModelName"),
+            rs.getString("CategoryName"),
+            rs.getString("Color"),
+            (Integer) rs.getObject("Mileage"),
+            rs.getBigDecimal("DailyRentalRate"),
+            rs.getString("StatusName"),
+            rs.getBoolean("IsAvailableForRent"),
+            rs.getString("LocationName"),
+            rs.getString("CityName"),
+            (Integer) rs.getObject("ManufactureYear"),
+            rs.getString("FuelType"),
+            rs.getString("TransmissionType"),
+            (Integer) rs.getObject("SeatingCapacity"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Tüm araçlar tek sorguda
+     */
+    public List<VehicleRow> findAll() {
+        return jdbcTemplate.query(VEHICLE_ROW_SQL, VEHICLE_ROW_MAPPER);
+    }
+
+    /**
+     * Tek araç - artımlı indeks güncellemeleri için
+     */
+    public Optional<VehicleRow> findById(Integer vehicleId) {
+        return jdbcTemplate.query(VEHICLE_ROW_SQL + " WHERE v.VehicleID = ?", VEHICLE_ROW_MAPPER, vehicleId)
+            .stream()
+            .findFirst();
+    }
+
+    public record VehicleRow(Integer vehicleId, String registration, String brand, String model,
+                             String category, String color, Integer mileage, BigDecimal dailyRentalRate,
+                             String statusName, boolean availableForRent, String locationName, String city,
+                             Integer manufactureYear, String fuelType, String transmissionType,
+                             Integer seatingCapacity) {
+
+        public AvailableVehicle toAvailableVehicle() {
+            return new AvailableVehicle(vehicleId, registration, brand, model, category, color, mileage,
+                dailyRentalRate, statusName, locationName, city, manufactureYear, fuelType,
+                transmissionType, seatingCapacity);
+        }
+    }
+}
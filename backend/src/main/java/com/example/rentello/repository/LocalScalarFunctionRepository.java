@@ -0,0 +1,146 @@
+package com.example.rentello.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.text.DecimalFormat;
+import java.text.DecimalFormatSymbols;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Locale;
+
+/**
+ * In-process implementations of the scalar functions in 07_CREATE_FUNCTIONS.sql.
+ * Each method mirrors the T-SQL definition, including DATEDIFF boundary counting,
+ * DECIMAL rounding and NULL propagation, so results match the database versions.
+ */
+public class LocalScalarFunctionRepository implements ScalarFunctionRepository {
+
+    private static final BigDecimal LATE_FEE_MULTIPLIER = new BigDecimal("1.5");
+    private static final BigDecimal MAX_DISCOUNT = new BigDecimal("25.00");
+
+    // DecimalFormat thread-safe değil, her thread kendi kopyasını kullanır
+    private static final ThreadLocal<DecimalFormat> N2_FORMAT = ThreadLocal.withInitial(() -> {
+        DecimalFormat format = new DecimalFormat("#,##0.00", DecimalFormatSymbols.getInstance(Locale.US));
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        return format;
+    });
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+
+    public LocalScalarFunctionRepository(JdbcTemplate jdbcTemplate, Clock clock) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+    }
+
+    @Override
+    public Integer calculateAge(LocalDate dateOfBirth) {
+        return calculateAge(dateOfBirth, LocalDate.now(clock));
+    }
+
+    @Override
+    public Integer calculateRentalDuration(LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate == null || endDate == null) {
+            return null;
+        }
+        long duration = dateDiffDays(startDate, endDate);
+        return (int) Math.max(duration, 1);
+    }
+
+    @Override
+    public BigDecimal calculateLateFee(LocalDateTime plannedReturnDate, LocalDateTime actualReturnDate,
+                                       BigDecimal dailyRate) {
+        if (dailyRate == null) {
+            return null;
+        }
+        // NULL karşılaştırması SQL'de false döner, bu durumda gecikme 0 gün sayılır
+        long lateDays = plannedReturnDate != null && actualReturnDate != null
+                && actualReturnDate.isAfter(plannedReturnDate)
+                ? dateDiffDays(plannedReturnDate, actualReturnDate)
+                : 0;
+        return dailyRate.setScale(2, RoundingMode.HALF_UP)
+                .multiply(BigDecimal.valueOf(lateDays))
+                .multiply(LATE_FEE_MULTIPLIER)
+                .setScale(2, RoundingMode.HALF_UP);
+    }
+
+    @Override
+    public String getCustomerLoyaltyTier(Integer customerId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT ISNULL(SUM(TotalAmount), 0) AS TotalSpent, COUNT(RentalID) AS RentalCount " +
+                "FROM Rentals WHERE CustomerID = ?",
+                (rs, rowNum) -> loyaltyTier(rs.getBigDecimal("TotalSpent"), rs.getLong("RentalCount")),
+                customerId);
+    }
+
+    @Override
+    public BigDecimal calculateDiscountPercentage(Integer customerId, Integer rentalDays) {
+        return discountPercentage(getCustomerLoyaltyTier(customerId), rentalDays);
+    }
+
+    @Override
+    public String formatCurrency(BigDecimal amount) {
+        if (amount == null) {
+            return null;
+        }
+        return "$" + N2_FORMAT.get().format(amount.setScale(2, RoundingMode.HALF_UP));
+    }
+
+    /**
+     * fn_CalculateAge: DATEDIFF(YEAR) minus one when the birthday has not come yet this year
+     */
+    public static Integer calculateAge(LocalDate dateOfBirth, LocalDate today) {
+        if (dateOfBirth == null) {
+            return null;
+        }
+        int age = today.getYear() - dateOfBirth.getYear();
+        if (dateOfBirth.getMonthValue() > today.getMonthValue()
+                || (dateOfBirth.getMonthValue() == today.getMonthValue()
+                    && dateOfBirth.getDayOfMonth() > today.getDayOfMonth())) {
+            age--;
+        }
+        return age;
+    }
+
+    /**
+     * fn_GetCustomerLoyaltyTier thresholds
+     */
+    public static String loyaltyTier(BigDecimal totalSpent, long rentalCount) {
+        BigDecimal spent = totalSpent != null ? totalSpent : BigDecimal.ZERO;
+        if (spent.compareTo(BigDecimal.valueOf(10000)) >= 0 || rentalCount >= 20) return "Platinum";
+        if (spent.compareTo(BigDecimal.valueOf(5000)) >= 0 || rentalCount >= 10) return "Gold";
+        if (spent.compareTo(BigDecimal.valueOf(1000)) >= 0 || rentalCount >= 3) return "Silver";
+        return "Bronze";
+    }
+
+    /**
+     * fn_CalculateDiscountPercentage for an already known loyalty tier
+     */
+    public static BigDecimal discountPercentage(String loyaltyTier, Integer rentalDays) {
+        BigDecimal discount = switch (loyaltyTier != null ? loyaltyTier : "") {
+            case "Platinum" -> new BigDecimal("15.00");
+            case "Gold" -> new BigDecimal("10.00");
+            case "Silver" -> new BigDecimal("5.00");
+            default -> new BigDecimal("0.00");
+        };
+
+        if (rentalDays != null && rentalDays >= 30) {
+            discount = discount.add(new BigDecimal("10.00"));
+        } else if (rentalDays != null && rentalDays >= 7) {
+            discount = discount.add(new BigDecimal("5.00"));
+        }
+
+        return discount.compareTo(MAX_DISCOUNT) > 0 ? MAX_DISCOUNT : discount;
+    }
+
+    /**
+     * DATEDIFF(DAY, ...) counts crossed midnight boundaries, not elapsed 24 hour periods
+     */
+    static long dateDiffDays(LocalDateTime start, LocalDateTime end) {
+        return ChronoUnit.DAYS.between(start.toLocalDate(), end.toLocalDate());
+    }
+}
@@ -14,6 +14,13 @@ public interface PaymentRepository extends JpaRepository<Payment, Integer> {
     
     @Query("SELECT p FROM Payment p WHERE p.rental.rentalId = :rentalId")
     List<Payment> findByRentalId(@Param("rentalId") Integer rentalId);
+
+    /**
+     * Sayfa bazında ödeme toplamları: [rentalId, ödeme sayısı, ödenen toplam]
+     */
+    @Query("SELECT p.rental.rentalId, COUNT(p), COALESCE(SUM(p.paymentAmount), 0) FROM Payment p " +
+           "WHERE p.rental.rentalId IN :rentalIds GROUP BY p.rental.rentalId")
+    List<Object[]> sumByRentalIds(@Param("rentalIds") java.util.Collection<Integer> rentalIds);
     
     @Query("SELECT p FROM Payment p WHERE p.paymentStatus = :status")
     List<Payment> findByPaymentStatus(@Param("status") String status);
@@ -29,6 +36,16 @@ public interface PaymentRepository extends JpaRepository<Payment, Integer> {
         @Param("startDate") LocalDateTime startDate, 
         @Param("endDate") LocalDateTime endDate
     );
+
+    /**
+     * Tek satır: [tüm ödeme sayısı, tamamlanan ödemelerin toplamı]
+     */
+    @Query("SELECT COUNT(p), COALESCE(SUM(CASE WHEN p.paymentStatus = 'Completed' THEN p.paymentAmount ELSE 0 END), 0) " +
+           "FROM Payment p WHERE p.paymentDate BETWEEN :startDate AND :endDate")
+    List<Object[]> summarizeByDateRange(
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
     
     @Query("SELECT p FROM Payment p WHERE p.rental.customer.userId = :customerId")
     List<Payment> findByCustomerId(@Param("customerId") Integer customerId);
@@ -40,6 +57,11 @@ public interface PaymentRepository extends JpaRepository<Payment, Integer> {
     @Query("SELECT COALESCE(SUM(p.paymentAmount), 0) FROM Payment p WHERE p.paymentStatus = 'Completed' AND p.paymentDate >= :startDate")
     java.math.BigDecimal getMonthlyRevenue(@Param("startDate") java.time.LocalDate startDate);
     
-    @Query("SELECT COALESCE(SUM(p.paymentAmount), 0) FROM Payment p WHERE p.paymentStatus = 'Completed' AND DATE(p.paymentDate) = :date")
-    java.math.BigDecimal getDailyRevenue(@Param("date") java.time.LocalDate date);
+    // Tarih aralığı kolonu sarmadan filtreler, IX_Payments_Date_Status kullanılabilir
+    @Query("SELECT COALESCE(SUM(p.paymentAmount), 0) FROM Payment p WHERE p.paymentStatus = 'Completed' AND p.paymentDate >= :start AND p.paymentDate < :end")
+    java.math.BigDecimal getRevenueBetween(@Param("start") java.time.LocalDateTime start, @Param("end") java.time.LocalDateTime end);
+
+    default java.math.BigDecimal getDailyRevenue(java.time.LocalDate date) {
+        return getRevenueBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay());
+    }
 }
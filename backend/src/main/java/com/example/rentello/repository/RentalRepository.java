@@ -1,7 +1,9 @@
 package com.example.rentello.repository;
 
 import com.example.rentello.entity.Rental;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.repository.query.Param;
@@ -11,9 +13,10 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface RentalRepository extends JpaRepository<Rental, Integer> {
+public interface RentalRepository extends JpaRepository<Rental, Integer>, JpaSpecificationExecutor<Rental> {
     
     @Query("SELECT r FROM Rental r WHERE r.customer.userId = :customerId")
     List<Rental> findByCustomerId(@Param("customerId") Integer customerId);
@@ -50,10 +53,30 @@ public interface RentalRepository extends JpaRepository<Rental, Integer> {
         @Param("returnDate") LocalDateTime returnDate
     );
     
+    // Takvim için sadece tarih aralıkları - aracı bloke eden durumlar, kimlikleri sabit olmadığından adıyla seçilir
+    @Query("SELECT r.plannedPickupDate, r.plannedReturnDate FROM Rental r WHERE " +
+           "r.vehicle.vehicleId = :vehicleId AND " +
+           "r.rentalStatus.statusName IN ('Rezerve Edildi', 'Aktif', 'Gecikmis') AND " +
+           "r.plannedPickupDate < :endDate AND " +
+           "r.plannedReturnDate >= :startDate")
+    List<Object[]> findBookedPeriods(
+        @Param("vehicleId") Integer vehicleId,
+        @Param("startDate") LocalDateTime startDate,
+        @Param("endDate") LocalDateTime endDate
+    );
+    
+    @Query("SELECT r.vehicle.vehicleId FROM Rental r WHERE r.rentalId = :rentalId")
+    Optional<Integer> findVehicleIdByRentalId(@Param("rentalId") Integer rentalId);
+
     @Query("SELECT r FROM Rental r WHERE " +
            "r.actualReturnDate IS NULL AND " +
            "r.plannedReturnDate < :currentDate")
     List<Rental> findOverdueRentals(@Param("currentDate") LocalDateTime currentDate);
+
+    @Query("SELECT COUNT(r) FROM Rental r WHERE " +
+           "r.actualReturnDate IS NULL AND " +
+           "r.plannedReturnDate < :currentDate")
+    Long countOverdueRentals(@Param("currentDate") LocalDateTime currentDate);
     
     @Query("SELECT r FROM Rental r WHERE " +
            "r.pickupLocation.locationId = :locationId OR " +
@@ -64,8 +87,12 @@ public interface RentalRepository extends JpaRepository<Rental, Integer> {
     @Query("SELECT COUNT(r) FROM Rental r WHERE r.rentalStatus.statusName = :status")
     Long countByStatus(@Param("status") String status);
     
-    @Query("SELECT COUNT(r) FROM Rental r WHERE DATE(r.plannedPickupDate) = :date")
-    Integer countByDate(@Param("date") java.time.LocalDate date);
+    @Query("SELECT COUNT(r) FROM Rental r WHERE r.plannedPickupDate >= :start AND r.plannedPickupDate < :end")
+    Long countByPickupBetween(@Param("start") java.time.LocalDateTime start, @Param("end") java.time.LocalDateTime end);
+
+    default Integer countByDate(java.time.LocalDate date) {
+        return countByPickupBetween(date.atStartOfDay(), date.plusDays(1).atStartOfDay()).intValue();
+    }
     
     @Query("SELECT COUNT(r) FROM Rental r WHERE r.customer = :customer")
     Long countByCustomer(@Param("customer") com.example.rentello.entity.User customer);
@@ -82,6 +109,25 @@ public interface RentalRepository extends JpaRepository<Rental, Integer> {
     @Query("SELECT COALESCE(SUM(r.totalAmount), 0) FROM Rental r WHERE r.vehicle.vehicleId = :vehicleId")
     java.math.BigDecimal getTotalRevenueByVehicle(@Param("vehicleId") Integer vehicleId);
 
+    /**
+     * Sayfa bazında müşteri istatistikleri: [customerId, toplam kiralama, verilen durumdaki kiralama]
+     */
+    @Query("SELECT r.customer.userId, COUNT(r), SUM(CASE WHEN s.statusName = :status THEN 1 ELSE 0 END) " +
+           "FROM Rental r LEFT JOIN r.rentalStatus s " +
+           "WHERE r.customer.userId IN :customerIds GROUP BY r.customer.userId")
+    List<Object[]> countByCustomerIds(@Param("customerIds") java.util.Collection<Integer> customerIds,
+                                      @Param("status") String status);
+
+    /**
+     * Sayfa bazında araç istatistikleri: [vehicleId, toplam kiralama, verilen durumdaki kiralama, toplam gelir]
+     */
+    @Query("SELECT r.vehicle.vehicleId, COUNT(r), SUM(CASE WHEN s.statusName = :status THEN 1 ELSE 0 END), " +
+           "COALESCE(SUM(r.totalAmount), 0) " +
+           "FROM Rental r LEFT JOIN r.rentalStatus s " +
+           "WHERE r.vehicle.vehicleId IN :vehicleIds GROUP BY r.vehicle.vehicleId")
+    List<Object[]> statsByVehicleIds(@Param("vehicleIds") java.util.Collection<Integer> vehicleIds,
+                                     @Param("status") String status);
+
     // Admin search method
     @Query("SELECT r FROM Rental r WHERE " +
            "LOWER(CONCAT(r.customer.firstName, ' ', r.customer.lastName)) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -102,4 +148,11 @@ public interface RentalRepository extends JpaRepository<Rental, Integer> {
         @Param("startDate") LocalDateTime startDate, 
         @Param("endDate") LocalDateTime endDate
     );
+
+    // Yönetim listesi: müşteri, araç ve lokasyonlar sayfa sorgusunda birlikte gelir
+    @EntityGraph(attributePaths = {"customer", "customer.userRole", "vehicle", "vehicle.model", "vehicle.model.brand",
+                                   "vehicle.model.category", "vehicle.currentStatus", "vehicle.currentLocation",
+                                   "pickupLocation", "returnLocation", "rentalStatus"})
+    @Query(value = "SELECT r FROM Rental r", countQuery = "SELECT COUNT(r) FROM Rental r")
+    Page<Rental> findPageWithReferences(Pageable pageable);
 }
@@ -0,0 +1,73 @@
+package com.example.rentello.repository;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Closed revenue periods; rows are only ever inserted (UPDATE/DELETE are rejected by triggers)
+ */
+@Repository
+@RequiredArgsConstructor
+public class RevenuePeriodRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<ClosedPeriod> findAll() {
+        return jdbcTemplate.query(
+            "SELECT PeriodStart, PeriodEnd, PaymentCount, TotalAmount, ClosedDate FROM RevenuePeriods ORDER BY PeriodStart",
+            (rs, rowNum) -> {
+                Timestamp closed = rs.getTimestamp("ClosedDate");
+                return new ClosedPeriod(rs.getDate("PeriodStart").toLocalDate(), rs.getDate("PeriodEnd").toLocalDate(),
+                    rs.getLong("PaymentCount"), rs.getBigDecimal("TotalAmount"),
+                    closed != null ? closed.toLocalDateTime() : null);
+            });
+    }
+
+    public List<DetailRow> findDetails(LocalDate periodStart) {
+        return jdbcTemplate.query(
+            "SELECT RevenueDate, LocationID, CategoryID, PaymentCount, Amount FROM RevenuePeriodDetails WHERE PeriodStart = ?",
+            (rs, rowNum) -> new DetailRow(rs.getDate("RevenueDate").toLocalDate(), rs.getInt("LocationID"),
+                rs.getInt("CategoryID"), rs.getLong("PaymentCount"), rs.getBigDecimal("Amount")),
+            Date.valueOf(periodStart));
+    }
+
+    /**
+     * Header and details are written together or not at all
+     */
+    @Transactional
+    public void save(ClosedPeriod period, List<DetailRow> details) {
+        jdbcTemplate.update(
+            "INSERT INTO RevenuePeriods (PeriodStart, PeriodEnd, PaymentCount, TotalAmount) VALUES (?, ?, ?, ?)",
+            Date.valueOf(period.periodStart()), Date.valueOf(period.periodEnd()), period.paymentCount(), period.totalAmount());
+        jdbcTemplate.batchUpdate(
+            "INSERT INTO RevenuePeriodDetails (PeriodStart, RevenueDate, LocationID, CategoryID, PaymentCount, Amount) " +
+            "VALUES (?, ?, ?, ?, ?, ?)",
+            details, 500, (ps, row) -> {
+                ps.setDate(1, Date.valueOf(period.periodStart()));
+                ps.setDate(2, Date.valueOf(row.day()));
+                ps.setInt(3, row.locationId());
+                ps.setInt(4, row.categoryId());
+                ps.setLong(5, row.paymentCount());
+                ps.setBigDecimal(6, row.amount());
+            });
+    }
+
+    /**
+     * periodEnd is exclusive
+     */
+    public record ClosedPeriod(LocalDate periodStart, LocalDate periodEnd, long paymentCount,
+                               BigDecimal totalAmount, LocalDateTime closedDate) {
+    }
+
+    public record DetailRow(LocalDate day, int locationId, int categoryId, long paymentCount, BigDecimal amount) {
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.rentello.repository;
+
+import com.example.rentello.entity.SavedSearch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface SavedSearchRepository extends JpaRepository<SavedSearch, Integer> {
+
+    List<SavedSearch> findByCustomerIdAndIsActiveTrueOrderByCreatedDateDesc(Integer customerId);
+
+    @Query("SELECT s FROM SavedSearch s WHERE s.isActive = true AND s.returnDate > :now")
+    List<SavedSearch> findActive(@Param("now") LocalDateTime now);
+}
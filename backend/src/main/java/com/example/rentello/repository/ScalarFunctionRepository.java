@@ -0,0 +1,41 @@
+package com.example.rentello.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Scalar database functions that can be evaluated either in SQL Server or in-process
+ */
+public interface ScalarFunctionRepository {
+
+    /**
+     * Yaş hesaplama fonksiyonu
+     */
+    Integer calculateAge(LocalDate dateOfBirth);
+
+    /**
+     * Kiralama süresi hesaplama
+     */
+    Integer calculateRentalDuration(LocalDateTime startDate, LocalDateTime endDate);
+
+    /**
+     * Geç ücret hesaplama
+     */
+    BigDecimal calculateLateFee(LocalDateTime plannedReturnDate, LocalDateTime actualReturnDate, BigDecimal dailyRate);
+
+    /**
+     * Müşteri sadakat seviyesi
+     */
+    String getCustomerLoyaltyTier(Integer customerId);
+
+    /**
+     * İndirim yüzdesi hesaplama
+     */
+    BigDecimal calculateDiscountPercentage(Integer customerId, Integer rentalDays);
+
+    /**
+     * Para formatı
+     */
+    String formatCurrency(BigDecimal amount);
+}
@@ -1,6 +1,11 @@
 package com.example.rentello.repository;
 
+import com.example.rentello.event.PaymentChangedEvent;
+import com.example.rentello.event.RentalChangedEvent;
+import com.example.rentello.event.UserChangedEvent;
+import com.example.rentello.event.VehicleChangedEvent;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.SqlOutParameter;
 import org.springframework.jdbc.core.SqlParameter;
@@ -11,6 +16,7 @@ import java.math.BigDecimal;
 import java.sql.Types;
 import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Repository
@@ -18,6 +24,7 @@ import java.util.Map;
 public class StoredProcedureRepository {
 
     private final JdbcTemplate jdbcTemplate;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Kullanıcı kimlik doğrulama
@@ -72,7 +79,10 @@ public class StoredProcedureRepository {
         inParams.put("PlannedReturnDate", plannedReturnDate);
         inParams.put("CreatedBy", createdBy);
 
-        return jdbcCall.execute(inParams);
+        Map<String, Object> result = jdbcCall.execute(inParams);
+        publishVehicleChanged(vehicleId);
+        publishRentalChanged(result.get("RentalID"), RentalChangedEvent.ChangeType.CREATED);
+        return result;
     }
 
     /**
@@ -100,7 +110,12 @@ public class StoredProcedureRepository {
         inParams.put("DamageNotes", damageNotes);
         inParams.put("ProcessedBy", processedBy);
 
-        return jdbcCall.execute(inParams);
+        Map<String, Object> result = jdbcCall.execute(inParams);
+        List<Integer> vehicleIds = jdbcTemplate.queryForList(
+                "SELECT VehicleID FROM Rentals WHERE RentalID = ?", Integer.class, rentalId);
+        vehicleIds.forEach(this::publishVehicleChanged);
+        publishRentalChanged(rentalId, RentalChangedEvent.ChangeType.UPDATED);
+        return result;
     }
 
     /**
@@ -139,7 +154,11 @@ public class StoredProcedureRepository {
         inParams.put("CityID", cityId);
         inParams.put("Address", address);
 
-        return jdbcCall.execute(inParams);
+        Map<String, Object> result = jdbcCall.execute(inParams);
+        if (result.get("UserID") instanceof Integer userId) {
+            eventPublisher.publishEvent(new UserChangedEvent(userId, UserChangedEvent.ChangeType.CREATED));
+        }
+        return result;
     }
 
     /**
@@ -168,7 +187,11 @@ public class StoredProcedureRepository {
         inParams.put("TransactionReference", transactionReference);
         inParams.put("ProcessedBy", processedBy);
 
-        return jdbcCall.execute(inParams);
+        Map<String, Object> result = jdbcCall.execute(inParams);
+        if (result.get("PaymentID") instanceof Integer paymentId) {
+            eventPublisher.publishEvent(new PaymentChangedEvent(paymentId, PaymentChangedEvent.ChangeType.CREATED));
+        }
+        return result;
     }
 
     /**
@@ -193,6 +216,23 @@ public class StoredProcedureRepository {
         inParams.put("Notes", notes);
         inParams.put("UpdatedBy", updatedBy);
 
-        return jdbcCall.execute(inParams);
+        Map<String, Object> result = jdbcCall.execute(inParams);
+        publishVehicleChanged(vehicleId);
+        return result;
+    }
+
+    /**
+     * Prosedürler araç durumunu/lokasyonunu JPA dışında değiştirir, bellek içi indeksleri bilgilendir
+     */
+    private void publishVehicleChanged(Integer vehicleId) {
+        if (vehicleId != null) {
+            eventPublisher.publishEvent(new VehicleChangedEvent(vehicleId, VehicleChangedEvent.ChangeType.UPDATED));
+        }
+    }
+
+    private void publishRentalChanged(Object rentalId, RentalChangedEvent.ChangeType changeType) {
+        if (rentalId instanceof Integer id) {
+            eventPublisher.publishEvent(new RentalChangedEvent(id, changeType));
+        }
     }
-} 
\ No newline at end of file
+}
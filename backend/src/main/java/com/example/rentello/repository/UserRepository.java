@@ -1,7 +1,9 @@
 package com.example.rentello.repository;
 
 import com.example.rentello.entity.User;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -10,7 +12,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends JpaRepository<User, Integer> {
+public interface UserRepository extends JpaRepository<User, Integer>, JpaSpecificationExecutor<User> {
     
     Optional<User> findByUsername(String username);
     
@@ -21,6 +23,12 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     
     @Query("SELECT u FROM User u WHERE u.isActive = true")
     List<User> findActiveUsers();
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.userRole.roleName = :roleName")
+    Long countByRoleName(@Param("roleName") String roleName);
+
+    @Query("SELECT COUNT(u) FROM User u WHERE u.isActive = true")
+    Long countActiveUsers();
     
     @Query("SELECT u FROM User u WHERE u.city.cityId = :cityId")
     List<User> findByCityId(@Param("cityId") Integer cityId);
@@ -44,4 +52,9 @@ public interface UserRepository extends JpaRepository<User, Integer> {
     
     org.springframework.data.domain.Page<User> findByUsernameContainingOrEmailContainingOrFirstNameContainingOrLastNameContaining(
         String username, String email, String firstName, String lastName, org.springframework.data.domain.Pageable pageable);
+
+    // Yönetim listesi: rol ve şehir sayfa sorgusunda birlikte gelir
+    @EntityGraph(attributePaths = {"userRole", "city"})
+    @Query(value = "SELECT u FROM User u", countQuery = "SELECT COUNT(u) FROM User u")
+    org.springframework.data.domain.Page<User> findPageWithReferences(org.springframework.data.domain.Pageable pageable);
 }
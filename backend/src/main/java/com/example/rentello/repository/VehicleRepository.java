@@ -1,7 +1,9 @@
 package com.example.rentello.repository;
 
 import com.example.rentello.entity.Vehicle;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -11,12 +13,19 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface VehicleRepository extends JpaRepository<Vehicle, Integer> {
+public interface VehicleRepository extends JpaRepository<Vehicle, Integer>, JpaSpecificationExecutor<Vehicle> {
     
     Optional<Vehicle> findByVehicleRegistration(String vehicleRegistration);
     
     @Query("SELECT v FROM Vehicle v WHERE v.currentStatus.isAvailableForRent = true")
     List<Vehicle> findAvailableVehicles();
+
+    @Query("SELECT COUNT(v) FROM Vehicle v WHERE v.currentStatus.isAvailableForRent = true")
+    Long countAvailableVehicles();
+
+    // [statusName, count]
+    @Query("SELECT v.currentStatus.statusName, COUNT(v) FROM Vehicle v GROUP BY v.currentStatus.statusName")
+    List<Object[]> countGroupedByStatus();
     
     @Query("SELECT v FROM Vehicle v WHERE v.model.category.categoryId = :categoryId")
     List<Vehicle> findByCategoryId(@Param("categoryId") Integer categoryId);
@@ -57,4 +66,9 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Integer> {
     @Query("SELECT v FROM Vehicle v WHERE v.vehicleRegistration LIKE %:searchTerm% OR v.vehicleDescription LIKE %:searchTerm%")
     org.springframework.data.domain.Page<Vehicle> findByVehicleRegistrationContainingOrVehicleDescriptionContaining(
         @Param("searchTerm") String searchTerm, org.springframework.data.domain.Pageable pageable);
+
+    // Yönetim listesi: model, marka, kategori, durum ve lokasyon sayfa sorgusunda birlikte gelir
+    @EntityGraph(attributePaths = {"model", "model.brand", "model.category", "currentStatus", "currentLocation"})
+    @Query(value = "SELECT v FROM Vehicle v", countQuery = "SELECT COUNT(v) FROM Vehicle v")
+    org.springframework.data.domain.Page<Vehicle> findPageWithReferences(org.springframework.data.domain.Pageable pageable);
 }
@@ -0,0 +1,191 @@
+package com.example.rentello.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One inverted index over users, vehicles and rentals.
+ * Documents are keyed by (type, id); every query token must match a field term exactly or as a prefix,
+ * and the score is the sum of the best field weight per token.
+ */
+public class AdminSearchIndex {
+
+    public enum Type {
+        USER,
+        VEHICLE,
+        RENTAL
+    }
+
+    private static final Type[] TYPES = Type.values();
+    private static final float EXACT = 1.0f;
+    private static final float PREFIX = 0.7f;
+
+    private static final Comparator<Hit> RANKING = Comparator
+        .comparingDouble(Hit::score).reversed()
+        .thenComparing(hit -> hit.document().type())
+        .thenComparing(hit -> hit.document().id());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final TreeMap<String, Map<Long, Float>> terms = new TreeMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            long key = key(document.type(), document.id());
+            Document previous = documents.put(key, document);
+            if (previous != null) {
+                unindex(key, previous);
+            }
+            for (Field field : document.fields()) {
+                for (String token : VehicleSearchIndex.tokenize(field.text())) {
+                    terms.computeIfAbsent(token, t -> new HashMap<>()).merge(key, field.weight(), Math::max);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Type type, Integer id) {
+        lock.writeLock().lock();
+        try {
+            long key = key(type, id);
+            Document previous = documents.remove(key);
+            if (previous != null) {
+                unindex(key, previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<Document> all) {
+        lock.writeLock().lock();
+        try {
+            terms.clear();
+            documents.clear();
+            all.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public Map<Type, Integer> sizes() {
+        lock.readLock().lock();
+        try {
+            Map<Type, Integer> sizes = new EnumMap<>(Type.class);
+            for (Type type : Type.values()) {
+                sizes.put(type, 0);
+            }
+            documents.values().forEach(document -> sizes.merge(document.type(), 1, Integer::sum));
+            return sizes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked hits across the requested types with a per-type match count
+     */
+    public Result search(String query, Set<Type> types, int limit) {
+        List<String> tokens = VehicleSearchIndex.tokenize(query);
+        Map<Type, Integer> counts = new EnumMap<>(Type.class);
+        types.forEach(type -> counts.put(type, 0));
+        if (tokens.isEmpty()) {
+            return new Result(List.of(), counts);
+        }
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = null;
+            for (String token : tokens) {
+                Map<Long, Float> tokenScores = new HashMap<>();
+                NavigableMap<String, Map<Long, Float>> matches = terms.subMap(token, true, token + Character.MAX_VALUE, false);
+                matches.forEach((term, postings) -> {
+                    float quality = term.equals(token) ? EXACT : PREFIX;
+                    postings.forEach((key, weight) -> {
+                        if (types.contains(typeOf(key))) {
+                            tokenScores.merge(key, weight * quality, Math::max);
+                        }
+                    });
+                });
+                // Tüm kelimeler eşleşmeli (AND)
+                if (scores == null) {
+                    scores = tokenScores;
+                } else {
+                    Map<Long, Float> previous = scores;
+                    scores = new HashMap<>();
+                    for (Map.Entry<Long, Float> entry : tokenScores.entrySet()) {
+                        Float score = previous.get(entry.getKey());
+                        if (score != null) {
+                            scores.put(entry.getKey(), score + entry.getValue());
+                        }
+                    }
+                }
+                if (scores.isEmpty()) break;
+            }
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(RANKING.reversed());
+            for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                Hit hit = new Hit(documents.get(entry.getKey()), entry.getValue());
+                counts.merge(hit.document().type(), 1, Integer::sum);
+                top.add(hit);
+                if (top.size() > limit) {
+                    top.poll();
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(RANKING);
+            return new Result(hits, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public static Set<Type> allTypes() {
+        return EnumSet.allOf(Type.class);
+    }
+
+    private void unindex(long key, Document document) {
+        for (Field field : document.fields()) {
+            for (String token : VehicleSearchIndex.tokenize(field.text())) {
+                Map<Long, Float> postings = terms.get(token);
+                if (postings != null) {
+                    postings.remove(key);
+                    if (postings.isEmpty()) terms.remove(token);
+                }
+            }
+        }
+    }
+
+    private static long key(Type type, int id) {
+        return ((long) type.ordinal() << 32) | (id & 0xffffffffL);
+    }
+
+    private static Type typeOf(long key) {
+        return TYPES[(int) (key >>> 32)];
+    }
+
+    public record Field(String text, float weight) {}
+
+    /**
+     * title and subtitle are what the admin sees; fields are what gets searched
+     */
+    public record Document(Type type, int id, String title, String subtitle, List<Field> fields) {}
+
+    public record Hit(Document document, float score) {}
+
+    public record Result(List<Hit> hits, Map<Type, Integer> counts) {}
+}
@@ -0,0 +1,299 @@
+package com.example.rentello.service;
+
+import com.example.rentello.event.RentalChangedEvent;
+import com.example.rentello.event.UserChangedEvent;
+import com.example.rentello.event.VehicleChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Universal admin search: users, vehicles and rentals in one in-memory index, one request, no LIKE scans.
+ * The index is loaded with three queries running in parallel on virtual threads and kept current from
+ * user, vehicle and rental change events. Events committed while a rebuild is loading are queued and
+ * applied again on top of the rebuilt index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class AdminSearchService {
+
+    public static final int MAX_RESULTS = 100;
+
+    private static final String USER_SQL =
+        "SELECT u.UserID, u.Username, u.Email, u.FirstName, u.LastName, u.PhoneNumber, ur.RoleName " +
+        "FROM Users u " +
+        "JOIN UserRoles ur ON ur.RoleID = u.RoleID";
+
+    private static final String VEHICLE_SQL =
+        "SELECT v.VehicleID, v.VehicleRegistration, b.BrandName, m.ModelName, v.Color, s.StatusName, l.LocationName " +
+        "FROM Vehicles v " +
+        "JOIN VehicleModels m ON m.ModelID = v.ModelID " +
+        "JOIN VehicleBrands b ON b.BrandID = m.BrandID " +
+        "JOIN VehicleStatus s ON s.StatusID = v.CurrentStatusID " +
+        "JOIN Locations l ON l.LocationID = v.CurrentLocationID";
+
+    private static final String RENTAL_SQL =
+        "SELECT r.RentalID, u.Username, u.FirstName, u.LastName, v.VehicleRegistration, rs.StatusName, " +
+        "       r.PlannedPickupDate, r.TotalAmount " +
+        "FROM Rentals r " +
+        "JOIN Users u ON u.UserID = r.CustomerID " +
+        "JOIN Vehicles v ON v.VehicleID = r.VehicleID " +
+        "JOIN RentalStatus rs ON rs.RentalStatusID = r.RentalStatusID";
+
+    private static final RowMapper<AdminSearchIndex.Document> USER_MAPPER = (rs, rowNum) -> {
+        String fullName = rs.getString("FirstName") + " " + rs.getString("LastName");
+        return new AdminSearchIndex.Document(AdminSearchIndex.Type.USER, rs.getInt("UserID"), fullName,
+            join(rs.getString("Username"), rs.getString("Email"), rs.getString("RoleName")),
+            List.of(
+                new AdminSearchIndex.Field(rs.getString("Username"), 5f),
+                new AdminSearchIndex.Field(rs.getString("Email"), 4f),
+                new AdminSearchIndex.Field(fullName, 4f),
+                new AdminSearchIndex.Field(rs.getString("PhoneNumber"), 3f),
+                new AdminSearchIndex.Field(rs.getString("RoleName"), 1f)));
+    };
+
+    private static final RowMapper<AdminSearchIndex.Document> VEHICLE_MAPPER = (rs, rowNum) -> {
+        String registration = rs.getString("VehicleRegistration");
+        return new AdminSearchIndex.Document(AdminSearchIndex.Type.VEHICLE, rs.getInt("VehicleID"), registration,
+            join(rs.getString("BrandName") + " " + rs.getString("ModelName"),
+                rs.getString("StatusName"), rs.getString("LocationName")),
+            List.of(
+                new AdminSearchIndex.Field(registration, 5f),
+                new AdminSearchIndex.Field(compact(registration), 5f),
+                new AdminSearchIndex.Field(rs.getString("BrandName"), 3f),
+                new AdminSearchIndex.Field(rs.getString("ModelName"), 3f),
+                new AdminSearchIndex.Field(rs.getString("Color"), 1f),
+                new AdminSearchIndex.Field(rs.getString("StatusName"), 1f),
+                new AdminSearchIndex.Field(rs.getString("LocationName"), 1f)));
+    };
+
+    private static final RowMapper<AdminSearchIndex.Document> RENTAL_MAPPER = (rs, rowNum) -> {
+        int rentalId = rs.getInt("RentalID");
+        String customer = rs.getString("FirstName") + " " + rs.getString("LastName");
+        String registration = rs.getString("VehicleRegistration");
+        Timestamp pickup = rs.getTimestamp("PlannedPickupDate");
+        return new AdminSearchIndex.Document(AdminSearchIndex.Type.RENTAL, rentalId, "Rental #" + rentalId,
+            join(customer, registration, rs.getString("StatusName"),
+                pickup != null ? pickup.toLocalDateTime().toLocalDate().toString() : null),
+            List.of(
+                new AdminSearchIndex.Field(String.valueOf(rentalId), 5f),
+                new AdminSearchIndex.Field(registration, 4f),
+                new AdminSearchIndex.Field(compact(registration), 4f),
+                new AdminSearchIndex.Field(customer, 3f),
+                new AdminSearchIndex.Field(rs.getString("Username"), 2f),
+                new AdminSearchIndex.Field(rs.getString("StatusName"), 1f)));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final AdminSearchIndex index = new AdminSearchIndex();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    // Yeniden yükleme sürerken gelen değişiklikler yeni içeriğe sonradan uygulanır
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Admin search index could not be built on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load the three entity types in parallel and replace the index
+     */
+    public synchronized Map<AdminSearchIndex.Type, Integer> rebuild() {
+        long start = System.currentTimeMillis();
+        pending.clear();
+        rebuilding = true;
+        try {
+            index.replaceAll(load());
+            ready = true;
+        } finally {
+            rebuilding = false;
+        }
+        Runnable update;
+        while ((update = pending.poll()) != null) {
+            update.run();
+        }
+        Map<AdminSearchIndex.Type, Integer> sizes = index.sizes();
+        log.info("Admin search index built: {} in {} ms", sizes, System.currentTimeMillis() - start);
+        return sizes;
+    }
+
+    private List<AdminSearchIndex.Document> load() {
+        List<AdminSearchIndex.Document> documents = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<List<AdminSearchIndex.Document>> users = executor.submit(() -> jdbcTemplate.query(USER_SQL, USER_MAPPER));
+            Future<List<AdminSearchIndex.Document>> vehicles = executor.submit(() -> jdbcTemplate.query(VEHICLE_SQL, VEHICLE_MAPPER));
+            Future<List<AdminSearchIndex.Document>> rentals = executor.submit(() -> jdbcTemplate.query(RENTAL_SQL, RENTAL_MAPPER));
+            documents.addAll(users.get());
+            documents.addAll(vehicles.get());
+            documents.addAll(rentals.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Admin search index build interrupted");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Admin search index could not be loaded: " + e.getCause().getMessage());
+        }
+        return documents;
+    }
+
+    /**
+     * Type-tagged, ranked results across users, vehicles and rentals
+     */
+    public Map<String, Object> search(String query, Set<AdminSearchIndex.Type> types, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Search query is required");
+        }
+        ensureReady();
+        long start = System.nanoTime();
+        AdminSearchIndex.Result result = index.search(query, types.isEmpty() ? AdminSearchIndex.allTypes() : types,
+            Math.max(1, Math.min(limit, MAX_RESULTS)));
+
+        List<Map<String, Object>> hits = new ArrayList<>(result.hits().size());
+        for (AdminSearchIndex.Hit hit : result.hits()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("type", hit.document().type());
+            item.put("id", hit.document().id());
+            item.put("title", hit.document().title());
+            item.put("subtitle", hit.document().subtitle());
+            item.put("score", hit.score());
+            hits.add(item);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("query", query);
+        response.put("results", hits);
+        response.put("counts", result.counts());
+        response.put("tookMicros", (System.nanoTime() - start) / 1000.0);
+        return response;
+    }
+
+    public Map<AdminSearchIndex.Type, Integer> getStats() {
+        return index.sizes();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() != null) {
+            submit(() -> applyUser(event));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.vehicleId() != null) {
+            submit(() -> applyVehicle(event));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.rentalId() != null) {
+            submit(() -> applyRental(event));
+        }
+    }
+
+    private void submit(Runnable update) {
+        // Olaylar tekrar uygulanabilir: güncel satır yeniden okunur, silme idempotent
+        if (rebuilding) {
+            pending.add(update);
+        }
+        if (ready) {
+            update.run();
+        }
+    }
+
+    private void applyUser(UserChangedEvent event) {
+        try {
+            if (event.changeType() == UserChangedEvent.ChangeType.DELETED) {
+                index.remove(AdminSearchIndex.Type.USER, event.userId());
+                return;
+            }
+            refresh(AdminSearchIndex.Type.USER, event.userId(), USER_SQL + " WHERE u.UserID = ?", USER_MAPPER);
+            // Kiralama dokümanları müşteri adını da taşıdığından onlar da güncellenir
+            jdbcTemplate.query(RENTAL_SQL + " WHERE r.CustomerID = ?", RENTAL_MAPPER, event.userId())
+                .forEach(index::put);
+        } catch (Exception e) {
+            log.warn("Admin search index update failed for user {}: {}", event.userId(), e.getMessage());
+        }
+    }
+
+    private void applyVehicle(VehicleChangedEvent event) {
+        try {
+            if (event.changeType() == VehicleChangedEvent.ChangeType.DELETED) {
+                index.remove(AdminSearchIndex.Type.VEHICLE, event.vehicleId());
+                return;
+            }
+            refresh(AdminSearchIndex.Type.VEHICLE, event.vehicleId(), VEHICLE_SQL + " WHERE v.VehicleID = ?", VEHICLE_MAPPER);
+            // Kiralama dokümanları plakayı da taşıdığından onlar da güncellenir
+            jdbcTemplate.query(RENTAL_SQL + " WHERE r.VehicleID = ?", RENTAL_MAPPER, event.vehicleId())
+                .forEach(index::put);
+        } catch (Exception e) {
+            log.warn("Admin search index update failed for vehicle {}: {}", event.vehicleId(), e.getMessage());
+        }
+    }
+
+    private void applyRental(RentalChangedEvent event) {
+        try {
+            if (event.changeType() == RentalChangedEvent.ChangeType.DELETED) {
+                index.remove(AdminSearchIndex.Type.RENTAL, event.rentalId());
+                return;
+            }
+            refresh(AdminSearchIndex.Type.RENTAL, event.rentalId(), RENTAL_SQL + " WHERE r.RentalID = ?", RENTAL_MAPPER);
+        } catch (Exception e) {
+            log.warn("Admin search index update failed for rental {}: {}", event.rentalId(), e.getMessage());
+        }
+    }
+
+    private synchronized void ensureReady() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    private void refresh(AdminSearchIndex.Type type, Integer id, String sql, RowMapper<AdminSearchIndex.Document> mapper) {
+        List<AdminSearchIndex.Document> documents = jdbcTemplate.query(sql, mapper, id);
+        if (documents.isEmpty()) {
+            index.remove(type, id);
+        } else {
+            index.put(documents.get(0));
+        }
+    }
+
+    private static String compact(String registration) {
+        return registration != null ? registration.replaceAll("[^\\p{L}\\p{N}]", "") : null;
+    }
+
+    private static String join(String... parts) {
+        StringBuilder joined = new StringBuilder();
+        for (String part : parts) {
+            if (part == null || part.isBlank()) continue;
+            if (!joined.isEmpty()) joined.append(" · ");
+            joined.append(part);
+        }
+        return joined.toString();
+    }
+}
@@ -4,12 +4,15 @@ import com.example.rentello.dto.AdminUserManagementDto;
 import com.example.rentello.dto.AdminVehicleManagementDto;
 import com.example.rentello.dto.DashboardStatsDto;
 import com.example.rentello.dto.AdminRentalDto;
+import com.example.rentello.dto.CursorPageDto;
 import com.example.rentello.entity.*;
 import com.example.rentello.repository.*;
 import com.example.rentello.repository.ViewUserInfoRepository;
 import com.example.rentello.repository.ViewAvailableVehiclesRepository;
+import com.example.rentello.service.DashboardQueryExecutor.Task;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -23,6 +26,9 @@ import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
@@ -57,6 +63,20 @@ public class AdminService {
 
     @Autowired
     private VehicleBrandRepository vehicleBrandRepository;
+
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
+    @Autowired
+    private DashboardQueryExecutor dashboardQueryExecutor;
+
+    @Autowired
+    private RevenueCounterService revenueCounterService;
+
+    // Keyset sıralaması sadece NOT NULL kolonlarla yapılabilir; CreatedDate nullable, oluşturma sırası için id kullanılır
+    private static final Set<String> USER_CURSOR_SORTS = Set.of("userId", "username", "email", "firstName", "lastName");
+    private static final Set<String> VEHICLE_CURSOR_SORTS = Set.of("vehicleId", "vehicleRegistration", "dailyRentalRate");
+    private static final Set<String> RENTAL_CURSOR_SORTS = Set.of("rentalId", "plannedPickupDate", "plannedReturnDate", "totalAmount");
     
     @Autowired
     private VehicleCategoryRepository vehicleCategoryRepository;
@@ -70,121 +90,66 @@ public class AdminService {
             DashboardStatsDto stats = new DashboardStatsDto();
             System.out.println("🔍 ADMIN: Starting dashboard stats calculation...");
 
-            // Genel İstatistikler - Her birini ayrı try-catch ile
-            try {
-                stats.setTotalUsers(userRepository.count());
-                System.out.println("🔍 ADMIN: Total users calculated");
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error getting total users: " + e.getMessage());
-                stats.setTotalUsers(0L);
-            }
-            
-            try {
-                stats.setTotalVehicles(vehicleRepository.count());
-                System.out.println("🔍 ADMIN: Total vehicles calculated");
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error getting total vehicles: " + e.getMessage());
-                stats.setTotalVehicles(0L);
-            }
-            
-            try {
-                stats.setTotalRentals(rentalRepository.count());
-                System.out.println("🔍 ADMIN: Total rentals calculated");
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error getting total rentals: " + e.getMessage());
-                stats.setTotalRentals(0L);
-            }
-            
-            // Aktif kiralama sayısını hesapla
-            try {
-                Long activeRentals = rentalRepository.countByStatus("Aktif");
-                stats.setActiveRentals(activeRentals);
-                System.out.println("🔍 ADMIN: Active rentals count: " + activeRentals);
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error getting active rentals: " + e.getMessage());
-                stats.setActiveRentals(0L);
-            }
+            // Bağımsız sorgular paralel çalışır; hata veren / zaman aşımına uğrayan metrik varsayılan değerle döner
+            try (DashboardQueryExecutor.Scope scope = dashboardQueryExecutor.open("Admin dashboard")) {
+                // Genel İstatistikler
+                Task<Long> totalUsers = scope.fork("totalUsers", userRepository::count, 0L);
+                Task<Long> totalVehicles = scope.fork("totalVehicles", vehicleRepository::count, 0L);
+                Task<Long> totalRentals = scope.fork("totalRentals", rentalRepository::count, 0L);
+                Task<Long> activeRentals = scope.fork("activeRentals", () -> rentalRepository.countByStatus("Aktif"), 0L);
+
+                // Gelir İstatistikleri
+                // Gelir sayaçları ödeme olaylarıyla güncellenir, burada tablo taranmaz
+                Task<BigDecimal> totalRevenue = scope.fork("totalRevenue", revenueCounterService::getTotalRevenue, BigDecimal.ZERO);
+                Task<BigDecimal> dailyRevenue = scope.fork("dailyRevenue",
+                    () -> revenueCounterService.getDailyRevenue(LocalDate.now()), BigDecimal.ZERO);
+                // Aylık gelir = Bu ay tamamlanan ödemeler
+                Task<BigDecimal> monthlyRevenue = scope.fork("monthlyRevenue",
+                    () -> revenueCounterService.getRevenueSince(LocalDate.now().withDayOfMonth(1)), BigDecimal.ZERO);
+
+                // Araç İstatistikleri - Basit yaklaşım
+                Task<Long> availableVehicles = scope.fork("availableVehicles", () -> {
+                    Long availableCount = vehicleRepository.countByStatus("Musait");
+                    if (availableCount == null || availableCount == 0) {
+                        availableCount = vehicleRepository.countByStatus("Müsait");
+                    }
+                    return availableCount;
+                }, 0L);
 
-            // Gelir İstatistikleri
-            System.out.println("🔍 ADMIN: Starting revenue calculations...");
-            
-            BigDecimal totalRevenue = BigDecimal.ZERO;
-            BigDecimal dailyRevenue = BigDecimal.ZERO;
-            BigDecimal monthlyRevenue = BigDecimal.ZERO;
-            
-            try {
-                totalRevenue = paymentRepository.getTotalRevenue();
-                System.out.println("🔍 ADMIN: Total revenue calculated: " + totalRevenue);
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error getting total revenue: " + e.getMessage());
-            }
-            
-            try {
-                dailyRevenue = paymentRepository.getDailyRevenue(LocalDate.now());
-                System.out.println("🔍 ADMIN: Daily revenue calculated: " + dailyRevenue);
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error getting daily revenue: " + e.getMessage());
-            }
-            
-            try {
-                // Aylık gelir = Bu ay tamamlanan kiralamalardan elde edilen gelir
-                monthlyRevenue = getMonthlyRevenueFromCompletedRentals();
-                System.out.println("🔍 ADMIN: Monthly revenue calculated: " + monthlyRevenue);
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error getting monthly revenue: " + e.getMessage());
-                e.printStackTrace();
-            }
-            
-            stats.setTotalRevenue(totalRevenue != null ? totalRevenue : BigDecimal.ZERO);
-            stats.setMonthlyRevenue(monthlyRevenue != null ? monthlyRevenue : BigDecimal.ZERO);
-            stats.setDailyRevenue(dailyRevenue != null ? dailyRevenue : BigDecimal.ZERO);
-            
-            System.out.println("🔍 ADMIN: Revenue stats calculated successfully");
+                // Basit istatistikler
+                Task<Long> activeCustomers = scope.fork("activeCustomers", userRepository::count, 0L);
+                Task<Long> totalLocations = scope.fork("totalLocations", locationRepository::count, 0L);
+                Task<Long> activeLocations = scope.fork("activeLocations", locationRepository::count, 0L);
 
-            // Araç İstatistikleri - Basit yaklaşım
-            try {
-                Long availableCount = vehicleRepository.countByStatus("Musait");
-                if (availableCount == null || availableCount == 0) {
-                    availableCount = vehicleRepository.countByStatus("Müsait");
-                }
-                
-                stats.setAvailableVehicles(availableCount != null ? availableCount : 0L);
+                List<String> unavailable = scope.join();
+
+                stats.setTotalUsers(totalUsers.get());
+                stats.setTotalVehicles(totalVehicles.get());
+                stats.setTotalRentals(totalRentals.get());
+                stats.setActiveRentals(activeRentals.get());
+
+                stats.setTotalRevenue(totalRevenue.get());
+                stats.setMonthlyRevenue(monthlyRevenue.get());
+                stats.setDailyRevenue(dailyRevenue.get());
+
+                stats.setAvailableVehicles(availableVehicles.get());
                 stats.setRentedVehicles(0L); // Şimdilik 0
                 stats.setMaintenanceVehicles(0L); // Şimdilik 0
                 stats.setOutOfServiceVehicles(0L); // Şimdilik 0
-                
-                System.out.println("🔍 ADMIN: Vehicle stats calculated successfully");
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error calculating vehicle stats: " + e.getMessage());
-                stats.setAvailableVehicles(0L);
-                stats.setRentedVehicles(0L);
-                stats.setMaintenanceVehicles(0L);
-                stats.setOutOfServiceVehicles(0L);
-            }
 
-            // Basit istatistikler
-            try {
-                stats.setDailyRentals(new HashMap<>());
-                stats.setDailyRevenues(new HashMap<>());
-                stats.setPopularCategories(new HashMap<>());
-                stats.setNewCustomersThisMonth(0L);
-                stats.setActiveCustomers(userRepository.count());
-                stats.setTotalLocations(locationRepository.count());
-                stats.setActiveLocations(locationRepository.count());
-                System.out.println("🔍 ADMIN: Basic stats calculated successfully");
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error calculating basic stats: " + e.getMessage());
                 stats.setDailyRentals(new HashMap<>());
                 stats.setDailyRevenues(new HashMap<>());
                 stats.setPopularCategories(new HashMap<>());
                 stats.setNewCustomersThisMonth(0L);
-                stats.setActiveCustomers(0L);
-                stats.setTotalLocations(0L);
-                stats.setActiveLocations(0L);
+                stats.setActiveCustomers(activeCustomers.get());
+                stats.setTotalLocations(totalLocations.get());
+                stats.setActiveLocations(activeLocations.get());
+
+                stats.setPartial(!unavailable.isEmpty());
+                stats.setUnavailableMetrics(unavailable);
             }
 
             System.out.println("✅ ADMIN: Dashboard stats calculated successfully!");
-            System.out.println("🔍 ADMIN: Returning stats object...");
             return stats;
             
         } catch (Exception e) {
@@ -216,6 +181,8 @@ public class AdminService {
         fallbackStats.setActiveCustomers(0L);
         fallbackStats.setTotalLocations(0L);
         fallbackStats.setActiveLocations(0L);
+        fallbackStats.setPartial(true);
+        fallbackStats.setUnavailableMetrics(List.of());
         
         return fallbackStats;
     }
@@ -226,9 +193,15 @@ public class AdminService {
         
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<User> users = userRepository.findAll(pageable);
+        Page<User> users = userRepository.findPageWithReferences(pageable);
         
-        return users.map(this::convertToAdminUserDto);
+        return toPage(users, this::convertToAdminUserDtos);
+    }
+
+    public CursorPageDto<AdminUserManagementDto> getUsersByCursor(String cursor, int size, String sortBy,
+                                                                  String sortDirection, boolean includeTotal) {
+        return keysetPaginationService.scrollPage(userRepository, "admin.users", USER_CURSOR_SORTS, "userId",
+            cursor, size, sortBy, sortDirection, includeTotal, this::convertToAdminUserDtos);
     }
 
     public Page<AdminUserManagementDto> searchUsers(String searchTerm, int page, int size) {
@@ -236,7 +209,7 @@ public class AdminService {
         Page<User> users = userRepository.findByUsernameContainingOrEmailContainingOrFirstNameContainingOrLastNameContaining(
             searchTerm, searchTerm, searchTerm, searchTerm, pageable);
         
-        return users.map(this::convertToAdminUserDto);
+        return toPage(users, this::convertToAdminUserDtos);
     }
 
     public Page<AdminVehicleManagementDto> getAllVehicles(int page, int size, String sortBy, String sortDirection) {
@@ -245,9 +218,15 @@ public class AdminService {
         
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<Vehicle> vehicles = vehicleRepository.findAll(pageable);
+        Page<Vehicle> vehicles = vehicleRepository.findPageWithReferences(pageable);
         
-        return vehicles.map(this::convertToAdminVehicleDto);
+        return toPage(vehicles, this::convertToAdminVehicleDtos);
+    }
+
+    public CursorPageDto<AdminVehicleManagementDto> getVehiclesByCursor(String cursor, int size, String sortBy,
+                                                                        String sortDirection, boolean includeTotal) {
+        return keysetPaginationService.scrollPage(vehicleRepository, "admin.vehicles", VEHICLE_CURSOR_SORTS, "vehicleId",
+            cursor, size, sortBy, sortDirection, includeTotal, this::convertToAdminVehicleDtos);
     }
 
     public Page<AdminVehicleManagementDto> searchVehicles(String searchTerm, int page, int size) {
@@ -255,7 +234,7 @@ public class AdminService {
         Page<Vehicle> vehicles = vehicleRepository.findByVehicleRegistrationContainingOrVehicleDescriptionContaining(
             searchTerm, pageable);
         
-        return vehicles.map(this::convertToAdminVehicleDto);
+        return toPage(vehicles, this::convertToAdminVehicleDtos);
     }
 
     @Transactional
@@ -414,6 +393,26 @@ public class AdminService {
     }
 
     private AdminUserManagementDto convertToAdminUserDto(User user) {
+        return convertToAdminUserDtos(List.of(user)).get(0);
+    }
+
+    /**
+     * Sayfadaki tüm kullanıcıların kiralama sayıları tek bir GROUP BY sorgusuyla yüklenir
+     */
+    private List<AdminUserManagementDto> convertToAdminUserDtos(List<User> users) {
+        List<Integer> ids = users.stream().map(User::getUserId).filter(Objects::nonNull).distinct().toList();
+        Map<Integer, CustomerRentalStats> stats = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] row : rentalRepository.countByCustomerIds(ids, "Aktif")) {
+                stats.put((Integer) row[0], new CustomerRentalStats(toLong(row[1]), toLong(row[2])));
+            }
+        }
+        return users.stream()
+            .map(user -> convertToAdminUserDto(user, stats.getOrDefault(user.getUserId(), CustomerRentalStats.NONE)))
+            .toList();
+    }
+
+    private AdminUserManagementDto convertToAdminUserDto(User user, CustomerRentalStats stats) {
         AdminUserManagementDto dto = new AdminUserManagementDto();
         dto.setUserId(user.getUserId());
         dto.setUsername(user.getUsername());
@@ -439,13 +438,34 @@ public class AdminService {
         }
 
         // İstatistikler
-        dto.setTotalRentals(rentalRepository.countByCustomer(user));
-        dto.setActiveRentals(rentalRepository.countByCustomerAndStatus(user, "Aktif"));
+        dto.setTotalRentals(stats.total());
+        dto.setActiveRentals(stats.active());
         
         return dto;
     }
 
     private AdminVehicleManagementDto convertToAdminVehicleDto(Vehicle vehicle) {
+        return convertToAdminVehicleDtos(List.of(vehicle)).get(0);
+    }
+
+    /**
+     * Sayfadaki tüm araçların kiralama sayıları ve gelirleri tek bir GROUP BY sorgusuyla yüklenir
+     */
+    private List<AdminVehicleManagementDto> convertToAdminVehicleDtos(List<Vehicle> vehicles) {
+        List<Integer> ids = vehicles.stream().map(Vehicle::getVehicleId).filter(Objects::nonNull).distinct().toList();
+        Map<Integer, VehicleRentalStats> stats = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] row : rentalRepository.statsByVehicleIds(ids, "Aktif")) {
+                stats.put((Integer) row[0], new VehicleRentalStats(toLong(row[1]), toLong(row[2]), toBigDecimal(row[3])));
+            }
+        }
+        return vehicles.stream()
+            .map(vehicle -> convertToAdminVehicleDto(vehicle,
+                stats.getOrDefault(vehicle.getVehicleId(), VehicleRentalStats.NONE)))
+            .toList();
+    }
+
+    private AdminVehicleManagementDto convertToAdminVehicleDto(Vehicle vehicle, VehicleRentalStats stats) {
         AdminVehicleManagementDto dto = new AdminVehicleManagementDto();
         dto.setVehicleId(vehicle.getVehicleId());
         dto.setLicensePlate(vehicle.getVehicleRegistration()); // Doğru field ismi
@@ -494,9 +514,9 @@ public class AdminService {
         }
 
         // İstatistikler
-        dto.setTotalRentals(rentalRepository.countByVehicle(vehicle));
-        dto.setActiveRentals(rentalRepository.countByVehicleAndStatus(vehicle, "Aktif"));
-        dto.setTotalRevenue(rentalRepository.getTotalRevenueByVehicle(vehicle.getVehicleId()));
+        dto.setTotalRentals(stats.total());
+        dto.setActiveRentals(stats.active());
+        dto.setTotalRevenue(stats.revenue());
         dto.setMaintenanceCount(0); // MaintenanceRecords field'ı yok, 0 olarak set ediyoruz
         
         return dto;
@@ -615,19 +635,41 @@ public class AdminService {
         
         Pageable pageable = PageRequest.of(page, size, sort);
         
-        Page<Rental> rentals = rentalRepository.findAll(pageable);
+        Page<Rental> rentals = rentalRepository.findPageWithReferences(pageable);
         
-        return rentals.map(this::convertToAdminRentalDto);
+        return toPage(rentals, this::convertToAdminRentalDtos);
+    }
+
+    public CursorPageDto<AdminRentalDto> getRentalsByCursor(String cursor, int size, String sortBy,
+                                                            String sortDirection, boolean includeTotal) {
+        return keysetPaginationService.scrollPage(rentalRepository, "admin.rentals", RENTAL_CURSOR_SORTS, "rentalId",
+            cursor, size, sortBy, sortDirection, includeTotal, this::convertToAdminRentalDtos);
     }
 
     public Page<AdminRentalDto> searchRentals(String searchTerm, int page, int size) {
         Pageable pageable = PageRequest.of(page, size);
         Page<Rental> rentals = rentalRepository.findByCustomerNameOrVehiclePlateContaining(searchTerm, pageable);
         
-        return rentals.map(this::convertToAdminRentalDto);
+        return toPage(rentals, this::convertToAdminRentalDtos);
     }
 
-    private AdminRentalDto convertToAdminRentalDto(Rental rental) {
+    /**
+     * Sayfadaki tüm kiralamaların ödeme toplamları tek bir GROUP BY sorgusuyla yüklenir
+     */
+    private List<AdminRentalDto> convertToAdminRentalDtos(List<Rental> rentals) {
+        List<Integer> ids = rentals.stream().map(Rental::getRentalId).filter(Objects::nonNull).distinct().toList();
+        Map<Integer, PaymentTotals> totals = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (Object[] row : paymentRepository.sumByRentalIds(ids)) {
+                totals.put((Integer) row[0], new PaymentTotals(toLong(row[1]), toBigDecimal(row[2])));
+            }
+        }
+        return rentals.stream()
+            .map(rental -> convertToAdminRentalDto(rental, totals.getOrDefault(rental.getRentalId(), PaymentTotals.NONE)))
+            .toList();
+    }
+
+    private AdminRentalDto convertToAdminRentalDto(Rental rental, PaymentTotals payments) {
         AdminRentalDto dto = new AdminRentalDto();
         dto.setRentalId(rental.getRentalId());
         dto.setStartDate(rental.getPlannedPickupDate().toLocalDate());
@@ -690,12 +732,9 @@ public class AdminService {
         BigDecimal totalPaid = BigDecimal.ZERO;
         String paymentStatus = "Ödenmedi";
         
-        // Get payments for this rental
-        List<Payment> payments = paymentRepository.findByRentalId(rental.getRentalId());
-        if (payments != null && !payments.isEmpty()) {
-            totalPaid = payments.stream()
-                .map(Payment::getPaymentAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        // Payments for this rental, loaded for the whole page
+        if (payments.count() > 0) {
+            totalPaid = payments.paid();
             
             // Determine payment status based on total paid vs total cost
             if (totalPaid.compareTo(rental.getTotalAmount()) >= 0) {
@@ -714,49 +753,30 @@ public class AdminService {
         return dto;
     }
 
-    /**
-     * Bu ay tamamlanan kiralamalardan elde edilen toplam geliri hesaplar
-     */
-    private BigDecimal getMonthlyRevenueFromCompletedRentals() {
-        try {
-            System.out.println("💰 ADMIN: Starting monthly revenue calculation...");
-            
-            // Bu ayın başlangıç tarihi
-            LocalDate startOfMonth = LocalDate.now().withDayOfMonth(1);
-            LocalDateTime startOfMonthDateTime = startOfMonth.atStartOfDay();
-            
-            System.out.println("💰 ADMIN: Searching for completed rentals from " + startOfMonthDateTime + " to " + LocalDateTime.now());
-            
-            // Bu ay tamamlanan kiralamaları bul (Tamamlandi veya Odendi status'u)
-            List<Rental> completedRentalsThisMonth = null;
-            try {
-                completedRentalsThisMonth = rentalRepository.findCompletedRentalsInMonth(
-                    startOfMonthDateTime, LocalDateTime.now());
-                System.out.println("💰 ADMIN: Repository call successful, found " + 
-                    (completedRentalsThisMonth != null ? completedRentalsThisMonth.size() : 0) + " rentals");
-            } catch (Exception e) {
-                System.err.println("❌ ADMIN: Error in repository call: " + e.getMessage());
-                e.printStackTrace();
-                return BigDecimal.ZERO;
-            }
-            
-            // Toplam geliri hesapla
-            BigDecimal totalRevenue = BigDecimal.ZERO;
-            if (completedRentalsThisMonth != null) {
-                for (Rental rental : completedRentalsThisMonth) {
-                    if (rental != null && rental.getTotalAmount() != null) {
-                        totalRevenue = totalRevenue.add(rental.getTotalAmount());
-                    }
-                }
-            }
-            
-            System.out.println("💰 ADMIN: Monthly revenue calculation completed successfully: " + totalRevenue);
-            return totalRevenue;
-            
-        } catch (Exception e) {
-            System.err.println("❌ ADMIN: Error calculating monthly revenue from completed rentals: " + e.getMessage());
-            e.printStackTrace();
-            return BigDecimal.ZERO;
+    private static <T, D> Page<D> toPage(Page<T> page, Function<List<T>, List<D>> mapper) {
+        return new PageImpl<>(mapper.apply(page.getContent()), page.getPageable(), page.getTotalElements());
+    }
+
+    private static long toLong(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
+    private static BigDecimal toBigDecimal(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal;
         }
+        return value instanceof Number number ? new BigDecimal(number.toString()) : BigDecimal.ZERO;
+    }
+
+    private record CustomerRentalStats(long total, long active) {
+        static final CustomerRentalStats NONE = new CustomerRentalStats(0, 0);
+    }
+
+    private record VehicleRentalStats(long total, long active, BigDecimal revenue) {
+        static final VehicleRentalStats NONE = new VehicleRentalStats(0, 0, BigDecimal.ZERO);
+    }
+
+    private record PaymentTotals(long count, BigDecimal paid) {
+        static final PaymentTotals NONE = new PaymentTotals(0, BigDecimal.ZERO);
     }
-} 
\ No newline at end of file
+}
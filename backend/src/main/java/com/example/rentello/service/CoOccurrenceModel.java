@@ -0,0 +1,226 @@
+package com.example.rentello.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Item-to-item co-occurrence model ("customers who rented this also rented").
+ * Items are vehicle models; the neighbour lists are kept as flat primitive arrays (CSR layout),
+ * scored by cosine similarity co(i, j) / sqrt(n(i) * n(j)) and truncated to the strongest neighbours.
+ */
+public class CoOccurrenceModel {
+
+    public static final int DEFAULT_NEIGHBOURS = 20;
+
+    private static final CoOccurrenceModel EMPTY = new CoOccurrenceModel(new int[0], new int[0], new int[1],
+        new int[0], new float[0], 0);
+
+    private final int[] items;
+    private final int[] itemCounts;
+    private final int[] offsets;
+    private final int[] neighbours;
+    private final float[] scores;
+    private final long pairs;
+
+    private CoOccurrenceModel(int[] items, int[] itemCounts, int[] offsets, int[] neighbours, float[] scores, long pairs) {
+        this.items = items;
+        this.itemCounts = itemCounts;
+        this.offsets = offsets;
+        this.neighbours = neighbours;
+        this.scores = scores;
+        this.pairs = pairs;
+    }
+
+    public static CoOccurrenceModel empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Compact the counts into sorted item ids and per-item top neighbour lists
+     */
+    public static CoOccurrenceModel from(Counts counts, int maxNeighbours) {
+        int[] items = counts.itemCounts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int n = items.length;
+        int[] itemCounts = new int[n];
+        for (int i = 0; i < n; i++) {
+            itemCounts[i] = counts.itemCounts.get(items[i]);
+        }
+
+        List<List<float[]>> candidates = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            candidates.add(new ArrayList<>());
+        }
+        counts.pairCounts.forEach((key, co) -> {
+            int a = Arrays.binarySearch(items, (int) (key >> 32));
+            int b = Arrays.binarySearch(items, (int) (long) key);
+            float score = (float) (co / Math.sqrt((double) itemCounts[a] * itemCounts[b]));
+            candidates.get(a).add(new float[] { b, score });
+            candidates.get(b).add(new float[] { a, score });
+        });
+
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + Math.min(candidates.get(i).size(), maxNeighbours);
+        }
+        int[] neighbours = new int[offsets[n]];
+        float[] scores = new float[offsets[n]];
+        for (int i = 0; i < n; i++) {
+            List<float[]> list = candidates.get(i);
+            list.sort((x, y) -> x[1] != y[1] ? Float.compare(y[1], x[1]) : Float.compare(x[0], y[0]));
+            for (int k = 0, p = offsets[i]; p < offsets[i + 1]; k++, p++) {
+                neighbours[p] = (int) list.get(k)[0];
+                scores[p] = list.get(k)[1];
+            }
+        }
+        return new CoOccurrenceModel(items, itemCounts, offsets, neighbours, scores, counts.pairCounts.size());
+    }
+
+    /**
+     * Items ranked by summed similarity to the history, history items excluded
+     */
+    public int[] recommend(int[] history, int limit) {
+        if (items.length == 0 || history.length == 0 || limit <= 0) {
+            return new int[0];
+        }
+        float[] accumulated = new float[items.length];
+        boolean[] seen = new boolean[items.length];
+        for (int itemId : history) {
+            int i = Arrays.binarySearch(items, itemId);
+            if (i < 0) continue;
+            seen[i] = true;
+            for (int p = offsets[i]; p < offsets[i + 1]; p++) {
+                accumulated[neighbours[p]] += scores[p];
+            }
+        }
+
+        // En yüksek skorlu ilk N; eşitlikte daha çok kiralanan önce
+        PriorityQueue<Integer> top = new PriorityQueue<>((x, y) -> accumulated[x] != accumulated[y]
+            ? Float.compare(accumulated[x], accumulated[y])
+            : itemCounts[x] != itemCounts[y] ? Integer.compare(itemCounts[x], itemCounts[y]) : Integer.compare(y, x));
+        for (int j = 0; j < items.length; j++) {
+            if (seen[j] || accumulated[j] <= 0f) continue;
+            top.add(j);
+            if (top.size() > limit) {
+                top.poll();
+            }
+        }
+        int[] ranked = new int[top.size()];
+        for (int k = ranked.length - 1; k >= 0; k--) {
+            ranked[k] = items[top.poll()];
+        }
+        return ranked;
+    }
+
+    public int itemCount() {
+        return items.length;
+    }
+
+    public long pairCount() {
+        return pairs;
+    }
+
+    public int neighbourCount() {
+        return neighbours.length;
+    }
+
+    /**
+     * Rough heap footprint of the primitive arrays
+     */
+    public long sizeInBytes() {
+        return 4L * (items.length + itemCounts.length + offsets.length + neighbours.length + scores.length);
+    }
+
+    /**
+     * Mutable co-occurrence counts over per-customer baskets (distinct items rented by a customer).
+     * Not thread-safe; parallel builds give each worker its own instance over disjoint customers and merge.
+     */
+    public static class Counts {
+
+        private final Map<Integer, Set<Integer>> baskets = new HashMap<>();
+        private final Map<Integer, Integer> itemCounts = new HashMap<>();
+        private final Map<Long, Integer> pairCounts = new HashMap<>();
+
+        /**
+         * Add an item to a customer's basket; false when the customer already had it
+         */
+        public boolean add(int customerId, int itemId) {
+            Set<Integer> basket = baskets.computeIfAbsent(customerId, c -> new HashSet<>());
+            if (!basket.add(itemId)) {
+                return false;
+            }
+            itemCounts.merge(itemId, 1, Integer::sum);
+            for (int other : basket) {
+                if (other != itemId) {
+                    pairCounts.merge(pairKey(itemId, other), 1, Integer::sum);
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Take an item out of a customer's basket; false when the customer did not have it
+         */
+        public boolean remove(int customerId, int itemId) {
+            Set<Integer> basket = baskets.get(customerId);
+            if (basket == null || !basket.remove(itemId)) {
+                return false;
+            }
+            itemCounts.computeIfPresent(itemId, (item, count) -> count > 1 ? count - 1 : null);
+            for (int other : basket) {
+                pairCounts.computeIfPresent(pairKey(itemId, other), (pair, count) -> count > 1 ? count - 1 : null);
+            }
+            if (basket.isEmpty()) {
+                baskets.remove(customerId);
+            }
+            return true;
+        }
+
+        public void addAll(int customerId, int[] itemIds) {
+            for (int itemId : itemIds) {
+                add(customerId, itemId);
+            }
+        }
+
+        /**
+         * Merge counts built over a disjoint set of customers
+         */
+        public void merge(Counts other) {
+            other.baskets.forEach((customerId, basket) -> {
+                if (baskets.putIfAbsent(customerId, basket) != null) {
+                    throw new IllegalStateException("Customer " + customerId + " counted twice");
+                }
+            });
+            other.itemCounts.forEach((item, count) -> itemCounts.merge(item, count, Integer::sum));
+            other.pairCounts.forEach((pair, count) -> pairCounts.merge(pair, count, Integer::sum));
+        }
+
+        /**
+         * Count all baskets in parallel; each worker folds a disjoint slice of customers
+         */
+        public static Counts of(Map<Integer, int[]> baskets) {
+            return baskets.entrySet().parallelStream().collect(Counts::new,
+                (counts, entry) -> counts.addAll(entry.getKey(), entry.getValue()), Counts::merge);
+        }
+
+        public int[] basket(int customerId) {
+            Set<Integer> basket = baskets.get(customerId);
+            return basket == null ? new int[0] : basket.stream().mapToInt(Integer::intValue).toArray();
+        }
+
+        public int customerCount() {
+            return baskets.size();
+        }
+
+        private static long pairKey(int a, int b) {
+            int low = Math.min(a, b);
+            int high = Math.max(a, b);
+            return ((long) low << 32) | (high & 0xffffffffL);
+        }
+    }
+}
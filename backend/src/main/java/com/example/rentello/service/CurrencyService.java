@@ -0,0 +1,242 @@
+package com.example.rentello.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.util.Currency;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Currency conversion and formatting over an in-memory exchange-rate table.
+ * Rates are stored as "1 unit = x base currency" and the whole table is swapped atomically on reload.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CurrencyService {
+
+    private static final int MAX_CACHED_FORMATTERS = 256;
+
+    private static final Map<String, Locale> DEFAULT_LOCALES = Map.of(
+        "TRY", Locale.forLanguageTag("tr-TR"),
+        "EUR", Locale.forLanguageTag("de-DE"),
+        "USD", Locale.US,
+        "GBP", Locale.UK
+    );
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ResourceLoader resourceLoader;
+
+    @Value("${app.currency.base:TRY}")
+    private String baseCurrency;
+
+    @Value("${app.currency.rates-location:classpath:currency-rates.properties}")
+    private String ratesLocation;
+
+    private final AtomicReference<RateTable> rateTable = new AtomicReference<>();
+
+    // NumberFormat thread-safe değil: her (para birimi, locale) için thread başına bir kopya tutulur
+    private final Map<FormatKey, ThreadLocal<NumberFormat>> formatters = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        try {
+            reloadFromFile();
+        } catch (Exception e) {
+            log.warn("Exchange rates could not be loaded from {}: {}", ratesLocation, e.getMessage());
+            swap(new RateTable(baseCurrency, Map.of(baseCurrency, BigDecimal.ONE), "default", LocalDateTime.now()));
+        }
+    }
+
+    /**
+     * Reload the configured rate file (app.currency.rates-location, CODE=rate) and swap it in
+     */
+    public RateTable reloadFromFile() {
+        Resource resource = resourceLoader.getResource(ratesLocation);
+        Properties properties = new Properties();
+        try (InputStream in = resource.getInputStream();
+             Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            properties.load(reader);
+        } catch (Exception e) {
+            throw new RuntimeException("Exchange rate file could not be read: " + resource.getDescription(), e);
+        }
+        return swap(new RateTable(baseCurrency, parseRates(properties), resource.getDescription(), LocalDateTime.now()));
+    }
+
+    static Map<String, BigDecimal> parseRates(Properties properties) {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        for (String code : properties.stringPropertyNames()) {
+            String value = properties.getProperty(code).trim();
+            try {
+                rates.put(code, new BigDecimal(value));
+            } catch (NumberFormatException e) {
+                throw new RuntimeException("Invalid exchange rate for " + code + ": " + value, e);
+            }
+        }
+        return rates;
+    }
+
+    /**
+     * Load rates from the ExchangeRates table and swap them in
+     */
+    public RateTable reloadFromDatabase() {
+        Map<String, BigDecimal> rates = new HashMap<>();
+        LocalDateTime[] asOf = { null };
+        jdbcTemplate.query("SELECT CurrencyCode, RateToTry, EffectiveDate FROM ExchangeRates", rs -> {
+            rates.put(rs.getString("CurrencyCode").trim(), rs.getBigDecimal("RateToTry"));
+            Timestamp effective = rs.getTimestamp("EffectiveDate");
+            if (effective != null && (asOf[0] == null || effective.toLocalDateTime().isAfter(asOf[0]))) {
+                asOf[0] = effective.toLocalDateTime();
+            }
+        });
+        if (rates.isEmpty()) {
+            throw new RuntimeException("No exchange rates found in database");
+        }
+        return swap(new RateTable(baseCurrency, rates, "database",
+            asOf[0] != null ? asOf[0] : LocalDateTime.now()));
+    }
+
+    /**
+     * Validate a new rate table and make it visible to all readers at once
+     */
+    public RateTable swap(RateTable table) {
+        Map<String, BigDecimal> rates = new TreeMap<>();
+        table.rates().forEach((code, rate) -> {
+            String normalized = normalize(code);
+            if (rate == null || rate.signum() <= 0) {
+                throw new RuntimeException("Invalid exchange rate for " + normalized + ": " + rate);
+            }
+            rates.put(normalized, rate);
+        });
+        rates.put(table.base(), BigDecimal.ONE);
+
+        RateTable validated = new RateTable(table.base(), Map.copyOf(rates), table.source(), table.asOf());
+        rateTable.set(validated);
+        log.info("Exchange rate table loaded from {} with {} currencies", validated.source(), rates.size());
+        return validated;
+    }
+
+    public RateTable getRateTable() {
+        return rateTable.get();
+    }
+
+    /**
+     * Convert an amount between two currencies using the current rate table
+     */
+    public BigDecimal convert(BigDecimal amount, String from, String to) {
+        return convert(rateTable.get(), amount, normalize(from), normalize(to));
+    }
+
+    /**
+     * Convert a base currency price and format it, using a single consistent rate table
+     */
+    public Quote quote(BigDecimal baseAmount, String currency, String languageTag) {
+        RateTable table = rateTable.get();
+        String code = normalize(currency);
+        BigDecimal amount = convert(table, baseAmount, table.base(), code);
+        Locale locale = resolveLocale(code, languageTag);
+        return new Quote(code, amount, table.rate(code), format(amount, code, locale), table.asOf());
+    }
+
+    public String format(BigDecimal amount, String currency) {
+        String code = normalize(currency);
+        return format(amount, code, resolveLocale(code, null));
+    }
+
+    /**
+     * Format an amount with a cached per-locale currency formatter
+     */
+    public String format(BigDecimal amount, String currency, Locale locale) {
+        FormatKey key = new FormatKey(normalize(currency), locale);
+        ThreadLocal<NumberFormat> formatter = formatters.get(key);
+        if (formatter == null) {
+            if (formatters.size() >= MAX_CACHED_FORMATTERS) {
+                return createFormatter(key).format(amount);
+            }
+            formatter = formatters.computeIfAbsent(key, k -> ThreadLocal.withInitial(() -> createFormatter(k)));
+        }
+        return formatter.get().format(amount);
+    }
+
+    private BigDecimal convert(RateTable table, BigDecimal amount, String from, String to) {
+        if (amount == null) {
+            return null;
+        }
+        int scale = Currency.getInstance(to).getDefaultFractionDigits();
+        if (from.equals(to)) {
+            return amount.setScale(scale, RoundingMode.HALF_UP);
+        }
+        BigDecimal inBase = amount.multiply(table.rate(from), MathContext.DECIMAL64);
+        return inBase.divide(table.rate(to), scale, RoundingMode.HALF_UP);
+    }
+
+    private Locale resolveLocale(String currency, String languageTag) {
+        if (languageTag != null && !languageTag.isBlank()) {
+            return Locale.forLanguageTag(languageTag);
+        }
+        return DEFAULT_LOCALES.getOrDefault(currency, Locale.US);
+    }
+
+    private static NumberFormat createFormatter(FormatKey key) {
+        Currency currency = Currency.getInstance(key.currency());
+        NumberFormat format = NumberFormat.getCurrencyInstance(key.locale());
+        format.setCurrency(currency);
+        format.setMinimumFractionDigits(currency.getDefaultFractionDigits());
+        format.setMaximumFractionDigits(currency.getDefaultFractionDigits());
+        format.setRoundingMode(RoundingMode.HALF_UP);
+        return format;
+    }
+
+    private static String normalize(String code) {
+        if (code == null || code.isBlank()) {
+            throw new RuntimeException("Currency code is required");
+        }
+        String normalized = code.trim().toUpperCase(Locale.ROOT);
+        try {
+            Currency.getInstance(normalized);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported currency: " + code);
+        }
+        return normalized;
+    }
+
+    /**
+     * Immutable snapshot of exchange rates relative to the base currency
+     */
+    public record RateTable(String base, Map<String, BigDecimal> rates, String source, LocalDateTime asOf) {
+        public BigDecimal rate(String currency) {
+            BigDecimal rate = rates.get(currency);
+            if (rate == null) {
+                throw new RuntimeException("No exchange rate for currency: " + currency);
+            }
+            return rate;
+        }
+    }
+
+    public record Quote(String currency, BigDecimal amount, BigDecimal exchangeRate,
+                        String formatted, LocalDateTime ratesAsOf) {}
+
+    private record FormatKey(String currency, Locale locale) {}
+}
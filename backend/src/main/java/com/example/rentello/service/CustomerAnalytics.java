@@ -0,0 +1,293 @@
+package com.example.rentello.service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.IntStream;
+
+/**
+ * Per-customer rental state for RFM scoring and signup-cohort retention.
+ * Customers are split into partitions by id; rows streamed from the database are bucketed into
+ * per-partition primitive buffers and each partition is folded by its own worker, so no two workers
+ * touch the same customer. New rows can be folded in at any time; scores and cohorts are computed
+ * from the current state. Not thread-safe; callers serialise builds and refreshes.
+ */
+public class CustomerAnalytics {
+
+    private static final int UNKNOWN = Integer.MIN_VALUE;
+    // Aktif ay bitleri bu aydan itibaren tutulur; mutlak indeksle her müşteri KB'larca yer kaplardı
+    private static final int BASE_MONTH = monthIndex(YearMonth.of(2000, 1));
+
+    private final int partitions;
+    private final List<Map<Integer, CustomerState>> customers;
+
+    public CustomerAnalytics(int partitions) {
+        this.partitions = Math.max(1, partitions);
+        this.customers = new ArrayList<>(this.partitions);
+        for (int i = 0; i < this.partitions; i++) {
+            customers.add(new HashMap<>());
+        }
+    }
+
+    private int partition(int customerId) {
+        return Math.floorMod(customerId, partitions);
+    }
+
+    /**
+     * Register a customer with the month they signed up; rentals and payments may arrive before or after
+     */
+    public void addCustomer(int customerId, YearMonth signup) {
+        CustomerState state = customers.get(partition(customerId)).computeIfAbsent(customerId, id -> new CustomerState());
+        state.signupMonth = monthIndex(signup);
+        state.registered = true;
+    }
+
+    public Batch batch() {
+        return new Batch();
+    }
+
+    /**
+     * Fold a batch of rentals and payments, one worker per partition
+     */
+    public void apply(Batch batch) {
+        IntStream.range(0, partitions).parallel().forEach(p -> {
+            Map<Integer, CustomerState> part = customers.get(p);
+            Buffer rentals = batch.rentals[p];
+            for (int i = 0; i < rentals.size; i++) {
+                part.computeIfAbsent(rentals.ids[i], id -> new CustomerState()).addRental((int) rentals.values[i]);
+            }
+            Buffer payments = batch.payments[p];
+            for (int i = 0; i < payments.size; i++) {
+                part.computeIfAbsent(payments.ids[i], id -> new CustomerState()).monetaryCents += payments.values[i];
+            }
+        });
+    }
+
+    public int customerCount() {
+        return customers.stream().mapToInt(Map::size).sum();
+    }
+
+    /**
+     * Recency, frequency and monetary quintile scores (1-5, 5 best) of every customer with a rental.
+     * Ties share a score: a value's score depends on how many customers are strictly worse.
+     */
+    public List<Score> score() {
+        int n = 0;
+        for (Map<Integer, CustomerState> part : customers) {
+            for (CustomerState state : part.values()) {
+                if (state.rentals > 0) {
+                    n++;
+                }
+            }
+        }
+        if (n == 0) {
+            return List.of();
+        }
+        int[] ids = new int[n];
+        long[] lastDays = new long[n];
+        long[] frequencies = new long[n];
+        long[] monetary = new long[n];
+        int next = 0;
+        for (Map<Integer, CustomerState> part : customers) {
+            for (Map.Entry<Integer, CustomerState> entry : part.entrySet()) {
+                CustomerState state = entry.getValue();
+                if (state.rentals > 0) {
+                    ids[next] = entry.getKey();
+                    lastDays[next] = state.lastRentalDay;
+                    frequencies[next] = state.rentals;
+                    monetary[next] = state.monetaryCents;
+                    next++;
+                }
+            }
+        }
+        long[] sortedDays = lastDays.clone();
+        long[] sortedFrequencies = frequencies.clone();
+        long[] sortedMonetary = monetary.clone();
+        Arrays.parallelSort(sortedDays);
+        Arrays.parallelSort(sortedFrequencies);
+        Arrays.parallelSort(sortedMonetary);
+
+        Score[] scores = new Score[n];
+        IntStream.range(0, n).parallel().forEach(i -> {
+            // Daha yakın tarihli kiralama daha yüksek puan alır
+            int r = quintile(sortedDays, lastDays[i]);
+            int f = quintile(sortedFrequencies, frequencies[i]);
+            int m = quintile(sortedMonetary, monetary[i]);
+            scores[i] = new Score(ids[i], LocalDate.ofEpochDay(lastDays[i]), (int) frequencies[i],
+                monetary[i] / 100.0, r, f, m, segment(r, f, m));
+        });
+        return Arrays.asList(scores);
+    }
+
+    static int quintile(long[] sorted, long value) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (sorted[middle] < value) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return 1 + (int) ((long) low * 5 / sorted.length);
+    }
+
+    static String segment(int r, int f, int m) {
+        if (r >= 4 && f >= 4 && m >= 4) {
+            return "champions";
+        }
+        if (r >= 3 && f >= 4) {
+            return "loyal";
+        }
+        if (r <= 2 && f >= 3) {
+            return "at_risk";
+        }
+        if (r >= 4 && f <= 2) {
+            return "new";
+        }
+        if (r <= 2) {
+            return "hibernating";
+        }
+        return "potential";
+    }
+
+    /**
+     * Signup-month cohorts: size and, per month since signup, how many members rented in that month
+     */
+    public List<Cohort> cohorts() {
+        List<Map<Integer, long[]>> partial = IntStream.range(0, partitions).parallel().mapToObj(p -> {
+            Map<Integer, long[]> counts = new HashMap<>();
+            for (CustomerState state : customers.get(p).values()) {
+                if (state.signupMonth == UNKNOWN) {
+                    continue;
+                }
+                long[] cohort = counts.computeIfAbsent(state.signupMonth, month -> new long[1]);
+                cohort[0]++;
+                BitSet months = state.activeMonths;
+                for (int bit = months.nextSetBit(0); bit >= 0; bit = months.nextSetBit(bit + 1)) {
+                    int offset = BASE_MONTH + bit - state.signupMonth;
+                    if (offset < 0) {
+                        continue;
+                    }
+                    if (offset + 1 >= cohort.length) {
+                        cohort = Arrays.copyOf(cohort, offset + 2);
+                        counts.put(state.signupMonth, cohort);
+                    }
+                    cohort[offset + 1]++;
+                }
+            }
+            return counts;
+        }).toList();
+
+        Map<Integer, long[]> merged = new TreeMap<>();
+        for (Map<Integer, long[]> counts : partial) {
+            counts.forEach((month, cohort) -> merged.merge(month, cohort, (a, b) -> {
+                long[] sum = Arrays.copyOf(a, Math.max(a.length, b.length));
+                for (int i = 0; i < b.length; i++) {
+                    sum[i] += b[i];
+                }
+                return sum;
+            }));
+        }
+        List<Cohort> cohorts = new ArrayList<>(merged.size());
+        merged.forEach((month, cohort) -> cohorts.add(new Cohort(yearMonth(month), cohort[0],
+            Arrays.copyOfRange(cohort, 1, Math.max(1, cohort.length)))));
+        return cohorts;
+    }
+
+    static int monthIndex(YearMonth month) {
+        return month.getYear() * 12 + month.getMonthValue() - 1;
+    }
+
+    static YearMonth yearMonth(int index) {
+        return YearMonth.of(index / 12, index % 12 + 1);
+    }
+
+    private static class CustomerState {
+        private int signupMonth = UNKNOWN;
+        private boolean registered;
+        private int lastRentalDay = UNKNOWN;
+        private int rentals;
+        private long monetaryCents;
+        // BASE_MONTH'tan itibaren kiralama yapılan aylar
+        private final BitSet activeMonths = new BitSet();
+
+        void addRental(int epochDay) {
+            rentals++;
+            lastRentalDay = Math.max(lastRentalDay, epochDay);
+            int month = monthIndex(YearMonth.from(LocalDate.ofEpochDay(epochDay)));
+            activeMonths.set(Math.max(0, month - BASE_MONTH));
+            // Kullanıcı kaydı olmayan müşteri ilk kiralama ayında kaydolmuş sayılır
+            if (!registered) {
+                signupMonth = BASE_MONTH + activeMonths.nextSetBit(0);
+            }
+        }
+    }
+
+    /**
+     * Rows bucketed by customer partition while streaming; folded by {@link #apply(Batch)}
+     */
+    public class Batch {
+
+        private final Buffer[] rentals = new Buffer[partitions];
+        private final Buffer[] payments = new Buffer[partitions];
+        private int size;
+
+        private Batch() {
+            for (int i = 0; i < partitions; i++) {
+                rentals[i] = new Buffer();
+                payments[i] = new Buffer();
+            }
+        }
+
+        public void addRental(int customerId, LocalDate pickupDate) {
+            rentals[partition(customerId)].add(customerId, pickupDate.toEpochDay());
+            size++;
+        }
+
+        /**
+         * Completed payment amount in cents
+         */
+        public void addPayment(int customerId, long amountCents) {
+            payments[partition(customerId)].add(customerId, amountCents);
+            size++;
+        }
+
+        public int size() {
+            return size;
+        }
+    }
+
+    private static class Buffer {
+        private int[] ids = new int[256];
+        private long[] values = new long[256];
+        private int size;
+
+        void add(int id, long value) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                values = Arrays.copyOf(values, size * 2);
+            }
+            ids[size] = id;
+            values[size] = value;
+            size++;
+        }
+    }
+
+    public record Score(int customerId, LocalDate lastRentalDate, int frequency, double monetary,
+                        int recencyScore, int frequencyScore, int monetaryScore, String segment) {
+    }
+
+    /**
+     * active[i] is the number of members who rented in the i-th month after signing up (0 = signup month)
+     */
+    public record Cohort(YearMonth month, long size, long[] active) {
+    }
+}
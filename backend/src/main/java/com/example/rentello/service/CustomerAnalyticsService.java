@@ -0,0 +1,295 @@
+package com.example.rentello.service;
+
+import com.example.rentello.repository.CustomerAnalyticsRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Customer analytics batch job: RFM scores and signup-cohort retention.
+ * A full run streams customers, rentals and completed payments once each (forward-only, large fetch size)
+ * into a {@link CustomerAnalytics} partitioned by customer, scores every customer and writes the results to
+ * CustomerRfmScores / CustomerCohortRetention; reports only read those tables. Between the nightly full runs
+ * an incremental refresh folds in rows above the last seen ids and writes only the scores that changed.
+ * Cancellations and payments completed after they were first seen are picked up by the next full run.
+ */
+@Service
+@Slf4j
+public class CustomerAnalyticsService {
+
+    private static final int FETCH_SIZE = 5000;
+    // Bu kadar satır birikince bölümlere paralel işlenir
+    private static final int APPLY_ROWS = 200_000;
+
+    private static final String CUSTOMERS_SQL =
+        "SELECT u.UserID, u.CreatedDate FROM Users u JOIN UserRoles ur ON ur.RoleID = u.RoleID " +
+        "WHERE ur.RoleName = 'Musteri' AND u.UserID > ? ORDER BY u.UserID";
+
+    // İptal edilen kiralamalar sayılmaz
+    private static final String RENTALS_SQL =
+        "SELECT RentalID, CustomerID, COALESCE(ActualPickupDate, PlannedPickupDate) AS PickupDate FROM Rentals " +
+        "WHERE RentalStatusID <> 5 AND RentalID > ? ORDER BY RentalID";
+
+    private static final String PAYMENTS_SQL =
+        "SELECT p.PaymentID, r.CustomerID, p.PaymentAmount FROM Payments p JOIN Rentals r ON r.RentalID = p.RentalID " +
+        "WHERE p.PaymentStatus = 'Completed' AND r.RentalStatusID <> 5 AND p.PaymentID > ? ORDER BY p.PaymentID";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final CustomerAnalyticsRepository repository;
+    private final int partitions;
+
+    private CustomerAnalytics analytics;
+    // Son yazılan puanlar; artımlı yenilemede yalnızca değişenler yazılır
+    private Map<Integer, CustomerAnalytics.Score> persisted = Map.of();
+    // Okunmuş ama henüz yazılmamış satır var
+    private boolean unsaved;
+    private int lastUserId;
+    private int lastRentalId;
+    private int lastPaymentId;
+    private volatile boolean running;
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public CustomerAnalyticsService(JdbcTemplate jdbcTemplate, CustomerAnalyticsRepository repository,
+                                    @Value("${app.customer-analytics.partitions:0}") int partitions) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.repository = repository;
+        this.partitions = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors() * 2;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Customer analytics could not be built: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Full run; the persisted tables are replaced only after every row has been scored
+     */
+    @Scheduled(cron = "${app.customer-analytics.rebuild-cron:0 30 4 * * *}")
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        running = true;
+        try {
+            CustomerAnalytics fresh = new CustomerAnalytics(partitions);
+            int[] watermarks = new int[3];
+            long rows = load(fresh, watermarks);
+            List<CustomerAnalytics.Score> scores = fresh.score();
+            repository.replaceScores(scores);
+            repository.replaceCohorts(fresh.cohorts());
+
+            analytics = fresh;
+            persisted = index(scores);
+            unsaved = false;
+            lastUserId = watermarks[0];
+            lastRentalId = watermarks[1];
+            lastPaymentId = watermarks[2];
+            return finish("FULL", rows, scores.size(), fresh.customerCount(), start);
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Fold in customers, rentals and payments added since the last run and write the scores that moved.
+     * A refresh that fails half way leaves the in-memory state unusable, so the next one runs in full.
+     */
+    @Scheduled(fixedDelayString = "${app.customer-analytics.refresh-ms:300000}",
+        initialDelayString = "${app.customer-analytics.refresh-ms:300000}")
+    public synchronized Map<String, Object> refresh() {
+        if (analytics == null) {
+            return rebuild();
+        }
+        long start = System.currentTimeMillis();
+        running = true;
+        try {
+            int[] watermarks = { lastUserId, lastRentalId, lastPaymentId };
+            long rows;
+            try {
+                rows = load(analytics, watermarks);
+            } catch (RuntimeException e) {
+                analytics = null;
+                throw e;
+            }
+            lastUserId = watermarks[0];
+            lastRentalId = watermarks[1];
+            lastPaymentId = watermarks[2];
+            if (rows > 0) {
+                unsaved = true;
+            }
+            if (!unsaved) {
+                return lastRun;
+            }
+            List<CustomerAnalytics.Score> scores = analytics.score();
+            List<CustomerAnalytics.Score> changed = new ArrayList<>();
+            for (CustomerAnalytics.Score score : scores) {
+                if (!score.equals(persisted.get(score.customerId()))) {
+                    changed.add(score);
+                }
+            }
+            repository.upsertScores(changed);
+            repository.replaceCohorts(analytics.cohorts());
+
+            persisted = index(scores);
+            unsaved = false;
+            return finish("INCREMENTAL", rows, changed.size(), analytics.customerCount(), start);
+        } finally {
+            running = false;
+        }
+    }
+
+    /**
+     * Streams the three sources; watermarks hold the last user, rental and payment id seen
+     */
+    private long load(CustomerAnalytics target, int[] watermarks) {
+        long[] rows = new long[1];
+        CustomerAnalytics.Batch[] batch = { target.batch() };
+        Runnable flush = () -> {
+            if (batch[0].size() > 0) {
+                target.apply(batch[0]);
+                batch[0] = target.batch();
+            }
+        };
+
+        stream(CUSTOMERS_SQL, watermarks[0], rs -> {
+            Timestamp created = rs.getTimestamp("CreatedDate");
+            int userId = rs.getInt("UserID");
+            if (created != null) {
+                target.addCustomer(userId, YearMonth.from(created.toLocalDateTime()));
+            }
+            watermarks[0] = userId;
+            rows[0]++;
+        });
+        stream(RENTALS_SQL, watermarks[1], rs -> {
+            Timestamp pickup = rs.getTimestamp("PickupDate");
+            if (pickup != null) {
+                batch[0].addRental(rs.getInt("CustomerID"), pickup.toLocalDateTime().toLocalDate());
+            }
+            watermarks[1] = rs.getInt("RentalID");
+            rows[0]++;
+            if (batch[0].size() >= APPLY_ROWS) {
+                flush.run();
+            }
+        });
+        stream(PAYMENTS_SQL, watermarks[2], rs -> {
+            BigDecimal amount = rs.getBigDecimal("PaymentAmount");
+            batch[0].addPayment(rs.getInt("CustomerID"), amount.movePointRight(2).longValue());
+            watermarks[2] = rs.getInt("PaymentID");
+            rows[0]++;
+            if (batch[0].size() >= APPLY_ROWS) {
+                flush.run();
+            }
+        });
+        flush.run();
+        return rows[0];
+    }
+
+    private void stream(String sql, int afterId, RowCallbackHandler handler) {
+        jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setInt(1, afterId);
+            return ps;
+        }, handler);
+    }
+
+    private static Map<Integer, CustomerAnalytics.Score> index(List<CustomerAnalytics.Score> scores) {
+        Map<Integer, CustomerAnalytics.Score> byCustomer = new HashMap<>(scores.size() * 2);
+        for (CustomerAnalytics.Score score : scores) {
+            byCustomer.put(score.customerId(), score);
+        }
+        return byCustomer;
+    }
+
+    private Map<String, Object> finish(String runType, long rows, int written, int customers, long start) {
+        long tookMillis = System.currentTimeMillis() - start;
+        repository.saveRun(new CustomerAnalyticsRepository.Run(runType, lastRentalId, lastPaymentId, lastUserId,
+            (int) Math.min(Integer.MAX_VALUE, rows), written, tookMillis, null));
+
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("runType", runType);
+        run.put("rows", rows);
+        run.put("customers", customers);
+        run.put("scoresWritten", written);
+        run.put("partitions", partitions);
+        run.put("tookMillis", tookMillis);
+        lastRun = run;
+        log.info("Customer analytics {} run finished: {}", runType.toLowerCase(Locale.ROOT), run);
+        return run;
+    }
+
+    public Map<String, Long> getSegmentCounts() {
+        return repository.countBySegment();
+    }
+
+    public CustomerAnalyticsRepository.ScoreRow getCustomerScore(int customerId) {
+        return repository.findScore(customerId)
+            .orElseThrow(() -> new RuntimeException("No RFM score for customer: " + customerId));
+    }
+
+    public List<CustomerAnalyticsRepository.ScoreRow> getTopCustomers(String segment, int limit) {
+        return repository.findTopCustomers(segment != null && !segment.isBlank() ? segment : null,
+            Math.max(1, Math.min(limit, 500)));
+    }
+
+    /**
+     * Retention matrix: cohort month -> size and, per month since signup, the share that rented (0-100)
+     */
+    public List<Map<String, Object>> getCohortRetention(YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new RuntimeException("'from' must not be after 'to'");
+        }
+        Map<YearMonth, Map<String, Object>> cohorts = new LinkedHashMap<>();
+        for (CustomerAnalyticsRepository.CohortRow row : repository.findCohorts(from, to)) {
+            Map<String, Object> cohort = cohorts.computeIfAbsent(row.cohortMonth(), month -> {
+                Map<String, Object> created = new LinkedHashMap<>();
+                created.put("cohort", month.toString());
+                created.put("size", row.cohortSize());
+                created.put("retention", new ArrayList<Double>());
+                return created;
+            });
+            @SuppressWarnings("unchecked")
+            List<Double> retention = (List<Double>) cohort.get("retention");
+            retention.add(row.cohortSize() > 0
+                ? Math.round(row.activeCustomers() * 10000.0 / row.cohortSize()) / 100.0 : 0.0);
+        }
+        return new ArrayList<>(cohorts.values());
+    }
+
+    /**
+     * Customers who signed up in the given month, as of the last run
+     */
+    public long getNewCustomers(YearMonth month) {
+        List<CustomerAnalyticsRepository.CohortRow> rows = repository.findCohorts(month, month);
+        return rows.isEmpty() ? 0 : rows.get(0).cohortSize();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", analytics != null);
+        stats.put("running", running);
+        stats.put("lastRun", lastRun);
+        stats.put("lastPersistedRun", repository.findLastRun().orElse(null));
+        return stats;
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.rentello.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Runs independent dashboard queries concurrently on virtual threads.
+ * A shared semaphore caps how many dashboard queries hold a connection at once, every query has a
+ * timeout, and a query that fails or times out contributes its fallback value instead of failing the dashboard.
+ */
+@Component
+@Slf4j
+public class DashboardQueryExecutor {
+
+    private static final long QUEUED_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Semaphore permits;
+    private final Duration queryTimeout;
+
+    public DashboardQueryExecutor(@Value("${app.dashboard.max-concurrent-queries:6}") int maxConcurrentQueries,
+                                  @Value("${app.dashboard.query-timeout-ms:3000}") long queryTimeoutMs) {
+        this.permits = new Semaphore(maxConcurrentQueries, true);
+        this.queryTimeout = Duration.ofMillis(queryTimeoutMs);
+    }
+
+    /**
+     * Open a scope; queries forked into it are joined and cancelled when the scope closes
+     */
+    public Scope open(String name) {
+        return new Scope(name);
+    }
+
+    public class Scope implements AutoCloseable {
+
+        private final String name;
+        private final long openedNanos = System.nanoTime();
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        private final List<Task<?>> tasks = new ArrayList<>();
+
+        private Scope(String name) {
+            this.name = name;
+        }
+
+        public <T> Task<T> fork(String metric, Callable<T> query, T fallback) {
+            Task<T> task = new Task<>(metric, fallback, System.nanoTime());
+            task.future = executor.submit(() -> {
+                // Bağlantı havuzunu korumak için izin alınamazsa sorgu çalışmaz
+                if (!permits.tryAcquire(queryTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                    throw new TimeoutException("No query slot within " + queryTimeout.toMillis() + " ms");
+                }
+                try {
+                    task.startedNanos = System.nanoTime();
+                    return query.call();
+                } finally {
+                    permits.release();
+                }
+            });
+            tasks.add(task);
+            return task;
+        }
+
+        /**
+         * Wait for every forked query; a query gets the timeout from the moment it holds a slot,
+         * late queries are cancelled and fall back. Returns the metrics that fell back.
+         */
+        public List<String> join() {
+            List<String> unavailable = new ArrayList<>();
+            for (Task<?> task : tasks) {
+                if (!task.await(queryTimeout.toNanos())) {
+                    unavailable.add(task.metric);
+                }
+            }
+            long tookMillis = (System.nanoTime() - openedNanos) / 1_000_000;
+            if (unavailable.isEmpty()) {
+                log.debug("{}: {} queries joined in {} ms", name, tasks.size(), tookMillis);
+            } else {
+                log.warn("{}: {} of {} queries unavailable after {} ms: {}", name, unavailable.size(), tasks.size(),
+                    tookMillis, unavailable);
+            }
+            return unavailable;
+        }
+
+        @Override
+        public void close() {
+            tasks.forEach(task -> task.future.cancel(true));
+            executor.shutdownNow();
+        }
+    }
+
+    public static class Task<T> {
+
+        private final String metric;
+        private final T fallback;
+        private final long forkedNanos;
+        private volatile long startedNanos;
+        private Future<T> future;
+        private T value;
+        private boolean done;
+
+        private Task(String metric, T fallback, long forkedNanos) {
+            this.metric = metric;
+            this.fallback = fallback;
+            this.forkedNanos = forkedNanos;
+        }
+
+        /**
+         * The query result, or the fallback when it failed, timed out or returned null
+         */
+        public T get() {
+            return done && value != null ? value : fallback;
+        }
+
+        private boolean await(long timeoutNanos) {
+            try {
+                while (!done) {
+                    long started = startedNanos;
+                    long now = System.nanoTime();
+                    // Sırada bekleyen sorgunun süresi henüz başlamadı; izin beklemesi de timeout ile sınırlı
+                    long wait = started != 0
+                        ? started + timeoutNanos - now
+                        : Math.min(forkedNanos + 2 * timeoutNanos - now, QUEUED_POLL_NANOS);
+                    try {
+                        value = future.get(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                        done = true;
+                    } catch (TimeoutException e) {
+                        if (started != 0 || now + wait >= forkedNanos + 2 * timeoutNanos) {
+                            future.cancel(true);
+                            log.warn("Dashboard query {} timed out", metric);
+                            return false;
+                        }
+                    }
+                }
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                log.warn("Dashboard query {} failed: {}", metric, cause.getMessage());
+            } catch (CancellationException e) {
+                log.warn("Dashboard query {} was cancelled", metric);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                future.cancel(true);
+            }
+            return done;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.DashboardStatsDto;
+import com.example.rentello.event.PaymentChangedEvent;
+import com.example.rentello.event.RentalChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Materialized admin dashboard.
+ * The stats are computed once per interval (sooner, but debounced, after rental or payment changes),
+ * serialized once and served as immutable bytes with an ETag; polls with a matching ETag cost no query.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DashboardSnapshotService {
+
+    private final AdminService adminService;
+    private final ObjectMapper objectMapper;
+
+    @Value("${app.dashboard.snapshot.refresh-ms:60000}")
+    private long refreshMs;
+
+    @Value("${app.dashboard.snapshot.min-interval-ms:10000}")
+    private long minIntervalMs;
+
+    private volatile Snapshot snapshot;
+    private volatile long refreshedAtNanos;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final AtomicLong refreshCount = new AtomicLong();
+    private volatile long lastRefreshMillis;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("Dashboard snapshot could not be built on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Current snapshot; only the very first call (before startup finished) computes synchronously
+     */
+    public Snapshot getSnapshot() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            return snapshot != null ? snapshot : refresh();
+        }
+    }
+
+    /**
+     * Recompute the stats; the ETag only changes when the numbers do
+     */
+    public synchronized Snapshot refresh() {
+        long start = System.currentTimeMillis();
+        dirty.set(false);
+        DashboardStatsDto stats = adminService.getDashboardStats();
+        if (Boolean.TRUE.equals(stats.getPartial()) && snapshot != null) {
+            // Eksik sonuç mevcut snapshot'ı ezmez; bir sonraki kontrolde tekrar denenir
+            dirty.set(true);
+            refreshedAtNanos = System.nanoTime();
+            log.warn("Dashboard snapshot kept, refresh was partial: {}", stats.getUnavailableMetrics());
+            return snapshot;
+        }
+        try {
+            // Anahtar sırası sabit olmalı ki aynı veri aynı ETag'i üretsin
+            ObjectWriter writer = objectMapper.writer().with(SerializationFeature.ORDER_MAP_ENTRIES_BY_KEYS);
+            stats.setAsOf(null);
+            String etag = etag(writer.writeValueAsBytes(stats));
+            Snapshot current = snapshot;
+            if (current == null || !current.etag().equals(etag)) {
+                LocalDateTime asOf = LocalDateTime.now();
+                stats.setAsOf(asOf);
+                snapshot = new Snapshot(writer.writeValueAsBytes(stats), etag, asOf);
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("Dashboard snapshot could not be serialized: " + e.getMessage());
+        }
+        refreshedAtNanos = System.nanoTime();
+        refreshCount.incrementAndGet();
+        lastRefreshMillis = System.currentTimeMillis() - start;
+        log.debug("Dashboard snapshot refreshed in {} ms, etag {}", lastRefreshMillis, snapshot.etag());
+        return snapshot;
+    }
+
+    /**
+     * Refresh when the snapshot is older than the interval, or when data changed and the debounce window passed
+     */
+    @Scheduled(fixedDelayString = "${app.dashboard.snapshot.check-ms:2000}")
+    public void refreshIfStale() {
+        if (snapshot == null) {
+            return;
+        }
+        long ageMillis = (System.nanoTime() - refreshedAtNanos) / 1_000_000;
+        if (ageMillis >= refreshMs || (dirty.get() && ageMillis >= minIntervalMs)) {
+            try {
+                refresh();
+            } catch (Exception e) {
+                log.warn("Dashboard snapshot refresh failed: {}", e.getMessage());
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        dirty.set(true);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        dirty.set(true);
+    }
+
+    public Map<String, Object> getStats() {
+        Snapshot current = snapshot;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("asOf", current != null ? current.asOf() : null);
+        stats.put("etag", current != null ? current.etag() : null);
+        stats.put("dirty", dirty.get());
+        stats.put("refreshCount", refreshCount.get());
+        stats.put("lastRefreshMillis", lastRefreshMillis);
+        return stats;
+    }
+
+    static String etag(byte[] content) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(content);
+            return "\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * body is the serialized DashboardStatsDto and is never modified after construction
+     */
+    public record Snapshot(byte[] body, String etag, LocalDateTime asOf) {
+
+        public boolean matches(String ifNoneMatch) {
+            if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+                return false;
+            }
+            for (String candidate : ifNoneMatch.split(",")) {
+                String tag = candidate.trim();
+                if (tag.startsWith("W/")) {
+                    tag = tag.substring(2);
+                }
+                if (tag.equals("*") || tag.equals(etag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
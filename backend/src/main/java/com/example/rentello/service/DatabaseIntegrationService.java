@@ -3,6 +3,8 @@ package com.example.rentello.service;
 import com.example.rentello.entity.view.AvailableVehicle;
 import com.example.rentello.repository.AvailableVehicleRepository;
 import com.example.rentello.repository.DatabaseFunctionRepository;
+import com.example.rentello.repository.LocalScalarFunctionRepository;
+import com.example.rentello.repository.ScalarFunctionRepository;
 import com.example.rentello.repository.StoredProcedureRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -12,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -23,7 +26,11 @@ public class DatabaseIntegrationService {
 
     private final StoredProcedureRepository storedProcedureRepository;
     private final DatabaseFunctionRepository functionRepository;
+    private final ScalarFunctionRepository scalarFunctions;
+    private final LocalScalarFunctionRepository localScalarFunctions;
     private final AvailableVehicleRepository availableVehicleRepository;
+    private final FleetSnapshotService fleetSnapshotService;
+    private final RecommendationService recommendationService;
 
     // ===== STORED PROCEDURE İŞLEMLERİ =====
 
@@ -109,7 +116,7 @@ public class DatabaseIntegrationService {
      */
     @Transactional(readOnly = true)
     public Integer calculateAge(LocalDate dateOfBirth) {
-        return functionRepository.calculateAge(dateOfBirth);
+        return scalarFunctions.calculateAge(dateOfBirth);
     }
 
     /**
@@ -117,7 +124,7 @@ public class DatabaseIntegrationService {
      */
     @Transactional(readOnly = true)
     public Integer calculateRentalDuration(LocalDateTime startDate, LocalDateTime endDate) {
-        return functionRepository.calculateRentalDuration(startDate, endDate);
+        return scalarFunctions.calculateRentalDuration(startDate, endDate);
     }
 
     /**
@@ -127,7 +134,7 @@ public class DatabaseIntegrationService {
     public BigDecimal calculateLateFee(LocalDateTime plannedReturnDate,
                                       LocalDateTime actualReturnDate,
                                       BigDecimal dailyRate) {
-        return functionRepository.calculateLateFee(plannedReturnDate, actualReturnDate, dailyRate);
+        return scalarFunctions.calculateLateFee(plannedReturnDate, actualReturnDate, dailyRate);
     }
 
     /**
@@ -135,7 +142,7 @@ public class DatabaseIntegrationService {
      */
     @Transactional(readOnly = true)
     public String getCustomerLoyaltyTier(Integer customerId) {
-        return functionRepository.getCustomerLoyaltyTier(customerId);
+        return scalarFunctions.getCustomerLoyaltyTier(customerId);
     }
 
     /**
@@ -144,7 +151,7 @@ public class DatabaseIntegrationService {
     @Transactional(readOnly = true)
     public BigDecimal calculateDiscountPercentage(Integer customerId, Integer rentalDays) {
         log.info("Calculating discount for customer: {} with {} rental days", customerId, rentalDays);
-        return functionRepository.calculateDiscountPercentage(customerId, rentalDays);
+        return scalarFunctions.calculateDiscountPercentage(customerId, rentalDays);
     }
 
     /**
@@ -169,7 +176,44 @@ public class DatabaseIntegrationService {
      */
     @Transactional(readOnly = true)
     public String formatCurrency(BigDecimal amount) {
-        return functionRepository.formatCurrency(amount);
+        return scalarFunctions.formatCurrency(amount);
+    }
+
+    /**
+     * Skaler fonksiyonların veritabanı ve yerel sürümlerinin ortalama gecikmesini ölç
+     */
+    @Transactional(readOnly = true)
+    public Map<String, Object> benchmarkScalarFunctions(int iterations) {
+        LocalDate dateOfBirth = LocalDate.of(1990, 6, 15);
+        LocalDateTime planned = LocalDateTime.now().minusDays(3);
+        LocalDateTime actual = LocalDateTime.now();
+        BigDecimal amount = new BigDecimal("1250.75");
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("iterations", iterations);
+        result.put("database", timeScalarFunctions(functionRepository, iterations, dateOfBirth, planned, actual, amount));
+        result.put("local", timeScalarFunctions(localScalarFunctions, iterations, dateOfBirth, planned, actual, amount));
+        return result;
+    }
+
+    private Map<String, Double> timeScalarFunctions(ScalarFunctionRepository functions, int iterations,
+                                                    LocalDate dateOfBirth, LocalDateTime planned,
+                                                    LocalDateTime actual, BigDecimal amount) {
+        Map<String, Double> micros = new LinkedHashMap<>();
+        micros.put("calculateAge", averageMicros(iterations, () -> functions.calculateAge(dateOfBirth)));
+        micros.put("calculateRentalDuration", averageMicros(iterations, () -> functions.calculateRentalDuration(planned, actual)));
+        micros.put("calculateLateFee", averageMicros(iterations, () -> functions.calculateLateFee(planned, actual, amount)));
+        micros.put("formatCurrency", averageMicros(iterations, () -> functions.formatCurrency(amount)));
+        return micros;
+    }
+
+    private double averageMicros(int iterations, Runnable call) {
+        call.run(); // ilk çağrı (bağlantı, JIT) ölçüme dahil edilmez
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            call.run();
+        }
+        return (System.nanoTime() - start) / 1000.0 / iterations;
     }
 
     // ===== TABLE-VALUED FUNCTION İŞLEMLERİ =====
@@ -265,7 +309,7 @@ public class DatabaseIntegrationService {
      */
     @Transactional(readOnly = true)
     public List<AvailableVehicle> getCheapestVehicles() {
-        return availableVehicleRepository.findCheapestVehicles();
+        return fleetSnapshotService.getAvailableOrderedBy(FleetSnapshot.SortKey.RATE, false);
     }
 
     /**
@@ -273,7 +317,7 @@ public class DatabaseIntegrationService {
      */
     @Transactional(readOnly = true)
     public List<AvailableVehicle> getNewestVehicles() {
-        return availableVehicleRepository.findNewestVehicles();
+        return fleetSnapshotService.getAvailableOrderedBy(FleetSnapshot.SortKey.YEAR, true);
     }
 
     // ===== COMPOSITE İŞLEMLER =====
@@ -304,7 +348,13 @@ public class DatabaseIntegrationService {
     public List<AvailableVehicle> getPersonalizedVehicleRecommendations(Integer customerId,
                                                                        String cityName,
                                                                        Integer rentalDays) {
-        // Müşteri sadakat seviyesini al
+        // Kiralama geçmişinden ortak kiralama önerileri
+        List<AvailableVehicle> recommended = recommendationService.recommend(customerId, cityName, 10);
+        if (!recommended.isEmpty()) {
+            return recommended;
+        }
+
+        // Geçmişi olmayan müşteri: sadakat seviyesine göre kategori
         String loyaltyTier = getCustomerLoyaltyTier(customerId);
         
         // İndirim oranını hesapla
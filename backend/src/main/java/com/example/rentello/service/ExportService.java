@@ -0,0 +1,151 @@
+package com.example.rentello.service;
+
+import com.example.rentello.util.TabularExportWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bulk exports streamed from a forward-only JDBC cursor straight into the response.
+ * Rows are never collected into a list or mapped to entities.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ExportService {
+
+    private static final int FETCH_SIZE = 1000;
+
+    public enum Dataset {
+        RENTALS("rentals", "r.CreatedDate",
+            "SELECT r.RentalID, r.CustomerID, u.FirstName + ' ' + u.LastName AS CustomerName, " +
+            "v.VehicleRegistration, r.PlannedPickupDate, r.PlannedReturnDate, r.ActualPickupDate, " +
+            "r.ActualReturnDate, rs.StatusName AS RentalStatus, r.BaseAmount, r.TaxAmount, r.DiscountAmount, " +
+            "r.TotalAmount, r.PickupLocationID, r.ReturnLocationID, r.CreatedDate " +
+            "FROM Rentals r " +
+            "JOIN Users u ON r.CustomerID = u.UserID " +
+            "JOIN Vehicles v ON r.VehicleID = v.VehicleID " +
+            "JOIN RentalStatus rs ON r.RentalStatusID = rs.RentalStatusID"),
+        PAYMENTS("payments", "p.PaymentDate",
+            "SELECT p.PaymentID, p.RentalID, pm.MethodName AS PaymentMethod, p.PaymentAmount, p.ProcessingFee, " +
+            "p.PaymentStatus, p.TransactionReference, p.PaymentDate " +
+            "FROM Payments p " +
+            "JOIN PaymentMethods pm ON p.PaymentMethodID = pm.PaymentMethodID"),
+        VEHICLES("vehicles", "v.CreatedDate",
+            "SELECT v.VehicleID, v.VehicleRegistration, vb.BrandName, vm.ModelName, v.Color, v.Mileage, " +
+            "v.DailyRentalRate, vs.StatusName AS VehicleStatus, v.CurrentLocationID, v.PurchaseDate, " +
+            "v.NextMaintenanceDate, v.CreatedDate " +
+            "FROM Vehicles v " +
+            "JOIN VehicleModels vm ON v.ModelID = vm.ModelID " +
+            "JOIN VehicleBrands vb ON vm.BrandID = vb.BrandID " +
+            "JOIN VehicleStatus vs ON v.CurrentStatusID = vs.StatusID");
+
+        private final String fileName;
+        private final String dateColumn;
+        private final String sql;
+
+        Dataset(String fileName, String dateColumn, String sql) {
+            this.fileName = fileName;
+            this.dateColumn = dateColumn;
+            this.sql = sql;
+        }
+
+        public String getFileName() {
+            return fileName;
+        }
+
+        public static Dataset from(String value) {
+            for (Dataset dataset : values()) {
+                if (dataset.fileName.equalsIgnoreCase(value)) {
+                    return dataset;
+                }
+            }
+            throw new RuntimeException("Unknown export dataset: " + value);
+        }
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Stream a dataset to the given stream; from is inclusive, to is exclusive
+     */
+    public long export(Dataset dataset, TabularExportWriter.Format format, boolean gzip,
+                       LocalDateTime from, LocalDateTime to, OutputStream out) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new RuntimeException("'from' must be before 'to'");
+        }
+
+        StringBuilder sql = new StringBuilder(dataset.sql);
+        List<Object> params = new ArrayList<>();
+        if (from != null) {
+            sql.append(params.isEmpty() ? " WHERE " : " AND ").append(dataset.dateColumn).append(" >= ?");
+            params.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(params.isEmpty() ? " WHERE " : " AND ").append(dataset.dateColumn).append(" < ?");
+            params.add(Timestamp.valueOf(to));
+        }
+        sql.append(" ORDER BY 1");
+
+        long start = System.currentTimeMillis();
+        Long rows = jdbcTemplate.query(con -> {
+            PreparedStatement ps = con.prepareStatement(sql.toString(),
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            ps.setFetchSize(FETCH_SIZE);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        }, rs -> {
+            try {
+                return writeAll(rs, format, gzip, out);
+            } catch (IOException e) {
+                // İstemci bağlantıyı kapattıysa sorgu da burada kesilir
+                throw new UncheckedIOException(e);
+            }
+        });
+        log.info("Exported {} {} rows as {} in {} ms", rows, dataset.fileName, format, System.currentTimeMillis() - start);
+        return rows != null ? rows : 0;
+    }
+
+    private static long writeAll(ResultSet rs, TabularExportWriter.Format format, boolean gzip,
+                                 OutputStream out) throws SQLException, IOException {
+        ResultSetMetaData meta = rs.getMetaData();
+        int columnCount = meta.getColumnCount();
+        List<String> columns = new ArrayList<>(columnCount);
+        for (int i = 1; i <= columnCount; i++) {
+            columns.add(meta.getColumnLabel(i));
+        }
+
+        Object[] values = new Object[columnCount];
+        try (TabularExportWriter writer = new TabularExportWriter(out, format, gzip, columns)) {
+            while (rs.next()) {
+                for (int i = 0; i < columnCount; i++) {
+                    Object value = rs.getObject(i + 1);
+                    if (value instanceof Timestamp timestamp) {
+                        value = timestamp.toLocalDateTime();
+                    } else if (value instanceof Date date) {
+                        value = date.toLocalDate();
+                    }
+                    values[i] = value;
+                }
+                writer.writeRow(values);
+            }
+            return writer.getRowCount();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.FacetedSearchResultDto;
+import com.example.rentello.entity.view.AvailableVehicle;
+import com.example.rentello.event.VehicleChangedEvent;
+import com.example.rentello.repository.FleetProjectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Faceted search over available vehicles using per-value bitmaps
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FacetedSearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final FleetProjectionRepository fleetProjectionRepository;
+
+    private final VehicleFacetIndex index = new VehicleFacetIndex();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    // Yeniden yükleme sürerken gelen değişiklikler yeni içeriğe sonradan uygulanır
+    private final Queue<VehicleChangedEvent> pending = new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            log.warn("Vehicle facet index could not be built on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload every vehicle; changes committed while the rows are loading are replayed on the new index
+     */
+    public synchronized int rebuildIndex() {
+        pending.clear();
+        rebuilding = true;
+        List<FleetProjectionRepository.VehicleRow> documents;
+        try {
+            documents = fleetProjectionRepository.findAll();
+            index.replaceAll(documents);
+            ready = true;
+        } finally {
+            rebuilding = false;
+        }
+        VehicleChangedEvent event;
+        while ((event = pending.poll()) != null) {
+            apply(event);
+        }
+        log.info("Vehicle facet index built with {} vehicles", documents.size());
+        return documents.size();
+    }
+
+    /**
+     * Move the vehicle's bits once its status, location or details change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.vehicleId() == null) {
+            return;
+        }
+        // Olaylar tekrar uygulanabilir: güncel satır yeniden okunur, silme idempotent
+        if (rebuilding) {
+            pending.add(event);
+        }
+        if (ready) {
+            apply(event);
+        }
+    }
+
+    private void apply(VehicleChangedEvent event) {
+        try {
+            if (event.changeType() == VehicleChangedEvent.ChangeType.DELETED) {
+                index.remove(event.vehicleId());
+                return;
+            }
+            fleetProjectionRepository.findById(event.vehicleId())
+                .ifPresentOrElse(index::put, () -> index.remove(event.vehicleId()));
+        } catch (Exception e) {
+            log.warn("Facet index update failed for vehicle {}: {}", event.vehicleId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Filter available vehicles and return per-facet counts for the current selection
+     */
+    public FacetedSearchResultDto search(Map<VehicleFacetIndex.Facet, Set<String>> selection,
+                                         BigDecimal minRate, BigDecimal maxRate, int page, int size) {
+        if (!ready) {
+            rebuildIndex();
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+
+        VehicleFacetIndex.Result result = index.search(selection, minRate, maxRate, pageNumber, pageSize);
+        List<AvailableVehicle> vehicles = result.vehicles().stream()
+            .map(FleetProjectionRepository.VehicleRow::toAvailableVehicle)
+            .toList();
+        return new FacetedSearchResultDto(vehicles, pageNumber, pageSize, result.total(), result.countsByKey());
+    }
+}
@@ -0,0 +1,301 @@
+package com.example.rentello.service;
+
+import com.example.rentello.repository.FleetProjectionRepository.VehicleRow;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Columnar (struct-of-arrays) copy of the fleet: one primitive array per filterable attribute.
+ * Range predicates run as SIMD lane comparisons through the Vector API when the JVM was started with
+ * --add-modules jdk.incubator.vector. Without the module the scalar loop is used; it evaluates the
+ * predicates with non short-circuit comparisons and branch-free compaction.
+ */
+public class FleetSnapshot {
+
+    // -Drentello.fleet.scalar=true vektör yolunu kapatır (karşılaştırma ve sorun giderme için)
+    static final boolean VECTOR_AVAILABLE = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()
+            && !Boolean.getBoolean("rentello.fleet.scalar");
+
+    public enum SortKey {
+        RATE,
+        MILEAGE,
+        YEAR,
+        SEATS
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Integer> ordinalByVehicleId = new HashMap<>();
+
+    // Kolonlar - aynı index aynı aracı gösterir
+    private int[] rateCents = new int[0];
+    private int[] mileage = new int[0];
+    private int[] year = new int[0];
+    private int[] seats = new int[0];
+    private int[] available = new int[0];   // 1 = kiralanabilir, 0 = değil veya silinmiş
+    private VehicleRow[] rows = new VehicleRow[0];
+    private int size;
+
+    public void replaceAll(Collection<VehicleRow> all) {
+        lock.writeLock().lock();
+        try {
+            int capacity = Math.max(1024, all.size() + all.size() / 8);
+            rateCents = new int[capacity];
+            mileage = new int[capacity];
+            year = new int[capacity];
+            seats = new int[capacity];
+            available = new int[capacity];
+            rows = new VehicleRow[capacity];
+            ordinalByVehicleId.clear();
+            size = 0;
+            for (VehicleRow row : all) {
+                ordinalByVehicleId.put(row.vehicleId(), size);
+                write(size++, row);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Insert or overwrite a single vehicle in place
+     */
+    public void put(VehicleRow row) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByVehicleId.get(row.vehicleId());
+            if (ordinal == null) {
+                ensureCapacity(size + 1);
+                ordinal = size++;
+                ordinalByVehicleId.put(row.vehicleId(), ordinal);
+            }
+            write(ordinal, row);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove a vehicle by moving the last row into its slot, keeping the columns dense
+     */
+    public void remove(Integer vehicleId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByVehicleId.remove(vehicleId);
+            if (ordinal == null) {
+                return;
+            }
+            int last = --size;
+            if (ordinal != last) {
+                rateCents[ordinal] = rateCents[last];
+                mileage[ordinal] = mileage[last];
+                year[ordinal] = year[last];
+                seats[ordinal] = seats[last];
+                available[ordinal] = available[last];
+                rows[ordinal] = rows[last];
+                ordinalByVehicleId.put(rows[ordinal].vehicleId(), ordinal);
+            }
+            rows[last] = null;
+            available[last] = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Multi-criteria range scan over available vehicles, followed by a top-N on the sort key
+     */
+    public Result query(Criteria criteria) {
+        return query(criteria, VECTOR_AVAILABLE);
+    }
+
+    /**
+     * Same as {@link #query(Criteria)} with the scan path chosen by the caller; the vector path needs the module
+     */
+    Result query(Criteria criteria, boolean vectorized) {
+        if (vectorized && !VECTOR_AVAILABLE) {
+            throw new IllegalStateException("jdk.incubator.vector is not available in this JVM");
+        }
+        long start = System.nanoTime();
+        lock.readLock().lock();
+        try {
+            int n = size;
+            int[] matches = new int[n];
+            int count;
+            if (vectorized) {
+                long scanned = FleetVectorScan.scan(criteria, n, rateCents, mileage, year, seats, available, matches);
+                // Vektör genişliğine sığmayan son satırlar skaler döngüyle
+                count = scan(criteria, (int) (scanned >>> 32), n, matches, (int) scanned);
+            } else {
+                count = scan(criteria, 0, n, matches, 0);
+            }
+
+            int limit = Math.max(0, Math.min(criteria.limit(), count));
+            int[] top = topN(matches, count, limit, column(criteria.sortKey()), criteria.descending());
+
+            List<VehicleRow> result = new ArrayList<>(top.length);
+            for (int ordinal : top) {
+                result.add(rows[ordinal]);
+            }
+            return new Result(result, count, (System.nanoTime() - start) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int scan(Criteria c, int from, int n, int[] matches, int count) {
+        int minRate = c.minRate(), maxRate = c.maxRate();
+        int minMileage = c.minMileage(), maxMileage = c.maxMileage();
+        int minYear = c.minYear(), maxYear = c.maxYear();
+        int minSeats = c.minSeats(), maxSeats = c.maxSeats();
+        int[] rate = rateCents, km = mileage, yr = year, st = seats, av = available;
+
+        for (int i = from; i < n; i++) {
+            // & (kısa devre yapmayan) ile dallanmasız değerlendirme
+            boolean match = av[i] != 0
+                    & rate[i] >= minRate & rate[i] <= maxRate
+                    & km[i] >= minMileage & km[i] <= maxMileage
+                    & yr[i] >= minYear & yr[i] <= maxYear
+                    & st[i] >= minSeats & st[i] <= maxSeats;
+            matches[count] = i;
+            count += match ? 1 : 0;
+        }
+        return count;
+    }
+
+    /**
+     * Bounded heap over packed (key, ordinal) longs; no boxing and O(count log limit)
+     */
+    private static int[] topN(int[] matches, int count, int limit, int[] keys, boolean descending) {
+        if (limit == 0) {
+            return new int[0];
+        }
+        // Heap'in tepesinde o ana kadar tutulanların "en kötüsü" durur
+        long[] heap = new long[limit];
+        int heapSize = 0;
+        for (int i = 0; i < count; i++) {
+            int ordinal = matches[i];
+            long key = descending ? -(long) keys[ordinal] : keys[ordinal];
+            long packed = (key << 32) | ordinal;
+            if (heapSize < limit) {
+                heap[heapSize] = packed;
+                siftUp(heap, heapSize++);
+            } else if (packed < heap[0]) {
+                heap[0] = packed;
+                siftDown(heap, heapSize);
+            }
+        }
+        Arrays.sort(heap, 0, heapSize);
+        int[] ordinals = new int[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            ordinals[i] = (int) heap[i];
+        }
+        return ordinals;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        long value = heap[index];
+        while (index > 0) {
+            int parent = (index - 1) >>> 1;
+            if (heap[parent] >= value) break;
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        long value = heap[0];
+        int index = 0;
+        while (true) {
+            int child = 2 * index + 1;
+            if (child >= size) break;
+            if (child + 1 < size && heap[child + 1] > heap[child]) child++;
+            if (heap[child] <= value) break;
+            heap[index] = heap[child];
+            index = child;
+        }
+        heap[index] = value;
+    }
+
+    private int[] column(SortKey sortKey) {
+        return switch (sortKey) {
+            case RATE -> rateCents;
+            case MILEAGE -> mileage;
+            case YEAR -> year;
+            case SEATS -> seats;
+        };
+    }
+
+    private void write(int ordinal, VehicleRow row) {
+        rateCents[ordinal] = row.dailyRentalRate() != null
+                ? (int) Math.min(Integer.MAX_VALUE,
+                        row.dailyRentalRate().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue())
+                : 0;
+        mileage[ordinal] = row.mileage() != null ? row.mileage() : 0;
+        year[ordinal] = row.manufactureYear() != null ? row.manufactureYear() : 0;
+        seats[ordinal] = row.seatingCapacity() != null ? row.seatingCapacity() : 0;
+        available[ordinal] = row.availableForRent() ? 1 : 0;
+        rows[ordinal] = row;
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > rows.length) {
+            int capacity = Math.max(required, Math.max(1024, rows.length * 2));
+            rateCents = Arrays.copyOf(rateCents, capacity);
+            mileage = Arrays.copyOf(mileage, capacity);
+            year = Arrays.copyOf(year, capacity);
+            seats = Arrays.copyOf(seats, capacity);
+            available = Arrays.copyOf(available, capacity);
+            rows = Arrays.copyOf(rows, capacity);
+        }
+    }
+
+    /**
+     * Inclusive ranges; unset bounds are open
+     */
+    public record Criteria(int minRate, int maxRate, int minMileage, int maxMileage,
+                           int minYear, int maxYear, int minSeats, int maxSeats,
+                           SortKey sortKey, boolean descending, int limit) {
+
+        public static Criteria of(BigDecimal minRate, BigDecimal maxRate, Integer minMileage, Integer maxMileage,
+                                  Integer minYear, Integer maxYear, Integer minSeats, Integer maxSeats,
+                                  SortKey sortKey, boolean descending, int limit) {
+            return new Criteria(
+                    minRate != null ? cents(minRate, RoundingMode.CEILING) : Integer.MIN_VALUE,
+                    maxRate != null ? cents(maxRate, RoundingMode.FLOOR) : Integer.MAX_VALUE,
+                    minMileage != null ? minMileage : Integer.MIN_VALUE,
+                    maxMileage != null ? maxMileage : Integer.MAX_VALUE,
+                    minYear != null ? minYear : Integer.MIN_VALUE,
+                    maxYear != null ? maxYear : Integer.MAX_VALUE,
+                    minSeats != null ? minSeats : Integer.MIN_VALUE,
+                    maxSeats != null ? maxSeats : Integer.MAX_VALUE,
+                    sortKey != null ? sortKey : SortKey.RATE,
+                    descending,
+                    limit);
+        }
+
+        private static int cents(BigDecimal amount, RoundingMode mode) {
+            BigDecimal cents = amount.movePointRight(2).setScale(0, mode);
+            return cents.max(BigDecimal.valueOf(Integer.MIN_VALUE)).min(BigDecimal.valueOf(Integer.MAX_VALUE)).intValue();
+        }
+    }
+
+    public record Result(List<VehicleRow> vehicles, int totalMatches, long elapsedMicros) {}
+}
@@ -0,0 +1,132 @@
+package com.example.rentello.service;
+
+import com.example.rentello.entity.view.AvailableVehicle;
+import com.example.rentello.event.VehicleChangedEvent;
+import com.example.rentello.repository.FleetProjectionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps the columnar fleet snapshot loaded and in sync with vehicle changes
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FleetSnapshotService {
+
+    public static final int MAX_LIMIT = 1000;
+
+    private final FleetProjectionRepository fleetProjectionRepository;
+
+    private final FleetSnapshot snapshot = new FleetSnapshot();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    // Yeniden yükleme sürerken gelen değişiklikler yeni içeriğe sonradan uygulanır
+    private final Queue<VehicleChangedEvent> pending = new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Fleet snapshot could not be built on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload the fleet; changes committed while the rows are loading are replayed on the new snapshot
+     */
+    public synchronized int rebuild() {
+        pending.clear();
+        rebuilding = true;
+        List<FleetProjectionRepository.VehicleRow> rows;
+        try {
+            rows = fleetProjectionRepository.findAll();
+            snapshot.replaceAll(rows);
+            ready = true;
+        } finally {
+            rebuilding = false;
+        }
+        VehicleChangedEvent event;
+        while ((event = pending.poll()) != null) {
+            apply(event);
+        }
+        log.info("Fleet snapshot built with {} vehicles", rows.size());
+        return rows.size();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.vehicleId() == null) {
+            return;
+        }
+        // Olaylar tekrar uygulanabilir: güncel satır yeniden okunur, silme idempotent
+        if (rebuilding) {
+            pending.add(event);
+        }
+        if (ready) {
+            apply(event);
+        }
+    }
+
+    private void apply(VehicleChangedEvent event) {
+        try {
+            if (event.changeType() == VehicleChangedEvent.ChangeType.DELETED) {
+                snapshot.remove(event.vehicleId());
+                return;
+            }
+            fleetProjectionRepository.findById(event.vehicleId())
+                .ifPresentOrElse(snapshot::put, () -> snapshot.remove(event.vehicleId()));
+        } catch (Exception e) {
+            log.warn("Fleet snapshot update failed for vehicle {}: {}", event.vehicleId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Range filter over available vehicles with a top-N on the chosen sort key
+     */
+    public Map<String, Object> filter(FleetSnapshot.Criteria criteria) {
+        FleetSnapshot.Result result = query(criteria);
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("vehicles", toAvailableVehicles(result));
+        response.put("totalMatches", result.totalMatches());
+        response.put("fleetSize", snapshot.size());
+        response.put("elapsedMicros", result.elapsedMicros());
+        return response;
+    }
+
+    /**
+     * All available vehicles ordered by the given key
+     */
+    public List<AvailableVehicle> getAvailableOrderedBy(FleetSnapshot.SortKey sortKey, boolean descending) {
+        if (!ready) {
+            rebuild();
+        }
+        FleetSnapshot.Criteria criteria = FleetSnapshot.Criteria.of(null, null, null, null, null, null,
+            null, null, sortKey, descending, snapshot.size());
+        return toAvailableVehicles(snapshot.query(criteria));
+    }
+
+    private FleetSnapshot.Result query(FleetSnapshot.Criteria criteria) {
+        if (!ready) {
+            rebuild();
+        }
+        return snapshot.query(criteria);
+    }
+
+    private static List<AvailableVehicle> toAvailableVehicles(FleetSnapshot.Result result) {
+        return result.vehicles().stream()
+            .map(FleetProjectionRepository.VehicleRow::toAvailableVehicle)
+            .toList();
+    }
+}
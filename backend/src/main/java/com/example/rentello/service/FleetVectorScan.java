@@ -0,0 +1,64 @@
+package com.example.rentello.service;
+
+import jdk.incubator.vector.IntVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * SIMD range scan over the fleet columns with the incubating Vector API.
+ * Only loaded when the jdk.incubator.vector module is present; FleetSnapshot falls back to its scalar loop otherwise.
+ */
+final class FleetVectorScan {
+
+    private static final VectorSpecies<Integer> SPECIES = IntVector.SPECIES_PREFERRED;
+
+    private FleetVectorScan() {
+    }
+
+    static int lanes() {
+        return SPECIES.length();
+    }
+
+    /**
+     * Scan whole vectors of rows and write matching ordinals; returns the first row left for the scalar tail
+     * in the high int and the match count in the low int
+     */
+    static long scan(FleetSnapshot.Criteria c, int n, int[] rate, int[] mileage, int[] year, int[] seats,
+                     int[] available, int[] matches) {
+        // Açık uçlu aralıklar hiç yüklenmez; sadece verilen kolonlar taranır
+        boolean byRate = c.minRate() != Integer.MIN_VALUE || c.maxRate() != Integer.MAX_VALUE;
+        boolean byMileage = c.minMileage() != Integer.MIN_VALUE || c.maxMileage() != Integer.MAX_VALUE;
+        boolean byYear = c.minYear() != Integer.MIN_VALUE || c.maxYear() != Integer.MAX_VALUE;
+        boolean bySeats = c.minSeats() != Integer.MIN_VALUE || c.maxSeats() != Integer.MAX_VALUE;
+
+        int count = 0;
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            VectorMask<Integer> mask = IntVector.fromArray(SPECIES, available, i).compare(VectorOperators.NE, 0);
+            if (byRate && mask.anyTrue()) {
+                mask = mask.and(inRange(rate, i, c.minRate(), c.maxRate()));
+            }
+            if (byMileage && mask.anyTrue()) {
+                mask = mask.and(inRange(mileage, i, c.minMileage(), c.maxMileage()));
+            }
+            if (byYear && mask.anyTrue()) {
+                mask = mask.and(inRange(year, i, c.minYear(), c.maxYear()));
+            }
+            if (bySeats && mask.anyTrue()) {
+                mask = mask.and(inRange(seats, i, c.minSeats(), c.maxSeats()));
+            }
+            // Maske bitlerinden eşleşen satır numaraları
+            for (long bits = mask.toLong(); bits != 0; bits &= bits - 1) {
+                matches[count++] = i + Long.numberOfTrailingZeros(bits);
+            }
+        }
+        return ((long) i << 32) | count;
+    }
+
+    private static VectorMask<Integer> inRange(int[] column, int offset, int min, int max) {
+        IntVector values = IntVector.fromArray(SPECIES, column, offset);
+        return values.compare(VectorOperators.GE, min).and(values.compare(VectorOperators.LE, max));
+    }
+}
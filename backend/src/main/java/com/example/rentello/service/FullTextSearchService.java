@@ -0,0 +1,209 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.VehicleSearchResultDto;
+import com.example.rentello.event.VehicleChangedEvent;
+import com.example.rentello.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Vehicle search over an in-memory inverted index, kept in sync with vehicle writes.
+ * Writes committed while a rebuild is loading are queued and applied again on top of the rebuilt index.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FullTextSearchService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private static final String DOCUMENT_SQL =
+        "SELECT v.VehicleID, v.VehicleRegistration, v.Color, v.VehicleDescription, v.DailyRentalRate, " +
+        "       m.ModelName, m.ManufactureYear, b.BrandName, c.CategoryName, s.StatusName " +
+        "FROM Vehicles v " +
+        "JOIN VehicleModels m ON m.ModelID = v.ModelID " +
+        "JOIN VehicleBrands b ON b.BrandID = m.BrandID " +
+        "JOIN VehicleCategories c ON c.CategoryID = m.CategoryID " +
+        "JOIN VehicleStatus s ON s.StatusID = v.CurrentStatusID";
+
+    private static final RowMapper<VehicleSearchIndex.Document> DOCUMENT_MAPPER = (rs, rowNum) ->
+        new VehicleSearchIndex.Document(
+            rs.getInt("VehicleID"),
+            rs.getString("VehicleRegistration"),
+            rs.getString("BrandName"),
+            rs.getString("ModelName"),
+            rs.getString("CategoryName"),
+            rs.getString("Color"),
+            rs.getString("VehicleDescription"),
+            (Integer) rs.getObject("ManufactureYear"),
+            rs.getBigDecimal("DailyRentalRate"),
+            rs.getString("StatusName"));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final VehicleRepository vehicleRepository;
+
+    private final VehicleSearchIndex index = new VehicleSearchIndex();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    // Yeniden yükleme sürerken gelen değişiklikler yeni içeriğe sonradan uygulanır
+    private final Queue<VehicleChangedEvent> pending = new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuildIndex();
+        } catch (Exception e) {
+            log.warn("Vehicle search index could not be built on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Load all vehicles with a single joined query and replace the index
+     */
+    public synchronized int rebuildIndex() {
+        long start = System.currentTimeMillis();
+        pending.clear();
+        rebuilding = true;
+        List<VehicleSearchIndex.Document> documents;
+        try {
+            documents = jdbcTemplate.query(DOCUMENT_SQL, DOCUMENT_MAPPER);
+            index.replaceAll(documents);
+            ready = true;
+        } finally {
+            rebuilding = false;
+        }
+        VehicleChangedEvent event;
+        while ((event = pending.poll()) != null) {
+            apply(event);
+        }
+        log.info("Vehicle search index built: {} vehicles, {} terms in {} ms",
+            documents.size(), index.termCount(), System.currentTimeMillis() - start);
+        return documents.size();
+    }
+
+    /**
+     * Keep the index in sync once the vehicle write is committed
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.vehicleId() == null) {
+            return;
+        }
+        // Olaylar tekrar uygulanabilir: güncel satır yeniden okunur, silme idempotent
+        if (rebuilding) {
+            pending.add(event);
+        }
+        if (ready) {
+            apply(event);
+        }
+    }
+
+    private void apply(VehicleChangedEvent event) {
+        try {
+            if (event.changeType() == VehicleChangedEvent.ChangeType.DELETED) {
+                index.remove(event.vehicleId());
+                return;
+            }
+            List<VehicleSearchIndex.Document> documents = jdbcTemplate.query(
+                DOCUMENT_SQL + " WHERE v.VehicleID = ?", DOCUMENT_MAPPER, event.vehicleId());
+            if (documents.isEmpty()) {
+                index.remove(event.vehicleId());
+            } else {
+                index.put(documents.get(0));
+            }
+        } catch (Exception e) {
+            log.warn("Search index update failed for vehicle {}: {}", event.vehicleId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Ranked, paginated vehicle search
+     */
+    public Page<VehicleSearchResultDto> search(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Search query is required");
+        }
+        ensureReady();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int pageNumber = Math.max(0, page);
+
+        VehicleSearchIndex.Hits hits = index.search(query, pageNumber, pageSize);
+        List<VehicleSearchResultDto> content = hits.hits().stream()
+            .map(this::toDto)
+            .toList();
+        return new PageImpl<>(content, PageRequest.of(pageNumber, pageSize), hits.total());
+    }
+
+    /**
+     * Compare the index against the LIKE based repository search for the same term
+     */
+    public Map<String, Object> benchmark(String query, int iterations) {
+        ensureReady();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", query);
+        result.put("indexedVehicles", index.size());
+        result.put("iterations", iterations);
+
+        long start = System.nanoTime();
+        long indexHits = 0;
+        for (int i = 0; i < iterations; i++) {
+            indexHits = index.search(query, 0, 20).total();
+        }
+        result.put("indexAvgMicros", (System.nanoTime() - start) / 1000.0 / iterations);
+        result.put("indexHits", indexHits);
+
+        start = System.nanoTime();
+        int likeHits = 0;
+        for (int i = 0; i < iterations; i++) {
+            likeHits = vehicleRepository.searchVehicles(query).size();
+        }
+        result.put("likeAvgMicros", (System.nanoTime() - start) / 1000.0 / iterations);
+        result.put("likeHits", likeHits);
+        return result;
+    }
+
+    public Map<String, Object> getIndexStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("vehicles", index.size());
+        stats.put("terms", index.termCount());
+        return stats;
+    }
+
+    private void ensureReady() {
+        if (!ready) {
+            rebuildIndex();
+        }
+    }
+
+    private VehicleSearchResultDto toDto(VehicleSearchIndex.Hit hit) {
+        VehicleSearchIndex.Document document = hit.document();
+        return new VehicleSearchResultDto(
+            document.vehicleId(),
+            document.registration(),
+            document.brand(),
+            document.model(),
+            document.category(),
+            document.color(),
+            document.manufactureYear(),
+            document.dailyRate(),
+            document.status(),
+            document.description(),
+            hit.score());
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.CursorPageDto;
+import com.example.rentello.util.CursorCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Keyset (seek) pagination over JPA repositories.
+ * Pages are read with "WHERE (sortKey, id) > (last row)" instead of OFFSET, so page N costs the same as page 1.
+ * Total counts are optional and cached for a short time because COUNT(*) is the expensive part on big tables.
+ */
+@Service
+public class KeysetPaginationService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    @Value("${app.pagination.count-cache-seconds:30}")
+    private long countCacheSeconds;
+
+    private final Map<String, CachedCount> counts = new ConcurrentHashMap<>();
+
+    /**
+     * Read one page after the given cursor.
+     * Only non-null columns may be used as sort keys; the id is always appended as tie-breaker.
+     */
+    public <T, D> CursorPageDto<D> scroll(JpaSpecificationExecutor<T> repository, String countKey,
+                                          Set<String> sortableProperties, String idProperty,
+                                          String cursor, int size, String sortBy, String sortDirection,
+                                          boolean includeTotal, Function<T, D> mapper) {
+        return scrollPage(repository, countKey, sortableProperties, idProperty, cursor, size, sortBy, sortDirection,
+            includeTotal, rows -> rows.stream().map(mapper).toList());
+    }
+
+    /**
+     * Same as scroll, but the mapper sees the whole page so it can load per-row aggregates in one query
+     */
+    public <T, D> CursorPageDto<D> scrollPage(JpaSpecificationExecutor<T> repository, String countKey,
+                                              Set<String> sortableProperties, String idProperty,
+                                              String cursor, int size, String sortBy, String sortDirection,
+                                              boolean includeTotal, Function<List<T>, List<D>> pageMapper) {
+        if (!sortableProperties.contains(sortBy)) {
+            throw new RuntimeException("Unsupported sort field: " + sortBy + " (allowed: " + sortableProperties + ")");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = sortBy.equals(idProperty)
+            ? Sort.by(direction, idProperty)
+            : Sort.by(direction, sortBy, idProperty);
+
+        String signature = sortBy + ":" + direction.name();
+        KeysetScrollPosition position = CursorCodec.decode(cursor, signature);
+
+        Specification<T> all = (root, query, cb) -> null;
+        Window<T> window = repository.findBy(all, q -> q.sortBy(sort).limit(pageSize).scroll(position));
+
+        List<D> content = pageMapper.apply(window.getContent());
+        String nextCursor = window.hasNext() && !window.isEmpty()
+            ? CursorCodec.encode((KeysetScrollPosition) window.positionAt(window.size() - 1), signature)
+            : null;
+        Long total = includeTotal ? count(repository, countKey) : null;
+
+        return new CursorPageDto<>(content, content.size(), nextCursor != null, nextCursor, total);
+    }
+
+    private <T> long count(JpaSpecificationExecutor<T> repository, String countKey) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(countKey);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.value();
+        }
+        Specification<T> all = (root, query, cb) -> null;
+        long value = repository.count(all);
+        counts.put(countKey, new CachedCount(value, now + countCacheSeconds * 1000));
+        return value;
+    }
+
+    private record CachedCount(long value, long expiresAt) {}
+}
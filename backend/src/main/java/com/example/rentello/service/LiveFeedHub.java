@@ -0,0 +1,243 @@
+package com.example.rentello.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fan-out of live operation events to many subscribers.
+ * Publishing never blocks: every subscriber has a bounded buffer drained by its own virtual thread.
+ * A subscriber whose buffer overflows gets its buffer replaced by a single "resync" event; one that
+ * keeps overflowing is dropped. Recent events are kept so a reconnecting client can resume from Last-Event-ID.
+ */
+@Slf4j
+public class LiveFeedHub {
+
+    public static final String RESYNC = "resync";
+    public static final String DROPPED = "dropped";
+
+    private static final LiveEvent CLOSE = new LiveEvent(0, "close", "{}");
+
+    private final int bufferSize;
+    private final int maxResyncs;
+    private final int historySize;
+
+    private final Object publishLock = new Object();
+    private final ArrayDeque<LiveEvent> history = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private long sequence;
+    private final AtomicLong subscriberIds = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong resyncs = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    public LiveFeedHub(int bufferSize, int maxResyncs, int historySize) {
+        this(bufferSize, maxResyncs, historySize, 0);
+    }
+
+    /**
+     * initialSequence is the id before the first event; starting every run above the previous one lets
+     * clients that reconnect after a restart be detected and resynced instead of seeing reused ids
+     */
+    public LiveFeedHub(int bufferSize, int maxResyncs, int historySize, long initialSequence) {
+        if (bufferSize < 2) {
+            throw new IllegalArgumentException("bufferSize must be at least 2");
+        }
+        this.bufferSize = bufferSize;
+        this.maxResyncs = maxResyncs;
+        this.historySize = historySize;
+        this.sequence = initialSequence;
+    }
+
+    /**
+     * Register a subscriber; with lastEventId the missed events are replayed, or a resync is sent
+     * when they are no longer in the history or the id was never issued by this hub (e.g. before a restart).
+     * An empty type set means every type.
+     */
+    public Subscriber subscribe(Sink sink, Set<String> types, Long lastEventId) {
+        Subscriber subscriber = new Subscriber(subscriberIds.incrementAndGet(), sink, types);
+        synchronized (publishLock) {
+            if (lastEventId != null && lastEventId > sequence) {
+                subscriber.queue.offer(resyncEvent());
+            } else if (lastEventId != null && lastEventId < sequence) {
+                long oldest = history.isEmpty() ? sequence + 1 : history.peekFirst().id();
+                List<LiveEvent> missed = new ArrayList<>();
+                for (LiveEvent event : history) {
+                    if (event.id() > lastEventId && subscriber.accepts(event.type())) {
+                        missed.add(event);
+                    }
+                }
+                if (lastEventId + 1 < oldest || missed.size() >= bufferSize) {
+                    subscriber.queue.offer(resyncEvent());
+                } else {
+                    missed.forEach(subscriber.queue::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+        Thread.ofVirtual().name("live-feed-" + subscriber.id).start(subscriber::drain);
+        return subscriber;
+    }
+
+    public void unsubscribe(Subscriber subscriber) {
+        subscriber.close(null);
+    }
+
+    /**
+     * Sequenced delta; kept in the history for Last-Event-ID resume
+     */
+    public LiveEvent publish(String type, String json) {
+        synchronized (publishLock) {
+            LiveEvent event = new LiveEvent(++sequence, type, json);
+            history.addLast(event);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            for (Subscriber subscriber : subscribers) {
+                if (subscriber.accepts(type)) {
+                    subscriber.offer(event);
+                }
+            }
+            published.incrementAndGet();
+            return event;
+        }
+    }
+
+    /**
+     * Unsequenced snapshot (periodic counters); not replayed, every subscriber receives it
+     */
+    public void broadcast(String type, String json) {
+        LiveEvent event = new LiveEvent(0, type, json);
+        synchronized (publishLock) {
+            for (Subscriber subscriber : subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    public long getLastEventId() {
+        synchronized (publishLock) {
+            return sequence;
+        }
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    public long getPublishedCount() {
+        return published.get();
+    }
+
+    public long getResyncCount() {
+        return resyncs.get();
+    }
+
+    public long getDroppedCount() {
+        return dropped.get();
+    }
+
+    private LiveEvent resyncEvent() {
+        return new LiveEvent(0, RESYNC, "{\"lastEventId\":" + sequence + "}");
+    }
+
+    /**
+     * id 0 means the event carries no SSE id
+     */
+    public record LiveEvent(long id, String type, String json) {
+    }
+
+    public interface Sink {
+
+        void send(LiveEvent event) throws IOException;
+
+        void close();
+    }
+
+    public class Subscriber {
+
+        private final long id;
+        private final Sink sink;
+        private final Set<String> types;
+        private final BlockingQueue<LiveEvent> queue = new ArrayBlockingQueue<>(bufferSize);
+        private int overflows;
+        private volatile boolean closed;
+
+        private Subscriber(long id, Sink sink, Set<String> types) {
+            this.id = id;
+            this.sink = sink;
+            this.types = types != null ? types : Set.of();
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public boolean isClosed() {
+            return closed;
+        }
+
+        private boolean accepts(String type) {
+            return types.isEmpty() || types.contains(type);
+        }
+
+        // publishLock altında çağrılır
+        private void offer(LiveEvent event) {
+            if (closed || queue.offer(event)) {
+                return;
+            }
+            if (++overflows > maxResyncs) {
+                dropped.incrementAndGet();
+                log.debug("Live feed subscriber {} dropped after {} overflows", id, overflows);
+                close(new LiveEvent(0, DROPPED, "{\"reason\":\"slow consumer\"}"));
+                return;
+            }
+            // Biriken olaylar atılır; istemci resync ile güncel durumu REST'ten yeniden okur
+            resyncs.incrementAndGet();
+            queue.clear();
+            queue.offer(resyncEvent());
+        }
+
+        private void close(LiveEvent last) {
+            synchronized (publishLock) {
+                if (closed) {
+                    return;
+                }
+                closed = true;
+                subscribers.remove(this);
+                queue.clear();
+                if (last != null) {
+                    queue.offer(last);
+                }
+                queue.offer(CLOSE);
+            }
+        }
+
+        private void drain() {
+            try {
+                while (true) {
+                    LiveEvent event = queue.take();
+                    if (event == CLOSE) {
+                        break;
+                    }
+                    sink.send(event);
+                }
+            } catch (IOException e) {
+                log.debug("Live feed subscriber {} disconnected: {}", id, e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close(null);
+                sink.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.example.rentello.service;
+
+import com.example.rentello.event.PaymentChangedEvent;
+import com.example.rentello.event.RentalChangedEvent;
+import com.example.rentello.event.VehicleChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Live operations feed for admin and station screens.
+ * Rental, payment and vehicle change events (published by the JPA listeners and the stored procedure
+ * calls behind RentalService/PaymentService) are looked up once, serialized once and fanned out by
+ * {@link LiveFeedHub}; subscribers never cause a query of their own. Events are sequenced into the
+ * history even while nobody is connected, so a client that reconnects after a gap is replayed or resynced.
+ */
+@Service
+@Slf4j
+public class LiveFeedService {
+
+    public static final Set<String> TYPES = Set.of("rental", "return", "payment", "vehicle");
+
+    // Tamamlandi
+    private static final int RETURNED_STATUS_ID = 4;
+
+    private static final String RENTAL_SQL =
+        "SELECT r.RentalID, r.RentalStatusID, rs.StatusName, r.VehicleID, v.VehicleRegistration, " +
+        "r.PickupLocationID, r.ReturnLocationID, r.PlannedPickupDate, r.PlannedReturnDate, r.ActualReturnDate, r.TotalAmount " +
+        "FROM Rentals r JOIN RentalStatus rs ON rs.RentalStatusID = r.RentalStatusID " +
+        "JOIN Vehicles v ON v.VehicleID = r.VehicleID WHERE r.RentalID = ?";
+    private static final String PAYMENT_SQL =
+        "SELECT p.PaymentID, p.RentalID, p.PaymentAmount, p.PaymentStatus, p.PaymentDate FROM Payments p WHERE p.PaymentID = ?";
+    private static final String VEHICLE_SQL =
+        "SELECT v.VehicleID, v.VehicleRegistration, v.CurrentStatusID, vs.StatusName, v.CurrentLocationID " +
+        "FROM Vehicles v JOIN VehicleStatus vs ON vs.StatusID = v.CurrentStatusID WHERE v.VehicleID = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final RevenueCounterService revenueCounterService;
+    private final DashboardSnapshotService dashboardSnapshotService;
+    private final LiveFeedHub hub;
+    private final long emitterTimeoutMs;
+
+    public LiveFeedService(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                           RevenueCounterService revenueCounterService, DashboardSnapshotService dashboardSnapshotService,
+                           @Value("${app.live-feed.buffer-size:256}") int bufferSize,
+                           @Value("${app.live-feed.max-resyncs:3}") int maxResyncs,
+                           @Value("${app.live-feed.history-size:1024}") int historySize,
+                           @Value("${app.live-feed.timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.revenueCounterService = revenueCounterService;
+        this.dashboardSnapshotService = dashboardSnapshotService;
+        // Her çalıştırmada id'ler öncekinden büyük başlar; eski Last-Event-ID ile gelen istemci resync alır
+        this.hub = new LiveFeedHub(bufferSize, maxResyncs, historySize, System.currentTimeMillis() * 1000);
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    /**
+     * Open an SSE stream; types narrows the deltas (counters and resync events always arrive)
+     */
+    public SseEmitter subscribe(Set<String> types, Long lastEventId) {
+        for (String type : types) {
+            if (!TYPES.contains(type)) {
+                throw new RuntimeException("Unknown live feed type: " + type + " " + TYPES);
+            }
+        }
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        LiveFeedHub.Subscriber subscriber = hub.subscribe(new LiveFeedHub.Sink() {
+            @Override
+            public void send(LiveFeedHub.LiveEvent event) throws IOException {
+                SseEmitter.SseEventBuilder builder = SseEmitter.event().name(event.type()).data(event.json());
+                if (event.id() > 0) {
+                    builder.id(String.valueOf(event.id()));
+                }
+                emitter.send(builder);
+            }
+
+            @Override
+            public void close() {
+                emitter.complete();
+            }
+        }, types, lastEventId);
+        emitter.onCompletion(() -> hub.unsubscribe(subscriber));
+        emitter.onTimeout(() -> hub.unsubscribe(subscriber));
+        emitter.onError(e -> hub.unsubscribe(subscriber));
+        return emitter;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.rentalId() == null) {
+            return;
+        }
+        Map<String, Object> data = event.changeType() == RentalChangedEvent.ChangeType.DELETED
+            ? null : lookup(RENTAL_SQL, event.rentalId());
+        boolean returned = data != null && event.changeType() == RentalChangedEvent.ChangeType.UPDATED
+            && data.get("RentalStatusID") instanceof Number status && status.intValue() == RETURNED_STATUS_ID;
+        publish(returned ? "return" : "rental", event.rentalId(), event.changeType().name(), data);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        if (event.paymentId() == null) {
+            return;
+        }
+        Map<String, Object> data = event.changeType() == PaymentChangedEvent.ChangeType.DELETED
+            ? null : lookup(PAYMENT_SQL, event.paymentId());
+        publish("payment", event.paymentId(), event.changeType().name(), data);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.vehicleId() == null) {
+            return;
+        }
+        Map<String, Object> data = event.changeType() == VehicleChangedEvent.ChangeType.DELETED
+            ? null : lookup(VEHICLE_SQL, event.vehicleId());
+        publish("vehicle", event.vehicleId(), event.changeType().name(), data);
+    }
+
+    /**
+     * Aggregated counters from in-memory sources, sent once per interval to every subscriber
+     */
+    @Scheduled(fixedDelayString = "${app.live-feed.counters-ms:5000}")
+    public void publishCounters() {
+        if (hub.getSubscriberCount() == 0) {
+            return;
+        }
+        try {
+            LocalDate today = LocalDate.now();
+            Map<String, Object> dashboard = dashboardSnapshotService.getStats();
+            Map<String, Object> counters = new LinkedHashMap<>();
+            counters.put("at", LocalDateTime.now());
+            counters.put("lastEventId", hub.getLastEventId());
+            counters.put("revenueToday", revenueCounterService.getDailyRevenue(today));
+            counters.put("revenueThisMonth", revenueCounterService.getRevenueSince(today.withDayOfMonth(1)));
+            counters.put("dashboardEtag", dashboard.get("etag"));
+            counters.put("dashboardAsOf", dashboard.get("asOf"));
+            counters.put("subscribers", hub.getSubscriberCount());
+            hub.broadcast("counters", objectMapper.writeValueAsString(counters));
+        } catch (Exception e) {
+            log.warn("Live feed counters could not be published: {}", e.getMessage());
+        }
+    }
+
+    private Map<String, Object> lookup(String sql, Integer id) {
+        try {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(sql, id);
+            if (rows.isEmpty()) {
+                return null;
+            }
+            Map<String, Object> row = new LinkedHashMap<>();
+            rows.get(0).forEach((column, value) ->
+                row.put(column, value instanceof Timestamp timestamp ? timestamp.toLocalDateTime() : value));
+            return row;
+        } catch (Exception e) {
+            log.warn("Live feed lookup failed for id {}: {}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private void publish(String type, Integer id, String change, Map<String, Object> data) {
+        try {
+            Map<String, Object> payload = new LinkedHashMap<>();
+            payload.put("id", id);
+            payload.put("change", change);
+            payload.put("at", LocalDateTime.now());
+            payload.put("data", data);
+            hub.publish(type, objectMapper.writeValueAsString(payload));
+        } catch (Exception e) {
+            log.warn("Live feed event {} {} could not be published: {}", type, id, e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("subscribers", hub.getSubscriberCount());
+        stats.put("lastEventId", hub.getLastEventId());
+        stats.put("published", hub.getPublishedCount());
+        stats.put("resyncs", hub.getResyncCount());
+        stats.put("dropped", hub.getDroppedCount());
+        return stats;
+    }
+}
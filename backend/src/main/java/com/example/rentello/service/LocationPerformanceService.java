@@ -0,0 +1,256 @@
+package com.example.rentello.service;
+
+import com.example.rentello.event.PaymentChangedEvent;
+import com.example.rentello.event.RentalChangedEvent;
+import com.example.rentello.event.VehicleChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Location performance (revenue, rentals, average duration, one-way flows, fleet on hand).
+ * Each period is one grouped query over rentals and their completed payments, grouped by pickup and
+ * return location. Finished months are cached; in the open month the days before today are computed
+ * once per day and only today is re-queried after a rental or payment change.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LocationPerformanceService {
+
+    // İptal edilen kiralamalar (5) sayılmaz; gelir kiralamanın alış lokasyonuna yazılır
+    private static final String GROUPED_SQL =
+        "SELECT r.PickupLocationID, r.ReturnLocationID, COUNT(*) AS RentalCount, " +
+        "SUM(CAST(DATEDIFF(MINUTE, COALESCE(r.ActualPickupDate, r.PlannedPickupDate), " +
+        "COALESCE(r.ActualReturnDate, r.PlannedReturnDate)) AS BIGINT)) AS DurationMinutes, " +
+        "SUM(ISNULL(p.PaidAmount, 0)) AS Revenue " +
+        "FROM Rentals r " +
+        "OUTER APPLY (SELECT SUM(pay.PaymentAmount) AS PaidAmount FROM Payments pay " +
+        "WHERE pay.RentalID = r.RentalID AND pay.PaymentStatus = 'Completed') p " +
+        "WHERE r.RentalStatusID <> 5 AND r.PlannedPickupDate >= ? AND r.PlannedPickupDate < ? " +
+        "GROUP BY r.PickupLocationID, r.ReturnLocationID";
+
+    private static final String LOCATIONS_SQL =
+        "SELECT l.LocationID, l.LocationName, c.CityName, l.IsActive FROM Locations l " +
+        "JOIN Cities c ON c.CityID = l.CityID";
+
+    private static final String FLEET_SQL =
+        "SELECT CurrentLocationID, COUNT(*) AS VehicleCount FROM Vehicles GROUP BY CurrentLocationID";
+
+    private static final String RENTAL_PICKUP_SQL = "SELECT PlannedPickupDate FROM Rentals WHERE RentalID = ?";
+    private static final String PAYMENT_PICKUP_SQL =
+        "SELECT r.PlannedPickupDate FROM Payments p JOIN Rentals r ON r.RentalID = p.RentalID WHERE p.PaymentID = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<YearMonth, LocationPerformanceTable> closedMonths = new ConcurrentHashMap<>();
+    private LocationPerformanceTable closedDays;
+    private LocalDate closedDaysThrough;
+    private LocationPerformanceTable today;
+    private LocalDate todayDate;
+    private volatile boolean closedDaysDirty = true;
+    private volatile boolean todayDirty = true;
+    private volatile boolean fleetDirty = true;
+    private volatile Map<Integer, Long> fleetOnHand = Map.of();
+    private volatile Map<Integer, LocationInfo> locations;
+
+    private final AtomicLong periodQueries = new AtomicLong();
+    private final AtomicLong todayQueries = new AtomicLong();
+    private final AtomicLong lateChanges = new AtomicLong();
+
+    /**
+     * Every location with its totals over the months from..to (inclusive), highest revenue first
+     */
+    public Report getPerformance(YearMonth from, YearMonth to) {
+        YearMonth current = YearMonth.now();
+        if (to == null || to.isAfter(current)) {
+            to = current;
+        }
+        if (from == null) {
+            from = to;
+        }
+        if (from.isAfter(to)) {
+            throw new RuntimeException("Location performance range must have from before to");
+        }
+
+        LocationPerformanceTable table = LocationPerformanceTable.empty();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            table = table.merge(month.equals(current) ? currentMonth() : closedMonth(month));
+        }
+
+        Map<Integer, LocationInfo> known = locations();
+        Map<Integer, Long> fleet = fleet();
+        List<LocationRow> rows = new ArrayList<>(known.size());
+        for (LocationInfo location : known.values()) {
+            LocationPerformanceTable.Totals totals = table.get(location.locationId());
+            rows.add(new LocationRow(location.locationId(), location.locationName(), location.cityName(), location.active(),
+                totals.rentals(), totals.revenue(), totals.averageDurationHours(), totals.outbound(), totals.inbound(),
+                totals.netFlow(), fleet.getOrDefault(location.locationId(), 0L)));
+        }
+        rows.sort(Comparator.comparing(LocationRow::revenue).reversed().thenComparing(LocationRow::locationId));
+        return new Report(from, to, rows);
+    }
+
+    private LocationPerformanceTable closedMonth(YearMonth month) {
+        return closedMonths.computeIfAbsent(month, m -> query(m.atDay(1), m.plusMonths(1).atDay(1)));
+    }
+
+    /**
+     * Days before today are queried once per day (or after a change to them), today after each change
+     */
+    private synchronized LocationPerformanceTable currentMonth() {
+        LocalDate now = LocalDate.now();
+        if (closedDaysDirty || !now.equals(closedDaysThrough)) {
+            closedDaysDirty = false;
+            LocalDate monthStart = now.withDayOfMonth(1);
+            closedDays = now.equals(monthStart) ? LocationPerformanceTable.empty() : query(monthStart, now);
+            closedDaysThrough = now;
+        }
+        if (todayDirty || !now.equals(todayDate)) {
+            // Sorgu sürerken gelen değişiklik bayrağı yeniden kurar
+            todayDirty = false;
+            today = query(now, now.plusDays(1));
+            todayDate = now;
+            todayQueries.incrementAndGet();
+        }
+        return closedDays.merge(today);
+    }
+
+    private LocationPerformanceTable query(LocalDate from, LocalDate to) {
+        LocationPerformanceTable.Builder builder = LocationPerformanceTable.builder();
+        jdbcTemplate.query(GROUPED_SQL, rs -> {
+            builder.add(rs.getInt("PickupLocationID"), rs.getInt("ReturnLocationID"), rs.getLong("RentalCount"),
+                rs.getBigDecimal("Revenue"), rs.getLong("DurationMinutes"));
+        }, Timestamp.valueOf(from.atStartOfDay()), Timestamp.valueOf(to.atStartOfDay()));
+        periodQueries.incrementAndGet();
+        return builder.build();
+    }
+
+    private Map<Integer, LocationInfo> locations() {
+        Map<Integer, LocationInfo> loaded = locations;
+        if (loaded == null) {
+            Map<Integer, LocationInfo> byId = new LinkedHashMap<>();
+            jdbcTemplate.query(LOCATIONS_SQL, rs -> {
+                byId.put(rs.getInt("LocationID"), new LocationInfo(rs.getInt("LocationID"), rs.getString("LocationName"),
+                    rs.getString("CityName"), rs.getBoolean("IsActive")));
+            });
+            loaded = byId;
+            locations = loaded;
+        }
+        return loaded;
+    }
+
+    private Map<Integer, Long> fleet() {
+        if (fleetDirty) {
+            fleetDirty = false;
+            Map<Integer, Long> counts = new HashMap<>();
+            jdbcTemplate.query(FLEET_SQL, rs -> {
+                counts.put(rs.getInt("CurrentLocationID"), rs.getLong("VehicleCount"));
+            });
+            fleetOnHand = counts;
+        }
+        return fleetOnHand;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.changeType() == RentalChangedEvent.ChangeType.DELETED) {
+            // Silinen kiralamanın tarihi bilinmez; açık ayın tamamı yeniden hesaplanır
+            closedDaysDirty = true;
+            todayDirty = true;
+            return;
+        }
+        markDirty(RENTAL_PICKUP_SQL, event.rentalId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        if (event.changeType() == PaymentChangedEvent.ChangeType.DELETED) {
+            closedDaysDirty = true;
+            todayDirty = true;
+            return;
+        }
+        markDirty(PAYMENT_PICKUP_SQL, event.paymentId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        fleetDirty = true;
+    }
+
+    /**
+     * Only the part of the open month the change falls into is invalidated; finished months stay cached
+     */
+    private void markDirty(String sql, Integer id) {
+        if (id == null) {
+            return;
+        }
+        try {
+            List<Timestamp> pickups = jdbcTemplate.query(sql, (rs, rowNum) -> rs.getTimestamp(1), id);
+            if (pickups.isEmpty() || pickups.get(0) == null) {
+                return;
+            }
+            LocalDate pickup = pickups.get(0).toLocalDateTime().toLocalDate();
+            LocalDate now = LocalDate.now();
+            if (!pickup.isBefore(now)) {
+                todayDirty = true;
+            } else if (!pickup.isBefore(now.withDayOfMonth(1))) {
+                closedDaysDirty = true;
+            } else {
+                lateChanges.incrementAndGet();
+                log.debug("Location performance change for {} falls into closed month {}", id, YearMonth.from(pickup));
+            }
+        } catch (Exception e) {
+            log.warn("Location performance change {} could not be classified: {}", id, e.getMessage());
+            closedDaysDirty = true;
+            todayDirty = true;
+        }
+    }
+
+    /**
+     * Drop cached months and location names nightly so late corrections and new locations are picked up
+     */
+    @Scheduled(cron = "${app.location-performance.evict-cron:0 50 3 * * *}")
+    public void evictClosedMonths() {
+        closedMonths.clear();
+        locations = null;
+        fleetDirty = true;
+        lateChanges.set(0);
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedMonths", closedMonths.size());
+        stats.put("periodQueries", periodQueries.get());
+        stats.put("todayQueries", todayQueries.get());
+        stats.put("lateChanges", lateChanges.get());
+        return stats;
+    }
+
+    private record LocationInfo(Integer locationId, String locationName, String cityName, boolean active) {
+    }
+
+    public record LocationRow(Integer locationId, String locationName, String cityName, boolean active,
+                              long rentals, BigDecimal revenue, double averageDurationHours,
+                              long outbound, long inbound, long netFlow, long fleetOnHand) {
+    }
+
+    public record Report(YearMonth from, YearMonth to, List<LocationRow> locations) {
+    }
+}
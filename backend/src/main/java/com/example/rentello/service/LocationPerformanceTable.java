@@ -0,0 +1,97 @@
+package com.example.rentello.service;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Per-location rental totals for one period, built from rows grouped by (pickup, return) location.
+ * A rental counts at its pickup location; when it is returned elsewhere it is an outbound flow of the
+ * pickup location and an inbound flow of the return location. Tables of adjacent periods are merged
+ * by addition, so closed periods can be cached and combined with a freshly computed current day.
+ */
+public class LocationPerformanceTable {
+
+    private static final LocationPerformanceTable EMPTY = new LocationPerformanceTable(Map.of());
+
+    private final Map<Integer, Totals> totals;
+
+    private LocationPerformanceTable(Map<Integer, Totals> totals) {
+        this.totals = totals;
+    }
+
+    public static LocationPerformanceTable empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public Map<Integer, Totals> getTotals() {
+        return totals;
+    }
+
+    public Totals get(Integer locationId) {
+        return totals.getOrDefault(locationId, Totals.ZERO);
+    }
+
+    public long getRentals() {
+        return totals.values().stream().mapToLong(Totals::rentals).sum();
+    }
+
+    public LocationPerformanceTable merge(LocationPerformanceTable other) {
+        if (other.totals.isEmpty()) {
+            return this;
+        }
+        if (totals.isEmpty()) {
+            return other;
+        }
+        Map<Integer, Totals> merged = new HashMap<>(totals);
+        other.totals.forEach((locationId, value) -> merged.merge(locationId, value, Totals::plus));
+        return new LocationPerformanceTable(Collections.unmodifiableMap(merged));
+    }
+
+    public static class Builder {
+
+        private final Map<Integer, Totals> totals = new HashMap<>();
+
+        /**
+         * One grouped row: rentals picked up at pickupLocationId and returned to returnLocationId
+         */
+        public Builder add(int pickupLocationId, int returnLocationId, long rentals, BigDecimal revenue,
+                           long durationMinutes) {
+            boolean oneWay = pickupLocationId != returnLocationId;
+            totals.merge(pickupLocationId,
+                new Totals(rentals, revenue != null ? revenue : BigDecimal.ZERO, durationMinutes, oneWay ? rentals : 0, 0),
+                Totals::plus);
+            if (oneWay) {
+                totals.merge(returnLocationId, new Totals(0, BigDecimal.ZERO, 0, 0, rentals), Totals::plus);
+            }
+            return this;
+        }
+
+        public LocationPerformanceTable build() {
+            return totals.isEmpty() ? EMPTY : new LocationPerformanceTable(Collections.unmodifiableMap(new HashMap<>(totals)));
+        }
+    }
+
+    public record Totals(long rentals, BigDecimal revenue, long durationMinutes, long outbound, long inbound) {
+
+        public static final Totals ZERO = new Totals(0, BigDecimal.ZERO, 0, 0, 0);
+
+        public Totals plus(Totals other) {
+            return new Totals(rentals + other.rentals, revenue.add(other.revenue), durationMinutes + other.durationMinutes,
+                outbound + other.outbound, inbound + other.inbound);
+        }
+
+        public double averageDurationHours() {
+            return rentals == 0 ? 0.0 : Math.round(durationMinutes * 100.0 / 60.0 / rentals) / 100.0;
+        }
+
+        public long netFlow() {
+            return inbound - outbound;
+        }
+    }
+}
@@ -7,12 +7,14 @@ import com.example.rentello.entity.ViewUserInfo;
 import com.example.rentello.entity.ViewAvailableVehicles;
 import com.example.rentello.entity.ViewRevenueSummary;
 import com.example.rentello.repository.*;
+import com.example.rentello.service.DashboardQueryExecutor.Task;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityManager;
@@ -52,46 +54,99 @@ public class OptimizedAdminService {
     @Autowired
     private EntityManager entityManager;
 
+    @Autowired
+    private DashboardQueryExecutor dashboardQueryExecutor;
+
+    @Autowired
+    private TimeSeriesService timeSeriesService;
+
+    @Autowired
+    private RevenueCounterService revenueCounterService;
+
     /**
-     * View ve Function'ları kullanarak optimize edilmiş dashboard istatistikleri
+     * View ve Function'ları kullanarak optimize edilmiş dashboard istatistikleri.
+     * Birbirinden bağımsız sorgular sanal thread'lerde paralel çalışır; süre en yavaş sorguya yaklaşır.
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public DashboardStatsDto getDashboardStats() {
         DashboardStatsDto stats = new DashboardStatsDto();
-
-        // View'lardan temel istatistikler
-        stats.setTotalUsers(viewUserInfoRepository.count());
-        stats.setTotalVehicles(viewAvailableVehiclesRepository.count());
-        stats.setActiveCustomers(viewUserInfoRepository.countActiveCustomers());
-
-        // Rental ve Payment repository'lerden gelir istatistikleri
-        stats.setTotalRentals(rentalRepository.count());
-        stats.setActiveRentals(rentalRepository.countByStatus("Aktif"));
-        stats.setTotalRevenue(paymentRepository.getTotalRevenue());
-        stats.setMonthlyRevenue(paymentRepository.getMonthlyRevenue(LocalDate.now().withDayOfMonth(1)));
-        stats.setDailyRevenue(paymentRepository.getDailyRevenue(LocalDate.now()));
-
-        // Araç durumu istatistikleri - Database Function kullanarak
-        stats.setAvailableVehicles(getVehicleCountByStatus("Müsait"));
-        stats.setRentedVehicles(getVehicleCountByStatus("Kiralandı"));
-        stats.setMaintenanceVehicles(getVehicleCountByStatus("Bakımda"));
-        stats.setOutOfServiceVehicles(getVehicleCountByStatus("Hizmet Dışı"));
-
-        // Son 7 günlük istatistikler - Optimize edilmiş sorgu
-        Map<LocalDate, Integer> dailyRentals = getDailyRentalsMap();
-        Map<LocalDate, BigDecimal> dailyRevenues = getDailyRevenuesMap();
-        stats.setDailyRentals(dailyRentals);
-        stats.setDailyRevenues(dailyRevenues);
-
-        // Popüler kategoriler - View'dan
-        stats.setPopularCategories(getPopularCategoriesFromView());
-
-        // Lokasyon istatistikleri
-        stats.setTotalLocations(locationRepository.count());
-        stats.setActiveLocations(locationRepository.countByIsActive(true));
-
-        // Bu ayın yeni müşterileri
-        stats.setNewCustomersThisMonth(viewUserInfoRepository.countNewCustomersThisMonth(
-            LocalDate.now().withDayOfMonth(1).atStartOfDay()));
+        LocalDate today = LocalDate.now();
+        LocalDate startOfMonth = today.withDayOfMonth(1);
+
+        try (DashboardQueryExecutor.Scope scope = dashboardQueryExecutor.open("Optimized dashboard")) {
+            // View'lardan temel istatistikler
+            Task<Long> totalUsers = scope.fork("totalUsers", viewUserInfoRepository::count, 0L);
+            Task<Long> totalVehicles = scope.fork("totalVehicles", viewAvailableVehiclesRepository::count, 0L);
+            Task<Long> activeCustomers = scope.fork("activeCustomers", viewUserInfoRepository::countActiveCustomers, 0L);
+
+            // Rental ve Payment repository'lerden gelir istatistikleri
+            Task<Long> totalRentals = scope.fork("totalRentals", rentalRepository::count, 0L);
+            Task<Long> activeRentals = scope.fork("activeRentals", () -> rentalRepository.countByStatus("Aktif"), 0L);
+            // Gelir sayaçları bellekten okunur; yüklenmemişlerse sorguya düşer
+            Task<BigDecimal> totalRevenue = scope.fork("totalRevenue", revenueCounterService::getTotalRevenue, BigDecimal.ZERO);
+            Task<BigDecimal> monthlyRevenue = scope.fork("monthlyRevenue",
+                () -> revenueCounterService.getRevenueSince(startOfMonth), BigDecimal.ZERO);
+            Task<BigDecimal> dailyRevenue = scope.fork("dailyRevenue", () -> revenueCounterService.getDailyRevenue(today), BigDecimal.ZERO);
+
+            // Araç durumu istatistikleri
+            Task<Long> availableVehicles = scope.fork("availableVehicles", () -> getVehicleCountByStatus("Müsait"), 0L);
+            Task<Long> rentedVehicles = scope.fork("rentedVehicles", () -> getVehicleCountByStatus("Kiralandı"), 0L);
+            Task<Long> maintenanceVehicles = scope.fork("maintenanceVehicles", () -> getVehicleCountByStatus("Bakımda"), 0L);
+            Task<Long> outOfServiceVehicles = scope.fork("outOfServiceVehicles", () -> getVehicleCountByStatus("Hizmet Dışı"), 0L);
+
+            // Son 7 günlük istatistikler - seri başına tek gruplu sorgu
+            LocalDate firstDay = today.minusDays(6);
+            Task<Map<LocalDate, BigDecimal>> dailyRentalSeries = scope.fork("dailyRentals",
+                () -> timeSeriesService.getDailyTotals(TimeSeriesService.Metric.RENTALS, firstDay, today),
+                Map.<LocalDate, BigDecimal>of());
+            Task<Map<LocalDate, BigDecimal>> dailyRevenueSeries = scope.fork("dailyRevenues",
+                () -> timeSeriesService.getDailyTotals(TimeSeriesService.Metric.REVENUE, firstDay, today),
+                Map.<LocalDate, BigDecimal>of());
+
+            // Popüler kategoriler - View'dan
+            Task<Map<String, Long>> popularCategories = scope.fork("popularCategories", this::getPopularCategoriesFromView,
+                Map.<String, Long>of());
+
+            // Lokasyon istatistikleri
+            Task<Long> totalLocations = scope.fork("totalLocations", locationRepository::count, 0L);
+            Task<Long> activeLocations = scope.fork("activeLocations", () -> locationRepository.countByIsActive(true), 0L);
+
+            // Bu ayın yeni müşterileri
+            Task<Long> newCustomers = scope.fork("newCustomersThisMonth",
+                () -> viewUserInfoRepository.countNewCustomersThisMonth(startOfMonth.atStartOfDay()), 0L);
+
+            List<String> unavailable = scope.join();
+
+            stats.setTotalUsers(totalUsers.get());
+            stats.setTotalVehicles(totalVehicles.get());
+            stats.setActiveCustomers(activeCustomers.get());
+            stats.setTotalRentals(totalRentals.get());
+            stats.setActiveRentals(activeRentals.get());
+            stats.setTotalRevenue(totalRevenue.get());
+            stats.setMonthlyRevenue(monthlyRevenue.get());
+            stats.setDailyRevenue(dailyRevenue.get());
+            stats.setAvailableVehicles(availableVehicles.get());
+            stats.setRentedVehicles(rentedVehicles.get());
+            stats.setMaintenanceVehicles(maintenanceVehicles.get());
+            stats.setOutOfServiceVehicles(outOfServiceVehicles.get());
+
+            Map<LocalDate, Integer> dailyRentals = new HashMap<>();
+            Map<LocalDate, BigDecimal> dailyRevenues = new HashMap<>();
+            for (LocalDate date = firstDay; !date.isAfter(today); date = date.plusDays(1)) {
+                dailyRentals.put(date, dailyRentalSeries.get().getOrDefault(date, BigDecimal.ZERO).intValue());
+                dailyRevenues.put(date, dailyRevenueSeries.get().getOrDefault(date, BigDecimal.ZERO));
+            }
+            stats.setDailyRentals(dailyRentals);
+            stats.setDailyRevenues(dailyRevenues);
+
+            stats.setPopularCategories(popularCategories.get());
+            stats.setTotalLocations(totalLocations.get());
+            stats.setActiveLocations(activeLocations.get());
+            stats.setNewCustomersThisMonth(newCustomers.get());
+
+            stats.setPartial(!unavailable.isEmpty());
+            stats.setUnavailableMetrics(unavailable);
+        }
 
         return stats;
     }
@@ -154,32 +209,6 @@ public class OptimizedAdminService {
         return ((Number) query.getSingleResult()).longValue();
     }
 
-    private Map<LocalDate, Integer> getDailyRentalsMap() {
-        Map<LocalDate, Integer> dailyRentals = new HashMap<>();
-        LocalDate today = LocalDate.now();
-        
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            Integer count = rentalRepository.countByDate(date);
-            dailyRentals.put(date, count);
-        }
-        
-        return dailyRentals;
-    }
-
-    private Map<LocalDate, BigDecimal> getDailyRevenuesMap() {
-        Map<LocalDate, BigDecimal> dailyRevenues = new HashMap<>();
-        LocalDate today = LocalDate.now();
-        
-        for (int i = 6; i >= 0; i--) {
-            LocalDate date = today.minusDays(i);
-            BigDecimal revenue = paymentRepository.getDailyRevenue(date);
-            dailyRevenues.put(date, revenue);
-        }
-        
-        return dailyRevenues;
-    }
-
     @SuppressWarnings("unchecked")
     private Map<String, Long> getPopularCategoriesFromView() {
         Query query = entityManager.createNativeQuery(
@@ -153,10 +153,8 @@ public class PaymentService {
     }
     
     public BigDecimal getTotalRevenueForPeriod(LocalDateTime startDate, LocalDateTime endDate) {
-        List<Payment> payments = getPaymentsByDateRange(startDate, endDate);
-        return payments.stream()
-                .filter(p -> "Completed".equals(p.getPaymentStatus()))
-                .map(Payment::getPaymentAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        List<Object[]> summary = paymentRepository.summarizeByDateRange(startDate, endDate);
+        Object total = summary.isEmpty() ? null : summary.get(0)[1];
+        return total instanceof Number number ? new BigDecimal(number.toString()) : BigDecimal.ZERO;
     }
 } 
\ No newline at end of file
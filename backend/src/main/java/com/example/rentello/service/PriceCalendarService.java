@@ -0,0 +1,234 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.PriceCalendarDto;
+import com.example.rentello.entity.Vehicle;
+import com.example.rentello.event.RentalChangedEvent;
+import com.example.rentello.event.VehicleFreedEvent;
+import com.example.rentello.repository.RentalRepository;
+import com.example.rentello.repository.VehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PriceCalendarService {
+
+    public static final int MAX_MONTHS = 3;
+    static final int MAX_CACHED_MONTHS = 10_000;
+
+    private final PricingService pricingService;
+    private final VehicleRepository vehicleRepository;
+    private final RentalRepository rentalRepository;
+
+    @Value("${app.pricing.calendar.cache-ttl-seconds:300}")
+    private long cacheTtlSeconds;
+
+    // Ekleme sırası: kapasite dolunca en eski ay atılır, süresi dolmuş olsun olmasın
+    private final Map<MonthKey, CachedMonth> monthCache = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<MonthKey, CachedMonth> eldest) {
+            return size() > MAX_CACHED_MONTHS;
+        }
+    });
+
+    /**
+     * Build the price calendar of a vehicle for one or more months, including the cheapest windows
+     */
+    @Transactional(readOnly = true)
+    public PriceCalendarDto getCalendar(Integer vehicleId, YearMonth firstMonth, int months,
+                                        int windowLength, int topN) {
+        if (months < 1 || months > MAX_MONTHS) {
+            throw new RuntimeException("Months must be between 1 and " + MAX_MONTHS);
+        }
+        if (windowLength < 1) {
+            throw new RuntimeException("Window length must be at least 1 day");
+        }
+
+        Vehicle vehicle = vehicleRepository.findById(vehicleId)
+            .orElseThrow(() -> new RuntimeException("Vehicle not found with id: " + vehicleId));
+        BigDecimal baseRate = vehicle.getDailyRentalRate();
+
+        List<PriceCalendarDto.CalendarDay> days = new ArrayList<>();
+        for (int i = 0; i < months; i++) {
+            days.addAll(getMonth(vehicleId, baseRate, firstMonth.plusMonths(i)));
+        }
+
+        PriceCalendarDto calendar = new PriceCalendarDto();
+        calendar.setVehicleId(vehicleId);
+        calendar.setBaseRate(baseRate);
+        calendar.setStartDate(firstMonth.atDay(1));
+        calendar.setEndDate(firstMonth.plusMonths(months - 1).atEndOfMonth());
+        calendar.setGeneratedAt(LocalDateTime.now());
+        calendar.setDays(days);
+        calendar.setWindowLength(windowLength);
+        calendar.setCheapestWindows(findCheapestWindows(days, windowLength, topN));
+        return calendar;
+    }
+
+    /**
+     * Drop cached months of a vehicle, e.g. after a booking or a rate change
+     */
+    public void evictVehicle(Integer vehicleId) {
+        synchronized (monthCache) {
+            monthCache.keySet().removeIf(key -> key.vehicleId().equals(vehicleId));
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleFreed(VehicleFreedEvent event) {
+        if (event.vehicleId() != null) {
+            evictVehicle(event.vehicleId());
+        }
+    }
+
+    /**
+     * A new booking or a status change moves the booked days of the rental's vehicle
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.rentalId() == null) {
+            return;
+        }
+        if (event.changeType() == RentalChangedEvent.ChangeType.DELETED) {
+            // Silinen kiralamanın aracı artık okunamaz; bütün önbellek boşaltılır
+            monthCache.clear();
+            return;
+        }
+        try {
+            rentalRepository.findVehicleIdByRentalId(event.rentalId()).ifPresent(this::evictVehicle);
+        } catch (Exception e) {
+            log.warn("Price calendar eviction failed for rental {}: {}", event.rentalId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Find the cheapest fully available windows with a sliding sum over the day prices
+     */
+    List<PriceCalendarDto.PriceWindow> findCheapestWindows(List<PriceCalendarDto.CalendarDay> days,
+                                                           int windowLength, int topN) {
+        int n = days.size();
+        if (topN < 1 || windowLength > n) {
+            return List.of();
+        }
+
+        // Fiyatları kuruş cinsinden long olarak tut - pencere toplamı O(1) güncellenir
+        long[] cents = new long[n];
+        for (int i = 0; i < n; i++) {
+            cents[i] = days.get(i).getRate().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+        }
+
+        // Max-heap: en pahalı aday en üstte, böylece sadece topN pencere tutulur
+        Comparator<long[]> byTotal = Comparator.<long[]>comparingLong(w -> w[1]).thenComparingLong(w -> w[0]);
+        PriorityQueue<long[]> best = new PriorityQueue<>(topN + 1, byTotal.reversed());
+
+        long sum = 0;
+        int unavailable = 0;
+        for (int i = 0; i < n; i++) {
+            sum += cents[i];
+            if (!days.get(i).isAvailable()) unavailable++;
+
+            if (i >= windowLength) {
+                sum -= cents[i - windowLength];
+                if (!days.get(i - windowLength).isAvailable()) unavailable--;
+            }
+
+            if (i >= windowLength - 1 && unavailable == 0) {
+                best.offer(new long[] { i - windowLength + 1, sum });
+                if (best.size() > topN) {
+                    best.poll();
+                }
+            }
+        }
+
+        List<long[]> ordered = new ArrayList<>(best);
+        ordered.sort(byTotal);
+
+        List<PriceCalendarDto.PriceWindow> windows = new ArrayList<>(ordered.size());
+        for (long[] candidate : ordered) {
+            int start = (int) candidate[0];
+            BigDecimal total = BigDecimal.valueOf(candidate[1], 2);
+            windows.add(new PriceCalendarDto.PriceWindow(
+                days.get(start).getDate(),
+                days.get(start + windowLength - 1).getDate(),
+                total,
+                total.divide(BigDecimal.valueOf(windowLength), 2, RoundingMode.HALF_UP)
+            ));
+        }
+        return windows;
+    }
+
+    private List<PriceCalendarDto.CalendarDay> getMonth(Integer vehicleId, BigDecimal baseRate, YearMonth month) {
+        MonthKey key = new MonthKey(vehicleId, month, baseRate);
+        long now = System.currentTimeMillis();
+
+        CachedMonth cached = monthCache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.days();
+        }
+
+        List<PriceCalendarDto.CalendarDay> days = buildMonth(vehicleId, baseRate, month);
+        // Yenilenen ay sıranın sonuna geçer
+        monthCache.remove(key);
+        monthCache.put(key, new CachedMonth(days, now + cacheTtlSeconds * 1000));
+        return days;
+    }
+
+    private List<PriceCalendarDto.CalendarDay> buildMonth(Integer vehicleId, BigDecimal baseRate, YearMonth month) {
+        LocalDate first = month.atDay(1);
+        LocalDate last = month.atEndOfMonth();
+        boolean[] booked = new boolean[month.lengthOfMonth()];
+
+        List<Object[]> periods = rentalRepository.findBookedPeriods(
+            vehicleId, first.atStartOfDay(), last.plusDays(1).atStartOfDay());
+        for (Object[] period : periods) {
+            LocalDate pickup = ((LocalDateTime) period[0]).toLocalDate();
+            LocalDate dropoff = ((LocalDateTime) period[1]).toLocalDate();
+            int from = (int) Math.max(0, ChronoUnit.DAYS.between(first, pickup));
+            int to = (int) Math.min(booked.length - 1, ChronoUnit.DAYS.between(first, dropoff));
+            for (int d = from; d <= to; d++) {
+                booked[d] = true;
+            }
+        }
+
+        List<PriceCalendarDto.CalendarDay> days = new ArrayList<>(booked.length);
+        for (PricingService.DailyPrice price : pricingService.getDailyPrices(baseRate, first, last)) {
+            int index = price.getDate().getDayOfMonth() - 1;
+            days.add(new PriceCalendarDto.CalendarDay(
+                price.getDate(),
+                price.getRate(),
+                !booked[index],
+                price.isWeekend(),
+                price.isHoliday(),
+                price.isHighDemand()
+            ));
+        }
+        return List.copyOf(days);
+    }
+
+    private record MonthKey(Integer vehicleId, YearMonth month, BigDecimal baseRate) {}
+
+    int cachedMonths() {
+        return monthCache.size();
+    }
+
+    private record CachedMonth(List<PriceCalendarDto.CalendarDay> days, long expiresAt) {}
+}
@@ -6,6 +6,7 @@ import java.math.RoundingMode;
 import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.Month;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -26,6 +27,15 @@ public class PricingService {
     // High demand period multiplier
     private static final BigDecimal HIGH_DEMAND_MULTIPLIER = new BigDecimal("1.4"); // %40 increase
 
+    private static final Multipliers DEFAULT_MULTIPLIERS = new Multipliers(
+        SUMMER_MULTIPLIER, WINTER_MULTIPLIER, SPRING_FALL_MULTIPLIER,
+        WEEKEND_MULTIPLIER, HOLIDAY_MULTIPLIER, HIGH_DEMAND_MULTIPLIER);
+
+    public PricingService() {
+        // Sıfır ya da negatif çarpanla uygulama hiç açılmaz; fiyatlar sessizce sıfırlanmaz
+        DEFAULT_MULTIPLIERS.validate();
+    }
+
     /**
      * Calculate dynamic price based on base rate and rental dates
      */
@@ -46,51 +56,96 @@ public class PricingService {
         return totalPrice.setScale(2, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Calculate per-day prices with the applied multipliers flagged, one entry per day
+     */
+    public List<DailyPrice> getDailyPrices(BigDecimal baseRate, LocalDate startDate, LocalDate endDate) {
+        List<DailyPrice> prices = new ArrayList<>();
+        if (baseRate == null || startDate == null || endDate == null) {
+            return prices;
+        }
+
+        LocalDate currentDate = startDate;
+        while (!currentDate.isAfter(endDate)) {
+            DailyPrice price = new DailyPrice();
+            price.setDate(currentDate);
+            price.setRate(calculateDailyRate(baseRate, currentDate));
+            price.setWeekend(isWeekend(currentDate));
+            price.setHoliday(isHoliday(currentDate));
+            price.setHighDemand(isHighDemandPeriod(currentDate));
+            prices.add(price);
+            currentDate = currentDate.plusDays(1);
+        }
+
+        return prices;
+    }
+
     /**
      * Calculate daily rate with all multipliers applied
      */
-    private BigDecimal calculateDailyRate(BigDecimal baseRate, LocalDate date) {
+    public BigDecimal calculateDailyRate(BigDecimal baseRate, LocalDate date) {
+        return calculateDailyRate(baseRate, date, DEFAULT_MULTIPLIERS);
+    }
+
+    /**
+     * Calculate daily rate with a given multiplier configuration
+     */
+    public BigDecimal calculateDailyRate(BigDecimal baseRate, LocalDate date, Multipliers multipliers) {
+        return baseRate.multiply(getDailyMultiplier(date, multipliers)).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * Combined multiplier of a day for a given multiplier configuration
+     */
+    public BigDecimal getDailyMultiplier(LocalDate date, Multipliers multipliers) {
         BigDecimal multiplier = BigDecimal.ONE;
         
         // Apply seasonal multiplier
-        multiplier = multiplier.multiply(getSeasonalMultiplier(date));
+        multiplier = multiplier.multiply(getSeasonalMultiplier(date, multipliers));
         
         // Apply weekend multiplier
         if (isWeekend(date)) {
-            multiplier = multiplier.multiply(WEEKEND_MULTIPLIER);
+            multiplier = multiplier.multiply(multipliers.getWeekend());
         }
         
         // Apply holiday multiplier
         if (isHoliday(date)) {
-            multiplier = multiplier.multiply(HOLIDAY_MULTIPLIER);
+            multiplier = multiplier.multiply(multipliers.getHoliday());
         }
         
         // Apply high demand period multiplier
         if (isHighDemandPeriod(date)) {
-            multiplier = multiplier.multiply(HIGH_DEMAND_MULTIPLIER);
+            multiplier = multiplier.multiply(multipliers.getHighDemand());
         }
         
-        return baseRate.multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
+        return multiplier;
+    }
+
+    /**
+     * Get a copy of the live multiplier configuration
+     */
+    public Multipliers getDefaultMultipliers() {
+        return DEFAULT_MULTIPLIERS.copy();
     }
 
     /**
      * Get seasonal multiplier based on date
      */
-    private BigDecimal getSeasonalMultiplier(LocalDate date) {
+    private BigDecimal getSeasonalMultiplier(LocalDate date, Multipliers multipliers) {
         Month month = date.getMonth();
         
         // Summer (June, July, August)
         if (month == Month.JUNE || month == Month.JULY || month == Month.AUGUST) {
-            return SUMMER_MULTIPLIER;
+            return multipliers.getSummer();
         }
         
         // Winter (December, January, February)
         if (month == Month.DECEMBER || month == Month.JANUARY || month == Month.FEBRUARY) {
-            return WINTER_MULTIPLIER;
+            return multipliers.getWinter();
         }
         
         // Spring/Fall (March, April, May, September, October, November)
-        return SPRING_FALL_MULTIPLIER;
+        return multipliers.getSpringFall();
     }
 
     /**
@@ -192,6 +247,99 @@ public class PricingService {
         return breakdown;
     }
 
+    /**
+     * Multiplier configuration, the live one or a candidate for what-if simulations
+     */
+    public static class Multipliers {
+        private BigDecimal summer;
+        private BigDecimal winter;
+        private BigDecimal springFall;
+        private BigDecimal weekend;
+        private BigDecimal holiday;
+        private BigDecimal highDemand;
+
+        public Multipliers() {
+        }
+
+        public Multipliers(BigDecimal summer, BigDecimal winter, BigDecimal springFall,
+                           BigDecimal weekend, BigDecimal holiday, BigDecimal highDemand) {
+            this.summer = summer;
+            this.winter = winter;
+            this.springFall = springFall;
+            this.weekend = weekend;
+            this.holiday = holiday;
+            this.highDemand = highDemand;
+        }
+
+        public Multipliers copy() {
+            return new Multipliers(summer, winter, springFall, weekend, holiday, highDemand);
+        }
+
+        /**
+         * Every multiplier must be set and greater than zero
+         */
+        public void validate() {
+            requirePositive("summer", summer);
+            requirePositive("winter", winter);
+            requirePositive("springFall", springFall);
+            requirePositive("weekend", weekend);
+            requirePositive("holiday", holiday);
+            requirePositive("highDemand", highDemand);
+        }
+
+        private static void requirePositive(String name, BigDecimal value) {
+            if (value == null || value.signum() <= 0) {
+                throw new RuntimeException("Pricing multiplier '" + name + "' must be positive, got " + value);
+            }
+        }
+
+        // Getters and Setters
+        public BigDecimal getSummer() { return summer; }
+        public void setSummer(BigDecimal summer) { this.summer = summer; }
+
+        public BigDecimal getWinter() { return winter; }
+        public void setWinter(BigDecimal winter) { this.winter = winter; }
+
+        public BigDecimal getSpringFall() { return springFall; }
+        public void setSpringFall(BigDecimal springFall) { this.springFall = springFall; }
+
+        public BigDecimal getWeekend() { return weekend; }
+        public void setWeekend(BigDecimal weekend) { this.weekend = weekend; }
+
+        public BigDecimal getHoliday() { return holiday; }
+        public void setHoliday(BigDecimal holiday) { this.holiday = holiday; }
+
+        public BigDecimal getHighDemand() { return highDemand; }
+        public void setHighDemand(BigDecimal highDemand) { this.highDemand = highDemand; }
+    }
+
+    /**
+     * Single day price DTO
+     */
+    public static class DailyPrice {
+        private LocalDate date;
+        private BigDecimal rate;
+        private boolean weekend;
+        private boolean holiday;
+        private boolean highDemand;
+
+        // Getters and Setters
+        public LocalDate getDate() { return date; }
+        public void setDate(LocalDate date) { this.date = date; }
+
+        public BigDecimal getRate() { return rate; }
+        public void setRate(BigDecimal rate) { this.rate = rate; }
+
+        public boolean isWeekend() { return weekend; }
+        public void setWeekend(boolean weekend) { this.weekend = weekend; }
+
+        public boolean isHoliday() { return holiday; }
+        public void setHoliday(boolean holiday) { this.holiday = holiday; }
+
+        public boolean isHighDemand() { return highDemand; }
+        public void setHighDemand(boolean highDemand) { this.highDemand = highDemand; }
+    }
+
     /**
      * Pricing breakdown DTO
      */
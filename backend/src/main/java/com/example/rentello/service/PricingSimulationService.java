@@ -0,0 +1,442 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.PricingSimulationResultDto;
+import com.example.rentello.entity.Location;
+import com.example.rentello.entity.VehicleCategory;
+import com.example.rentello.repository.LocationRepository;
+import com.example.rentello.repository.VehicleCategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Replays historical rentals through a candidate multiplier configuration.
+ * Rentals are streamed from a forward-only cursor into fixed-size primitive chunks,
+ * and each chunk is priced on the fork/join pool while the next one is being read.
+ * Every day is priced in whole cents and rounded like {@link PricingService#calculateDailyRate},
+ * so simulated totals add up to the same amounts as live quotes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PricingSimulationService {
+
+    private static final int CHUNK_SIZE = 65_536;
+    private static final int SPLIT_THRESHOLD = 8_192;
+    private static final int FETCH_SIZE = 10_000;
+    // Dönem sonrasına taşan kiralamalar için çarpan tablosu payı
+    private static final int TRAILING_DAYS = 366;
+
+    // İptal edilen kiralamalar (5) simülasyona dahil edilmez
+    private static final String RENTALS_SQL = """
+        SELECT r.PlannedPickupDate, r.PlannedReturnDate, v.DailyRentalRate,
+               vm.CategoryID, r.PickupLocationID
+        FROM Rentals r
+        INNER JOIN Vehicles v ON r.VehicleID = v.VehicleID
+        INNER JOIN VehicleModels vm ON v.ModelID = vm.ModelID
+        WHERE r.PlannedPickupDate >= ? AND r.PlannedPickupDate < ?
+        AND r.RentalStatusID <> 5
+        """;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PricingService pricingService;
+    private final VehicleCategoryRepository vehicleCategoryRepository;
+    private final LocationRepository locationRepository;
+
+    /**
+     * Run the simulation for rentals picked up in [startDate, endDate]
+     */
+    public PricingSimulationResultDto simulate(LocalDate startDate, LocalDate endDate,
+                                               PricingService.Multipliers candidate) {
+        if (startDate == null || endDate == null || endDate.isBefore(startDate)) {
+            throw new RuntimeException("A valid simulation period is required");
+        }
+
+        long started = System.nanoTime();
+        PricingService.Multipliers baseline = pricingService.getDefaultMultipliers();
+        PricingService.Multipliers effective = mergeWithBaseline(candidate, baseline);
+        effective.validate();
+
+        int tableDays = (int) ChronoUnit.DAYS.between(startDate, endDate) + 1 + TRAILING_DAYS;
+        MultiplierTable baselineTable = multiplierTable(startDate, tableDays, baseline);
+        MultiplierTable candidateTable = multiplierTable(startDate, tableDays, effective);
+
+        List<VehicleCategory> categories = vehicleCategoryRepository.findAll();
+        List<Location> locations = locationRepository.findAll();
+        Map<Integer, Integer> categoryIndex = denseIndex(categories.stream().map(VehicleCategory::getCategoryId).toList());
+        Map<Integer, Integer> locationIndex = denseIndex(locations.stream().map(Location::getLocationId).toList());
+        YearMonth firstMonth = YearMonth.from(startDate);
+        int monthCount = (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(endDate)) + 1;
+
+        Dimensions dims = new Dimensions(categories.size() + 1, locations.size() + 1, monthCount);
+        ChunkReader reader = new ChunkReader(startDate, firstMonth, tableDays, categoryIndex, locationIndex,
+            baselineTable, candidateTable, dims);
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(RENTALS_SQL);
+            ps.setFetchSize(FETCH_SIZE);
+            ps.setTimestamp(1, Timestamp.valueOf(startDate.atStartOfDay()));
+            ps.setTimestamp(2, Timestamp.valueOf(endDate.plusDays(1).atStartOfDay()));
+            return ps;
+        }, reader::accept);
+        Totals totals = reader.finish();
+
+        PricingSimulationResultDto result = new PricingSimulationResultDto();
+        result.setStartDate(startDate);
+        result.setEndDate(endDate);
+        result.setBaselineMultipliers(baseline);
+        result.setCandidateMultipliers(effective);
+        result.setRentalsProcessed(totals.rentals);
+        result.setTotal(toDelta(totals.rentals, totals.baseline, totals.candidate));
+
+        Map<String, PricingSimulationResultDto.RevenueDelta> byCategory = new LinkedHashMap<>();
+        for (VehicleCategory category : categories) {
+            int i = categoryIndex.get(category.getCategoryId());
+            addIfPresent(byCategory, category.getCategoryName(), totals.categoryRentals[i],
+                totals.categoryBaseline[i], totals.categoryCandidate[i]);
+        }
+        addIfPresent(byCategory, "Diğer", totals.categoryRentals[dims.categories - 1],
+            totals.categoryBaseline[dims.categories - 1], totals.categoryCandidate[dims.categories - 1]);
+        result.setByCategory(byCategory);
+
+        Map<String, PricingSimulationResultDto.RevenueDelta> byLocation = new LinkedHashMap<>();
+        for (Location location : locations) {
+            int i = locationIndex.get(location.getLocationId());
+            addIfPresent(byLocation, location.getLocationName(), totals.locationRentals[i],
+                totals.locationBaseline[i], totals.locationCandidate[i]);
+        }
+        addIfPresent(byLocation, "Diğer", totals.locationRentals[dims.locations - 1],
+            totals.locationBaseline[dims.locations - 1], totals.locationCandidate[dims.locations - 1]);
+        result.setByLocation(byLocation);
+
+        Map<String, PricingSimulationResultDto.RevenueDelta> byMonth = new LinkedHashMap<>();
+        for (int m = 0; m < monthCount; m++) {
+            byMonth.put(firstMonth.plusMonths(m).toString(),
+                toDelta(totals.monthRentals[m], totals.monthBaseline[m], totals.monthCandidate[m]));
+        }
+        result.setByMonth(byMonth);
+
+        result.setElapsedMillis((System.nanoTime() - started) / 1_000_000);
+        log.info("Pricing simulation replayed {} rentals in {} ms", totals.rentals, result.getElapsedMillis());
+        return result;
+    }
+
+    private MultiplierTable multiplierTable(LocalDate firstDay, int days, PricingService.Multipliers multipliers) {
+        BigDecimal[] exact = new BigDecimal[days];
+        LocalDate date = firstDay;
+        for (int i = 0; i < days; i++) {
+            exact[i] = pricingService.getDailyMultiplier(date, multipliers);
+            date = date.plusDays(1);
+        }
+        return MultiplierTable.of(exact);
+    }
+
+    private PricingService.Multipliers mergeWithBaseline(PricingService.Multipliers candidate,
+                                                         PricingService.Multipliers baseline) {
+        PricingService.Multipliers merged = baseline.copy();
+        if (candidate == null) {
+            return merged;
+        }
+        if (candidate.getSummer() != null) merged.setSummer(candidate.getSummer());
+        if (candidate.getWinter() != null) merged.setWinter(candidate.getWinter());
+        if (candidate.getSpringFall() != null) merged.setSpringFall(candidate.getSpringFall());
+        if (candidate.getWeekend() != null) merged.setWeekend(candidate.getWeekend());
+        if (candidate.getHoliday() != null) merged.setHoliday(candidate.getHoliday());
+        if (candidate.getHighDemand() != null) merged.setHighDemand(candidate.getHighDemand());
+        return merged;
+    }
+
+    private Map<Integer, Integer> denseIndex(List<Integer> ids) {
+        Map<Integer, Integer> index = new HashMap<>();
+        for (Integer id : ids) {
+            index.putIfAbsent(id, index.size());
+        }
+        return index;
+    }
+
+    private void addIfPresent(Map<String, PricingSimulationResultDto.RevenueDelta> target, String key,
+                              long rentals, long baselineCents, long candidateCents) {
+        if (rentals > 0) {
+            target.merge(key, toDelta(rentals, baselineCents, candidateCents), (a, b) -> toDelta(
+                a.getRentals() + b.getRentals(),
+                a.getBaselineRevenue().add(b.getBaselineRevenue()).unscaledValue().longValueExact(),
+                a.getCandidateRevenue().add(b.getCandidateRevenue()).unscaledValue().longValueExact()));
+        }
+    }
+
+    private PricingSimulationResultDto.RevenueDelta toDelta(long rentals, long baselineCents, long candidateCents) {
+        BigDecimal base = BigDecimal.valueOf(baselineCents, 2);
+        BigDecimal cand = BigDecimal.valueOf(candidateCents, 2);
+        BigDecimal delta = cand.subtract(base);
+        BigDecimal percent = base.signum() == 0 ? BigDecimal.ZERO
+            : delta.multiply(BigDecimal.valueOf(100)).divide(base, 2, RoundingMode.HALF_UP);
+        return new PricingSimulationResultDto.RevenueDelta(rentals, base, cand, delta, percent);
+    }
+
+    private record Dimensions(int categories, int locations, int months) {}
+
+    /**
+     * Combined multiplier of every simulated day, exact and as unscaled longs at one shared scale
+     */
+    private record MultiplierTable(BigDecimal[] exact, long[] unscaled, long divisor) {
+
+        static MultiplierTable of(BigDecimal[] exact) {
+            int scale = 0;
+            for (BigDecimal multiplier : exact) {
+                scale = Math.max(scale, multiplier.stripTrailingZeros().scale());
+            }
+            // Çok ince ölçekli çarpanlar long'a sığmaz; o zaman her gün BigDecimal ile hesaplanır
+            if (scale > 18) {
+                return new MultiplierTable(exact, null, 0);
+            }
+            long[] unscaled = new long[exact.length];
+            try {
+                for (int i = 0; i < exact.length; i++) {
+                    unscaled[i] = exact[i].setScale(scale).unscaledValue().longValueExact();
+                }
+            } catch (ArithmeticException e) {
+                return new MultiplierTable(exact, null, 0);
+            }
+            return new MultiplierTable(exact, unscaled, BigDecimal.TEN.pow(scale).longValueExact());
+        }
+
+        /**
+         * One day's price in cents, rounded half up to the cent like the live daily rate
+         */
+        long dayCents(long rateCents, int day) {
+            if (unscaled != null) {
+                long multiplier = unscaled[day];
+                long product = rateCents * multiplier;
+                if (Math.multiplyHigh(rateCents, multiplier) == 0 && product >= 0) {
+                    long cents = product / divisor;
+                    return (product - cents * divisor) * 2 >= divisor ? cents + 1 : cents;
+                }
+            }
+            return BigDecimal.valueOf(rateCents, 2).multiply(exact[day])
+                .setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+        }
+    }
+
+    /**
+     * Receives streamed rows, packs them into primitive chunks and keeps a bounded number of chunks in flight
+     */
+    private static final class ChunkReader {
+
+        private final LocalDate firstDay;
+        private final YearMonth firstMonth;
+        private final int tableDays;
+        private final Map<Integer, Integer> categoryIndex;
+        private final Map<Integer, Integer> locationIndex;
+        private final MultiplierTable baselineTable;
+        private final MultiplierTable candidateTable;
+        private final Dimensions dims;
+
+        private final ForkJoinPool pool = ForkJoinPool.commonPool();
+        private final int maxInFlight = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+        private final Deque<ForkJoinTask<Totals>> inFlight = new ArrayDeque<>();
+        private final Totals totals;
+        private Chunk chunk;
+
+        ChunkReader(LocalDate firstDay, YearMonth firstMonth, int tableDays,
+                    Map<Integer, Integer> categoryIndex, Map<Integer, Integer> locationIndex,
+                    MultiplierTable baselineTable, MultiplierTable candidateTable, Dimensions dims) {
+            this.firstDay = firstDay;
+            this.firstMonth = firstMonth;
+            this.tableDays = tableDays;
+            this.categoryIndex = categoryIndex;
+            this.locationIndex = locationIndex;
+            this.baselineTable = baselineTable;
+            this.candidateTable = candidateTable;
+            this.dims = dims;
+            this.totals = new Totals(dims);
+            this.chunk = new Chunk(CHUNK_SIZE);
+        }
+
+        void accept(ResultSet rs) throws SQLException {
+            LocalDate pickup = rs.getTimestamp(1).toLocalDateTime().toLocalDate();
+            LocalDate dropoff = rs.getTimestamp(2).toLocalDateTime().toLocalDate();
+            BigDecimal rate = rs.getBigDecimal(3);
+
+            int start = (int) ChronoUnit.DAYS.between(firstDay, pickup);
+            int end = (int) Math.min(tableDays - 1, ChronoUnit.DAYS.between(firstDay, dropoff));
+            int i = chunk.size++;
+            chunk.start[i] = start;
+            chunk.end[i] = Math.max(start, end);
+            // DailyRentalRate DECIMAL(10,2): kuruş değeri tam
+            chunk.rateCents[i] = rate != null ? rate.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact() : 0L;
+            chunk.category[i] = categoryIndex.getOrDefault(rs.getInt(4), dims.categories - 1);
+            chunk.location[i] = locationIndex.getOrDefault(rs.getInt(5), dims.locations - 1);
+            chunk.month[i] = (int) ChronoUnit.MONTHS.between(firstMonth, YearMonth.from(pickup));
+
+            if (chunk.size == CHUNK_SIZE) {
+                submit();
+            }
+        }
+
+        Totals finish() {
+            if (chunk.size > 0) {
+                submit();
+            }
+            while (!inFlight.isEmpty()) {
+                totals.merge(inFlight.pollFirst().join());
+            }
+            return totals;
+        }
+
+        private void submit() {
+            inFlight.addLast(pool.submit(new PriceChunkTask(chunk, 0, chunk.size, baselineTable, candidateTable, dims)));
+            chunk = new Chunk(CHUNK_SIZE);
+            while (inFlight.size() > maxInFlight) {
+                totals.merge(inFlight.pollFirst().join());
+            }
+        }
+    }
+
+    private static final class Chunk {
+        final int[] start;
+        final int[] end;
+        final long[] rateCents;
+        final int[] category;
+        final int[] location;
+        final int[] month;
+        int size;
+
+        Chunk(int capacity) {
+            start = new int[capacity];
+            end = new int[capacity];
+            rateCents = new long[capacity];
+            category = new int[capacity];
+            location = new int[capacity];
+            month = new int[capacity];
+        }
+    }
+
+    private static final class PriceChunkTask extends RecursiveTask<Totals> {
+
+        private final Chunk chunk;
+        private final int from;
+        private final int to;
+        private final MultiplierTable baselineTable;
+        private final MultiplierTable candidateTable;
+        private final Dimensions dims;
+
+        PriceChunkTask(Chunk chunk, int from, int to, MultiplierTable baselineTable, MultiplierTable candidateTable,
+                       Dimensions dims) {
+            this.chunk = chunk;
+            this.from = from;
+            this.to = to;
+            this.baselineTable = baselineTable;
+            this.candidateTable = candidateTable;
+            this.dims = dims;
+        }
+
+        @Override
+        protected Totals compute() {
+            if (to - from > SPLIT_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                PriceChunkTask left = new PriceChunkTask(chunk, from, mid, baselineTable, candidateTable, dims);
+                PriceChunkTask right = new PriceChunkTask(chunk, mid, to, baselineTable, candidateTable, dims);
+                left.fork();
+                Totals result = right.compute();
+                result.merge(left.join());
+                return result;
+            }
+
+            Totals result = new Totals(dims);
+            for (int i = from; i < to; i++) {
+                long rateCents = chunk.rateCents[i];
+                long base = 0;
+                long cand = 0;
+                for (int day = chunk.start[i]; day <= chunk.end[i]; day++) {
+                    base += baselineTable.dayCents(rateCents, day);
+                    cand += candidateTable.dayCents(rateCents, day);
+                }
+                result.add(chunk.category[i], chunk.location[i], chunk.month[i], base, cand);
+            }
+            return result;
+        }
+    }
+
+    private static final class Totals {
+        long rentals;
+        long baseline;
+        long candidate;
+        final long[] categoryRentals;
+        final long[] categoryBaseline;
+        final long[] categoryCandidate;
+        final long[] locationRentals;
+        final long[] locationBaseline;
+        final long[] locationCandidate;
+        final long[] monthRentals;
+        final long[] monthBaseline;
+        final long[] monthCandidate;
+
+        Totals(Dimensions dims) {
+            categoryRentals = new long[dims.categories];
+            categoryBaseline = new long[dims.categories];
+            categoryCandidate = new long[dims.categories];
+            locationRentals = new long[dims.locations];
+            locationBaseline = new long[dims.locations];
+            locationCandidate = new long[dims.locations];
+            monthRentals = new long[dims.months];
+            monthBaseline = new long[dims.months];
+            monthCandidate = new long[dims.months];
+        }
+
+        void add(int category, int location, int month, long base, long cand) {
+            rentals++;
+            baseline += base;
+            candidate += cand;
+            categoryRentals[category]++;
+            categoryBaseline[category] += base;
+            categoryCandidate[category] += cand;
+            locationRentals[location]++;
+            locationBaseline[location] += base;
+            locationCandidate[location] += cand;
+            monthRentals[month]++;
+            monthBaseline[month] += base;
+            monthCandidate[month] += cand;
+        }
+
+        void merge(Totals other) {
+            rentals += other.rentals;
+            baseline += other.baseline;
+            candidate += other.candidate;
+            for (int i = 0; i < categoryRentals.length; i++) {
+                categoryRentals[i] += other.categoryRentals[i];
+                categoryBaseline[i] += other.categoryBaseline[i];
+                categoryCandidate[i] += other.categoryCandidate[i];
+            }
+            for (int i = 0; i < locationRentals.length; i++) {
+                locationRentals[i] += other.locationRentals[i];
+                locationBaseline[i] += other.locationBaseline[i];
+                locationCandidate[i] += other.locationCandidate[i];
+            }
+            for (int i = 0; i < monthRentals.length; i++) {
+                monthRentals[i] += other.monthRentals[i];
+                monthBaseline[i] += other.monthBaseline[i];
+                monthCandidate[i] += other.monthCandidate[i];
+            }
+        }
+    }
+}
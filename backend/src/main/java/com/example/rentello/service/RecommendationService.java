@@ -0,0 +1,327 @@
+package com.example.rentello.service;
+
+import com.example.rentello.entity.view.AvailableVehicle;
+import com.example.rentello.event.RentalChangedEvent;
+import com.example.rentello.repository.AvailableVehicleRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Vehicle recommendations from rental history.
+ * A co-occurrence model over vehicle models is built in parallel on startup and nightly,
+ * extended incrementally with new rentals in between, and served from memory; results are
+ * filtered down to vehicles that are currently available in the requested city.
+ * Rentals cancelled after they were counted are taken out again by the next refresh;
+ * deleted rentals stay counted until the nightly rebuild.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecommendationService {
+
+    public static final int MAX_RECOMMENDATIONS = 50;
+    private static final int EVALUATION_K = 5;
+
+    // İptal edilen kiralamalar (5) tercih sinyali sayılmaz
+    private static final String HISTORY_SQL =
+        "SELECT r.RentalID, r.CustomerID, v.ModelID " +
+        "FROM Rentals r " +
+        "JOIN Vehicles v ON v.VehicleID = r.VehicleID " +
+        "WHERE r.RentalStatusID <> 5 AND r.RentalID > ? " +
+        "ORDER BY r.RentalID";
+
+    private static final String VEHICLE_MODEL_SQL = "SELECT VehicleID, ModelID FROM Vehicles";
+
+    private static final String CANCELLED_SQL =
+        "SELECT r.CustomerID, v.ModelID FROM Rentals r JOIN Vehicles v ON v.VehicleID = r.VehicleID " +
+        "WHERE r.RentalID = ? AND r.RentalStatusID = 5";
+
+    // Müşterinin aynı modelde sayılmış başka kiralaması varsa model sepette kalır
+    private static final String REMAINING_SQL =
+        "SELECT COUNT(*) FROM Rentals r JOIN Vehicles v ON v.VehicleID = r.VehicleID " +
+        "WHERE r.CustomerID = ? AND v.ModelID = ? AND r.RentalStatusID <> 5 AND r.RentalID <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final AvailableVehicleRepository availableVehicleRepository;
+
+    @Value("${app.recommendations.neighbours:20}")
+    private int maxNeighbours;
+
+    // Sayaçları yalnızca işler (servis kilidiyle) değiştirir; okuyucular müşteri sepetini bu kilitle alır,
+    // model sıkıştırması bu kilidin dışında yapılır
+    private final Object countsLock = new Object();
+    private CoOccurrenceModel.Counts counts = new CoOccurrenceModel.Counts();
+    private volatile CoOccurrenceModel model = CoOccurrenceModel.empty();
+    private volatile Map<Integer, Integer> vehicleModels = Map.of();
+    private long lastRentalId;
+    private volatile boolean ready;
+    // Güncellenen kiralamalar; iptal edilenler bir sonraki yenilemede sayaçlardan düşülür
+    private final Queue<Integer> updatedRentals = new ConcurrentLinkedQueue<>();
+
+    private final LongAdder served = new LongAdder();
+    private final LongAdder servedNanos = new LongAdder();
+    private volatile Map<String, Object> lastEvaluation = Map.of();
+    private volatile Map<String, Object> lastBuild = Map.of();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Recommendation model could not be built on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Full rebuild from the whole rental history, followed by an offline evaluation
+     */
+    @Scheduled(cron = "${app.recommendations.rebuild-cron:0 30 3 * * *}")
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        List<long[]> rentals = jdbcTemplate.query(HISTORY_SQL,
+            (rs, rowNum) -> new long[] { rs.getLong("RentalID"), rs.getInt("CustomerID"), rs.getInt("ModelID") }, 0L);
+        Map<Integer, List<Integer>> histories = histories(rentals);
+
+        CoOccurrenceModel.Counts rebuilt = CoOccurrenceModel.Counts.of(toBaskets(histories, false));
+        synchronized (countsLock) {
+            counts = rebuilt;
+        }
+        model = CoOccurrenceModel.from(rebuilt, maxNeighbours);
+        vehicleModels = loadVehicleModels();
+        lastRentalId = rentals.isEmpty() ? lastRentalId : rentals.get(rentals.size() - 1)[0];
+        ready = true;
+
+        Map<String, Object> build = new LinkedHashMap<>();
+        build.put("rentals", rentals.size());
+        build.put("customers", rebuilt.customerCount());
+        build.put("items", model.itemCount());
+        build.put("pairs", model.pairCount());
+        build.put("neighbours", model.neighbourCount());
+        build.put("modelBytes", model.sizeInBytes());
+        build.put("tookMillis", System.currentTimeMillis() - start);
+        lastBuild = build;
+        log.info("Recommendation model built: {}", build);
+
+        lastEvaluation = evaluate(histories, EVALUATION_K);
+        log.info("Recommendation offline evaluation: {}", lastEvaluation);
+        return getStats();
+    }
+
+    /**
+     * Fold rentals created since the last run into the counts, take out cancelled ones and recompact the model
+     */
+    @Scheduled(fixedDelayString = "${app.recommendations.refresh-ms:300000}",
+               initialDelayString = "${app.recommendations.refresh-ms:300000}")
+    public synchronized void refresh() {
+        if (!ready) {
+            return;
+        }
+        try {
+            List<long[]> rentals = jdbcTemplate.query(HISTORY_SQL,
+                (rs, rowNum) -> new long[] { rs.getLong("RentalID"), rs.getInt("CustomerID"), rs.getInt("ModelID") },
+                lastRentalId);
+            List<int[]> cancelled = cancelledSinceLastRun();
+            if (rentals.isEmpty() && cancelled.isEmpty()) {
+                return;
+            }
+            int added = 0;
+            int removed = 0;
+            synchronized (countsLock) {
+                for (long[] rental : rentals) {
+                    if (counts.add((int) rental[1], (int) rental[2])) {
+                        added++;
+                    }
+                }
+                for (int[] rental : cancelled) {
+                    if (counts.remove(rental[0], rental[1])) {
+                        removed++;
+                    }
+                }
+            }
+            // Sayaçları yalnızca bu metot ve rebuild değiştirir, ikisi de servis kilidini tutar
+            if (added > 0 || removed > 0) {
+                model = CoOccurrenceModel.from(counts, maxNeighbours);
+            }
+            if (!rentals.isEmpty()) {
+                lastRentalId = rentals.get(rentals.size() - 1)[0];
+                vehicleModels = loadVehicleModels();
+            }
+            log.debug("Recommendation model refreshed with {} new rentals ({} new basket items, {} removed)",
+                rentals.size(), added, removed);
+        } catch (Exception e) {
+            log.warn("Recommendation model refresh failed: {}", e.getMessage());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.changeType() == RentalChangedEvent.ChangeType.UPDATED && event.rentalId() != null) {
+            updatedRentals.add(event.rentalId());
+        }
+    }
+
+    /**
+     * [customerId, modelId] of counted rentals that are now cancelled and leave no other counted rental
+     * of the same model for the customer
+     */
+    private List<int[]> cancelledSinceLastRun() {
+        List<int[]> cancelled = new ArrayList<>();
+        Integer rentalId;
+        while ((rentalId = updatedRentals.poll()) != null) {
+            if (rentalId > lastRentalId) {
+                continue;
+            }
+            for (int[] rental : jdbcTemplate.query(CANCELLED_SQL,
+                    (rs, rowNum) -> new int[] { rs.getInt("CustomerID"), rs.getInt("ModelID") }, rentalId)) {
+                Long remaining = jdbcTemplate.queryForObject(REMAINING_SQL, Long.class, rental[0], rental[1], lastRentalId);
+                if (remaining == null || remaining == 0) {
+                    cancelled.add(rental);
+                }
+            }
+        }
+        return cancelled;
+    }
+
+    /**
+     * Available vehicles in the city, ordered by how strongly their model co-occurs with the customer's history.
+     * Empty when the customer has no history or nothing recommended is available.
+     */
+    public List<AvailableVehicle> recommend(Integer customerId, String cityName, int limit) {
+        if (!ready || customerId == null) {
+            return List.of();
+        }
+        long start = System.nanoTime();
+        int max = Math.max(1, Math.min(limit, MAX_RECOMMENDATIONS));
+        int[] history;
+        synchronized (countsLock) {
+            history = counts.basket(customerId);
+        }
+        int[] rankedModels = model.recommend(history, MAX_RECOMMENDATIONS);
+        if (rankedModels.length == 0) {
+            return List.of();
+        }
+
+        Map<Integer, Integer> rankByModel = new HashMap<>();
+        for (int i = 0; i < rankedModels.length; i++) {
+            rankByModel.put(rankedModels[i], i);
+        }
+        Map<Integer, Integer> models = vehicleModels;
+        List<AvailableVehicle> candidates = new ArrayList<>();
+        for (AvailableVehicle vehicle : availableVehicleRepository.findByCityName(cityName)) {
+            Integer modelId = models.get(vehicle.getVehicleId());
+            if (modelId != null && rankByModel.containsKey(modelId)) {
+                candidates.add(vehicle);
+            }
+        }
+        candidates.sort(Comparator
+            .comparing((AvailableVehicle v) -> rankByModel.get(models.get(v.getVehicleId())))
+            .thenComparing(AvailableVehicle::getDailyRentalRate, Comparator.nullsLast(Comparator.naturalOrder())));
+        List<AvailableVehicle> result = candidates.size() > max ? candidates.subList(0, max) : candidates;
+
+        long nanos = System.nanoTime() - start;
+        served.increment();
+        servedNanos.add(nanos);
+        log.debug("Recommendations for customer {} in {}: {} vehicles in {} µs", customerId, cityName,
+            result.size(), nanos / 1000);
+        return result;
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("build", lastBuild);
+        stats.put("evaluation", lastEvaluation);
+        long count = served.sum();
+        stats.put("served", count);
+        stats.put("avgLatencyMicros", count == 0 ? 0.0 : servedNanos.sum() / 1000.0 / count);
+        return stats;
+    }
+
+    /**
+     * Leave-last-out: each customer's most recent distinct model is hidden, the model is trained on the rest
+     * and the hidden model should appear in the top k of the customer's recommendations
+     */
+    Map<String, Object> evaluate(Map<Integer, List<Integer>> histories, int k) {
+        long start = System.nanoTime();
+        Map<Integer, int[]> training = toBaskets(histories, true);
+        CoOccurrenceModel trained = CoOccurrenceModel.from(CoOccurrenceModel.Counts.of(training), maxNeighbours);
+
+        int evaluated = 0;
+        int hits = 0;
+        long recommendNanos = 0;
+        for (Map.Entry<Integer, List<Integer>> entry : histories.entrySet()) {
+            List<Integer> history = entry.getValue();
+            if (history.size() < 2) continue;
+            int heldOut = history.get(history.size() - 1);
+            long t = System.nanoTime();
+            int[] ranked = trained.recommend(training.get(entry.getKey()), k);
+            recommendNanos += System.nanoTime() - t;
+            evaluated++;
+            for (int item : ranked) {
+                if (item == heldOut) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+
+        Map<String, Object> evaluation = new LinkedHashMap<>();
+        evaluation.put("k", k);
+        evaluation.put("customersEvaluated", evaluated);
+        evaluation.put("hits", hits);
+        evaluation.put("precisionAtK", evaluated == 0 ? 0.0 : (double) hits / ((long) evaluated * k));
+        evaluation.put("hitRateAtK", evaluated == 0 ? 0.0 : (double) hits / evaluated);
+        evaluation.put("avgRecommendMicros", evaluated == 0 ? 0.0 : recommendNanos / 1000.0 / evaluated);
+        evaluation.put("tookMillis", (System.nanoTime() - start) / 1_000_000);
+        return evaluation;
+    }
+
+    /**
+     * Distinct models per customer in rental order
+     */
+    private static Map<Integer, List<Integer>> histories(List<long[]> rentals) {
+        Map<Integer, Set<Integer>> ordered = new HashMap<>();
+        for (long[] rental : rentals) {
+            ordered.computeIfAbsent((int) rental[1], c -> new LinkedHashSet<>()).add((int) rental[2]);
+        }
+        Map<Integer, List<Integer>> histories = new HashMap<>(ordered.size() * 2);
+        ordered.forEach((customerId, models) -> histories.put(customerId, List.copyOf(models)));
+        return histories;
+    }
+
+    private static Map<Integer, int[]> toBaskets(Map<Integer, List<Integer>> histories, boolean holdOutLast) {
+        Map<Integer, int[]> baskets = new HashMap<>(histories.size() * 2);
+        histories.forEach((customerId, history) -> {
+            int size = holdOutLast && history.size() >= 2 ? history.size() - 1 : history.size();
+            baskets.put(customerId, history.subList(0, size).stream().mapToInt(Integer::intValue).toArray());
+        });
+        return baskets;
+    }
+
+    private Map<Integer, Integer> loadVehicleModels() {
+        Map<Integer, Integer> map = new HashMap<>();
+        jdbcTemplate.query(VEHICLE_MODEL_SQL, rs -> {
+            map.put(rs.getInt("VehicleID"), rs.getInt("ModelID"));
+        });
+        return map;
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.rentello.service;
+
+import com.example.rentello.event.RentalChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Loads every rental into a {@link RentalFactTable} on startup (one forward-only streamed query) and keeps
+ * it current from rental change events, so ad hoc analytics slices never reach SQL Server.
+ * A nightly rebuild compacts deleted rows and picks up renamed brands, models or locations.
+ */
+@Service
+@Slf4j
+public class RentalFactService {
+
+    private static final int FETCH_SIZE = 5000;
+
+    // Süre ve gün gerçek alış/teslim varsa onlardan, yoksa planlanan tarihlerden
+    private static final String FACT_SQL =
+        "SELECT r.RentalID, vb.BrandName, vm.ModelName, vc.CategoryName, pl.LocationName AS PickupLocation, " +
+        "pc.CityName AS PickupCity, rl.LocationName AS ReturnLocation, rs.StatusName, " +
+        "COALESCE(r.ActualPickupDate, r.PlannedPickupDate) AS PickupDate, " +
+        "COALESCE(r.ActualReturnDate, r.PlannedReturnDate) AS ReturnDate, r.TotalAmount " +
+        "FROM Rentals r " +
+        "JOIN Vehicles v ON v.VehicleID = r.VehicleID " +
+        "JOIN VehicleModels vm ON vm.ModelID = v.ModelID " +
+        "JOIN VehicleBrands vb ON vb.BrandID = vm.BrandID " +
+        "JOIN VehicleCategories vc ON vc.CategoryID = vm.CategoryID " +
+        "JOIN Locations pl ON pl.LocationID = r.PickupLocationID " +
+        "JOIN Cities pc ON pc.CityID = pl.CityID " +
+        "JOIN Locations rl ON rl.LocationID = r.ReturnLocationID " +
+        "JOIN RentalStatus rs ON rs.RentalStatusID = r.RentalStatusID";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile RentalFactTable table;
+    private volatile boolean loading;
+    // Yükleme sürerken gelen değişiklikler yeni tabloya sonradan uygulanır
+    private final Queue<RentalChangedEvent> pending = new ConcurrentLinkedQueue<>();
+    private volatile Map<String, Object> lastLoad = Map.of();
+
+    public RentalFactService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Rental fact table could not be loaded: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "${app.rental-facts.rebuild-cron:0 15 4 * * *}")
+    public synchronized Map<String, Object> rebuild() {
+        long start = System.currentTimeMillis();
+        loading = true;
+        RentalFactTable rebuilt = new RentalFactTable();
+        try {
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement(FACT_SQL + " ORDER BY r.RentalID",
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(FETCH_SIZE);
+                return ps;
+            }, rs -> {
+                rebuilt.upsert(toFact(rs));
+            });
+            table = rebuilt;
+        } finally {
+            loading = false;
+        }
+        RentalFactTable current = table;
+        RentalChangedEvent event;
+        while ((event = pending.poll()) != null) {
+            apply(current, event);
+        }
+
+        Map<String, Object> load = new LinkedHashMap<>();
+        load.put("rows", rebuilt.size());
+        load.put("bytes", rebuilt.sizeInBytes());
+        load.put("dictionaries", rebuilt.getDictionarySizes());
+        load.put("tookMillis", System.currentTimeMillis() - start);
+        lastLoad = load;
+        log.info("Rental fact table loaded: {}", load);
+        return load;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        if (event.rentalId() == null) {
+            return;
+        }
+        // Olaylar tekrar uygulanabilir: upsert güncel satırı yeniden okur, silme idempotent
+        if (loading) {
+            pending.add(event);
+        }
+        RentalFactTable current = table;
+        if (current != null) {
+            apply(current, event);
+        }
+    }
+
+    private void apply(RentalFactTable target, RentalChangedEvent event) {
+        if (event.changeType() == RentalChangedEvent.ChangeType.DELETED) {
+            target.remove(event.rentalId());
+            return;
+        }
+        try {
+            List<RentalFactTable.Fact> facts = jdbcTemplate.query(FACT_SQL + " WHERE r.RentalID = ?",
+                (rs, rowNum) -> toFact(rs), event.rentalId());
+            if (facts.isEmpty()) {
+                target.remove(event.rentalId());
+            } else {
+                target.upsert(facts.get(0));
+            }
+        } catch (Exception e) {
+            log.warn("Rental fact {} could not be refreshed: {}", event.rentalId(), e.getMessage());
+        }
+    }
+
+    private static RentalFactTable.Fact toFact(ResultSet rs) throws SQLException {
+        Timestamp pickup = rs.getTimestamp("PickupDate");
+        Timestamp returned = rs.getTimestamp("ReturnDate");
+        double hours = returned != null ? Math.max(0, returned.getTime() - pickup.getTime()) / 3_600_000.0 : 0.0;
+        return new RentalFactTable.Fact(rs.getInt("RentalID"), rs.getString("BrandName"), rs.getString("ModelName"),
+            rs.getString("CategoryName"), rs.getString("PickupLocation"), rs.getString("PickupCity"),
+            rs.getString("ReturnLocation"), rs.getString("StatusName"), pickup.toLocalDateTime().toLocalDate(),
+            rs.getBigDecimal("TotalAmount").doubleValue(), hours);
+    }
+
+    /**
+     * Build a query from request parameters; a filter is "dimension:value1,value2"
+     */
+    public RentalFactTable.Result query(List<String> groupBy, List<String> measures, List<String> filters,
+                                        LocalDate from, LocalDate to, String sortBy, int limit) {
+        Map<RentalFactTable.Dimension, Set<String>> filterMap = new LinkedHashMap<>();
+        for (String filter : filters) {
+            int separator = filter.indexOf(':');
+            if (separator <= 0) {
+                throw new RuntimeException("Filter must be dimension:value[,value]: " + filter);
+            }
+            filterMap.computeIfAbsent(RentalFactTable.Dimension.from(filter.substring(0, separator).trim()),
+                dimension -> new LinkedHashSet<>()).addAll(Arrays.asList(filter.substring(separator + 1).split(",")));
+        }
+        return query(new RentalFactTable.Query(
+            groupBy.stream().map(String::trim).filter(name -> !name.isEmpty()).map(RentalFactTable.Dimension::from).toList(),
+            filterMap, from, to,
+            measures.stream().map(String::trim).filter(name -> !name.isEmpty()).map(RentalFactTable.Measure::from).toList(),
+            sortBy != null && !sortBy.isBlank() ? RentalFactTable.Measure.from(sortBy) : null, limit));
+    }
+
+    public RentalFactTable.Result query(RentalFactTable.Query query) {
+        RentalFactTable current = table;
+        if (current == null) {
+            throw new RuntimeException("Rental facts are still loading");
+        }
+        return current.query(query);
+    }
+
+    public Map<String, Object> getStats() {
+        RentalFactTable current = table;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("loaded", current != null);
+        stats.put("loading", loading);
+        stats.put("rows", current != null ? current.size() : 0);
+        stats.put("lastLoad", lastLoad);
+        return stats;
+    }
+}
@@ -0,0 +1,599 @@
+package com.example.rentello.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.IntStream;
+
+/**
+ * Columnar in-memory fact table of rentals.
+ * Each rental is one row spread over primitive columns held in fixed-size chunks: dictionary codes for
+ * model, pickup and return location and status, the pickup day and the amount and duration measures.
+ * Brand, category and city are derived from the model and location codes through small lookup arrays,
+ * one-way and the calendar dimensions from the stored columns. Queries filter, group and aggregate
+ * chunks in parallel; rows are appended or updated in place as rentals change.
+ */
+public class RentalFactTable {
+
+    static final int CHUNK_SIZE = 1 << 16;
+    private static final int DELETED = -1;
+    private static final int MAX_GROUP_BY = 4;
+
+    public enum Dimension {
+        LOCATION,
+        RETURN_LOCATION,
+        CITY,
+        BRAND,
+        MODEL,
+        CATEGORY,
+        STATUS,
+        ONE_WAY,
+        YEAR,
+        MONTH,
+        DAY_OF_WEEK;
+
+        public static Dimension from(String value) {
+            String normalized = normalize(value);
+            for (Dimension dimension : values()) {
+                if (normalize(dimension.name()).equals(normalized)) {
+                    return dimension;
+                }
+            }
+            throw new RuntimeException("Unknown dimension: " + value + " " + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+        }
+    }
+
+    public enum Measure {
+        COUNT,
+        REVENUE,
+        AVG_REVENUE,
+        DURATION_HOURS,
+        AVG_DURATION_HOURS;
+
+        public static Measure from(String value) {
+            String normalized = normalize(value);
+            for (Measure measure : values()) {
+                if (normalize(measure.name()).equals(normalized)) {
+                    return measure;
+                }
+            }
+            throw new RuntimeException("Unknown measure: " + value + " " + Arrays.toString(values()).toLowerCase(Locale.ROOT));
+        }
+
+        private double value(double count, double amount, double hours) {
+            return switch (this) {
+                case COUNT -> count;
+                case REVENUE -> Math.round(amount * 100.0) / 100.0;
+                case AVG_REVENUE -> count == 0 ? 0.0 : Math.round(amount / count * 100.0) / 100.0;
+                case DURATION_HOURS -> Math.round(hours * 100.0) / 100.0;
+                case AVG_DURATION_HOURS -> count == 0 ? 0.0 : Math.round(hours / count * 100.0) / 100.0;
+            };
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.replace("_", "").replace("-", "").toLowerCase(Locale.ROOT);
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Dictionary models = new Dictionary();
+    private final Dictionary locations = new Dictionary();
+    private final Dictionary statuses = new Dictionary();
+    private final Dictionary brands = new Dictionary();
+    private final Dictionary categories = new Dictionary();
+    private final Dictionary cities = new Dictionary();
+    // Model -> marka/kategori ve lokasyon -> şehir eşlemeleri; kolon başına tekrar saklanmaz
+    private int[] modelBrand = new int[64];
+    private int[] modelCategory = new int[64];
+    private int[] locationCity = new int[64];
+
+    private int[][] rentalIds = new int[0][];
+    private int[][] modelCodes = new int[0][];
+    private int[][] pickupCodes = new int[0][];
+    private int[][] returnCodes = new int[0][];
+    private int[][] statusCodes = new int[0][];
+    private int[][] pickupDays = new int[0][];
+    private double[][] amounts = new double[0][];
+    private float[][] durations = new float[0][];
+    private int size;
+    private int liveRows;
+    private int minDay = Integer.MAX_VALUE;
+    private int maxDay = Integer.MIN_VALUE;
+    // RentalID -> satır + 1 (0 = yok); IDENTITY kimlikleri yoğun olduğundan dizi kutulu bir map'ten küçük
+    private int[] rowByRental = new int[1024];
+
+    /**
+     * One rental with its dimension labels; duration is in hours
+     */
+    public record Fact(int rentalId, String brand, String model, String category, String pickupLocation,
+                       String pickupCity, String returnLocation, String status, LocalDate pickupDate,
+                       double amount, double durationHours) {
+    }
+
+    public record Query(List<Dimension> groupBy, Map<Dimension, Set<String>> filters, LocalDate from, LocalDate to,
+                        List<Measure> measures, Measure sortBy, int limit) {
+    }
+
+    public record Row(List<String> keys, double[] values) {
+    }
+
+    public record Result(List<Dimension> groupBy, List<Measure> measures, List<Row> rows, int groups,
+                         long scannedRows, long matchedRows, long tookMicros) {
+    }
+
+    /**
+     * Append a rental, or overwrite its row when it is already present
+     */
+    public void upsert(Fact fact) {
+        lock.writeLock().lock();
+        try {
+            if (fact.rentalId() < 0) {
+                throw new RuntimeException("Rental id must not be negative: " + fact.rentalId());
+            }
+            int existing = rowOf(fact.rentalId());
+            int row;
+            if (existing >= 0) {
+                row = existing;
+                if (statusCodes[row >>> 16][row & 0xFFFF] == DELETED) {
+                    liveRows++;
+                }
+            } else {
+                row = size++;
+                if (row >>> 16 >= rentalIds.length) {
+                    addChunk();
+                }
+                if (fact.rentalId() >= rowByRental.length) {
+                    rowByRental = Arrays.copyOf(rowByRental, Math.max(fact.rentalId() + 1, rowByRental.length * 2));
+                }
+                rowByRental[fact.rentalId()] = row + 1;
+                liveRows++;
+            }
+            int chunk = row >>> 16;
+            int offset = row & 0xFFFF;
+            int day = (int) fact.pickupDate().toEpochDay();
+            rentalIds[chunk][offset] = fact.rentalId();
+            modelCodes[chunk][offset] = modelCode(fact.brand(), fact.model(), fact.category());
+            pickupCodes[chunk][offset] = locationCode(fact.pickupLocation(), fact.pickupCity());
+            returnCodes[chunk][offset] = locations.code(fact.returnLocation(), true);
+            statusCodes[chunk][offset] = statuses.code(fact.status(), true);
+            pickupDays[chunk][offset] = day;
+            amounts[chunk][offset] = fact.amount();
+            durations[chunk][offset] = (float) fact.durationHours();
+            minDay = Math.min(minDay, day);
+            maxDay = Math.max(maxDay, day);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The row stays allocated and is skipped by queries until the rental comes back
+     */
+    public boolean remove(int rentalId) {
+        lock.writeLock().lock();
+        try {
+            int row = rowOf(rentalId);
+            if (row < 0 || statusCodes[row >>> 16][row & 0xFFFF] == DELETED) {
+                return false;
+            }
+            statusCodes[row >>> 16][row & 0xFFFF] = DELETED;
+            liveRows--;
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return liveRows;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Rough heap footprint of the columns and the rental id index
+     */
+    public long sizeInBytes() {
+        lock.readLock().lock();
+        try {
+            return (long) rentalIds.length * CHUNK_SIZE * (6 * 4 + 8 + 4) + 4L * rowByRental.length;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Integer> getDictionarySizes() {
+        lock.readLock().lock();
+        try {
+            Map<String, Integer> sizes = new HashMap<>();
+            sizes.put("model", models.size());
+            sizes.put("brand", brands.size());
+            sizes.put("category", categories.size());
+            sizes.put("location", locations.size());
+            sizes.put("city", cities.size());
+            sizes.put("status", statuses.size());
+            return sizes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int rowOf(int rentalId) {
+        return rentalId >= 0 && rentalId < rowByRental.length ? rowByRental[rentalId] - 1 : -1;
+    }
+
+    private void addChunk() {
+        int chunks = rentalIds.length + 1;
+        rentalIds = Arrays.copyOf(rentalIds, chunks);
+        modelCodes = Arrays.copyOf(modelCodes, chunks);
+        pickupCodes = Arrays.copyOf(pickupCodes, chunks);
+        returnCodes = Arrays.copyOf(returnCodes, chunks);
+        statusCodes = Arrays.copyOf(statusCodes, chunks);
+        pickupDays = Arrays.copyOf(pickupDays, chunks);
+        amounts = Arrays.copyOf(amounts, chunks);
+        durations = Arrays.copyOf(durations, chunks);
+        int last = chunks - 1;
+        rentalIds[last] = new int[CHUNK_SIZE];
+        modelCodes[last] = new int[CHUNK_SIZE];
+        pickupCodes[last] = new int[CHUNK_SIZE];
+        returnCodes[last] = new int[CHUNK_SIZE];
+        statusCodes[last] = new int[CHUNK_SIZE];
+        pickupDays[last] = new int[CHUNK_SIZE];
+        amounts[last] = new double[CHUNK_SIZE];
+        durations[last] = new float[CHUNK_SIZE];
+    }
+
+    private int modelCode(String brand, String model, String category) {
+        // Aynı model adı farklı markalarda olabilir
+        int code = models.code(brand + " " + model, true);
+        modelBrand = ensure(modelBrand, code);
+        modelCategory = ensure(modelCategory, code);
+        modelBrand[code] = brands.code(brand, true);
+        modelCategory[code] = categories.code(category, true);
+        return code;
+    }
+
+    private int locationCode(String location, String city) {
+        int code = locations.code(location, true);
+        locationCity = ensure(locationCity, code);
+        locationCity[code] = cities.code(city, true);
+        return code;
+    }
+
+    private static int[] ensure(int[] array, int index) {
+        return index < array.length ? array : Arrays.copyOf(array, Math.max(index + 1, array.length * 2));
+    }
+
+    public Result query(Query query) {
+        long started = System.nanoTime();
+        List<Dimension> groupBy = query.groupBy() != null ? query.groupBy() : List.of();
+        List<Measure> measures = query.measures() != null && !query.measures().isEmpty()
+            ? query.measures() : List.of(Measure.COUNT, Measure.REVENUE);
+        if (groupBy.size() > MAX_GROUP_BY) {
+            throw new RuntimeException("At most " + MAX_GROUP_BY + " group-by dimensions are supported");
+        }
+        if (groupBy.size() != groupBy.stream().distinct().count()) {
+            throw new RuntimeException("Group-by dimensions must be distinct");
+        }
+
+        lock.readLock().lock();
+        try {
+            Plan plan = new Plan(groupBy, query);
+            int chunks = (size + CHUNK_SIZE - 1) / CHUNK_SIZE;
+            Accumulator total = plan.empty ? new Accumulator() : IntStream.range(0, chunks).parallel()
+                .mapToObj(plan::scan)
+                .reduce(Accumulator::merge)
+                .orElseGet(Accumulator::new);
+
+            List<Row> rows = new ArrayList<>(total.groups);
+            for (int slot = 0; slot < total.keys.length; slot++) {
+                if (!total.used[slot]) {
+                    continue;
+                }
+                double count = total.sums[slot * 3];
+                double amount = total.sums[slot * 3 + 1];
+                double hours = total.sums[slot * 3 + 2];
+                double[] values = new double[measures.size()];
+                for (int i = 0; i < values.length; i++) {
+                    values[i] = measures.get(i).value(count, amount, hours);
+                }
+                rows.add(new Row(plan.labels(total.keys[slot]), values));
+            }
+            if (query.sortBy() != null && measures.contains(query.sortBy())) {
+                int index = measures.indexOf(query.sortBy());
+                rows.sort(Comparator.comparingDouble((Row row) -> row.values()[index]).reversed());
+            } else {
+                rows.sort(Comparator.comparing((Row row) -> String.join("\u0000", row.keys())));
+            }
+            int groups = rows.size();
+            if (query.limit() > 0 && rows.size() > query.limit()) {
+                rows = new ArrayList<>(rows.subList(0, query.limit()));
+            }
+            return new Result(groupBy, measures, rows, groups, size, total.matched,
+                (System.nanoTime() - started) / 1000);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Codes of every grouped or filtered dimension are normalised to [0, radix) so a group key is a
+     * mixed-radix number and a filter is a boolean lookup. Built and used under the read lock.
+     */
+    private class Plan {
+
+        private final Dimension[] groupBy;
+        private final long[] groupWeights;
+        private final Dimension[] filterDimensions;
+        private final boolean[][] allowed;
+        private final int fromDay;
+        private final int toDay;
+        private final int[] dayYear;
+        private final int[] dayMonth;
+        private final int firstYear;
+        private final int firstMonth;
+        private boolean empty;
+
+        Plan(List<Dimension> groupBy, Query query) {
+            this.fromDay = query.from() != null ? (int) query.from().toEpochDay() : Integer.MIN_VALUE;
+            this.toDay = query.to() != null ? (int) query.to().toEpochDay() : Integer.MAX_VALUE;
+            this.empty = size == 0 || fromDay > toDay;
+
+            // Gün -> yıl/ay tablosu; satır başına LocalDate oluşturulmaz
+            int span = empty ? 0 : maxDay - minDay + 1;
+            dayYear = new int[span];
+            dayMonth = new int[span];
+            LocalDate first = empty ? LocalDate.now() : LocalDate.ofEpochDay(minDay);
+            firstYear = first.getYear();
+            firstMonth = first.getYear() * 12 + first.getMonthValue() - 1;
+            for (int i = 0; i < span; i++) {
+                LocalDate day = first.plusDays(i);
+                dayYear[i] = day.getYear() - firstYear;
+                dayMonth[i] = day.getYear() * 12 + day.getMonthValue() - 1 - firstMonth;
+            }
+
+            this.groupBy = groupBy.toArray(new Dimension[0]);
+            this.groupWeights = new long[this.groupBy.length];
+            long weight = 1;
+            for (int i = this.groupBy.length - 1; i >= 0; i--) {
+                groupWeights[i] = weight;
+                weight = Math.multiplyExact(weight, (long) Math.max(1, radix(this.groupBy[i])));
+            }
+
+            Map<Dimension, Set<String>> filters = query.filters() != null ? query.filters() : Map.of();
+            this.filterDimensions = filters.keySet().toArray(new Dimension[0]);
+            this.allowed = new boolean[filterDimensions.length][];
+            for (int i = 0; i < filterDimensions.length; i++) {
+                Dimension dimension = filterDimensions[i];
+                allowed[i] = new boolean[radix(dimension)];
+                boolean any = false;
+                for (String label : filters.get(dimension)) {
+                    int code = parse(dimension, label);
+                    if (code >= 0 && code < allowed[i].length) {
+                        allowed[i][code] = true;
+                        any = true;
+                    }
+                }
+                if (!any) {
+                    empty = true;
+                }
+            }
+        }
+
+        private int radix(Dimension dimension) {
+            return switch (dimension) {
+                case LOCATION, RETURN_LOCATION -> locations.size();
+                case CITY -> cities.size();
+                case BRAND -> brands.size();
+                case MODEL -> models.size();
+                case CATEGORY -> categories.size();
+                case STATUS -> statuses.size();
+                case ONE_WAY -> 2;
+                case YEAR -> dayYear.length == 0 ? 1 : dayYear[dayYear.length - 1] + 1;
+                case MONTH -> dayMonth.length == 0 ? 1 : dayMonth[dayMonth.length - 1] + 1;
+                case DAY_OF_WEEK -> 7;
+            };
+        }
+
+        private int code(Dimension dimension, int chunk, int offset) {
+            return switch (dimension) {
+                case LOCATION -> pickupCodes[chunk][offset];
+                case RETURN_LOCATION -> returnCodes[chunk][offset];
+                case CITY -> locationCity[pickupCodes[chunk][offset]];
+                case BRAND -> modelBrand[modelCodes[chunk][offset]];
+                case MODEL -> modelCodes[chunk][offset];
+                case CATEGORY -> modelCategory[modelCodes[chunk][offset]];
+                case STATUS -> statusCodes[chunk][offset];
+                case ONE_WAY -> pickupCodes[chunk][offset] != returnCodes[chunk][offset] ? 1 : 0;
+                case YEAR -> dayYear[pickupDays[chunk][offset] - minDay];
+                case MONTH -> dayMonth[pickupDays[chunk][offset] - minDay];
+                // 1970-01-01 Perşembe; Pazartesi = 0
+                case DAY_OF_WEEK -> Math.floorMod(pickupDays[chunk][offset] + 3, 7);
+            };
+        }
+
+        private int parse(Dimension dimension, String label) {
+            try {
+                return switch (dimension) {
+                    case LOCATION, RETURN_LOCATION -> locations.code(label, false);
+                    case CITY -> cities.code(label, false);
+                    case BRAND -> brands.code(label, false);
+                    case MODEL -> models.code(label, false);
+                    case CATEGORY -> categories.code(label, false);
+                    case STATUS -> statuses.code(label, false);
+                    case ONE_WAY -> Boolean.parseBoolean(label) || "one-way".equalsIgnoreCase(label) ? 1 : 0;
+                    case YEAR -> Integer.parseInt(label.trim()) - firstYear;
+                    case MONTH -> {
+                        YearMonth month = YearMonth.parse(label.trim());
+                        yield month.getYear() * 12 + month.getMonthValue() - 1 - firstMonth;
+                    }
+                    case DAY_OF_WEEK -> DayOfWeek.valueOf(label.trim().toUpperCase(Locale.ROOT)).getValue() - 1;
+                };
+            } catch (RuntimeException e) {
+                throw new RuntimeException("Invalid " + dimension.name().toLowerCase(Locale.ROOT) + " value: " + label);
+            }
+        }
+
+        private String label(Dimension dimension, int code) {
+            return switch (dimension) {
+                case LOCATION, RETURN_LOCATION -> locations.label(code);
+                case CITY -> cities.label(code);
+                case BRAND -> brands.label(code);
+                case MODEL -> models.label(code);
+                case CATEGORY -> categories.label(code);
+                case STATUS -> statuses.label(code);
+                case ONE_WAY -> code == 1 ? "one-way" : "round-trip";
+                case YEAR -> String.valueOf(firstYear + code);
+                case MONTH -> YearMonth.of((firstMonth + code) / 12, (firstMonth + code) % 12 + 1).toString();
+                case DAY_OF_WEEK -> DayOfWeek.of(code + 1).name();
+            };
+        }
+
+        List<String> labels(long key) {
+            List<String> labels = new ArrayList<>(groupBy.length);
+            for (int i = 0; i < groupBy.length; i++) {
+                labels.add(label(groupBy[i], (int) (key / groupWeights[i] % Math.max(1, radix(groupBy[i])))));
+            }
+            return labels;
+        }
+
+        Accumulator scan(int chunk) {
+            Accumulator accumulator = new Accumulator();
+            int rows = Math.min(CHUNK_SIZE, size - chunk * CHUNK_SIZE);
+            int[] days = pickupDays[chunk];
+            int[] status = statusCodes[chunk];
+            double[] amount = amounts[chunk];
+            float[] duration = durations[chunk];
+            next:
+            for (int offset = 0; offset < rows; offset++) {
+                int day = days[offset];
+                if (status[offset] == DELETED || day < fromDay || day > toDay) {
+                    continue;
+                }
+                for (int i = 0; i < filterDimensions.length; i++) {
+                    if (!allowed[i][code(filterDimensions[i], chunk, offset)]) {
+                        continue next;
+                    }
+                }
+                long key = 0;
+                for (int i = 0; i < groupBy.length; i++) {
+                    key += code(groupBy[i], chunk, offset) * groupWeights[i];
+                }
+                accumulator.add(key, amount[offset], duration[offset]);
+            }
+            return accumulator;
+        }
+    }
+
+    /**
+     * Open-addressing map from group key to (count, amount, hours); avoids boxing per row
+     */
+    private static class Accumulator {
+
+        private long[] keys = new long[16];
+        private boolean[] used = new boolean[16];
+        private double[] sums = new double[48];
+        private int groups;
+        private long matched;
+
+        void add(long key, double amount, double hours) {
+            int slot = slot(key);
+            sums[slot * 3] += 1;
+            sums[slot * 3 + 1] += amount;
+            sums[slot * 3 + 2] += hours;
+            matched++;
+        }
+
+        private int slot(long key) {
+            int mask = keys.length - 1;
+            int slot = Long.hashCode(key * 0x9E3779B97F4A7C15L) & mask;
+            while (used[slot]) {
+                if (keys[slot] == key) {
+                    return slot;
+                }
+                slot = (slot + 1) & mask;
+            }
+            if ((groups + 1) * 2 > keys.length) {
+                grow();
+                return slot(key);
+            }
+            used[slot] = true;
+            keys[slot] = key;
+            groups++;
+            return slot;
+        }
+
+        private void grow() {
+            long[] oldKeys = keys;
+            boolean[] oldUsed = used;
+            double[] oldSums = sums;
+            keys = new long[oldKeys.length * 2];
+            used = new boolean[oldKeys.length * 2];
+            sums = new double[oldKeys.length * 6];
+            groups = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldUsed[i]) {
+                    int slot = slot(oldKeys[i]);
+                    System.arraycopy(oldSums, i * 3, sums, slot * 3, 3);
+                }
+            }
+        }
+
+        Accumulator merge(Accumulator other) {
+            for (int i = 0; i < other.keys.length; i++) {
+                if (other.used[i]) {
+                    int slot = slot(other.keys[i]);
+                    sums[slot * 3] += other.sums[i * 3];
+                    sums[slot * 3 + 1] += other.sums[i * 3 + 1];
+                    sums[slot * 3 + 2] += other.sums[i * 3 + 2];
+                }
+            }
+            matched += other.matched;
+            return this;
+        }
+    }
+
+    /**
+     * Label <-> code; codes are dense and never reused
+     */
+    private static class Dictionary {
+
+        private final Map<String, Integer> codes = new HashMap<>();
+        private final List<String> labels = new ArrayList<>();
+
+        int code(String label, boolean add) {
+            String key = label != null ? label : "";
+            Integer code = codes.get(key);
+            if (code == null) {
+                if (!add) {
+                    return -1;
+                }
+                code = labels.size();
+                codes.put(key, code);
+                labels.add(key);
+            }
+            return code;
+        }
+
+        String label(int code) {
+            return labels.get(code);
+        }
+
+        int size() {
+            return labels.size();
+        }
+    }
+}
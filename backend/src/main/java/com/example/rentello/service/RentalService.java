@@ -1,9 +1,12 @@
 package com.example.rentello.service;
 
+import com.example.rentello.dto.CursorPageDto;
 import com.example.rentello.entity.*;
 import com.example.rentello.entity.view.AvailableVehicle;
+import com.example.rentello.event.VehicleFreedEvent;
 import com.example.rentello.repository.*;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,6 +20,7 @@ import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
@@ -32,10 +36,13 @@ public class RentalService {
     private final PricingService pricingService;
     private final StoredProcedureRepository storedProcedureRepository;
     private final DatabaseFunctionRepository functionRepository;
+    private final ScalarFunctionRepository scalarFunctions;
     private final AvailableVehicleRepository availableVehicleRepository;
     private final PaymentRepository paymentRepository;
     private final PaymentMethodRepository paymentMethodRepository;
     private final RentalStatusRepository rentalStatusRepository;
+    private final KeysetPaginationService keysetPaginationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     // Basic CRUD operations
     public Optional<Rental> findById(Integer rentalId) {
@@ -51,6 +58,13 @@ public class RentalService {
         return rentalRepository.findAll(pageable);
     }
     
+    public CursorPageDto<Rental> getRentalsByCursor(String cursor, int size, String sortBy,
+                                                    String sortDirection, boolean includeTotal) {
+        return keysetPaginationService.scroll(rentalRepository, "rentals",
+            Set.of("rentalId", "plannedPickupDate", "plannedReturnDate", "totalAmount"), "rentalId",
+            cursor, size, sortBy, sortDirection, includeTotal, rental -> rental);
+    }
+
     public Rental updateRental(Rental rental) {
         return rentalRepository.save(rental);
     }
@@ -384,7 +398,12 @@ public class RentalService {
         // Update status to Completed
         // rental.setRentalStatus(rentalStatusService.getStatusByName("Completed"));
         
-        return rentalRepository.save(rental);
+        Rental saved = rentalRepository.save(rental);
+        if (actualReturnDate.isBefore(rental.getPlannedReturnDate())) {
+            eventPublisher.publishEvent(new VehicleFreedEvent(vehicle.getVehicleId(), rentalId,
+                actualReturnDate, rental.getPlannedReturnDate(), VehicleFreedEvent.Reason.EARLY_RETURN));
+        }
+        return saved;
     }
     
     public Rental updateRental(Integer rentalId, Rental rentalDetails) {
@@ -423,7 +442,10 @@ public class RentalService {
         }
         // rental.setRentalStatus(rentalStatusService.getStatusByName("Cancelled"));
         
-        return rentalRepository.save(rental);
+        Rental saved = rentalRepository.save(rental);
+        eventPublisher.publishEvent(new VehicleFreedEvent(rental.getVehicle().getVehicleId(), rentalId,
+            rental.getPlannedPickupDate(), rental.getPlannedReturnDate(), VehicleFreedEvent.Reason.CANCELLATION));
+        return saved;
     }
     
     private void calculateRentalCost(Rental rental) {
@@ -502,7 +524,7 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public Integer calculateRentalDuration(LocalDateTime startDate, LocalDateTime endDate) {
-        return functionRepository.calculateRentalDuration(startDate, endDate);
+        return scalarFunctions.calculateRentalDuration(startDate, endDate);
     }
 
     /**
@@ -510,7 +532,7 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public BigDecimal calculateDiscount(Integer customerId, Integer rentalDays) {
-        return functionRepository.calculateDiscountPercentage(customerId, rentalDays);
+        return scalarFunctions.calculateDiscountPercentage(customerId, rentalDays);
     }
 
     /**
@@ -518,7 +540,7 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public String getCustomerLoyaltyTier(Integer customerId) {
-        return functionRepository.getCustomerLoyaltyTier(customerId);
+        return scalarFunctions.getCustomerLoyaltyTier(customerId);
     }
 
     /**
@@ -538,8 +560,16 @@ public class RentalService {
      */
     public Map<String, Object> processVehicleReturn(Integer rentalId, LocalDateTime actualReturnDate,
                                                    Integer mileage, String damageNotes, Integer processedBy) {
-        return storedProcedureRepository.processVehicleReturn(
+        Map<String, Object> result = storedProcedureRepository.processVehicleReturn(
                 rentalId, actualReturnDate, mileage, damageNotes, processedBy);
+        if (Boolean.TRUE.equals(result.get("IsSuccess"))) {
+            rentalRepository.findById(rentalId)
+                .filter(rental -> actualReturnDate.isBefore(rental.getPlannedReturnDate()))
+                .ifPresent(rental -> eventPublisher.publishEvent(new VehicleFreedEvent(
+                    rental.getVehicle().getVehicleId(), rentalId, actualReturnDate,
+                    rental.getPlannedReturnDate(), VehicleFreedEvent.Reason.EARLY_RETURN)));
+        }
+        return result;
     }
 
     /**
@@ -630,7 +660,7 @@ public class RentalService {
     public BigDecimal calculateLateFee(LocalDateTime plannedReturnDate,
                                       LocalDateTime actualReturnDate,
                                       BigDecimal dailyRate) {
-        return functionRepository.calculateLateFee(plannedReturnDate, actualReturnDate, dailyRate);
+        return scalarFunctions.calculateLateFee(plannedReturnDate, actualReturnDate, dailyRate);
     }
 
     /**
@@ -678,6 +708,6 @@ public class RentalService {
      */
     @Transactional(readOnly = true)
     public String formatCurrency(BigDecimal amount) {
-        return functionRepository.formatCurrency(amount);
+        return scalarFunctions.formatCurrency(amount);
     }
 }
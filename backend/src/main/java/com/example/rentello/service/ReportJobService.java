@@ -0,0 +1,364 @@
+package com.example.rentello.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Long reports run as background jobs instead of on the request thread.
+ * A fixed pool of report workers with a bounded queue runs the jobs step by step, reporting progress
+ * and checking for cancellation between steps. Results are written to {@link ReportResultCache};
+ * a report over a period that has already ended is keyed by its parameters, so repeating it is served
+ * from disk without running again.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED,
+        CANCELLED
+    }
+
+    public enum ReportType {
+        DASHBOARD("dashboard", false, false, List.of(
+            new Step("dashboard", (reports, params) -> reports.getDashboardSummary()))),
+        REVENUE("revenue", true, true, List.of(
+            new Step("revenue", (reports, params) -> reports.getRevenueReport(params.startDate(), params.endDate())))),
+        VEHICLE_UTILIZATION("vehicle-utilization", false, false, List.of(
+            new Step("utilization", (reports, params) -> reports.getVehicleUtilizationReport()))),
+        CUSTOMERS("customers", false, false, List.of(
+            new Step("customers", (reports, params) -> reports.getCustomerReport()))),
+        FLEET_STATUS("fleet-status", false, false, List.of(
+            new Step("fleet", (reports, params) -> reports.getFleetStatusReport()))),
+        LOCATION_PERFORMANCE("location-performance", false, true, List.of(
+            new Step("locations", (reports, params) -> reports.getLocationPerformanceReport(params.fromMonth(), params.toMonth())))),
+        // getAdvancedAnalytics ile aynı bölümler, her biri ayrı adım; filo/müşteri/bakım anlık durum olduğundan önbelleğe alınmaz
+        ADVANCED_ANALYTICS("analytics", true, false, List.of(
+            new Step("revenue", (reports, params) -> reports.getRevenueReport(params.startDate(), params.endDate())),
+            new Step("fleet", (reports, params) -> reports.getFleetStatusReport()),
+            new Step("customers", (reports, params) -> reports.getCustomerReport()),
+            new Step("maintenance", (reports, params) -> reports.getMaintenanceReport()),
+            new Step("locations", (reports, params) -> reports.getLocationPerformanceReport())));
+
+        private final String key;
+        private final boolean dated;
+        private final boolean periodOnly;
+        private final List<Step> steps;
+
+        /**
+         * dated: takes startDate/endDate; periodOnly: every step depends on the given period only
+         */
+        ReportType(String key, boolean dated, boolean periodOnly, List<Step> steps) {
+            this.key = key;
+            this.dated = dated;
+            this.periodOnly = periodOnly;
+            this.steps = steps;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static ReportType from(String value) {
+            for (ReportType type : values()) {
+                if (type.key.equalsIgnoreCase(value) || type.name().equalsIgnoreCase(value)) {
+                    return type;
+                }
+            }
+            throw new RuntimeException("Unknown report type: " + value);
+        }
+
+        /**
+         * Only reports that depend on nothing but a fully given, finished period are cached by parameters;
+         * a missing bound is filled in relative to now, so such a report changes from day to day
+         */
+        boolean isClosedPeriod(Params params) {
+            if (!periodOnly) {
+                return false;
+            }
+            if (this == LOCATION_PERFORMANCE) {
+                return params.fromMonth() != null && params.toMonth() != null
+                    && params.toMonth().isBefore(YearMonth.now());
+            }
+            return params.startDate() != null && params.endDate() != null
+                && !params.endDate().isAfter(LocalDate.now().atStartOfDay());
+        }
+    }
+
+    public record Params(LocalDateTime startDate, LocalDateTime endDate, YearMonth fromMonth, YearMonth toMonth) {
+
+        Map<String, Object> asMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("startDate", startDate);
+            map.put("endDate", endDate);
+            map.put("fromMonth", fromMonth);
+            map.put("toMonth", toMonth);
+            return map;
+        }
+    }
+
+    private record Step(String name, StepFunction function) {
+    }
+
+    @FunctionalInterface
+    private interface StepFunction {
+        Object run(ReportService reports, Params params);
+    }
+
+    private final ReportService reportService;
+    private final ReportResultCache resultCache;
+    private final ThreadPoolExecutor workers;
+    private final Duration jobRetention;
+    private final Map<String, Job> jobs = new ConcurrentHashMap<>();
+
+    public ReportJobService(ReportService reportService, ReportResultCache resultCache,
+                            @Value("${app.report-jobs.workers:2}") int workerCount,
+                            @Value("${app.report-jobs.queue-size:50}") int queueSize,
+                            @Value("${app.report-jobs.cache-ttl-minutes:1440}") long retentionMinutes) {
+        this.reportService = reportService;
+        this.resultCache = resultCache;
+        this.jobRetention = Duration.ofMinutes(retentionMinutes);
+        AtomicInteger threadIds = new AtomicInteger();
+        // İstek thread'lerinden ayrı, sınırlı havuz; kuyruk dolarsa yeni iş reddedilir
+        this.workers = new ThreadPoolExecutor(workerCount, workerCount, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize), runnable -> {
+                Thread thread = new Thread(runnable, "report-job-" + threadIds.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+    }
+
+    /**
+     * Queue a report; a finished period that is already on disk completes immediately
+     */
+    public JobView submit(ReportType type, Params params) {
+        if (type.dated && (params.startDate() == null) != (params.endDate() == null)) {
+            throw new RuntimeException("'startDate' and 'endDate' must be given together");
+        }
+        if (params.startDate() != null && params.endDate() != null && !params.startDate().isBefore(params.endDate())) {
+            throw new RuntimeException("'startDate' must be before 'endDate'");
+        }
+        String id = UUID.randomUUID().toString();
+        boolean closed = type.isClosedPeriod(params);
+        String cacheKey = closed ? ReportResultCache.key(type.getKey(), params.asMap()) : type.getKey() + "-job-" + id;
+        Job job = new Job(id, type, params, cacheKey);
+
+        if (closed) {
+            Optional<Path> cached = resultCache.find(cacheKey);
+            if (cached.isPresent()) {
+                job.fromCache = true;
+                job.finish(Status.COMPLETED, null);
+                jobs.put(id, job);
+                return job.view();
+            }
+        }
+
+        jobs.put(id, job);
+        try {
+            job.future = workers.submit(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(id);
+            throw new RuntimeException("Report queue is full, try again later");
+        }
+        return job.view();
+    }
+
+    private void run(Job job) {
+        // Kuyruktayken iptal edilen iş başlatılmaz
+        if (job.cancelRequested || !job.start()) {
+            return;
+        }
+        try {
+            List<Step> steps = job.type.steps;
+            Map<String, Object> sections = new LinkedHashMap<>();
+            for (int i = 0; i < steps.size(); i++) {
+                if (job.cancelRequested || Thread.currentThread().isInterrupted()) {
+                    job.finish(Status.CANCELLED, null);
+                    return;
+                }
+                Step step = steps.get(i);
+                job.currentStep = step.name();
+                sections.put(step.name(), step.function().run(reportService, job.params));
+                job.progress = (i + 1) * 100 / (steps.size() + 1);
+            }
+            if (job.cancelRequested) {
+                job.finish(Status.CANCELLED, null);
+                return;
+            }
+            job.currentStep = "write";
+            resultCache.write(job.cacheKey, steps.size() == 1 ? sections.values().iterator().next() : sections);
+            job.finish(Status.COMPLETED, null);
+        } catch (Exception e) {
+            // Kapanışta havuz kesildiğinde de iş iptal sayılır
+            if (job.cancelRequested || Thread.currentThread().isInterrupted()) {
+                job.finish(Status.CANCELLED, null);
+            } else {
+                log.warn("Report job {} ({}) failed: {}", job.id, job.type.getKey(), e.getMessage());
+                job.finish(Status.FAILED, e.getMessage());
+            }
+        }
+    }
+
+    public Optional<JobView> getJob(String id) {
+        Job job = jobs.get(id);
+        return job == null ? Optional.empty() : Optional.of(job.view());
+    }
+
+    public List<JobView> getJobs() {
+        List<JobView> views = new ArrayList<>();
+        jobs.values().forEach(job -> views.add(job.view()));
+        views.sort(Comparator.comparing(JobView::createdAt).reversed());
+        return views;
+    }
+
+    /**
+     * Queued jobs never start; a running job stops at its next step and its partial result is discarded
+     */
+    public JobView cancel(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new RuntimeException("Report job not found: " + id);
+        }
+        if (job.status == Status.QUEUED || job.status == Status.RUNNING) {
+            job.cancelRequested = true;
+            if (job.future != null) {
+                job.future.cancel(true);
+            }
+            if (job.status == Status.QUEUED) {
+                workers.remove((Runnable) job.future);
+                job.finish(Status.CANCELLED, null);
+            }
+        }
+        return job.view();
+    }
+
+    /**
+     * Result file of a completed job
+     */
+    public Path getResult(String id) {
+        Job job = jobs.get(id);
+        if (job == null) {
+            throw new RuntimeException("Report job not found: " + id);
+        }
+        if (job.status != Status.COMPLETED) {
+            throw new RuntimeException("Report job is " + job.status);
+        }
+        return resultCache.find(job.cacheKey)
+            .orElseThrow(() -> new RuntimeException("Report result has expired, submit the job again"));
+    }
+
+    /**
+     * Forget finished jobs after the cache TTL; per-job result files go with them
+     */
+    @Scheduled(fixedDelayString = "${app.report-jobs.evict-ms:600000}")
+    public void evictFinishedJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(jobRetention);
+        jobs.values().removeIf(job -> {
+            boolean expired = job.finishedAt != null && job.finishedAt.isBefore(cutoff);
+            if (expired && job.cacheKey.contains("-job-")) {
+                resultCache.delete(job.cacheKey);
+            }
+            return expired;
+        });
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("workers", workers.getMaximumPoolSize());
+        stats.put("running", workers.getActiveCount());
+        stats.put("queued", workers.getQueue().size());
+        stats.put("jobs", jobs.size());
+        stats.put("cache", resultCache.getStats());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private static class Job {
+
+        private final String id;
+        private final ReportType type;
+        private final Params params;
+        private final String cacheKey;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+        private volatile Status status = Status.QUEUED;
+        private volatile int progress;
+        private volatile String currentStep;
+        private volatile String error;
+        private volatile boolean fromCache;
+        private volatile boolean cancelRequested;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile Future<?> future;
+
+        Job(String id, ReportType type, Params params, String cacheKey) {
+            this.id = id;
+            this.type = type;
+            this.params = params;
+            this.cacheKey = cacheKey;
+        }
+
+        /**
+         * QUEUED to RUNNING under the same lock as finish, so a cancellation that got there first is not overwritten
+         */
+        synchronized boolean start() {
+            if (status != Status.QUEUED) {
+                return false;
+            }
+            status = Status.RUNNING;
+            startedAt = LocalDateTime.now();
+            return true;
+        }
+
+        synchronized void finish(Status finalStatus, String message) {
+            if (finishedAt != null) {
+                return;
+            }
+            status = finalStatus;
+            error = message;
+            if (finalStatus == Status.COMPLETED) {
+                progress = 100;
+            }
+            finishedAt = LocalDateTime.now();
+        }
+
+        JobView view() {
+            return new JobView(id, type.getKey(), params, status, progress, currentStep, fromCache, error,
+                createdAt, startedAt, finishedAt);
+        }
+    }
+
+    public record JobView(String id, String type, Params params, Status status, int progress, String step,
+                          boolean fromCache, String error, LocalDateTime createdAt, LocalDateTime startedAt,
+                          LocalDateTime finishedAt) {
+    }
+}
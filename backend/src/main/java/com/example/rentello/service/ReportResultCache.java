@@ -0,0 +1,161 @@
+package com.example.rentello.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Report results as gzipped JSON files in a local directory, keyed by report type and parameters.
+ * Files are written to a temporary name and moved into place, so readers never see a partial result;
+ * files older than the TTL are treated as missing and deleted by a periodic sweep.
+ */
+@Component
+@Slf4j
+public class ReportResultCache {
+
+    private static final String SUFFIX = ".json.gz";
+
+    private final Path directory;
+    private final Duration ttl;
+    private final ObjectMapper objectMapper;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong writes = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+
+    public ReportResultCache(@Value("${app.report-jobs.cache-dir:${java.io.tmpdir}/rentello-reports}") String directory,
+                             @Value("${app.report-jobs.cache-ttl-minutes:1440}") long ttlMinutes,
+                             ObjectMapper objectMapper) {
+        this.directory = Paths.get(directory);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Stable file key; parameter order does not matter and null parameters are left out
+     */
+    public static String key(String type, Map<String, ?> params) {
+        StringBuilder source = new StringBuilder(type);
+        new TreeMap<>(params).forEach((name, value) -> {
+            if (value != null) {
+                source.append('|').append(name).append('=').append(value);
+            }
+        });
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(source.toString().getBytes(StandardCharsets.UTF_8));
+            return type + "-" + HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * The cached file when present and younger than the TTL
+     */
+    public Optional<Path> find(String key) {
+        Path file = directory.resolve(key + SUFFIX);
+        try {
+            if (Files.isRegularFile(file) && !isExpired(file)) {
+                hits.incrementAndGet();
+                return Optional.of(file);
+            }
+        } catch (IOException e) {
+            log.debug("Report cache entry {} could not be read: {}", key, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    public Path write(String key, Object result) {
+        try {
+            Files.createDirectories(directory);
+            Path target = directory.resolve(key + SUFFIX);
+            Path temp = Files.createTempFile(directory, key, ".tmp");
+            try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                objectMapper.writeValue(out, result);
+            } catch (IOException e) {
+                Files.deleteIfExists(temp);
+                throw e;
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            writes.incrementAndGet();
+            return target;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Report result could not be written: " + key, e);
+        }
+    }
+
+    /**
+     * Copy a cached result to the stream, as stored (gzip) or decompressed
+     */
+    public void copyTo(Path file, boolean gzip, OutputStream out) throws IOException {
+        try (InputStream in = gzip ? Files.newInputStream(file) : new GZIPInputStream(Files.newInputStream(file))) {
+            in.transferTo(out);
+        }
+    }
+
+    public void delete(String key) {
+        try {
+            Files.deleteIfExists(directory.resolve(key + SUFFIX));
+        } catch (IOException e) {
+            log.debug("Report cache entry {} could not be deleted: {}", key, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.report-jobs.evict-ms:600000}")
+    public int evictExpired() {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int removed = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                // Yarım kalmış geçici dosyalar da TTL sonunda silinir
+                if ((name.endsWith(SUFFIX) || name.endsWith(".tmp")) && isExpired(file) && Files.deleteIfExists(file)) {
+                    removed++;
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Report cache eviction failed: {}", e.getMessage());
+        }
+        evicted.addAndGet(removed);
+        return removed;
+    }
+
+    private boolean isExpired(Path file) throws IOException {
+        return Files.getLastModifiedTime(file).toMillis() + ttl.toMillis() < System.currentTimeMillis();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("directory", directory.toString());
+        stats.put("ttlMinutes", ttl.toMinutes());
+        stats.put("hits", hits.get());
+        stats.put("writes", writes.get());
+        stats.put("evicted", evicted.get());
+        return stats;
+    }
+}
@@ -1,35 +1,48 @@
 package com.example.rentello.service;
 
+import com.example.rentello.repository.PaymentRepository;
+import com.example.rentello.repository.RentalRepository;
+import com.example.rentello.repository.UserRepository;
+import com.example.rentello.repository.VehicleRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
+/**
+ * Reports are built from COUNT/SUM projections only; no report loads entities, so memory use
+ * does not grow with the number of rentals, payments or vehicles.
+ */
 @Service
 @RequiredArgsConstructor
 public class ReportService {
     
-    private final RentalService rentalService;
-    private final VehicleService vehicleService;
-    private final PaymentService paymentService;
-    private final UserService userService;
+    private final RentalRepository rentalRepository;
+    private final VehicleRepository vehicleRepository;
+    private final PaymentRepository paymentRepository;
+    private final UserRepository userRepository;
+    private final UtilizationService utilizationService;
+    private final LocationPerformanceService locationPerformanceService;
+    private final CustomerAnalyticsService customerAnalyticsService;
     
     public Map<String, Object> getDashboardSummary() {
         Map<String, Object> summary = new HashMap<>();
         
         // Basic counts
-        summary.put("totalVehicles", vehicleService.getAllVehicles().size());
-        summary.put("totalUsers", userService.getAllUsers().size());
-        summary.put("totalRentals", rentalService.getAllRentals().size());
-        summary.put("activeRentals", rentalService.getActiveRentals().size());
-        summary.put("overdueRentals", rentalService.getOverdueRentals().size());
+        summary.put("totalVehicles", vehicleRepository.count());
+        summary.put("totalUsers", userRepository.count());
+        summary.put("totalRentals", rentalRepository.count());
+        summary.put("activeRentals", rentalRepository.countByStatus("Active"));
+        summary.put("overdueRentals", rentalRepository.countOverdueRentals(LocalDateTime.now()));
         
         // Revenue summary
-        BigDecimal totalRevenue = paymentService.getTotalRevenueForPeriod(
-                LocalDateTime.now().minusDays(30), LocalDateTime.now());
+        BigDecimal totalRevenue = summarizePayments(LocalDateTime.now().minusDays(30), LocalDateTime.now()).revenue();
         summary.put("monthlyRevenue", totalRevenue);
         
         return summary;
@@ -46,12 +59,13 @@ public class ReportService {
             endDate = LocalDateTime.now();
         }
         
-        BigDecimal totalRevenue = paymentService.getTotalRevenueForPeriod(startDate, endDate);
+        // Tutar ve işlem sayısı tek sorguda
+        PaymentSummary payments = summarizePayments(startDate, endDate);
         
         report.put("startDate", startDate);
         report.put("endDate", endDate);
-        report.put("totalRevenue", totalRevenue);
-        report.put("totalTransactions", paymentService.getPaymentsByDateRange(startDate, endDate).size());
+        report.put("totalRevenue", payments.revenue());
+        report.put("totalTransactions", payments.transactions());
         
         return report;
     }
@@ -59,10 +73,10 @@ public class ReportService {
     public Map<String, Object> getVehicleUtilizationReport() {
         Map<String, Object> report = new HashMap<>();
         
-        // Mock data - in real implementation would calculate from database
-        report.put("totalVehicles", vehicleService.getAllVehicles().size());
-        report.put("availableVehicles", vehicleService.getAvailableVehicles().size());
-        report.put("averageUtilization", 75.5);
+        report.put("totalVehicles", vehicleRepository.count());
+        report.put("availableVehicles", vehicleRepository.countAvailableVehicles());
+        // Son 30 kapanmış gün; sonuç önbellekten gelir
+        report.put("averageUtilization", utilizationService.getFleetUtilization(30));
         
         return report;
     }
@@ -70,10 +84,11 @@ public class ReportService {
     public Map<String, Object> getCustomerReport() {
         Map<String, Object> report = new HashMap<>();
         
-        // Mock data - in real implementation would calculate from database
-        report.put("totalCustomers", userService.getUsersByRole("Customer").size());
-        report.put("activeCustomers", userService.getActiveUsers().size());
-        report.put("newCustomersThisMonth", 15);
+        report.put("totalCustomers", userRepository.countByRoleName("Musteri"));
+        report.put("activeCustomers", userRepository.countActiveUsers());
+        // Kohort ve RFM sonuçları müşteri analitiği işinin yazdığı tablolardan
+        report.put("newCustomersThisMonth", customerAnalyticsService.getNewCustomers(YearMonth.now()));
+        report.put("segments", customerAnalyticsService.getSegmentCounts());
         
         return report;
     }
@@ -92,30 +107,48 @@ public class ReportService {
     public Map<String, Object> getFleetStatusReport() {
         Map<String, Object> report = new HashMap<>();
         
-        int totalVehicles = vehicleService.getAllVehicles().size();
-        int availableVehicles = vehicleService.getAvailableVehicles().size();
+        // Durum başına tek gruplu sayım
+        Map<String, Long> byStatus = new HashMap<>();
+        long totalVehicles = 0;
+        for (Object[] row : vehicleRepository.countGroupedByStatus()) {
+            long count = ((Number) row[1]).longValue();
+            byStatus.put((String) row[0], count);
+            totalVehicles += count;
+        }
+        long availableVehicles = vehicleRepository.countAvailableVehicles();
         
         report.put("totalVehicles", totalVehicles);
         report.put("availableVehicles", availableVehicles);
         report.put("rentedVehicles", totalVehicles - availableVehicles);
-        report.put("maintenanceVehicles", 5); // Mock data
-        report.put("damagedVehicles", 2); // Mock data
+        report.put("maintenanceVehicles", byStatus.getOrDefault("Bakimda", 0L));
+        report.put("damagedVehicles", byStatus.getOrDefault("Hasarli", 0L));
+        report.put("vehiclesByStatus", byStatus);
         
         return report;
     }
     
     public Map<String, Object> getLocationPerformanceReport() {
+        return getLocationPerformanceReport(null, null);
+    }
+    
+    public Map<String, Object> getLocationPerformanceReport(YearMonth from, YearMonth to) {
         Map<String, Object> report = new HashMap<>();
         
-        // Mock data - in real implementation would calculate from database
-        report.put("totalLocations", 8);
-        report.put("activeLocations", 7);
-        report.put("topPerformingLocation", "Istanbul Airport");
-        report.put("locationRevenue", Map.of(
-                "Istanbul Airport", 45000,
-                "Ankara Center", 32000,
-                "Izmir Port", 28000
-        ));
+        // Kapanmış aylar önbellekten, açık ayda yalnızca bugün yeniden sorgulanır
+        LocationPerformanceService.Report performance = locationPerformanceService.getPerformance(from, to);
+        List<LocationPerformanceService.LocationRow> rows = performance.locations();
+        Map<String, BigDecimal> locationRevenue = new LinkedHashMap<>();
+        for (LocationPerformanceService.LocationRow row : rows) {
+            locationRevenue.put(row.locationName(), row.revenue());
+        }
+        
+        report.put("from", performance.from());
+        report.put("to", performance.to());
+        report.put("totalLocations", rows.size());
+        report.put("activeLocations", rows.stream().filter(LocationPerformanceService.LocationRow::active).count());
+        report.put("topPerformingLocation", rows.isEmpty() || rows.get(0).rentals() == 0 ? null : rows.get(0).locationName());
+        report.put("locationRevenue", locationRevenue);
+        report.put("locations", rows);
         
         return report;
     }
@@ -132,4 +165,18 @@ public class ReportService {
         
         return analytics;
     }
-} 
\ No newline at end of file
+
+    private PaymentSummary summarizePayments(LocalDateTime startDate, LocalDateTime endDate) {
+        List<Object[]> rows = paymentRepository.summarizeByDateRange(startDate, endDate);
+        if (rows.isEmpty()) {
+            return new PaymentSummary(0, BigDecimal.ZERO);
+        }
+        Object[] row = rows.get(0);
+        long transactions = row[0] instanceof Number number ? number.longValue() : 0;
+        BigDecimal revenue = row[1] instanceof Number number ? new BigDecimal(number.toString()) : BigDecimal.ZERO;
+        return new PaymentSummary(transactions, revenue);
+    }
+
+    private record PaymentSummary(long transactions, BigDecimal revenue) {
+    }
+}
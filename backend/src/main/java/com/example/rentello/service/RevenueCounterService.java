@@ -0,0 +1,324 @@
+package com.example.rentello.service;
+
+import com.example.rentello.event.PaymentChangedEvent;
+import com.example.rentello.repository.PaymentRepository;
+import com.example.rentello.repository.RevenuePeriodRepository;
+import com.example.rentello.repository.RevenuePeriodRepository.ClosedPeriod;
+import com.example.rentello.repository.RevenuePeriodRepository.DetailRow;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Revenue aggregates maintained on payment events instead of re-summing the Payments table.
+ * Periods are calendar months: finished months are closed once into immutable RevenuePeriods rows,
+ * the open month lives in a {@link RevenueLedger}. A reconciliation job compares the ledger with the
+ * source tables and rebuilds it when they disagree. Payments that change while a ledger is being loaded
+ * are re-applied to it once it is published. Until the counters are loaded every call falls back
+ * to the repository queries.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RevenueCounterService {
+
+    private static final String PAYMENT_JOINS =
+        " FROM Payments p" +
+        " JOIN Rentals r ON r.RentalID = p.RentalID" +
+        " JOIN Vehicles v ON v.VehicleID = r.VehicleID" +
+        " JOIN VehicleModels vm ON vm.ModelID = v.ModelID";
+
+    private static final String CONTRIBUTION_SQL =
+        "SELECT p.PaymentID, p.PaymentDate, p.PaymentStatus, p.PaymentAmount, r.PickupLocationID, vm.CategoryID" + PAYMENT_JOINS;
+
+    // Tarih kolonu sarılmadan filtrelenir; gruplama kapanışta ve mutabakatta bir kez yapılır
+    private static final String CELLS_SQL =
+        "SELECT CAST(p.PaymentDate AS DATE) AS RevenueDate, r.PickupLocationID, vm.CategoryID, " +
+        "COUNT(*) AS PaymentCount, SUM(p.PaymentAmount) AS Amount" + PAYMENT_JOINS +
+        " WHERE p.PaymentStatus = 'Completed' AND p.PaymentDate >= ? AND p.PaymentDate < ?" +
+        " GROUP BY CAST(p.PaymentDate AS DATE), r.PickupLocationID, vm.CategoryID";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RevenuePeriodRepository revenuePeriodRepository;
+    private final PaymentRepository paymentRepository;
+
+    private volatile RevenueLedger ledger;
+    private volatile List<ClosedPeriod> closedPeriods = List.of();
+    private volatile BigDecimal closedTotal = BigDecimal.ZERO;
+    private final AtomicLong appliedEvents = new AtomicLong();
+    private final AtomicLong lateChanges = new AtomicLong();
+    private volatile Map<String, Object> lastReconciliation = Map.of();
+    // Defter yüklenirken değişen ödemeler; yükleme sorgusu commit'ten önce okumuş olabilir
+    private final Set<Integer> changedDuringReload = ConcurrentHashMap.newKeySet();
+    private volatile boolean reloading;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            rollOver();
+        } catch (Exception e) {
+            log.warn("Revenue counters could not be loaded, falling back to queries: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Close every finished month that has no RevenuePeriods row yet and open the current month.
+     * Runs hourly, so a new month is picked up shortly after midnight.
+     */
+    @Scheduled(cron = "${app.revenue.rollover-cron:0 1 * * * *}")
+    public synchronized void rollOver() {
+        LocalDate currentStart = LocalDate.now().withDayOfMonth(1);
+        RevenueLedger current = ledger;
+        if (current != null && current.getPeriodStart().equals(currentStart)) {
+            return;
+        }
+
+        List<ClosedPeriod> closed = revenuePeriodRepository.findAll();
+        LocalDate next = !closed.isEmpty() ? closed.get(closed.size() - 1).periodEnd() : firstPaymentMonth();
+        while (next != null && next.isBefore(currentStart)) {
+            closePeriod(next, next.plusMonths(1));
+            next = next.plusMonths(1);
+        }
+
+        closedPeriods = revenuePeriodRepository.findAll();
+        closedTotal = closedPeriods.stream().map(ClosedPeriod::totalAmount).reduce(BigDecimal.ZERO, BigDecimal::add);
+        reloadLedger(currentStart, currentStart.plusMonths(1));
+        log.info("Revenue counters ready: {} closed periods, open period {} with {} payments",
+            closedPeriods.size(), currentStart, ledger.getCount());
+    }
+
+    private LocalDate firstPaymentMonth() {
+        Timestamp first = jdbcTemplate.queryForObject(
+            "SELECT MIN(PaymentDate) FROM Payments WHERE PaymentStatus = 'Completed'", Timestamp.class);
+        return first != null ? first.toLocalDateTime().toLocalDate().withDayOfMonth(1) : null;
+    }
+
+    /**
+     * The month is summed from the source exactly once, then only the snapshot rows are read
+     */
+    private void closePeriod(LocalDate start, LocalDate end) {
+        Map<RevenueLedger.Key, RevenueLedger.Cell> cells = loadSourceCells(start, end);
+        List<DetailRow> details = new ArrayList<>(cells.size());
+        long count = 0;
+        BigDecimal total = BigDecimal.ZERO;
+        for (Map.Entry<RevenueLedger.Key, RevenueLedger.Cell> entry : cells.entrySet()) {
+            RevenueLedger.Key key = entry.getKey();
+            RevenueLedger.Cell cell = entry.getValue();
+            details.add(new DetailRow(key.day(), key.locationId(), key.categoryId(), cell.count(), cell.amount()));
+            count += cell.count();
+            total = total.add(cell.amount());
+        }
+        revenuePeriodRepository.save(new ClosedPeriod(start, end, count, total, null), details);
+        log.info("Revenue period {} closed: {} payments, {} total, {} detail rows", start, count, total, details.size());
+    }
+
+    /**
+     * Load and publish a fresh ledger, then re-apply the payments that changed while it was loading
+     */
+    private void reloadLedger(LocalDate start, LocalDate end) {
+        changedDuringReload.clear();
+        reloading = true;
+        RevenueLedger fresh;
+        try {
+            fresh = loadLedger(start, end);
+            ledger = fresh;
+        } finally {
+            reloading = false;
+        }
+        List<Integer> changed = new ArrayList<>(changedDuringReload);
+        changedDuringReload.removeAll(changed);
+        for (Integer paymentId : changed) {
+            try {
+                applyPayment(fresh, paymentId);
+            } catch (Exception e) {
+                log.warn("Revenue counters could not re-apply payment {}: {}", paymentId, e.getMessage());
+            }
+        }
+    }
+
+    private RevenueLedger loadLedger(LocalDate start, LocalDate end) {
+        RevenueLedger fresh = new RevenueLedger(start, end);
+        jdbcTemplate.query(CONTRIBUTION_SQL + " WHERE p.PaymentStatus = 'Completed' AND p.PaymentDate >= ? AND p.PaymentDate < ?",
+            rs -> {
+                fresh.apply(rs.getInt("PaymentID"), toContribution(rs));
+            }, Timestamp.valueOf(start.atStartOfDay()), Timestamp.valueOf(end.atStartOfDay()));
+        return fresh;
+    }
+
+    private Map<RevenueLedger.Key, RevenueLedger.Cell> loadSourceCells(LocalDate start, LocalDate end) {
+        Map<RevenueLedger.Key, RevenueLedger.Cell> cells = new HashMap<>();
+        jdbcTemplate.query(CELLS_SQL, rs -> {
+            cells.put(new RevenueLedger.Key(rs.getDate("RevenueDate").toLocalDate(), rs.getInt("PickupLocationID"),
+                    rs.getInt("CategoryID")),
+                new RevenueLedger.Cell(rs.getLong("PaymentCount"), rs.getBigDecimal("Amount")));
+        }, Timestamp.valueOf(start.atStartOfDay()), Timestamp.valueOf(end.atStartOfDay()));
+        return cells;
+    }
+
+    private static RevenueLedger.Contribution toContribution(ResultSet rs) throws SQLException {
+        Timestamp paymentDate = rs.getTimestamp("PaymentDate");
+        if (paymentDate == null || !"Completed".equals(rs.getString("PaymentStatus"))) {
+            return null;
+        }
+        return new RevenueLedger.Contribution(paymentDate.toLocalDateTime().toLocalDate(),
+            rs.getInt("PickupLocationID"), rs.getInt("CategoryID"), rs.getBigDecimal("PaymentAmount"));
+    }
+
+    /**
+     * Re-read the one changed payment and move its contribution; created, updated and deleted payments
+     * are handled the same way
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent event) {
+        if (event.paymentId() == null) {
+            return;
+        }
+        // Defter değiştirilirken gelen olay eski deftere düşebilir; yeni deftere reloadLedger uygular
+        if (reloading) {
+            changedDuringReload.add(event.paymentId());
+        }
+        RevenueLedger current = ledger;
+        if (current == null) {
+            return;
+        }
+        try {
+            RevenueLedger.Contribution contribution = applyPayment(current, event.paymentId());
+            if (contribution != null && contribution.day().isBefore(current.getPeriodStart())) {
+                // Kapanmış döneme ait değişiklik snapshot'ı değiştirmez; sadece raporlanır
+                lateChanges.incrementAndGet();
+                log.warn("Payment {} changed inside closed period ({}), closed totals are not adjusted",
+                    event.paymentId(), contribution.day());
+            }
+        } catch (Exception e) {
+            log.warn("Revenue counters could not apply payment {}: {}", event.paymentId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Re-read one payment and move its contribution in the given ledger; returns what was read
+     */
+    private RevenueLedger.Contribution applyPayment(RevenueLedger target, int paymentId) {
+        List<RevenueLedger.Contribution> rows = jdbcTemplate.query(CONTRIBUTION_SQL + " WHERE p.PaymentID = ?",
+            (rs, rowNum) -> toContribution(rs), paymentId);
+        RevenueLedger.Contribution contribution = rows.isEmpty() ? null : rows.get(0);
+        if (target.apply(paymentId, contribution)) {
+            appliedEvents.incrementAndGet();
+        }
+        return contribution;
+    }
+
+    /**
+     * Compare the open period with the source tables; on any difference the ledger is rebuilt.
+     * A payment committed between the query and the comparison can cause a harmless extra rebuild.
+     */
+    @Scheduled(cron = "${app.revenue.reconcile-cron:0 */15 * * * *}")
+    public synchronized Map<String, Object> reconcile() {
+        RevenueLedger current = ledger;
+        if (current == null) {
+            return Map.of("ready", false);
+        }
+        long start = System.currentTimeMillis();
+        Map<RevenueLedger.Key, RevenueLedger.Cell> source = loadSourceCells(current.getPeriodStart(), current.getPeriodEnd());
+        Map<RevenueLedger.Key, RevenueLedger.Cell> counted = current.getCells();
+
+        int mismatched = 0;
+        for (Map.Entry<RevenueLedger.Key, RevenueLedger.Cell> entry : source.entrySet()) {
+            if (!entry.getValue().sameAs(counted.remove(entry.getKey()))) {
+                mismatched++;
+            }
+        }
+        mismatched += counted.size();
+
+        BigDecimal counterTotal = current.getTotal();
+        if (mismatched > 0) {
+            log.warn("Revenue counters drifted in {} cells for period {}, rebuilding", mismatched, current.getPeriodStart());
+            reloadLedger(current.getPeriodStart(), current.getPeriodEnd());
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("checkedAt", LocalDateTime.now());
+        result.put("periodStart", current.getPeriodStart());
+        result.put("consistent", mismatched == 0);
+        result.put("mismatchedCells", mismatched);
+        result.put("counterTotal", counterTotal);
+        result.put("sourceTotal", source.values().stream().map(RevenueLedger.Cell::amount).reduce(BigDecimal.ZERO, BigDecimal::add));
+        result.put("tookMillis", System.currentTimeMillis() - start);
+        lastReconciliation = result;
+        return result;
+    }
+
+    public BigDecimal getTotalRevenue() {
+        RevenueLedger current = ledger;
+        return current != null ? closedTotal.add(current.getTotal()) : paymentRepository.getTotalRevenue();
+    }
+
+    /**
+     * Revenue from the given day on; served from memory when the day is in the open period
+     */
+    public BigDecimal getRevenueSince(LocalDate day) {
+        RevenueLedger current = ledger;
+        return current != null && current.contains(day) ? current.getTotalSince(day) : paymentRepository.getMonthlyRevenue(day);
+    }
+
+    public BigDecimal getDailyRevenue(LocalDate day) {
+        RevenueLedger current = ledger;
+        return current != null && current.contains(day) ? current.getDay(day) : paymentRepository.getDailyRevenue(day);
+    }
+
+    /**
+     * Open period split by day, location and category, plus the closed period totals
+     */
+    public Map<String, Object> getBreakdown() {
+        RevenueLedger current = ledger;
+        if (current == null) {
+            throw new RuntimeException("Revenue counters are not loaded yet");
+        }
+        Map<String, Object> breakdown = new LinkedHashMap<>();
+        breakdown.put("periodStart", current.getPeriodStart());
+        breakdown.put("periodEnd", current.getPeriodEnd());
+        breakdown.put("total", current.getTotal());
+        breakdown.put("paymentCount", current.getCount());
+        breakdown.put("byDay", current.getByDay());
+        breakdown.put("byLocation", current.getByLocation());
+        breakdown.put("byCategory", current.getByCategory());
+        breakdown.put("closedPeriods", closedPeriods);
+        return breakdown;
+    }
+
+    public List<DetailRow> getClosedPeriodDetails(LocalDate periodStart) {
+        return revenuePeriodRepository.findDetails(periodStart.withDayOfMonth(1));
+    }
+
+    public Map<String, Object> getStats() {
+        RevenueLedger current = ledger;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", current != null);
+        stats.put("openPeriod", current != null ? current.getPeriodStart() : null);
+        stats.put("closedPeriods", closedPeriods.size());
+        stats.put("closedTotal", closedTotal);
+        stats.put("appliedEvents", appliedEvents.get());
+        stats.put("lateChanges", lateChanges.get());
+        stats.put("lastReconciliation", lastReconciliation);
+        return stats;
+    }
+}
@@ -0,0 +1,183 @@
+package com.example.rentello.service;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Revenue counters of the open period, split by (day, pickup location, vehicle category).
+ * Each payment's current contribution is remembered, so a changed or deleted payment is applied as
+ * "remove the old contribution, add the new one" and replaying the same event is harmless.
+ */
+public class RevenueLedger {
+
+    private final LocalDate periodStart;
+    private final LocalDate periodEnd;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Contribution> contributions = new HashMap<>();
+    private final Map<Key, Cell> cells = new HashMap<>();
+    private final Map<LocalDate, BigDecimal> dayTotals = new HashMap<>();
+    private BigDecimal total = BigDecimal.ZERO;
+    private long count;
+
+    /**
+     * periodEnd is exclusive
+     */
+    public RevenueLedger(LocalDate periodStart, LocalDate periodEnd) {
+        this.periodStart = periodStart;
+        this.periodEnd = periodEnd;
+    }
+
+    public LocalDate getPeriodStart() {
+        return periodStart;
+    }
+
+    public LocalDate getPeriodEnd() {
+        return periodEnd;
+    }
+
+    public boolean contains(LocalDate day) {
+        return !day.isBefore(periodStart) && day.isBefore(periodEnd);
+    }
+
+    /**
+     * Set the payment's contribution; null (or a day outside the period) removes it.
+     * Returns true when the counters changed.
+     */
+    public boolean apply(int paymentId, Contribution contribution) {
+        Contribution next = contribution != null && contains(contribution.day()) ? contribution : null;
+        lock.writeLock().lock();
+        try {
+            Contribution previous = next != null ? contributions.put(paymentId, next) : contributions.remove(paymentId);
+            if (next != null && next.equals(previous)) {
+                return false;
+            }
+            if (previous != null) {
+                add(previous.key(), previous.amount().negate(), -1);
+            }
+            if (next != null) {
+                add(next.key(), next.amount(), 1);
+            }
+            return previous != null || next != null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Key key, BigDecimal amount, int payments) {
+        Cell cell = cells.getOrDefault(key, Cell.EMPTY).plus(amount, payments);
+        if (cell.count() == 0) {
+            cells.remove(key);
+        } else {
+            cells.put(key, cell);
+        }
+        dayTotals.merge(key.day(), amount, BigDecimal::add);
+        total = total.add(amount);
+        count += payments;
+    }
+
+    public BigDecimal getTotal() {
+        lock.readLock().lock();
+        try {
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getCount() {
+        lock.readLock().lock();
+        try {
+            return count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public BigDecimal getDay(LocalDate day) {
+        lock.readLock().lock();
+        try {
+            return dayTotals.getOrDefault(day, BigDecimal.ZERO);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Revenue from the given day (inclusive) to the end of the period
+     */
+    public BigDecimal getTotalSince(LocalDate day) {
+        lock.readLock().lock();
+        try {
+            BigDecimal sum = BigDecimal.ZERO;
+            for (Map.Entry<LocalDate, BigDecimal> entry : dayTotals.entrySet()) {
+                if (!entry.getKey().isBefore(day)) {
+                    sum = sum.add(entry.getValue());
+                }
+            }
+            return sum;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<LocalDate, BigDecimal> getByDay() {
+        lock.readLock().lock();
+        try {
+            return new TreeMap<>(dayTotals);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<Integer, BigDecimal> getByLocation() {
+        Map<Integer, BigDecimal> byLocation = new TreeMap<>();
+        getCells().forEach((key, cell) -> byLocation.merge(key.locationId(), cell.amount(), BigDecimal::add));
+        return byLocation;
+    }
+
+    public Map<Integer, BigDecimal> getByCategory() {
+        Map<Integer, BigDecimal> byCategory = new TreeMap<>();
+        getCells().forEach((key, cell) -> byCategory.merge(key.categoryId(), cell.amount(), BigDecimal::add));
+        return byCategory;
+    }
+
+    public Map<Key, Cell> getCells() {
+        lock.readLock().lock();
+        try {
+            return new HashMap<>(cells);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public record Key(LocalDate day, int locationId, int categoryId) {
+    }
+
+    public record Contribution(LocalDate day, int locationId, int categoryId, BigDecimal amount) {
+
+        Key key() {
+            return new Key(day, locationId, categoryId);
+        }
+    }
+
+    public record Cell(long count, BigDecimal amount) {
+
+        static final Cell EMPTY = new Cell(0, BigDecimal.ZERO);
+
+        Cell plus(BigDecimal delta, int payments) {
+            return new Cell(count + payments, amount.add(delta));
+        }
+
+        /**
+         * Same payment count and the same amount regardless of scale (100.0 == 100.00)
+         */
+        public boolean sameAs(Cell other) {
+            return other != null && count == other.count && amount.compareTo(other.amount) == 0;
+        }
+    }
+}
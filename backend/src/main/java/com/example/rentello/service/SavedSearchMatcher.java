@@ -0,0 +1,144 @@
+package com.example.rentello.service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Reverse index of saved searches: queries are bucketed by (city, category) and ordered by max rate
+ * inside a bucket. A freed vehicle only looks at its four buckets ((city, category), (city, any),
+ * (any, category), (any, any)) and only at the queries whose max rate covers the vehicle's rate.
+ */
+public class SavedSearchMatcher {
+
+    private static final String ANY = "*";
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Map<String, TreeMap<Long, List<Query>>>> buckets = new HashMap<>();
+    private final Map<Integer, Query> queriesById = new HashMap<>();
+
+    public void put(Query query) {
+        lock.writeLock().lock();
+        try {
+            Query previous = queriesById.put(query.id(), query);
+            if (previous != null) {
+                unlink(previous);
+            }
+            buckets.computeIfAbsent(key(query.city()), k -> new HashMap<>())
+                .computeIfAbsent(key(query.category()), k -> new TreeMap<>())
+                .computeIfAbsent(query.maxRateCents(), k -> new ArrayList<>(2))
+                .add(query);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer id) {
+        lock.writeLock().lock();
+        try {
+            Query previous = queriesById.remove(id);
+            if (previous != null) {
+                unlink(previous);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<Query> queries) {
+        lock.writeLock().lock();
+        try {
+            buckets.clear();
+            queriesById.clear();
+            queries.forEach(this::put);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return queriesById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Saved searches a vehicle freed for [freeFrom, freeTo) can satisfy; examined counts the candidates looked at
+     */
+    public Match match(String city, String category, BigDecimal dailyRate, LocalDateTime freeFrom, LocalDateTime freeTo) {
+        long rateCents = toCents(dailyRate);
+        List<Query> matches = new ArrayList<>();
+        int examined = 0;
+
+        lock.readLock().lock();
+        try {
+            for (String cityKey : new String[] { key(city), ANY }) {
+                Map<String, TreeMap<Long, List<Query>>> byCategory = buckets.get(cityKey);
+                if (byCategory == null) continue;
+                for (String categoryKey : new String[] { key(category), ANY }) {
+                    TreeMap<Long, List<Query>> byRate = byCategory.get(categoryKey);
+                    if (byRate == null) continue;
+                    // Sadece max ücreti araç ücretini karşılayan sorgular
+                    for (List<Query> queries : byRate.tailMap(rateCents, true).values()) {
+                        for (Query query : queries) {
+                            examined++;
+                            if (query.pickupDate().isBefore(freeTo) && query.returnDate().isAfter(freeFrom)) {
+                                matches.add(query);
+                            }
+                        }
+                    }
+                    if (categoryKey.equals(ANY)) break;
+                }
+                if (cityKey.equals(ANY)) break;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return new Match(matches, examined);
+    }
+
+    private void unlink(Query query) {
+        Map<String, TreeMap<Long, List<Query>>> byCategory = buckets.get(key(query.city()));
+        if (byCategory == null) return;
+        TreeMap<Long, List<Query>> byRate = byCategory.get(key(query.category()));
+        if (byRate == null) return;
+        List<Query> queries = byRate.get(query.maxRateCents());
+        if (queries == null) return;
+        queries.removeIf(q -> q.id().equals(query.id()));
+        if (queries.isEmpty()) byRate.remove(query.maxRateCents());
+        if (byRate.isEmpty()) byCategory.remove(key(query.category()));
+        if (byCategory.isEmpty()) buckets.remove(key(query.city()));
+    }
+
+    private static String key(String value) {
+        return value == null || value.isBlank() ? ANY : VehicleSearchIndex.fold(value.trim());
+    }
+
+    static long toCents(BigDecimal amount) {
+        return amount == null ? Long.MAX_VALUE : amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    /**
+     * city / category null means "any"; maxRateCents is Long.MAX_VALUE when the customer set no limit
+     */
+    public record Query(Integer id, Integer customerId, String city, String category,
+                        LocalDateTime pickupDate, LocalDateTime returnDate, long maxRateCents) {
+
+        public static Query of(Integer id, Integer customerId, String city, String category,
+                               LocalDateTime pickupDate, LocalDateTime returnDate, BigDecimal maxDailyRate) {
+            return new Query(id, customerId, city, category, pickupDate, returnDate, toCents(maxDailyRate));
+        }
+    }
+
+    public record Match(List<Query> matches, int examined) {}
+}
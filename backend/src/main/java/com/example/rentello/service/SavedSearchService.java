@@ -0,0 +1,229 @@
+package com.example.rentello.service;
+
+import com.example.rentello.entity.AvailabilityAlert;
+import com.example.rentello.entity.SavedSearch;
+import com.example.rentello.entity.User;
+import com.example.rentello.event.VehicleFreedEvent;
+import com.example.rentello.repository.AvailabilityAlertRepository;
+import com.example.rentello.repository.FleetProjectionRepository;
+import com.example.rentello.repository.FleetProjectionRepository.VehicleRow;
+import com.example.rentello.repository.SavedSearchRepository;
+import com.example.rentello.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Saved searches with availability alerts.
+ * Active searches live in a reverse index; a freed vehicle is matched against its candidate searches only,
+ * then each candidate is confirmed against the rentals table before an alert is written.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SavedSearchService {
+
+    public static final int MAX_ACTIVE_PER_CUSTOMER = 20;
+
+    // 1 Rezerve Edildi, 2 Aktif, 3 Gecikmis - aracı bloke eden durumlar
+    private static final String CONFLICT_SQL =
+        "SELECT COUNT(*) FROM Rentals WHERE VehicleID = ? AND RentalID <> ? AND RentalStatusID IN (1, 2, 3) " +
+        "AND PlannedPickupDate < ? AND PlannedReturnDate > ?";
+
+    private final SavedSearchRepository savedSearchRepository;
+    private final AvailabilityAlertRepository availabilityAlertRepository;
+    private final UserRepository userRepository;
+    private final FleetProjectionRepository fleetProjectionRepository;
+    private final JdbcTemplate jdbcTemplate;
+
+    private final SavedSearchMatcher matcher = new SavedSearchMatcher();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.warn("Saved searches could not be loaded on startup: {}", e.getMessage());
+        }
+    }
+
+    public synchronized int reload() {
+        List<SavedSearchMatcher.Query> queries = savedSearchRepository.findActive(LocalDateTime.now()).stream()
+            .map(SavedSearchService::toQuery)
+            .toList();
+        matcher.replaceAll(queries);
+        ready = true;
+        log.info("Saved search index loaded with {} active searches", queries.size());
+        return queries.size();
+    }
+
+    public SavedSearch saveSearch(String username, String city, String category, LocalDateTime pickupDate,
+                                  LocalDateTime returnDate, BigDecimal maxDailyRate) {
+        User user = findUser(username);
+        if (pickupDate == null || returnDate == null || !returnDate.isAfter(pickupDate)) {
+            throw new RuntimeException("Return date must be after pickup date");
+        }
+        if (!returnDate.isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("Saved search dates are in the past");
+        }
+        if (maxDailyRate != null && maxDailyRate.signum() <= 0) {
+            throw new RuntimeException("Max daily rate must be positive");
+        }
+        if (savedSearchRepository.findByCustomerIdAndIsActiveTrueOrderByCreatedDateDesc(user.getUserId()).size()
+                >= MAX_ACTIVE_PER_CUSTOMER) {
+            throw new RuntimeException("Maximum " + MAX_ACTIVE_PER_CUSTOMER + " active saved searches allowed");
+        }
+
+        SavedSearch search = new SavedSearch();
+        search.setCustomerId(user.getUserId());
+        search.setCityName(blankToNull(city));
+        search.setCategoryName(blankToNull(category));
+        search.setPickupDate(pickupDate);
+        search.setReturnDate(returnDate);
+        search.setMaxDailyRate(maxDailyRate);
+        SavedSearch saved = savedSearchRepository.save(search);
+        index(saved);
+        return saved;
+    }
+
+    public List<SavedSearch> getSavedSearches(String username) {
+        return savedSearchRepository.findByCustomerIdAndIsActiveTrueOrderByCreatedDateDesc(findUser(username).getUserId());
+    }
+
+    public void deleteSavedSearch(String username, Integer savedSearchId) {
+        User user = findUser(username);
+        SavedSearch search = savedSearchRepository.findById(savedSearchId)
+            .filter(s -> s.getCustomerId().equals(user.getUserId()))
+            .orElseThrow(() -> new RuntimeException("Saved search not found: " + savedSearchId));
+        search.setIsActive(false);
+        savedSearchRepository.save(search);
+        unindex(savedSearchId);
+    }
+
+    public List<AvailabilityAlert> getAlerts(String username) {
+        return availabilityAlertRepository.findByCustomerIdOrderByCreatedDateDesc(findUser(username).getUserId());
+    }
+
+    public AvailabilityAlert markAlertRead(String username, Integer alertId) {
+        User user = findUser(username);
+        AvailabilityAlert alert = availabilityAlertRepository.findById(alertId)
+            .filter(a -> a.getCustomerId().equals(user.getUserId()))
+            .orElseThrow(() -> new RuntimeException("Alert not found: " + alertId));
+        alert.setIsRead(true);
+        return availabilityAlertRepository.save(alert);
+    }
+
+    /**
+     * Match a freed vehicle against candidate saved searches and write alerts for confirmed matches
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onVehicleFreed(VehicleFreedEvent event) {
+        if (!ready || event.vehicleId() == null) {
+            return;
+        }
+        try {
+            Optional<VehicleRow> vehicle = fleetProjectionRepository.findById(event.vehicleId());
+            if (vehicle.isEmpty()) {
+                return;
+            }
+            List<AvailabilityAlert> alerts = matchFreedVehicle(vehicle.get(), event);
+            if (!alerts.isEmpty()) {
+                availabilityAlertRepository.saveAll(alerts);
+                LocalDateTime now = LocalDateTime.now();
+                List<SavedSearch> notified = savedSearchRepository.findAllById(
+                    alerts.stream().map(AvailabilityAlert::getSavedSearchId).toList());
+                notified.forEach(search -> search.setLastNotifiedDate(now));
+                savedSearchRepository.saveAll(notified);
+                log.info("Vehicle {} freed by {}: {} availability alerts created",
+                    event.vehicleId(), event.reason(), alerts.size());
+            }
+        } catch (Exception e) {
+            log.warn("Saved search matching failed for vehicle {}: {}", event.vehicleId(), e.getMessage());
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("ready", ready);
+        stats.put("activeSearches", matcher.size());
+        return stats;
+    }
+
+    private List<AvailabilityAlert> matchFreedVehicle(VehicleRow vehicle, VehicleFreedEvent event) {
+        long start = System.nanoTime();
+        SavedSearchMatcher.Match match = matcher.match(vehicle.city(), vehicle.category(),
+            vehicle.dailyRentalRate(), event.freeFrom(), event.freeTo());
+        long matchMicros = (System.nanoTime() - start) / 1000;
+        log.debug("Vehicle {}: {} candidate searches examined, {} matched in {} µs",
+            event.vehicleId(), match.examined(), match.matches().size(), matchMicros);
+
+        LocalDateTime now = LocalDateTime.now();
+        List<AvailabilityAlert> alerts = new ArrayList<>();
+        for (SavedSearchMatcher.Query query : match.matches()) {
+            if (!query.returnDate().isAfter(now)) {
+                matcher.remove(query.id());
+                continue;
+            }
+            if (availabilityAlertRepository.existsBySavedSearchIdAndVehicleId(query.id(), event.vehicleId())) {
+                continue;
+            }
+            Integer conflicts = jdbcTemplate.queryForObject(CONFLICT_SQL, Integer.class,
+                event.vehicleId(), event.rentalId() != null ? event.rentalId() : -1,
+                Timestamp.valueOf(query.returnDate()), Timestamp.valueOf(query.pickupDate()));
+            if (conflicts != null && conflicts > 0) {
+                continue;
+            }
+            AvailabilityAlert alert = new AvailabilityAlert();
+            alert.setSavedSearchId(query.id());
+            alert.setCustomerId(query.customerId());
+            alert.setVehicleId(event.vehicleId());
+            alert.setDailyRentalRate(vehicle.dailyRentalRate());
+            alert.setReason(event.reason().name());
+            alerts.add(alert);
+        }
+        return alerts;
+    }
+
+    /**
+     * Index writes share the reload lock, so a reload that read the table before the write committed
+     * finishes its replace first and the write is applied on top instead of being overwritten
+     */
+    private synchronized void index(SavedSearch search) {
+        matcher.put(toQuery(search));
+    }
+
+    private synchronized void unindex(Integer savedSearchId) {
+        matcher.remove(savedSearchId);
+    }
+
+    private User findUser(String username) {
+        return userRepository.findByUsername(username)
+            .orElseThrow(() -> new RuntimeException("User not found: " + username));
+    }
+
+    private static SavedSearchMatcher.Query toQuery(SavedSearch search) {
+        return SavedSearchMatcher.Query.of(search.getSavedSearchId(), search.getCustomerId(), search.getCityName(),
+            search.getCategoryName(), search.getPickupDate(), search.getReturnDate(), search.getMaxDailyRate());
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
@@ -1,5 +1,6 @@
 package com.example.rentello.service;
 
+import com.example.rentello.dto.CursorPageDto;
 import com.example.rentello.entity.Vehicle;
 import com.example.rentello.repository.VehicleRepository;
 import com.fasterxml.jackson.core.type.TypeReference;
@@ -13,6 +14,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 @Service
 @Transactional
@@ -21,6 +23,9 @@ public class StaffService {
     @Autowired
     private VehicleRepository vehicleRepository;
 
+    @Autowired
+    private KeysetPaginationService keysetPaginationService;
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public boolean addVehicleImage(Integer vehicleId, String imageUrl) {
@@ -86,6 +91,13 @@ public class StaffService {
         return vehicleRepository.findAll(pageable);
     }
 
+    public CursorPageDto<Vehicle> getVehiclesForStaffByCursor(String cursor, int size, String sortBy,
+                                                              String sortDirection, boolean includeTotal) {
+        return keysetPaginationService.scroll(vehicleRepository, "staff.vehicles",
+            Set.of("vehicleId", "vehicleRegistration", "dailyRentalRate"), "vehicleId",
+            cursor, size, sortBy, sortDirection, includeTotal, vehicle -> vehicle);
+    }
+
     private List<String> getVehicleImagesList(Vehicle vehicle) {
         try {
             if (vehicle.getImageUrls() == null || vehicle.getImageUrls().isEmpty()) {
@@ -0,0 +1,99 @@
+package com.example.rentello.service;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Time-series bucket sizes.
+ * The SQL expression and the Java truncation must agree so grouped rows land on the buckets we zero-fill.
+ */
+public enum TimeBucket {
+
+    HOUR("DATEADD(HOUR, DATEDIFF(HOUR, 0, %s), 0)"),
+    DAY("DATEADD(DAY, DATEDIFF(DAY, 0, %s), 0)"),
+    // 1900-01-01 bir Pazartesi; haftalar DATEFIRST ayarından bağımsız olarak Pazartesi başlar
+    WEEK("DATEADD(DAY, DATEDIFF(DAY, '19000101', %s) / 7 * 7, '19000101')"),
+    MONTH("DATEADD(MONTH, DATEDIFF(MONTH, 0, %s), 0)");
+
+    private final String sqlTemplate;
+
+    TimeBucket(String sqlTemplate) {
+        this.sqlTemplate = sqlTemplate;
+    }
+
+    public static TimeBucket from(String value) {
+        for (TimeBucket bucket : values()) {
+            if (bucket.name().equalsIgnoreCase(value)) {
+                return bucket;
+            }
+        }
+        throw new RuntimeException("Unknown bucket: " + value + " (hour, day, week or month)");
+    }
+
+    /**
+     * SQL Server expression mapping the column to the start of its bucket; used only in SELECT/GROUP BY,
+     * the WHERE clause keeps the bare column so the date index can be used
+     */
+    public String sqlExpression(String column) {
+        return String.format(sqlTemplate, column);
+    }
+
+    /**
+     * Start of the bucket containing the given time
+     */
+    public LocalDateTime truncate(LocalDateTime time) {
+        return switch (this) {
+            case HOUR -> time.truncatedTo(ChronoUnit.HOURS);
+            case DAY -> time.truncatedTo(ChronoUnit.DAYS);
+            case WEEK -> time.truncatedTo(ChronoUnit.DAYS).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> time.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+        };
+    }
+
+    public LocalDateTime plus(LocalDateTime bucketStart, long buckets) {
+        return switch (this) {
+            case HOUR -> bucketStart.plusHours(buckets);
+            case DAY -> bucketStart.plusDays(buckets);
+            case WEEK -> bucketStart.plusWeeks(buckets);
+            case MONTH -> bucketStart.plusMonths(buckets);
+        };
+    }
+
+    /**
+     * First bucket boundary at or after the given time
+     */
+    public LocalDateTime ceil(LocalDateTime time) {
+        LocalDateTime start = truncate(time);
+        return start.equals(time) ? start : plus(start, 1);
+    }
+
+    /**
+     * Number of buckets between two bucket boundaries
+     */
+    public long between(LocalDateTime from, LocalDateTime to) {
+        return switch (this) {
+            case HOUR -> ChronoUnit.HOURS.between(from, to);
+            case DAY -> ChronoUnit.DAYS.between(from, to);
+            case WEEK -> ChronoUnit.WEEKS.between(from, to);
+            case MONTH -> ChronoUnit.MONTHS.between(from, to);
+        };
+    }
+
+    /**
+     * Every bucket start in [from, to) mapped to its value; buckets without a row get zero
+     */
+    public Map<LocalDateTime, BigDecimal> zeroFill(Map<LocalDateTime, BigDecimal> values,
+                                                   LocalDateTime from, LocalDateTime to) {
+        Map<LocalDateTime, BigDecimal> filled = new LinkedHashMap<>();
+        for (LocalDateTime start = truncate(from); start.isBefore(to); start = plus(start, 1)) {
+            BigDecimal value = values.get(start);
+            filled.put(start, value != null ? value : BigDecimal.ZERO);
+        }
+        return filled;
+    }
+}
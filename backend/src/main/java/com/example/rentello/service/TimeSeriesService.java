@@ -0,0 +1,216 @@
+package com.example.rentello.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Rental and revenue time series.
+ * Every request is one range query on the bare date column (index friendly) grouped by bucket in SQL;
+ * empty buckets are zero-filled here. Long ranges are served page by page with a fixed bucket limit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimeSeriesService {
+
+    public enum Metric {
+        RENTALS("rentals", "Rentals r", "r.PlannedPickupDate", "COUNT(*)", null, null),
+        REVENUE("revenue", "Payments p", "p.PaymentDate", "COALESCE(SUM(p.PaymentAmount), 0)",
+            "p.PaymentStatus = 'Completed'", "JOIN Rentals r ON r.RentalID = p.RentalID");
+
+        private final String name;
+        private final String from;
+        private final String dateColumn;
+        private final String valueExpression;
+        private final String condition;
+        private final String rentalJoin;
+
+        Metric(String name, String from, String dateColumn, String valueExpression, String condition, String rentalJoin) {
+            this.name = name;
+            this.from = from;
+            this.dateColumn = dateColumn;
+            this.valueExpression = valueExpression;
+            this.condition = condition;
+            this.rentalJoin = rentalJoin;
+        }
+
+        public static Metric from(String value) {
+            for (Metric metric : values()) {
+                if (metric.name.equalsIgnoreCase(value)) {
+                    return metric;
+                }
+            }
+            throw new RuntimeException("Unknown metric: " + value + " (rentals or revenue)");
+        }
+    }
+
+    /**
+     * Optional split; each dimension value becomes its own series from the same query
+     */
+    public enum Dimension {
+        NONE(null, null),
+        LOCATION("r.PickupLocationID", "l.LocationName"),
+        CATEGORY("vm.CategoryID", "vc.CategoryName");
+
+        private final String keyColumn;
+        private final String labelColumn;
+
+        Dimension(String keyColumn, String labelColumn) {
+            this.keyColumn = keyColumn;
+            this.labelColumn = labelColumn;
+        }
+
+        public static Dimension from(String value) {
+            if (value == null || value.isBlank()) {
+                return NONE;
+            }
+            for (Dimension dimension : values()) {
+                if (dimension.name().equalsIgnoreCase(value)) {
+                    return dimension;
+                }
+            }
+            throw new RuntimeException("Unknown dimension: " + value + " (location or category)");
+        }
+    }
+
+    private static final String VEHICLE_JOIN =
+        " JOIN Vehicles v ON v.VehicleID = r.VehicleID JOIN VehicleModels vm ON vm.ModelID = v.ModelID";
+    private static final String CATEGORY_JOIN = " JOIN VehicleCategories vc ON vc.CategoryID = vm.CategoryID";
+    private static final String LOCATION_JOIN = " JOIN Locations l ON l.LocationID = r.PickupLocationID";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${app.timeseries.max-buckets:744}")
+    private int maxBuckets = 744;
+
+    /**
+     * One page of series; the range is widened to whole buckets and cut after max-buckets,
+     * nextFrom is where the following page starts (null on the last page)
+     */
+    public TimeSeries getSeries(Metric metric, TimeBucket bucket, LocalDateTime from, LocalDateTime to,
+                                Integer locationId, Integer categoryId, Dimension splitBy) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new RuntimeException("'from' must be before 'to'");
+        }
+        LocalDateTime pageFrom = bucket.truncate(from);
+        LocalDateTime end = bucket.ceil(to);
+        LocalDateTime pageTo = bucket.between(pageFrom, end) > maxBuckets ? bucket.plus(pageFrom, maxBuckets) : end;
+
+        List<Object> params = new ArrayList<>();
+        String sql = buildSql(metric, bucket, pageFrom, pageTo, locationId, categoryId, splitBy, params);
+
+        Map<String, String> labels = new LinkedHashMap<>();
+        Map<String, Map<LocalDateTime, BigDecimal>> values = new HashMap<>();
+        long start = System.currentTimeMillis();
+        jdbcTemplate.query(sql, rs -> {
+            String key = splitBy == Dimension.NONE ? "all" : rs.getString("DimKey");
+            labels.putIfAbsent(key, splitBy == Dimension.NONE ? "All" : rs.getString("DimLabel"));
+            BigDecimal value = rs.getBigDecimal("Value");
+            values.computeIfAbsent(key, k -> new HashMap<>())
+                .put(rs.getTimestamp("BucketStart").toLocalDateTime(), value != null ? value : BigDecimal.ZERO);
+        }, params.toArray());
+        if (splitBy == Dimension.NONE) {
+            labels.putIfAbsent("all", "All");
+        }
+
+        List<Series> series = new ArrayList<>();
+        labels.forEach((key, label) -> {
+            Map<LocalDateTime, BigDecimal> filled = bucket.zeroFill(values.getOrDefault(key, Map.of()), pageFrom, pageTo);
+            List<Point> points = new ArrayList<>(filled.size());
+            BigDecimal total = BigDecimal.ZERO;
+            for (Map.Entry<LocalDateTime, BigDecimal> entry : filled.entrySet()) {
+                points.add(new Point(entry.getKey(), entry.getValue()));
+                total = total.add(entry.getValue());
+            }
+            series.add(new Series(key, label, total, points));
+        });
+        series.sort(Comparator.comparing(Series::total).reversed().thenComparing(Series::label));
+
+        log.debug("Time series {} by {} [{} - {}) in {} ms", metric.name, bucket, pageFrom, pageTo,
+            System.currentTimeMillis() - start);
+        return new TimeSeries(metric.name, bucket.name().toLowerCase(Locale.ROOT), splitBy.name().toLowerCase(Locale.ROOT),
+            pageFrom, pageTo, pageTo.isBefore(end) ? pageTo : null, series);
+    }
+
+    /**
+     * Daily totals for the given days (inclusive), zero-filled; one query for the whole range
+     */
+    public Map<LocalDate, BigDecimal> getDailyTotals(Metric metric, LocalDate firstDay, LocalDate lastDay) {
+        TimeSeries result = getSeries(metric, TimeBucket.DAY, firstDay.atStartOfDay(),
+            lastDay.plusDays(1).atStartOfDay(), null, null, Dimension.NONE);
+        Map<LocalDate, BigDecimal> totals = new LinkedHashMap<>();
+        result.series().get(0).points().forEach(point -> totals.put(point.start().toLocalDate(), point.value()));
+        return totals;
+    }
+
+    static String buildSql(Metric metric, TimeBucket bucket, LocalDateTime from, LocalDateTime to,
+                           Integer locationId, Integer categoryId, Dimension splitBy, List<Object> params) {
+        String bucketExpression = bucket.sqlExpression(metric.dateColumn);
+        boolean needsRental = locationId != null || categoryId != null || splitBy != Dimension.NONE;
+        boolean needsVehicle = categoryId != null || splitBy == Dimension.CATEGORY;
+
+        StringBuilder sql = new StringBuilder("SELECT ").append(bucketExpression).append(" AS BucketStart, ");
+        if (splitBy != Dimension.NONE) {
+            sql.append(splitBy.keyColumn).append(" AS DimKey, ").append(splitBy.labelColumn).append(" AS DimLabel, ");
+        }
+        sql.append(metric.valueExpression).append(" AS Value FROM ").append(metric.from);
+        if (needsRental && metric.rentalJoin != null) {
+            sql.append(' ').append(metric.rentalJoin);
+        }
+        if (needsVehicle) {
+            sql.append(VEHICLE_JOIN);
+        }
+        if (splitBy == Dimension.CATEGORY) {
+            sql.append(CATEGORY_JOIN);
+        } else if (splitBy == Dimension.LOCATION) {
+            sql.append(LOCATION_JOIN);
+        }
+
+        // Tarih kolonu fonksiyona sarılmaz; aralık filtresi index üzerinden çalışır
+        sql.append(" WHERE ").append(metric.dateColumn).append(" >= ? AND ").append(metric.dateColumn).append(" < ?");
+        params.add(Timestamp.valueOf(from));
+        params.add(Timestamp.valueOf(to));
+        if (metric.condition != null) {
+            sql.append(" AND ").append(metric.condition);
+        }
+        if (locationId != null) {
+            sql.append(" AND r.PickupLocationID = ?");
+            params.add(locationId);
+        }
+        if (categoryId != null) {
+            sql.append(" AND vm.CategoryID = ?");
+            params.add(categoryId);
+        }
+
+        sql.append(" GROUP BY ").append(bucketExpression);
+        if (splitBy != Dimension.NONE) {
+            sql.append(", ").append(splitBy.keyColumn).append(", ").append(splitBy.labelColumn);
+        }
+        return sql.toString();
+    }
+
+    public record Point(LocalDateTime start, BigDecimal value) {
+    }
+
+    public record Series(String key, String label, BigDecimal total, List<Point> points) {
+    }
+
+    public record TimeSeries(String metric, String bucket, String splitBy, LocalDateTime from, LocalDateTime to,
+                             LocalDateTime nextFrom, List<Series> series) {
+    }
+}
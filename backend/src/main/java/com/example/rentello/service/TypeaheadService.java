@@ -0,0 +1,397 @@
+package com.example.rentello.service;
+
+import com.example.rentello.event.RentalChangedEvent;
+import com.example.rentello.event.UserChangedEvent;
+import com.example.rentello.event.VehicleChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Counter typeahead over plates, customer names, customer usernames and model names.
+ * One compressed trie per kind; vehicle and user writes update the affected entries in place,
+ * including the vehicle counts of the models a vehicle left or joined. New and changed rentals
+ * refresh the rental counts of their vehicle and customer; the nightly rebuild corrects the counts
+ * after deleted rentals. Writes committed while a rebuild is loading are queued and applied again afterwards.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TypeaheadService {
+
+    public enum Kind {
+        PLATE("plates"),
+        CUSTOMER("customers"),
+        USERNAME("usernames"),
+        MODEL("models");
+
+        private final String key;
+
+        Kind(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public static Kind from(String value) {
+            for (Kind kind : values()) {
+                if (kind.key.equalsIgnoreCase(value) || kind.name().equalsIgnoreCase(value)) {
+                    return kind;
+                }
+            }
+            throw new RuntimeException("Unknown typeahead type: " + value);
+        }
+    }
+
+    private static final String VEHICLE_SQL =
+        "SELECT v.VehicleID, v.VehicleRegistration, v.ModelID, b.BrandName, m.ModelName, " +
+        "       (SELECT COUNT(*) FROM Rentals r WHERE r.VehicleID = v.VehicleID) AS RentalCount " +
+        "FROM Vehicles v " +
+        "JOIN VehicleModels m ON m.ModelID = v.ModelID " +
+        "JOIN VehicleBrands b ON b.BrandID = m.BrandID";
+
+    // Personel ve yönetici hesapları müşteri olarak önerilmez
+    private static final String USER_SQL =
+        "SELECT u.UserID, u.Username, u.FirstName, u.LastName, u.Email, " +
+        "       (SELECT COUNT(*) FROM Rentals r WHERE r.CustomerID = u.UserID) AS RentalCount " +
+        "FROM Users u " +
+        "JOIN UserRoles ur ON ur.RoleID = u.RoleID " +
+        "WHERE ur.RoleName = 'Musteri'";
+
+    private static final String RENTAL_PARTIES_SQL =
+        "SELECT VehicleID, CustomerID FROM Rentals WHERE RentalID = ?";
+
+    private static final String MODEL_SQL =
+        "SELECT m.ModelID, m.ModelName, m.ManufactureYear, b.BrandName, " +
+        "       (SELECT COUNT(*) FROM Vehicles v WHERE v.ModelID = m.ModelID) AS VehicleCount " +
+        "FROM VehicleModels m " +
+        "JOIN VehicleBrands b ON b.BrandID = m.BrandID";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Kind, TypeaheadTrie> tries = createTries();
+    // Plakanın bağlı olduğu model; silinen ya da model değiştiren aracın eski modeli buradan bulunur
+    private final Map<Integer, Integer> vehicleModels = new HashMap<>();
+    private volatile boolean ready;
+    private volatile boolean rebuilding;
+    // Yeniden yükleme sürerken gelen değişiklikler yeni içeriğe sonradan uygulanır
+    private final Queue<Runnable> pending = new ConcurrentLinkedQueue<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.warn("Typeahead index could not be built on startup: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Reload every kind from the database and replace the tries
+     */
+    @Scheduled(cron = "${app.typeahead.rebuild-cron:0 20 4 * * *}")
+    public synchronized Map<String, Integer> rebuild() {
+        long start = System.currentTimeMillis();
+        pending.clear();
+        rebuilding = true;
+        List<VehicleRow> vehicles;
+        List<UserRow> users;
+        List<ModelRow> models;
+        try {
+            vehicles = jdbcTemplate.query(VEHICLE_SQL, VEHICLE_MAPPER);
+            users = jdbcTemplate.query(USER_SQL, USER_MAPPER);
+            models = jdbcTemplate.query(MODEL_SQL, MODEL_MAPPER);
+
+            lock.writeLock().lock();
+            try {
+                tries.values().forEach(TypeaheadTrie::clear);
+                vehicleModels.clear();
+                vehicles.forEach(this::putVehicle);
+                users.forEach(this::putUser);
+                models.forEach(this::putModel);
+                ready = true;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            rebuilding = false;
+        }
+        Runnable update;
+        while ((update = pending.poll()) != null) {
+            update.run();
+        }
+        log.info("Typeahead index built: {} plates, {} users, {} models in {} ms",
+            vehicles.size(), users.size(), models.size(), System.currentTimeMillis() - start);
+        return getStats();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onVehicleChanged(VehicleChangedEvent event) {
+        if (event.vehicleId() == null) {
+            return;
+        }
+        boolean deleted = event.changeType() == VehicleChangedEvent.ChangeType.DELETED;
+        submit(() -> applyVehicle(event.vehicleId(), deleted));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.userId() == null) {
+            return;
+        }
+        boolean deleted = event.changeType() == UserChangedEvent.ChangeType.DELETED;
+        submit(() -> applyUser(event.userId(), deleted));
+    }
+
+    /**
+     * A new or changed rental moves the rental counts its vehicle and customer are ranked by
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRentalChanged(RentalChangedEvent event) {
+        // Silinen kiralamanın aracı ve müşterisi artık okunamaz; sayıları gece yeniden yüklemede düzelir
+        if (event.rentalId() == null || event.changeType() == RentalChangedEvent.ChangeType.DELETED) {
+            return;
+        }
+        submit(() -> applyRental(event.rentalId()));
+    }
+
+    private void submit(Runnable update) {
+        // Olaylar tekrar uygulanabilir: güncel satır yeniden okunur, silme idempotent
+        if (rebuilding) {
+            pending.add(update);
+        }
+        if (ready) {
+            update.run();
+        }
+    }
+
+    private void applyVehicle(Integer vehicleId, boolean deleted) {
+        try {
+            List<VehicleRow> rows = deleted
+                ? List.of()
+                : jdbcTemplate.query(VEHICLE_SQL + " WHERE v.VehicleID = ?", VEHICLE_MAPPER, vehicleId);
+            // Araç sayısı modelin ağırlığı olduğundan eski ve yeni modelin satırı da tazelenir
+            Set<Integer> modelIds = new LinkedHashSet<>();
+            lock.readLock().lock();
+            try {
+                Integer previous = vehicleModels.get(vehicleId);
+                if (previous != null) {
+                    modelIds.add(previous);
+                }
+            } finally {
+                lock.readLock().unlock();
+            }
+            if (!rows.isEmpty()) {
+                modelIds.add(rows.get(0).modelId());
+            }
+            Map<Integer, List<ModelRow>> models = new HashMap<>();
+            for (Integer modelId : modelIds) {
+                models.put(modelId, jdbcTemplate.query(MODEL_SQL + " WHERE m.ModelID = ?", MODEL_MAPPER, modelId));
+            }
+
+            lock.writeLock().lock();
+            try {
+                if (rows.isEmpty()) {
+                    tries.get(Kind.PLATE).remove(vehicleId);
+                    vehicleModels.remove(vehicleId);
+                } else {
+                    putVehicle(rows.get(0));
+                }
+                models.forEach((modelId, modelRows) -> {
+                    if (modelRows.isEmpty()) {
+                        tries.get(Kind.MODEL).remove(modelId);
+                    } else {
+                        putModel(modelRows.get(0));
+                    }
+                });
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            log.warn("Typeahead update failed for vehicle {}: {}", vehicleId, e.getMessage());
+        }
+    }
+
+    private void applyUser(Integer userId, boolean deleted) {
+        try {
+            // Müşteri rolünden çıkan kullanıcı da satır bulunamadığı için kaldırılır
+            List<UserRow> rows = deleted
+                ? List.of()
+                : jdbcTemplate.query(USER_SQL + " AND u.UserID = ?", USER_MAPPER, userId);
+
+            lock.writeLock().lock();
+            try {
+                if (rows.isEmpty()) {
+                    tries.get(Kind.CUSTOMER).remove(userId);
+                    tries.get(Kind.USERNAME).remove(userId);
+                } else {
+                    putUser(rows.get(0));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } catch (Exception e) {
+            log.warn("Typeahead update failed for user {}: {}", userId, e.getMessage());
+        }
+    }
+
+    private void applyRental(Integer rentalId) {
+        try {
+            List<int[]> parties = jdbcTemplate.query(RENTAL_PARTIES_SQL,
+                (rs, rowNum) -> new int[] { rs.getInt("VehicleID"), rs.getInt("CustomerID") }, rentalId);
+            for (int[] party : parties) {
+                applyVehicle(party[0], false);
+                applyUser(party[1], false);
+            }
+        } catch (Exception e) {
+            log.warn("Typeahead update failed for rental {}: {}", rentalId, e.getMessage());
+        }
+    }
+
+    /**
+     * Top suggestions per kind for a typed prefix
+     */
+    public Map<String, Object> suggest(String query, Set<Kind> kinds, int limit) {
+        if (query == null || query.isBlank()) {
+            throw new RuntimeException("Typeahead query is required");
+        }
+        ensureReady();
+        long start = System.nanoTime();
+        String prefix = normalize(query);
+        int max = Math.max(1, Math.min(limit, TypeaheadTrie.MAX_SUGGESTIONS));
+
+        Map<String, List<TypeaheadTrie.Entry>> suggestions = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            for (Kind kind : kinds.isEmpty() ? EnumSet.allOf(Kind.class) : kinds) {
+                suggestions.put(kind.getKey(), tries.get(kind).suggest(prefix, max));
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("query", query);
+        result.put("suggestions", suggestions);
+        result.put("tookMicros", (System.nanoTime() - start) / 1000.0);
+        return result;
+    }
+
+    public Map<String, Integer> getStats() {
+        Map<String, Integer> stats = new LinkedHashMap<>();
+        lock.readLock().lock();
+        try {
+            tries.forEach((kind, trie) -> stats.put(kind.getKey(), trie.size()));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return stats;
+    }
+
+    /**
+     * Keystrokes arriving before the startup build wait for it instead of starting builds of their own
+     */
+    private synchronized void ensureReady() {
+        if (!ready) {
+            rebuild();
+        }
+    }
+
+    private void putVehicle(VehicleRow row) {
+        String registration = normalize(row.registration());
+        Set<String> keys = new LinkedHashSet<>();
+        keys.add(registration);
+        keys.add(registration.replaceAll("[^\\p{L}\\p{N}]", ""));
+        tries.get(Kind.PLATE).put(new TypeaheadTrie.Entry(row.vehicleId(), row.registration(),
+            row.brand() + " " + row.model(), row.rentalCount()), keys);
+        vehicleModels.put(row.vehicleId(), row.modelId());
+    }
+
+    private void putUser(UserRow row) {
+        String fullName = (nullToEmpty(row.firstName()) + " " + nullToEmpty(row.lastName())).trim();
+        tries.get(Kind.CUSTOMER).put(new TypeaheadTrie.Entry(row.userId(), fullName, row.email(), row.rentalCount()),
+            wordSuffixes(normalize(fullName)));
+        tries.get(Kind.USERNAME).put(new TypeaheadTrie.Entry(row.userId(), row.username(), fullName, row.rentalCount()),
+            Set.of(normalize(row.username())));
+    }
+
+    private void putModel(ModelRow row) {
+        String model = normalize(row.model());
+        Set<String> keys = wordSuffixes(model);
+        keys.add(normalize(row.brand() + " " + row.model()));
+        String detail = row.manufactureYear() != null ? row.brand() + " " + row.manufactureYear() : row.brand();
+        tries.get(Kind.MODEL).put(new TypeaheadTrie.Entry(row.modelId(), row.model(), detail, row.vehicleCount()), keys);
+    }
+
+    /**
+     * "ahmet can yilmaz" is reachable from "ahmet", "can" and "yilmaz"
+     */
+    static Set<String> wordSuffixes(String text) {
+        Set<String> keys = new LinkedHashSet<>();
+        if (text.isEmpty()) {
+            return keys;
+        }
+        keys.add(text);
+        for (int i = text.indexOf(' '); i >= 0; i = text.indexOf(' ', i + 1)) {
+            keys.add(text.substring(i + 1));
+        }
+        return keys;
+    }
+
+    private static Map<Kind, TypeaheadTrie> createTries() {
+        Map<Kind, TypeaheadTrie> tries = new EnumMap<>(Kind.class);
+        for (Kind kind : Kind.values()) {
+            tries.put(kind, new TypeaheadTrie());
+        }
+        return tries;
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : VehicleSearchIndex.fold(text).trim().replaceAll("\\s+", " ");
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
+    private static final RowMapper<VehicleRow> VEHICLE_MAPPER = (rs, rowNum) -> new VehicleRow(
+        rs.getInt("VehicleID"), rs.getString("VehicleRegistration"), rs.getInt("ModelID"),
+        rs.getString("BrandName"), rs.getString("ModelName"), rs.getInt("RentalCount"));
+
+    private static final RowMapper<UserRow> USER_MAPPER = (rs, rowNum) -> new UserRow(
+        rs.getInt("UserID"), rs.getString("Username"), rs.getString("FirstName"),
+        rs.getString("LastName"), rs.getString("Email"), rs.getInt("RentalCount"));
+
+    private static final RowMapper<ModelRow> MODEL_MAPPER = (rs, rowNum) -> new ModelRow(
+        rs.getInt("ModelID"), rs.getString("ModelName"), (Integer) rs.getObject("ManufactureYear"),
+        rs.getString("BrandName"), rs.getInt("VehicleCount"));
+
+    private record VehicleRow(Integer vehicleId, String registration, Integer modelId,
+                              String brand, String model, int rentalCount) {}
+
+    private record UserRow(Integer userId, String username, String firstName, String lastName,
+                           String email, int rentalCount) {}
+
+    private record ModelRow(Integer modelId, String model, Integer manufactureYear, String brand, int vehicleCount) {}
+}
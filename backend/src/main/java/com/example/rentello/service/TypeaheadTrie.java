@@ -0,0 +1,216 @@
+package com.example.rentello.service;
+
+import java.util.ArrayList;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compressed prefix trie (radix tree) where every node caches the best suggestions of its subtree.
+ * A lookup walks at most the length of the prefix and returns the cached list, so its cost does not
+ * depend on how many entries share the prefix. Writes refresh the caches on the path they touch.
+ * Not thread-safe; callers guard it with a lock.
+ */
+public class TypeaheadTrie {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    static final Comparator<Entry> RANKING = Comparator
+        .comparingInt(Entry::weight).reversed()
+        .thenComparing(Entry::label, String.CASE_INSENSITIVE_ORDER)
+        .thenComparing(Entry::id);
+
+    private final Node root = new Node("");
+    private final Map<Integer, Entry> entriesById = new HashMap<>();
+    private final Map<Integer, List<String>> keysById = new HashMap<>();
+
+    /**
+     * Index an entry under the given (already folded) keys, replacing any previous version
+     */
+    public void put(Entry entry, Set<String> keys) {
+        remove(entry.id());
+        List<String> stored = new ArrayList<>();
+        for (String key : keys) {
+            if (key == null || key.isEmpty()) continue;
+            insert(key, entry);
+            stored.add(key);
+        }
+        if (!stored.isEmpty()) {
+            entriesById.put(entry.id(), entry);
+            keysById.put(entry.id(), stored);
+        }
+    }
+
+    public void remove(Integer id) {
+        Entry entry = entriesById.remove(id);
+        List<String> keys = keysById.remove(id);
+        if (entry == null || keys == null) {
+            return;
+        }
+        for (String key : keys) {
+            delete(key, entry);
+        }
+    }
+
+    public void clear() {
+        root.children.clear();
+        root.own.clear();
+        root.top = new Entry[0];
+        entriesById.clear();
+        keysById.clear();
+    }
+
+    public int size() {
+        return entriesById.size();
+    }
+
+    /**
+     * Best entries whose key starts with the folded prefix
+     */
+    public List<Entry> suggest(String prefix, int limit) {
+        Node node = root;
+        int depth = 0;
+        while (depth < prefix.length()) {
+            Node child = node.children.get(prefix.charAt(depth));
+            if (child == null) {
+                return List.of();
+            }
+            int common = commonPrefix(child.edge, prefix, depth);
+            if (depth + common == prefix.length()) {
+                // Prefix bir kenarın ortasında bitti: o kenarın altındaki her şey eşleşir
+                node = child;
+                break;
+            }
+            if (common < child.edge.length()) {
+                return List.of();
+            }
+            depth += common;
+            node = child;
+        }
+        int count = Math.min(limit, node.top.length);
+        List<Entry> result = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            result.add(node.top[i]);
+        }
+        return result;
+    }
+
+    private void insert(String key, Entry entry) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        int depth = 0;
+        while (depth < key.length()) {
+            char first = key.charAt(depth);
+            Node child = node.children.get(first);
+            if (child == null) {
+                child = new Node(key.substring(depth));
+                node.children.put(first, child);
+                node = child;
+                path.push(node);
+                depth = key.length();
+                break;
+            }
+            int common = commonPrefix(child.edge, key, depth);
+            if (common < child.edge.length()) {
+                // Kenarı ortak önek noktasında böl
+                Node split = new Node(child.edge.substring(0, common));
+                child.edge = child.edge.substring(common);
+                split.children.put(child.edge.charAt(0), child);
+                split.top = child.top;
+                node.children.put(first, split);
+                child = split;
+            }
+            depth += common;
+            node = child;
+            path.push(node);
+        }
+        node.own.add(entry);
+        while (!path.isEmpty()) {
+            refreshTop(path.pop());
+        }
+    }
+
+    private void delete(String key, Entry entry) {
+        Deque<Node> path = new ArrayDeque<>();
+        Node node = root;
+        path.push(node);
+        int depth = 0;
+        while (depth < key.length()) {
+            Node child = node.children.get(key.charAt(depth));
+            if (child == null || !key.startsWith(child.edge, depth)) {
+                return;
+            }
+            depth += child.edge.length();
+            node = child;
+            path.push(node);
+        }
+        node.own.remove(entry);
+
+        Node current = path.pop();
+        while (!path.isEmpty()) {
+            Node parent = path.pop();
+            if (current.own.isEmpty() && current.children.isEmpty()) {
+                parent.children.remove(current.edge.charAt(0));
+            } else if (current.own.isEmpty() && current.children.size() == 1) {
+                // Tek çocuklu boş düğümü çocuğuyla birleştir, ağaç sıkışık kalsın
+                Node only = current.children.values().iterator().next();
+                only.edge = current.edge + only.edge;
+                parent.children.put(only.edge.charAt(0), only);
+            } else {
+                refreshTop(current);
+            }
+            current = parent;
+        }
+        refreshTop(root);
+    }
+
+    /**
+     * Merge the node's own entries with the cached tops of its children, keeping the best MAX_SUGGESTIONS
+     */
+    private static void refreshTop(Node node) {
+        List<Entry> candidates = new ArrayList<>(node.own);
+        for (Node child : node.children.values()) {
+            for (Entry entry : child.top) {
+                candidates.add(entry);
+            }
+        }
+        candidates.sort(RANKING);
+        Set<Entry> best = new LinkedHashSet<>();
+        for (Entry entry : candidates) {
+            if (best.size() == MAX_SUGGESTIONS) break;
+            best.add(entry);
+        }
+        node.top = best.toArray(Entry[]::new);
+    }
+
+    private static int commonPrefix(String edge, String key, int offset) {
+        int max = Math.min(edge.length(), key.length() - offset);
+        int i = 0;
+        while (i < max && edge.charAt(i) == key.charAt(offset + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    private static final class Node {
+        String edge;
+        final Map<Character, Node> children = new HashMap<>(4);
+        final Set<Entry> own = new LinkedHashSet<>(2);
+        Entry[] top = new Entry[0];
+
+        Node(String edge) {
+            this.edge = edge;
+        }
+    }
+
+    /**
+     * A suggestion; weight orders entries under the same prefix (higher first)
+     */
+    public record Entry(Integer id, String label, String detail, int weight) {}
+}
@@ -0,0 +1,225 @@
+package com.example.rentello.service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Vehicle utilization over a time window from rental intervals.
+ * Intervals are held in primitive arrays sorted by vehicle and start time; a single sweep per vehicle
+ * clips them to the window and merges overlaps, so double-booked or overlapping rentals are never
+ * counted twice. Vehicles are split into contiguous partitions and swept in parallel with fork/join.
+ */
+public class UtilizationEngine {
+
+    // Bu sayının altındaki aralık bölümleri tek iş parçacığında taranır
+    private static final int PARTITION_THRESHOLD = 4096;
+
+    private final int[] vehicleIds;
+    private final long[] starts;
+    private final long[] ends;
+    private final int size;
+
+    private UtilizationEngine(int[] vehicleIds, long[] starts, long[] ends, int size) {
+        this.vehicleIds = vehicleIds;
+        this.starts = starts;
+        this.ends = ends;
+        this.size = size;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int intervalCount() {
+        return size;
+    }
+
+    /**
+     * Busy seconds per vehicle inside [from, to); vehicles without any overlap are absent
+     */
+    public Map<Integer, Long> busySeconds(long from, long to) {
+        if (to <= from || size == 0) {
+            return Map.of();
+        }
+        return ForkJoinPool.commonPool().invoke(new SweepTask(0, size, from, to));
+    }
+
+    /**
+     * Utilization of every vehicle in the fleet plus per-category, per-location and fleet-wide rates.
+     * Rates are busy time divided by available time (vehicles x window length), as percentages.
+     */
+    public Result utilization(long from, long to, Map<Integer, VehicleInfo> fleet) {
+        long window = Math.max(0, to - from);
+        Map<Integer, Long> busy = busySeconds(from, to);
+
+        Map<Integer, Double> byVehicle = new LinkedHashMap<>();
+        Map<Integer, long[]> byCategory = new HashMap<>();
+        Map<Integer, long[]> byLocation = new HashMap<>();
+        long fleetBusy = 0;
+        for (Map.Entry<Integer, VehicleInfo> entry : fleet.entrySet()) {
+            long seconds = busy.getOrDefault(entry.getKey(), 0L);
+            VehicleInfo info = entry.getValue();
+            byVehicle.put(entry.getKey(), rate(seconds, window, 1));
+            accumulate(byCategory, info.categoryId(), seconds);
+            accumulate(byLocation, info.locationId(), seconds);
+            fleetBusy += seconds;
+        }
+        return new Result(from, to, rate(fleetBusy, window, fleet.size()), byVehicle,
+            rates(byCategory, window), rates(byLocation, window));
+    }
+
+    private static void accumulate(Map<Integer, long[]> groups, Integer key, long seconds) {
+        if (key == null) {
+            return;
+        }
+        long[] group = groups.computeIfAbsent(key, k -> new long[2]);
+        group[0] += seconds;
+        group[1]++;
+    }
+
+    private static Map<Integer, Double> rates(Map<Integer, long[]> groups, long window) {
+        Map<Integer, Double> rates = new HashMap<>();
+        groups.forEach((key, group) -> rates.put(key, rate(group[0], window, group[1])));
+        return rates;
+    }
+
+    static double rate(long busySeconds, long windowSeconds, long vehicles) {
+        if (windowSeconds <= 0 || vehicles <= 0) {
+            return 0.0;
+        }
+        double percent = busySeconds * 100.0 / ((double) windowSeconds * vehicles);
+        return Math.round(Math.min(100.0, percent) * 100.0) / 100.0;
+    }
+
+    /**
+     * Sweep intervals [begin, end) of the arrays; begin and end never split a vehicle
+     */
+    private Map<Integer, Long> sweep(int begin, int end, long from, long to) {
+        Map<Integer, Long> busy = new HashMap<>();
+        int i = begin;
+        while (i < end) {
+            int vehicleId = vehicleIds[i];
+            long total = 0;
+            long runStart = Long.MIN_VALUE;
+            long runEnd = Long.MIN_VALUE;
+            for (; i < end && vehicleIds[i] == vehicleId; i++) {
+                long start = Math.max(starts[i], from);
+                long stop = Math.min(ends[i], to);
+                if (stop <= start) {
+                    continue;
+                }
+                if (start > runEnd) {
+                    total += runEnd - runStart;
+                    runStart = start;
+                    runEnd = stop;
+                } else if (stop > runEnd) {
+                    runEnd = stop;
+                }
+            }
+            total += runEnd - runStart;
+            if (total > 0) {
+                busy.put(vehicleId, total);
+            }
+        }
+        return busy;
+    }
+
+    /**
+     * Move a split point forward to the first interval of the next vehicle
+     */
+    private int vehicleBoundary(int index, int end) {
+        while (index < end && vehicleIds[index] == vehicleIds[index - 1]) {
+            index++;
+        }
+        return index;
+    }
+
+    private class SweepTask extends RecursiveTask<Map<Integer, Long>> {
+
+        private final int begin;
+        private final int end;
+        private final long from;
+        private final long to;
+
+        SweepTask(int begin, int end, long from, long to) {
+            this.begin = begin;
+            this.end = end;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<Integer, Long> compute() {
+            if (end - begin <= PARTITION_THRESHOLD) {
+                return sweep(begin, end, from, to);
+            }
+            int middle = vehicleBoundary(begin + (end - begin) / 2, end);
+            if (middle >= end) {
+                return sweep(begin, end, from, to);
+            }
+            SweepTask left = new SweepTask(begin, middle, from, to);
+            left.fork();
+            Map<Integer, Long> right = new SweepTask(middle, end, from, to).compute();
+            Map<Integer, Long> merged = left.join();
+            // Bölümler araç sınırında ayrıldığı için anahtarlar çakışmaz
+            merged.putAll(right);
+            return merged;
+        }
+    }
+
+    /**
+     * Collects intervals in (vehicle, start) order as they are streamed from the database
+     */
+    public static class Builder {
+
+        private int[] vehicleIds = new int[1024];
+        private long[] starts = new long[1024];
+        private long[] ends = new long[1024];
+        private int size;
+        private final Set<Integer> seenVehicles = new HashSet<>();
+
+        public Builder add(int vehicleId, long start, long end) {
+            if (size > 0) {
+                int previous = vehicleIds[size - 1];
+                if (vehicleId != previous && !seenVehicles.add(vehicleId)) {
+                    throw new IllegalArgumentException("Intervals must be grouped by vehicle: " + vehicleId);
+                }
+                if (vehicleId == previous && start < starts[size - 1]) {
+                    throw new IllegalArgumentException("Intervals must be sorted by start time: " + vehicleId);
+                }
+            } else {
+                seenVehicles.add(vehicleId);
+            }
+            if (size == vehicleIds.length) {
+                vehicleIds = Arrays.copyOf(vehicleIds, size * 2);
+                starts = Arrays.copyOf(starts, size * 2);
+                ends = Arrays.copyOf(ends, size * 2);
+            }
+            vehicleIds[size] = vehicleId;
+            starts[size] = start;
+            ends[size] = end;
+            size++;
+            return this;
+        }
+
+        public UtilizationEngine build() {
+            return new UtilizationEngine(vehicleIds, starts, ends, size);
+        }
+    }
+
+    public record VehicleInfo(Integer categoryId, Integer locationId) {
+    }
+
+    /**
+     * Percentages rounded to two decimals; from/to are epoch seconds
+     */
+    public record Result(long from, long to, double fleetRate, Map<Integer, Double> byVehicle,
+                         Map<Integer, Double> byCategory, Map<Integer, Double> byLocation) {
+    }
+}
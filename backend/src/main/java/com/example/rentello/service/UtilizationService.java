@@ -0,0 +1,144 @@
+package com.example.rentello.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fleet utilization for any window, replacing the per-vehicle fn_CalculateVehicleUtilizationRate calls.
+ * Rental intervals overlapping the window are streamed once, ordered by vehicle and start time, into a
+ * {@link UtilizationEngine}; vehicle, category and location rates come from one sweep. Windows that end
+ * before today are closed periods and their results are cached.
+ */
+@Service
+@Slf4j
+public class UtilizationService {
+
+    // Aktif (2), Gecikmis (3), Tamamlandi (4), Odendi (6); rezervasyon ve iptal aracı meşgul etmez
+    // Teslim edilmemiş kiralamalar şu ana kadar meşgul sayılır
+    private static final String INTERVALS_SQL =
+        "SELECT i.VehicleID, i.StartDate, i.EndDate FROM (" +
+        " SELECT r.VehicleID, COALESCE(r.ActualPickupDate, r.PlannedPickupDate) AS StartDate," +
+        " COALESCE(r.ActualReturnDate, CASE WHEN r.RentalStatusID IN (2, 3) AND r.PlannedReturnDate < GETDATE()" +
+        " THEN GETDATE() ELSE r.PlannedReturnDate END) AS EndDate" +
+        " FROM Rentals r WHERE r.RentalStatusID IN (2, 3, 4, 6) AND r.PlannedPickupDate < ?" +
+        ") i WHERE i.EndDate > ? AND i.StartDate < ? ORDER BY i.VehicleID, i.StartDate";
+
+    private static final String FLEET_SQL =
+        "SELECT v.VehicleID, vm.CategoryID, v.CurrentLocationID FROM Vehicles v " +
+        "JOIN VehicleModels vm ON vm.ModelID = v.ModelID";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Window, UtilizationEngine.Result> closedPeriods;
+    private final AtomicLong computed = new AtomicLong();
+    private final AtomicLong cacheHits = new AtomicLong();
+    private final AtomicLong lastIntervals = new AtomicLong();
+
+    public UtilizationService(JdbcTemplate jdbcTemplate,
+                              @Value("${app.utilization.cache-size:64}") int cacheSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.closedPeriods = Collections.synchronizedMap(new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Window, UtilizationEngine.Result> eldest) {
+                return size() > cacheSize;
+            }
+        });
+    }
+
+    /**
+     * Utilization over [from, to); closed windows are computed once
+     */
+    public UtilizationEngine.Result getUtilization(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !to.isAfter(from)) {
+            throw new RuntimeException("Utilization window must have from before to");
+        }
+        Window window = new Window(from, to);
+        if (!to.isAfter(LocalDate.now().atStartOfDay())) {
+            UtilizationEngine.Result cached = closedPeriods.get(window);
+            if (cached != null) {
+                cacheHits.incrementAndGet();
+                return cached;
+            }
+            UtilizationEngine.Result result = compute(window);
+            closedPeriods.put(window, result);
+            return result;
+        }
+        return compute(window);
+    }
+
+    /**
+     * Utilization of the last given days up to today's start; all vehicles share one cached sweep
+     */
+    public double getVehicleUtilization(Integer vehicleId, int days) {
+        LocalDateTime to = LocalDate.now().atStartOfDay();
+        return getUtilization(to.minusDays(Math.max(1, days)), to).byVehicle().getOrDefault(vehicleId, 0.0);
+    }
+
+    public double getFleetUtilization(int days) {
+        LocalDateTime to = LocalDate.now().atStartOfDay();
+        return getUtilization(to.minusDays(Math.max(1, days)), to).fleetRate();
+    }
+
+    private UtilizationEngine.Result compute(Window window) {
+        long start = System.currentTimeMillis();
+        UtilizationEngine.Builder builder = UtilizationEngine.builder();
+        jdbcTemplate.query(INTERVALS_SQL, rs -> {
+            builder.add(rs.getInt("VehicleID"), epochSeconds(rs.getTimestamp("StartDate")),
+                epochSeconds(rs.getTimestamp("EndDate")));
+        }, Timestamp.valueOf(window.to()), Timestamp.valueOf(window.from()), Timestamp.valueOf(window.to()));
+        UtilizationEngine engine = builder.build();
+
+        Map<Integer, UtilizationEngine.VehicleInfo> fleet = new LinkedHashMap<>();
+        jdbcTemplate.query(FLEET_SQL, rs -> {
+            fleet.put(rs.getInt("VehicleID"), new UtilizationEngine.VehicleInfo(
+                (Integer) rs.getObject("CategoryID"), (Integer) rs.getObject("CurrentLocationID")));
+        });
+
+        UtilizationEngine.Result result = engine.utilization(epochSeconds(window.from()), epochSeconds(window.to()), fleet);
+        computed.incrementAndGet();
+        lastIntervals.set(engine.intervalCount());
+        log.debug("Utilization {} - {}: {} intervals, {} vehicles in {} ms", window.from(), window.to(),
+            engine.intervalCount(), fleet.size(), System.currentTimeMillis() - start);
+        return result;
+    }
+
+    /**
+     * Drop cached periods nightly so back-dated rental corrections are picked up
+     */
+    @Scheduled(cron = "${app.utilization.evict-cron:0 45 3 * * *}")
+    public void evictClosedPeriods() {
+        closedPeriods.clear();
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("cachedPeriods", closedPeriods.size());
+        stats.put("computed", computed.get());
+        stats.put("cacheHits", cacheHits.get());
+        stats.put("lastIntervals", lastIntervals.get());
+        return stats;
+    }
+
+    private static long epochSeconds(Timestamp timestamp) {
+        return epochSeconds(timestamp.toLocalDateTime());
+    }
+
+    // Veritabanı yerel saat tutar; yalnızca farklar kullanıldığı için sabit ofset yeterli
+    private static long epochSeconds(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC);
+    }
+
+    private record Window(LocalDateTime from, LocalDateTime to) {
+    }
+}
@@ -0,0 +1,290 @@
+package com.example.rentello.service;
+
+import com.example.rentello.repository.FleetProjectionRepository.VehicleRow;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * One bitmap per facet value over a dense vehicle ordinal.
+ * Filtering is a chain of BitSet ANDs and facet counts are cardinalities of the intersections.
+ */
+public class VehicleFacetIndex {
+
+    public enum Facet {
+        CITY("city"),
+        CATEGORY("category"),
+        BRAND("brand"),
+        FUEL_TYPE("fuelType"),
+        TRANSMISSION("transmission"),
+        SEATING_CAPACITY("seats");
+
+        private final String key;
+
+        Facet(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Integer> ordinalByVehicleId = new HashMap<>();
+    private final EnumMap<Facet, Map<String, BitSet>> bitmaps = new EnumMap<>(Facet.class);
+    private final BitSet available = new BitSet();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private VehicleRow[] documents = new VehicleRow[1024];
+    private long[] rateCents = new long[1024];
+    private int nextOrdinal;
+
+    public VehicleFacetIndex() {
+        for (Facet facet : Facet.values()) {
+            bitmaps.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * Add a vehicle or move its bits after a status, location or model change
+     */
+    public void put(VehicleRow document) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinalByVehicleId.get(document.vehicleId());
+            int ordinal;
+            if (existing != null) {
+                ordinal = existing;
+                clearBits(ordinal, documents[ordinal]);
+            } else {
+                ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.poll();
+                ensureCapacity(ordinal + 1);
+                ordinalByVehicleId.put(document.vehicleId(), ordinal);
+            }
+            setBits(ordinal, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer vehicleId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByVehicleId.remove(vehicleId);
+            if (ordinal != null) {
+                clearBits(ordinal, documents[ordinal]);
+                documents[ordinal] = null;
+                freeOrdinals.push(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void replaceAll(Collection<VehicleRow> all) {
+        lock.writeLock().lock();
+        try {
+            ordinalByVehicleId.clear();
+            bitmaps.values().forEach(Map::clear);
+            available.clear();
+            freeOrdinals.clear();
+            nextOrdinal = 0;
+            documents = new VehicleRow[Math.max(1024, all.size())];
+            rateCents = new long[documents.length];
+            for (VehicleRow document : all) {
+                int ordinal = nextOrdinal++;
+                ordinalByVehicleId.put(document.vehicleId(), ordinal);
+                setBits(ordinal, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByVehicleId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Filter available vehicles and count every facet value for the current selection.
+     * Counts of a facet ignore that facet's own selection so alternatives stay visible.
+     */
+    public Result search(Map<Facet, Set<String>> selection, BigDecimal minRate, BigDecimal maxRate,
+                         int page, int size) {
+        lock.readLock().lock();
+        try {
+            BitSet base = (BitSet) available.clone();
+            if (minRate != null || maxRate != null) {
+                long min = minRate != null ? toCents(minRate) : Long.MIN_VALUE;
+                long max = maxRate != null ? toCents(maxRate) : Long.MAX_VALUE;
+                for (int ordinal = base.nextSetBit(0); ordinal >= 0; ordinal = base.nextSetBit(ordinal + 1)) {
+                    if (rateCents[ordinal] < min || rateCents[ordinal] > max) {
+                        base.clear(ordinal);
+                    }
+                }
+            }
+
+            // Aynı facet içinde OR, facet'ler arasında AND
+            Map<Facet, BitSet> selected = new EnumMap<>(Facet.class);
+            selection.forEach((facet, values) -> {
+                if (values == null || values.isEmpty()) return;
+                BitSet union = new BitSet();
+                for (String value : values) {
+                    BitSet bitmap = bitmaps.get(facet).get(value);
+                    if (bitmap != null) union.or(bitmap);
+                }
+                selected.put(facet, union);
+            });
+
+            BitSet matches = (BitSet) base.clone();
+            selected.values().forEach(matches::and);
+
+            Map<Facet, Map<String, Integer>> counts = new EnumMap<>(Facet.class);
+            for (Facet facet : Facet.values()) {
+                BitSet context = (BitSet) base.clone();
+                selected.forEach((other, bitmap) -> {
+                    if (other != facet) context.and(bitmap);
+                });
+
+                Map<String, Integer> valueCounts = new TreeMap<>();
+                Set<String> selectedValues = selection.getOrDefault(facet, Set.of());
+                bitmaps.get(facet).forEach((value, bitmap) -> {
+                    BitSet intersection = (BitSet) context.clone();
+                    intersection.and(bitmap);
+                    int count = intersection.cardinality();
+                    if (count > 0 || selectedValues.contains(value)) {
+                        valueCounts.put(value, count);
+                    }
+                });
+                counts.put(facet, valueCounts);
+            }
+
+            // Sonuçlar günlük ücrete göre artan sırada (findWithFilters ile aynı)
+            int total = matches.cardinality();
+            int[] ordinals = matches.stream().toArray();
+            sortByRate(ordinals);
+
+            // Büyük sayfa numaraları int taşmasıyla negatif ofsete dönmesin
+            int from = (int) Math.min((long) page * size, total);
+            int to = Math.min(from + size, total);
+            VehicleRow[] pageDocuments = new VehicleRow[to - from];
+            for (int i = from; i < to; i++) {
+                pageDocuments[i - from] = documents[ordinals[i]];
+            }
+            return new Result(List.of(pageDocuments), total, counts);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Bottom-up merge sort of ordinals by rate, then vehicle id; stays on int[] instead of boxing every match
+     */
+    private void sortByRate(int[] ordinals) {
+        int n = ordinals.length;
+        int[] source = ordinals;
+        int[] target = new int[n];
+        for (int width = 1; width < n; width *= 2) {
+            for (int left = 0; left < n; left += 2 * width) {
+                int middle = Math.min(left + width, n);
+                int right = Math.min(left + 2 * width, n);
+                int i = left;
+                int j = middle;
+                for (int k = left; k < right; k++) {
+                    target[k] = i < middle && (j >= right || compareByRate(source[i], source[j]) <= 0)
+                        ? source[i++]
+                        : source[j++];
+                }
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+        }
+        if (source != ordinals) {
+            System.arraycopy(source, 0, ordinals, 0, n);
+        }
+    }
+
+    private int compareByRate(int a, int b) {
+        return rateCents[a] != rateCents[b]
+            ? Long.compare(rateCents[a], rateCents[b])
+            : Integer.compare(documents[a].vehicleId(), documents[b].vehicleId());
+    }
+
+    private void setBits(int ordinal, VehicleRow document) {
+        documents[ordinal] = document;
+        rateCents[ordinal] = document.dailyRentalRate() != null ? toCents(document.dailyRentalRate()) : 0;
+        if (document.availableForRent()) {
+            available.set(ordinal);
+        }
+        for (Facet facet : Facet.values()) {
+            String value = facetValue(facet, document);
+            if (value != null) {
+                bitmaps.get(facet).computeIfAbsent(value, v -> new BitSet()).set(ordinal);
+            }
+        }
+    }
+
+    private void clearBits(int ordinal, VehicleRow document) {
+        available.clear(ordinal);
+        for (Facet facet : Facet.values()) {
+            String value = facetValue(facet, document);
+            if (value == null) continue;
+            Map<String, BitSet> values = bitmaps.get(facet);
+            BitSet bitmap = values.get(value);
+            if (bitmap != null) {
+                bitmap.clear(ordinal);
+                if (bitmap.isEmpty()) values.remove(value);
+            }
+        }
+    }
+
+    private void ensureCapacity(int required) {
+        if (required > documents.length) {
+            int capacity = Math.max(required, documents.length * 2);
+            documents = Arrays.copyOf(documents, capacity);
+            rateCents = Arrays.copyOf(rateCents, capacity);
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    private static String facetValue(Facet facet, VehicleRow row) {
+        return switch (facet) {
+            case CITY -> row.city();
+            case CATEGORY -> row.category();
+            case BRAND -> row.brand();
+            case FUEL_TYPE -> row.fuelType();
+            case TRANSMISSION -> row.transmissionType();
+            case SEATING_CAPACITY -> row.seatingCapacity() != null ? row.seatingCapacity().toString() : null;
+        };
+    }
+
+    public record Result(List<VehicleRow> vehicles, int total, Map<Facet, Map<String, Integer>> counts) {
+
+        public Map<String, Map<String, Integer>> countsByKey() {
+            Map<String, Map<String, Integer>> byKey = new LinkedHashMap<>();
+            counts.forEach((facet, values) -> byKey.put(facet.getKey(), values));
+            return byKey;
+        }
+    }
+}
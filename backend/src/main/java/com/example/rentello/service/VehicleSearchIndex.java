@@ -0,0 +1,466 @@
+package com.example.rentello.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index over the searchable text of vehicles.
+ * Documents get a dense ordinal; every folded term maps to the ordinals it occurs in together
+ * with a bit mask of the fields it was found in, which drives the ranking.
+ */
+public class VehicleSearchIndex {
+
+    static final int FIELD_REGISTRATION = 0;
+    static final int FIELD_BRAND = 1;
+    static final int FIELD_MODEL = 2;
+    static final int FIELD_CATEGORY = 3;
+    static final int FIELD_COLOR = 4;
+    static final int FIELD_DESCRIPTION = 5;
+
+    private static final float[] FIELD_WEIGHTS = { 5f, 4f, 4f, 3f, 2f, 1f };
+
+    private static final float EXACT_MATCH = 1.0f;
+    private static final float PREFIX_MATCH = 0.7f;
+    private static final float FUZZY_MATCH = 0.5f;
+
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+
+    private static final Locale TURKISH = Locale.forLanguageTag("tr-TR");
+
+    // İstek iş parçacığı başına bir kez ayrılır; her arama yalnızca dokunduğu sıraları sıfırlar
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Integer, Integer> ordinalByVehicleId = new HashMap<>();
+    private final NavigableMap<String, Postings> dictionary = new TreeMap<>();
+    private final ArrayDeque<Integer> freeOrdinals = new ArrayDeque<>();
+    private Document[] documents = new Document[1024];
+    private int nextOrdinal;
+
+    /**
+     * Add a vehicle or replace its previous version
+     */
+    public void put(Document document) {
+        lock.writeLock().lock();
+        try {
+            Integer existing = ordinalByVehicleId.get(document.vehicleId());
+            if (existing != null) {
+                reindex(existing, documents[existing], document);
+                documents[existing] = document;
+                return;
+            }
+            int ordinal = freeOrdinals.isEmpty() ? nextOrdinal++ : freeOrdinals.poll();
+            if (ordinal >= documents.length) {
+                documents = Arrays.copyOf(documents, documents.length * 2);
+            }
+            ordinalByVehicleId.put(document.vehicleId(), ordinal);
+            documents[ordinal] = document;
+            index(ordinal, document);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Integer vehicleId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinalByVehicleId.remove(vehicleId);
+            if (ordinal == null) {
+                return;
+            }
+            unindex(ordinal, documents[ordinal]);
+            documents[ordinal] = null;
+            freeOrdinals.push(ordinal);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replace the whole content of the index, e.g. on startup or a manual reindex
+     */
+    public void replaceAll(Collection<Document> all) {
+        lock.writeLock().lock();
+        try {
+            ordinalByVehicleId.clear();
+            dictionary.clear();
+            freeOrdinals.clear();
+            documents = new Document[Math.max(1024, all.size() + all.size() / 4)];
+            nextOrdinal = 0;
+            for (Document document : all) {
+                int ordinal = nextOrdinal++;
+                ordinalByVehicleId.put(document.vehicleId(), ordinal);
+                documents[ordinal] = document;
+                index(ordinal, document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinalByVehicleId.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return dictionary.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Ranked search; every query token must match (exactly, as a prefix or within the typo budget)
+     */
+    public Hits search(String query, int page, int size) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty()) {
+            return new Hits(List.of(), 0);
+        }
+
+        lock.readLock().lock();
+        Scratch scratch = SCRATCH.get();
+        int candidateCount = 0;
+        try {
+            scratch.ensure(nextOrdinal);
+            float[] scores = scratch.scores;
+            int[] matchedTokens = scratch.matchedTokens;
+            float[] tokenBest = scratch.tokenBest;
+            int[] touched = scratch.touched;
+            int[] candidates = scratch.candidates;
+
+            for (int t = 0; t < tokens.size(); t++) {
+                String token = tokens.get(t);
+                int touchedCount = 0;
+                touchedCount = collect(dictionary.get(token), EXACT_MATCH, tokenBest, touched, touchedCount);
+
+                if (token.length() >= MIN_PREFIX_LENGTH) {
+                    int expansions = 0;
+                    for (Map.Entry<String, Postings> entry
+                            : dictionary.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                        if (++expansions > MAX_PREFIX_EXPANSIONS) break;
+                        touchedCount = collect(entry.getValue(), PREFIX_MATCH, tokenBest, touched, touchedCount);
+                    }
+                }
+
+                // Yazım hatası toleransı sadece tam/önek eşleşme yoksa devreye girer
+                if (touchedCount == 0 && token.length() >= MIN_FUZZY_LENGTH) {
+                    int maxEdits = token.length() >= 8 ? 2 : 1;
+                    for (Map.Entry<String, Postings> entry : dictionary.entrySet()) {
+                        String term = entry.getKey();
+                        if (Math.abs(term.length() - token.length()) <= maxEdits
+                                && editDistance(token, term, maxEdits) <= maxEdits) {
+                            touchedCount = collect(entry.getValue(), FUZZY_MATCH, tokenBest, touched, touchedCount);
+                        }
+                    }
+                }
+
+                // Sadece önceki bütün kelimeleri eşleşmiş sıralar puan alır; ilk kelime aday listesini kurar
+                int advanced = 0;
+                for (int i = 0; i < touchedCount; i++) {
+                    int ordinal = touched[i];
+                    if (matchedTokens[ordinal] == t) {
+                        scores[ordinal] += tokenBest[ordinal];
+                        matchedTokens[ordinal]++;
+                        advanced++;
+                        if (t == 0) {
+                            candidates[candidateCount++] = ordinal;
+                        }
+                    }
+                    tokenBest[ordinal] = 0f;
+                }
+                if (advanced == 0) {
+                    return new Hits(List.of(), 0);
+                }
+            }
+
+            List<Hit> hits = new ArrayList<>();
+            for (int i = 0; i < candidateCount; i++) {
+                int ordinal = candidates[i];
+                if (matchedTokens[ordinal] == tokens.size()) {
+                    hits.add(new Hit(documents[ordinal], scores[ordinal]));
+                }
+            }
+            hits.sort(Comparator.comparingDouble(Hit::score).reversed()
+                    .thenComparing(hit -> hit.document().vehicleId()));
+
+            int from = (int) Math.min((long) page * size, hits.size());
+            int to = Math.min(from + size, hits.size());
+            return new Hits(List.copyOf(hits.subList(from, to)), hits.size());
+        } finally {
+            scratch.reset(candidateCount);
+            lock.readLock().unlock();
+        }
+    }
+
+    private int collect(Postings postings, float quality, float[] tokenBest, int[] touched, int touchedCount) {
+        if (postings == null) {
+            return touchedCount;
+        }
+        for (int i = 0; i < postings.size; i++) {
+            int ordinal = postings.ordinals[i];
+            float score = quality * weight(postings.fieldMasks[i]);
+            if (tokenBest[ordinal] == 0f) {
+                touched[touchedCount++] = ordinal;
+            }
+            if (score > tokenBest[ordinal]) {
+                tokenBest[ordinal] = score;
+            }
+        }
+        return touchedCount;
+    }
+
+    private void index(int ordinal, Document document) {
+        termsOf(document).forEach((term, mask) ->
+                dictionary.computeIfAbsent(term, t -> new Postings()).add(ordinal, mask));
+    }
+
+    private void unindex(int ordinal, Document document) {
+        for (String term : termsOf(document).keySet()) {
+            removePosting(term, ordinal);
+        }
+    }
+
+    /**
+     * Only terms that appeared, disappeared or moved to another field are touched; a status or price
+     * change leaves every posting list as it is
+     */
+    private void reindex(int ordinal, Document previous, Document document) {
+        Map<String, Byte> before = termsOf(previous);
+        Map<String, Byte> after = termsOf(document);
+        for (String term : before.keySet()) {
+            if (!after.containsKey(term)) {
+                removePosting(term, ordinal);
+            }
+        }
+        after.forEach((term, mask) -> {
+            if (!mask.equals(before.get(term))) {
+                dictionary.computeIfAbsent(term, t -> new Postings()).add(ordinal, mask);
+            }
+        });
+    }
+
+    private void removePosting(String term, int ordinal) {
+        Postings postings = dictionary.get(term);
+        if (postings != null && postings.remove(ordinal) && postings.size == 0) {
+            dictionary.remove(term);
+        }
+    }
+
+    private static Map<String, Byte> termsOf(Document document) {
+        Map<String, Byte> terms = new HashMap<>();
+        addTerms(terms, document.registration(), FIELD_REGISTRATION);
+        addTerms(terms, document.brand(), FIELD_BRAND);
+        addTerms(terms, document.model(), FIELD_MODEL);
+        addTerms(terms, document.category(), FIELD_CATEGORY);
+        addTerms(terms, document.color(), FIELD_COLOR);
+        addTerms(terms, document.description(), FIELD_DESCRIPTION);
+
+        // Plaka boşluksuz haliyle de aranabilsin: "34 ABC 123" -> "34abc123"
+        if (document.registration() != null) {
+            String compact = String.join("", tokenize(document.registration()));
+            if (!compact.isEmpty()) {
+                terms.merge(compact, (byte) (1 << FIELD_REGISTRATION), (a, b) -> (byte) (a | b));
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerms(Map<String, Byte> terms, String text, int field) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, (byte) (1 << field), (a, b) -> (byte) (a | b));
+        }
+    }
+
+    private static float weight(byte fieldMask) {
+        float weight = 0f;
+        for (int field = 0; field < FIELD_WEIGHTS.length; field++) {
+            if ((fieldMask & (1 << field)) != 0) {
+                weight += FIELD_WEIGHTS[field];
+            }
+        }
+        return weight;
+    }
+
+    /**
+     * Split text into folded tokens
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : fold(text).split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Turkish-aware case folding: lower case with the Turkish locale (I -> ı, İ -> i),
+     * then map Turkish letters to their ASCII base so "ŞAHİN", "sahin" and "SAHIN" all match
+     */
+    static String fold(String text) {
+        String lower = text.toLowerCase(TURKISH);
+        StringBuilder folded = new StringBuilder(lower.length());
+        for (int i = 0; i < lower.length(); i++) {
+            char c = lower.charAt(i);
+            folded.append(switch (c) {
+                case 'ı', 'î' -> 'i';
+                case 'ş' -> 's';
+                case 'ğ' -> 'g';
+                case 'ü', 'û' -> 'u';
+                case 'ö' -> 'o';
+                case 'ç' -> 'c';
+                case 'â' -> 'a';
+                default -> c;
+            });
+        }
+        return folded.toString();
+    }
+
+    /**
+     * Optimal string alignment distance (adjacent transpositions count as one edit), bounded by max
+     */
+    static int editDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] current = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[m];
+    }
+
+    /**
+     * Searchable projection of a vehicle
+     */
+    public record Document(Integer vehicleId, String registration, String brand, String model,
+                           String category, String color, String description,
+                           Integer manufactureYear, BigDecimal dailyRate, String status) {}
+
+    public record Hit(Document document, float score) {}
+
+    public record Hits(List<Hit> hits, long total) {}
+
+    /**
+     * Per-thread arrays indexed by ordinal, all zero between searches. A search writes only the ordinals
+     * its postings hit and clears them again, so its cost follows the matches rather than the index size
+     */
+    private static final class Scratch {
+        private float[] scores = new float[0];
+        private float[] tokenBest = new float[0];
+        private int[] matchedTokens = new int[0];
+        private int[] touched = new int[0];
+        private int[] candidates = new int[0];
+
+        void ensure(int capacity) {
+            if (scores.length >= capacity) {
+                return;
+            }
+            int length = Math.max(capacity, scores.length + scores.length / 2);
+            scores = new float[length];
+            tokenBest = new float[length];
+            matchedTokens = new int[length];
+            touched = new int[length];
+            candidates = new int[length];
+        }
+
+        /**
+         * Every ordinal that got a score or a match count is in the candidate list of the first token
+         */
+        void reset(int candidateCount) {
+            for (int i = 0; i < candidateCount; i++) {
+                scores[candidates[i]] = 0f;
+                matchedTokens[candidates[i]] = 0;
+            }
+        }
+    }
+
+    /**
+     * Ordinals are kept sorted so updates and removals find their slot by binary search;
+     * a full build adds them in increasing order and only appends
+     */
+    private static final class Postings {
+        private int[] ordinals = new int[4];
+        private byte[] fieldMasks = new byte[4];
+        private int size;
+
+        /**
+         * Add the ordinal or replace its field mask
+         */
+        void add(int ordinal, byte mask) {
+            int i = size == 0 || ordinals[size - 1] < ordinal ? -(size + 1) : Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (i >= 0) {
+                fieldMasks[i] = mask;
+                return;
+            }
+            i = -(i + 1);
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                fieldMasks = Arrays.copyOf(fieldMasks, size * 2);
+            }
+            System.arraycopy(ordinals, i, ordinals, i + 1, size - i);
+            System.arraycopy(fieldMasks, i, fieldMasks, i + 1, size - i);
+            ordinals[i] = ordinal;
+            fieldMasks[i] = mask;
+            size++;
+        }
+
+        boolean remove(int ordinal) {
+            int i = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (i < 0) {
+                return false;
+            }
+            size--;
+            System.arraycopy(ordinals, i + 1, ordinals, i, size - i);
+            System.arraycopy(fieldMasks, i + 1, fieldMasks, i, size - i);
+            return true;
+        }
+    }
+}
@@ -19,6 +19,7 @@ import java.util.Optional;
 public class VehicleService {
     
     private final VehicleRepository vehicleRepository;
+    private final UtilizationService utilizationService;
     
     // Basic CRUD operations
     public Vehicle save(Vehicle vehicle) {
@@ -91,9 +92,8 @@ public class VehicleService {
     }
     
     public Double calculateUtilizationRate(Integer vehicleId, int days) {
-        // This would calculate utilization based on rental history
-        // For now, return a mock value
-        return 75.0;
+        // Tüm filo için tek tarama yapılır ve kapanmış dönem önbelleğinden okunur
+        return utilizationService.getVehicleUtilization(vehicleId, days);
     }
     
     // Business logic methods
@@ -0,0 +1,118 @@
+package com.example.rentello.util;
+
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Opaque cursor tokens for keyset pagination.
+ * A token carries the sort it was issued for and the typed key values of the last row of the page.
+ */
+public final class CursorCodec {
+
+    private static final String VERSION = "1";
+    private static final char RECORD = '\n';
+    private static final char FIELD = '\t';
+
+    private CursorCodec() {
+    }
+
+    /**
+     * Encode the keys of the last row on a page; sortSignature ties the cursor to its ORDER BY
+     */
+    public static String encode(KeysetScrollPosition position, String sortSignature) {
+        StringBuilder token = new StringBuilder(VERSION).append(RECORD).append(escape(sortSignature));
+        position.getKeys().forEach((property, value) -> {
+            if (value == null) {
+                throw new RuntimeException("Cursor key must not be null: " + property);
+            }
+            token.append(RECORD).append(escape(property))
+                 .append(FIELD).append(typeOf(value))
+                 .append(FIELD).append(escape(value.toString()));
+        });
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token issued by {@link #encode}; a blank token means the first page
+     */
+    public static KeysetScrollPosition decode(String cursor, String sortSignature) {
+        if (cursor == null || cursor.isBlank()) {
+            return ScrollPosition.keyset();
+        }
+        String[] records;
+        try {
+            records = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8).split(String.valueOf(RECORD), -1);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        if (records.length < 2 || !VERSION.equals(records[0])) {
+            throw new RuntimeException("Invalid cursor");
+        }
+        if (!sortSignature.equals(unescape(records[1]))) {
+            throw new RuntimeException("Cursor does not match the requested sort");
+        }
+
+        Map<String, Object> keys = new LinkedHashMap<>();
+        for (int i = 2; i < records.length; i++) {
+            String[] fields = records[i].split(String.valueOf(FIELD), -1);
+            if (fields.length != 3) {
+                throw new RuntimeException("Invalid cursor");
+            }
+            keys.put(unescape(fields[0]), parse(fields[1], unescape(fields[2])));
+        }
+        return ScrollPosition.forward(keys);
+    }
+
+    private static String typeOf(Object value) {
+        if (value instanceof Integer) return "I";
+        if (value instanceof Long) return "L";
+        if (value instanceof BigDecimal) return "D";
+        if (value instanceof LocalDateTime) return "T";
+        if (value instanceof LocalDate) return "A";
+        if (value instanceof String) return "S";
+        throw new RuntimeException("Unsupported cursor key type: " + value.getClass().getSimpleName());
+    }
+
+    private static Object parse(String type, String value) {
+        try {
+            return switch (type) {
+                case "I" -> Integer.valueOf(value);
+                case "L" -> Long.valueOf(value);
+                case "D" -> new BigDecimal(value);
+                case "T" -> LocalDateTime.parse(value);
+                case "A" -> LocalDate.parse(value);
+                case "S" -> value;
+                default -> throw new RuntimeException("Invalid cursor");
+            };
+        } catch (RuntimeException e) {
+            throw new RuntimeException("Invalid cursor");
+        }
+    }
+
+    // Ayraç karakterleri değerlerin içinde geçebilir (ör. kullanıcı adı), kaçışlanarak saklanır
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("\n", "\\n").replace("\t", "\\t");
+    }
+
+    private static String unescape(String value) {
+        StringBuilder out = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char next = value.charAt(++i);
+                out.append(next == 'n' ? '\n' : next == 't' ? '\t' : next);
+            } else {
+                out.append(c);
+            }
+        }
+        return out.toString();
+    }
+}
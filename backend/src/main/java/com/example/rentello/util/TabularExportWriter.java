@@ -0,0 +1,197 @@
+package com.example.rentello.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.temporal.TemporalAccessor;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Row-at-a-time CSV / NDJSON writer with optional gzip. Text cells that a spreadsheet would run as a formula
+ * are prefixed with a quote in CSV.
+ * Nothing is retained between rows, so memory use depends only on the buffer size, not on the row count.
+ */
+public class TabularExportWriter implements Closeable {
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format from(String value) {
+            for (Format format : values()) {
+                if (format.extension.equalsIgnoreCase(value) || format.name().equalsIgnoreCase(value)) {
+                    return format;
+                }
+            }
+            throw new RuntimeException("Unsupported export format: " + value);
+        }
+    }
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final Format format;
+    private final GZIPOutputStream gzip;
+    private final Writer writer;
+    private final String[] columns;
+    private long rowCount;
+
+    public TabularExportWriter(OutputStream out, Format format, boolean compress, List<String> columns) throws IOException {
+        this.format = format;
+        this.gzip = compress ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        this.writer = new BufferedWriter(
+            new OutputStreamWriter(compress ? gzip : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        this.columns = columns.toArray(String[]::new);
+        if (format == Format.CSV) {
+            for (int i = 0; i < this.columns.length; i++) {
+                if (i > 0) writer.write(',');
+                writeCsvValue(this.columns[i]);
+            }
+            writer.write("\r\n");
+        }
+    }
+
+    /**
+     * Write one row; values are positional and must match the column list
+     */
+    public void writeRow(Object[] values) throws IOException {
+        if (values.length != columns.length) {
+            throw new IllegalArgumentException("Expected " + columns.length + " values but got " + values.length);
+        }
+        if (format == Format.CSV) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                if (values[i] instanceof Number number) {
+                    writeCsvValue(text(number));
+                } else if (values[i] != null) {
+                    writeCsvValue(neutralizeFormula(text(values[i])));
+                }
+            }
+            writer.write("\r\n");
+        } else {
+            writer.write('{');
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) writer.write(',');
+                writeJsonString(columns[i]);
+                writer.write(':');
+                writeJsonValue(values[i]);
+            }
+            writer.write("}\n");
+        }
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * Flush and finish the gzip trailer; the underlying stream is left open for the container to close
+     */
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+        if (gzip != null) {
+            gzip.finish();
+        }
+    }
+
+    private void writeCsvValue(String value) throws IOException {
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"') writer.write('"');
+            writer.write(c);
+        }
+        writer.write('"');
+    }
+
+    /**
+     * Spreadsheets evaluate a cell starting with =, +, - or @ as a formula; a leading quote keeps it text.
+     * Numbers are written as they are so negative amounts stay numeric.
+     */
+    static String neutralizeFormula(String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        char first = value.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r'
+            ? "'" + value
+            : value;
+    }
+
+    private void writeJsonValue(Object value) throws IOException {
+        if (value == null) {
+            writer.write("null");
+        } else if (value instanceof BigDecimal decimal) {
+            writer.write(decimal.toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            writer.write(value.toString());
+        } else {
+            writeJsonString(text(value));
+        }
+    }
+
+    private void writeJsonString(String value) throws IOException {
+        writer.write('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"' -> writer.write("\\\"");
+                case '\\' -> writer.write("\\\\");
+                case '\n' -> writer.write("\\n");
+                case '\r' -> writer.write("\\r");
+                case '\t' -> writer.write("\\t");
+                default -> {
+                    if (c < 0x20) {
+                        writer.write(String.format("\\u%04x", (int) c));
+                    } else {
+                        writer.write(c);
+                    }
+                }
+            }
+        }
+        writer.write('"');
+    }
+
+    private static String text(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof TemporalAccessor) {
+            // LocalDate / LocalDateTime toString zaten ISO-8601
+            return value.toString();
+        }
+        return String.valueOf(value);
+    }
+}
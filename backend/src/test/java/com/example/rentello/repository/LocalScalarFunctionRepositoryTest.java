@@ -0,0 +1,122 @@
+package com.example.rentello.repository;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Parity cases for the in-process scalar functions. Expected values follow the
+ * T-SQL definitions in 07_CREATE_FUNCTIONS.sql.
+ */
+class LocalScalarFunctionRepositoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private final LocalScalarFunctionRepository functions = new LocalScalarFunctionRepository(
+            null, Clock.fixed(TODAY.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+
+    @Test
+    void calculateAgeMatchesBirthdayAdjustment() {
+        assertEquals(35, functions.calculateAge(LocalDate.of(1990, 6, 15)));
+        assertEquals(34, functions.calculateAge(LocalDate.of(1990, 6, 16)));
+        assertEquals(34, functions.calculateAge(LocalDate.of(1990, 12, 1)));
+        assertEquals(35, functions.calculateAge(LocalDate.of(1990, 1, 31)));
+        assertEquals(0, functions.calculateAge(TODAY));
+        assertNull(functions.calculateAge(null));
+    }
+
+    @Test
+    void calculateAgeOnLeapDayBirthday() {
+        LocalDate leapDay = LocalDate.of(2000, 2, 29);
+        assertEquals(24, LocalScalarFunctionRepository.calculateAge(leapDay, LocalDate.of(2025, 2, 28)));
+        assertEquals(25, LocalScalarFunctionRepository.calculateAge(leapDay, LocalDate.of(2025, 3, 1)));
+    }
+
+    @Test
+    void rentalDurationCountsMidnightBoundaries() {
+        // DATEDIFF(DAY) sadece gece yarısı geçişlerini sayar
+        assertEquals(1, functions.calculateRentalDuration(
+                LocalDateTime.of(2025, 6, 1, 23, 0), LocalDateTime.of(2025, 6, 2, 1, 0)));
+        assertEquals(1, functions.calculateRentalDuration(
+                LocalDateTime.of(2025, 6, 1, 0, 0), LocalDateTime.of(2025, 6, 2, 23, 59)));
+        assertEquals(7, functions.calculateRentalDuration(
+                LocalDateTime.of(2025, 6, 1, 10, 0), LocalDateTime.of(2025, 6, 8, 9, 0)));
+    }
+
+    @Test
+    void rentalDurationHasMinimumOfOneDay() {
+        assertEquals(1, functions.calculateRentalDuration(
+                LocalDateTime.of(2025, 6, 1, 9, 0), LocalDateTime.of(2025, 6, 1, 18, 0)));
+        assertEquals(1, functions.calculateRentalDuration(
+                LocalDateTime.of(2025, 6, 5, 9, 0), LocalDateTime.of(2025, 6, 1, 9, 0)));
+        assertNull(functions.calculateRentalDuration(null, LocalDateTime.of(2025, 6, 1, 9, 0)));
+    }
+
+    @Test
+    void lateFeeIsOneAndHalfDailyRatePerLateDay() {
+        LocalDateTime planned = LocalDateTime.of(2025, 6, 10, 10, 0);
+        assertEquals(new BigDecimal("450.00"),
+                functions.calculateLateFee(planned, planned.plusDays(3), new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("150.00"),
+                functions.calculateLateFee(planned, LocalDateTime.of(2025, 6, 11, 0, 5), new BigDecimal("100")));
+        // Aynı gün içinde geç iade: DATEDIFF(DAY) = 0
+        assertEquals(new BigDecimal("0.00"),
+                functions.calculateLateFee(planned, planned.plusHours(5), new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("0.00"),
+                functions.calculateLateFee(planned, planned.minusDays(1), new BigDecimal("100.00")));
+        assertEquals(new BigDecimal("0.00"),
+                functions.calculateLateFee(planned, null, new BigDecimal("100.00")));
+        assertNull(functions.calculateLateFee(planned, planned.plusDays(1), null));
+    }
+
+    @Test
+    void lateFeeRoundsLikeDecimalColumns() {
+        LocalDateTime planned = LocalDateTime.of(2025, 6, 10, 10, 0);
+        // @DailyRate DECIMAL(10,2): 33.335 -> 33.34, 1 * 33.34 * 1.5 = 50.010
+        assertEquals(new BigDecimal("50.01"),
+                functions.calculateLateFee(planned, planned.plusDays(1), new BigDecimal("33.335")));
+        // 1 * 33.33 * 1.5 = 49.995 -> DECIMAL(12,2) 50.00
+        assertEquals(new BigDecimal("50.00"),
+                functions.calculateLateFee(planned, planned.plusDays(1), new BigDecimal("33.33")));
+    }
+
+    @Test
+    void loyaltyTierThresholds() {
+        assertEquals("Bronze", LocalScalarFunctionRepository.loyaltyTier(BigDecimal.ZERO, 0));
+        assertEquals("Bronze", LocalScalarFunctionRepository.loyaltyTier(null, 2));
+        assertEquals("Silver", LocalScalarFunctionRepository.loyaltyTier(new BigDecimal("1000.00"), 0));
+        assertEquals("Silver", LocalScalarFunctionRepository.loyaltyTier(new BigDecimal("999.99"), 3));
+        assertEquals("Gold", LocalScalarFunctionRepository.loyaltyTier(new BigDecimal("5000.00"), 1));
+        assertEquals("Gold", LocalScalarFunctionRepository.loyaltyTier(BigDecimal.ZERO, 10));
+        assertEquals("Platinum", LocalScalarFunctionRepository.loyaltyTier(new BigDecimal("10000.00"), 0));
+        assertEquals("Platinum", LocalScalarFunctionRepository.loyaltyTier(BigDecimal.ZERO, 20));
+    }
+
+    @Test
+    void discountCombinesTierAndDurationWithCap() {
+        assertEquals(new BigDecimal("0.00"), LocalScalarFunctionRepository.discountPercentage("Bronze", 3));
+        assertEquals(new BigDecimal("5.00"), LocalScalarFunctionRepository.discountPercentage("Bronze", 7));
+        assertEquals(new BigDecimal("10.00"), LocalScalarFunctionRepository.discountPercentage("Silver", 29));
+        assertEquals(new BigDecimal("20.00"), LocalScalarFunctionRepository.discountPercentage("Gold", 30));
+        assertEquals(new BigDecimal("20.00"), LocalScalarFunctionRepository.discountPercentage("Platinum", 7));
+        assertEquals(new BigDecimal("25.00"), LocalScalarFunctionRepository.discountPercentage("Platinum", 45));
+        assertEquals(new BigDecimal("15.00"), LocalScalarFunctionRepository.discountPercentage("Platinum", null));
+    }
+
+    @Test
+    void formatCurrencyMatchesFormatN2() {
+        assertEquals("$1,250.75", functions.formatCurrency(new BigDecimal("1250.75")));
+        assertEquals("$0.00", functions.formatCurrency(BigDecimal.ZERO));
+        assertEquals("$1,234,567.00", functions.formatCurrency(new BigDecimal("1234567")));
+        assertEquals("$10.01", functions.formatCurrency(new BigDecimal("10.005")));
+        assertEquals("$-42.50", functions.formatCurrency(new BigDecimal("-42.5")));
+        assertNull(functions.formatCurrency(null));
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdminSearchIndexTest {
+
+    private static AdminSearchIndex.Document user(int id, String username, String name) {
+        return new AdminSearchIndex.Document(AdminSearchIndex.Type.USER, id, name, username, List.of(
+                new AdminSearchIndex.Field(username, 5f),
+                new AdminSearchIndex.Field(name, 4f)));
+    }
+
+    private static AdminSearchIndex.Document vehicle(int id, String plate, String model) {
+        return new AdminSearchIndex.Document(AdminSearchIndex.Type.VEHICLE, id, plate, model, List.of(
+                new AdminSearchIndex.Field(plate, 5f),
+                new AdminSearchIndex.Field(model, 3f)));
+    }
+
+    private static AdminSearchIndex.Document rental(int id, String customer, String plate) {
+        return new AdminSearchIndex.Document(AdminSearchIndex.Type.RENTAL, id, "Rental #" + id, customer, List.of(
+                new AdminSearchIndex.Field(String.valueOf(id), 5f),
+                new AdminSearchIndex.Field(plate, 4f),
+                new AdminSearchIndex.Field(customer, 3f)));
+    }
+
+    private static AdminSearchIndex index() {
+        AdminSearchIndex index = new AdminSearchIndex();
+        index.replaceAll(List.of(
+                user(1, "ayilmaz", "Ahmet Yılmaz"),
+                user(2, "mkaya", "Mehmet Kaya"),
+                vehicle(1, "34 ABC 123", "Toyota Corolla"),
+                rental(7, "Ahmet Yılmaz", "34 ABC 123"),
+                rental(8, "Mehmet Kaya", "06 XYZ 01")));
+        return index;
+    }
+
+    @Test
+    void oneQueryReturnsTypeTaggedHitsFromAllEntities() {
+        AdminSearchIndex.Result result = index().search("yilmaz", AdminSearchIndex.allTypes(), 10);
+
+        assertEquals(2, result.hits().size());
+        assertEquals(AdminSearchIndex.Type.USER, result.hits().get(0).document().type());
+        assertEquals(AdminSearchIndex.Type.RENTAL, result.hits().get(1).document().type());
+        assertEquals(1, result.counts().get(AdminSearchIndex.Type.USER));
+        assertEquals(0, result.counts().get(AdminSearchIndex.Type.VEHICLE));
+        assertEquals(1, result.counts().get(AdminSearchIndex.Type.RENTAL));
+    }
+
+    @Test
+    void allTokensMustMatchAndPrefixesCount() {
+        AdminSearchIndex index = index();
+
+        List<AdminSearchIndex.Hit> hits = index.search("34 abc", AdminSearchIndex.allTypes(), 10).hits();
+        assertEquals(2, hits.size());
+        assertEquals(AdminSearchIndex.Type.VEHICLE, hits.get(0).document().type());
+
+        assertTrue(index.search("ahmet kaya", AdminSearchIndex.allTypes(), 10).hits().isEmpty());
+        assertEquals(2, index.search("meh", AdminSearchIndex.allTypes(), 10).hits().size());
+    }
+
+    @Test
+    void typeFilterAndUpdatesAreApplied() {
+        AdminSearchIndex index = index();
+        assertEquals(1, index.search("kaya", EnumSet.of(AdminSearchIndex.Type.RENTAL), 10).hits().size());
+
+        index.put(user(2, "mdemir", "Mehmet Demir"));
+        index.remove(AdminSearchIndex.Type.RENTAL, 8);
+
+        assertTrue(index.search("kaya", AdminSearchIndex.allTypes(), 10).hits().isEmpty());
+        assertEquals(1, index.search("demir", AdminSearchIndex.allTypes(), 10).hits().size());
+        assertEquals(2, index.sizes().get(AdminSearchIndex.Type.USER));
+        assertEquals(1, index.sizes().get(AdminSearchIndex.Type.RENTAL));
+    }
+}
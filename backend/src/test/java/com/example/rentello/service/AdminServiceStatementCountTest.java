@@ -0,0 +1,252 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.AdminRentalDto;
+import com.example.rentello.dto.AdminUserManagementDto;
+import com.example.rentello.dto.AdminVehicleManagementDto;
+import com.example.rentello.entity.City;
+import com.example.rentello.entity.Country;
+import com.example.rentello.entity.Location;
+import com.example.rentello.entity.Payment;
+import com.example.rentello.entity.PaymentMethod;
+import com.example.rentello.entity.Rental;
+import com.example.rentello.entity.RentalStatus;
+import com.example.rentello.entity.User;
+import com.example.rentello.entity.UserRole;
+import com.example.rentello.entity.Vehicle;
+import com.example.rentello.entity.VehicleBrand;
+import com.example.rentello.entity.VehicleCategory;
+import com.example.rentello.entity.VehicleModel;
+import com.example.rentello.entity.VehicleStatus;
+import com.example.rentello.repository.PaymentRepository;
+import com.example.rentello.repository.RentalRepository;
+import com.example.rentello.repository.UserRepository;
+import com.example.rentello.repository.VehicleRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Statements prepared by Hibernate for one admin page: the page query, its count query and one grouped query,
+ * whatever the page size and however many distinct cities, models and statuses the page references
+ */
+@DataJpaTest(properties = {
+    "spring.datasource.url=jdbc:h2:mem:admin-statements;MODE=MSSQLServer;DB_CLOSE_DELAY=-1",
+    "spring.datasource.driver-class-name=org.h2.Driver",
+    "spring.datasource.username=sa",
+    "spring.datasource.password=",
+    "spring.jpa.hibernate.ddl-auto=create-drop",
+    "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class AdminServiceStatementCountTest {
+
+    // En büyük sayfadan fazla satır: sayım sorgusu her sayfada çalışır
+    private static final int ROWS = 60;
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private VehicleRepository vehicleRepository;
+
+    @Autowired
+    private RentalRepository rentalRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    private AdminService service;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        Country country = persist(new Country(), c -> {
+            c.setCountryName("Türkiye");
+            c.setCountryCode("TR");
+            c.setCreatedDate(CREATED);
+        });
+        // Her satır ayrı bir şehir, model ve lokasyona bağlı; tembel yükleme sayfa boyuyla büyürdü
+        List<City> cities = persistAll(i -> {
+            City city = new City();
+            city.setCityName("Şehir " + i);
+            city.setCountry(country);
+            city.setCreatedDate(CREATED);
+            return city;
+        });
+        UserRole role = persist(new UserRole(), r -> {
+            r.setRoleName("Musteri");
+            r.setCreatedDate(CREATED);
+        });
+        List<Location> locations = persistAll(i -> {
+            Location location = new Location();
+            location.setLocationName("Ofis " + i);
+            location.setAddress("Adres " + i);
+            location.setCity(cities.get(i));
+            location.setCreatedDate(CREATED);
+            return location;
+        });
+        List<VehicleBrand> brands = persistAll(i -> {
+            VehicleBrand brand = new VehicleBrand();
+            brand.setBrandName("Marka " + i);
+            brand.setCreatedDate(CREATED);
+            return brand;
+        });
+        List<VehicleCategory> categories = persistAll(i -> {
+            VehicleCategory category = new VehicleCategory();
+            category.setCategoryName("Kategori " + i);
+            category.setBasePrice(new BigDecimal("500.00"));
+            category.setCreatedDate(CREATED);
+            return category;
+        });
+        List<VehicleModel> models = persistAll(i -> {
+            VehicleModel model = new VehicleModel();
+            model.setModelName("Model " + i);
+            model.setBrand(brands.get(i));
+            model.setCategory(categories.get(i));
+            model.setCreatedDate(CREATED);
+            return model;
+        });
+        List<VehicleStatus> vehicleStatuses = persistAll(i -> {
+            VehicleStatus status = new VehicleStatus();
+            status.setStatusName("Durum " + i);
+            status.setCreatedDate(CREATED);
+            return status;
+        });
+        List<RentalStatus> rentalStatuses = persistAll(i -> {
+            RentalStatus status = new RentalStatus();
+            status.setStatusName(i % 2 == 0 ? "Aktif" : "Kiralama Durumu " + i);
+            status.setCreatedDate(CREATED);
+            return status;
+        });
+        PaymentMethod method = persist(new PaymentMethod(), m -> {
+            m.setMethodName("Kredi Kartı");
+            m.setCreatedDate(CREATED);
+        });
+        List<User> users = persistAll(i -> {
+            User user = new User();
+            user.setUsername("musteri" + i);
+            user.setEmail("musteri" + i + "@rentello.test");
+            user.setPasswordHash("hash");
+            user.setFirstName("Ad" + i);
+            user.setLastName("Soyad" + i);
+            user.setUserRole(role);
+            user.setCity(cities.get(i));
+            user.setCreatedDate(CREATED);
+            return user;
+        });
+        List<Vehicle> vehicles = persistAll(i -> {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setVehicleRegistration("34 RNT " + i);
+            vehicle.setDailyRentalRate(new BigDecimal("100.00"));
+            vehicle.setModel(models.get(i));
+            vehicle.setCurrentStatus(vehicleStatuses.get(i));
+            vehicle.setCurrentLocation(locations.get(i));
+            vehicle.setCreatedDate(CREATED);
+            return vehicle;
+        });
+        List<Rental> rentals = persistAll(i -> {
+            Rental rental = new Rental();
+            rental.setPlannedPickupDate(LocalDateTime.of(2025, 1, 1, 10, 0));
+            rental.setPlannedReturnDate(LocalDateTime.of(2025, 1, 4, 10, 0));
+            rental.setTotalAmount(new BigDecimal("300.00"));
+            rental.setCustomer(users.get(i));
+            rental.setVehicle(vehicles.get(i));
+            rental.setPickupLocation(locations.get(i));
+            rental.setReturnLocation(locations.get((i + 1) % ROWS));
+            rental.setRentalStatus(rentalStatuses.get(i));
+            rental.setCreatedDate(CREATED);
+            return rental;
+        });
+        for (int i = 0; i < ROWS; i += 2) {
+            Payment payment = new Payment();
+            payment.setPaymentAmount(new BigDecimal("100.00"));
+            payment.setRental(rentals.get(i));
+            payment.setPaymentMethod(method);
+            entityManager.persist(payment);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        service = new AdminService();
+        ReflectionTestUtils.setField(service, "userRepository", userRepository);
+        ReflectionTestUtils.setField(service, "vehicleRepository", vehicleRepository);
+        ReflectionTestUtils.setField(service, "rentalRepository", rentalRepository);
+        ReflectionTestUtils.setField(service, "paymentRepository", paymentRepository);
+
+        statistics = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    private <T> T persist(T entity, java.util.function.Consumer<T> init) {
+        init.accept(entity);
+        entityManager.persist(entity);
+        return entity;
+    }
+
+    private <T> List<T> persistAll(IntFunction<T> factory) {
+        List<T> entities = new java.util.ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            T entity = factory.apply(i);
+            entityManager.persist(entity);
+            entities.add(entity);
+        }
+        return entities;
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 10, 50 })
+    void userPageCostsThreeStatements(int pageSize) {
+        Page<AdminUserManagementDto> page = service.getAllUsers(0, pageSize, "userId", "asc");
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(pageSize, page.getContent().size());
+        assertEquals(ROWS, page.getTotalElements());
+        page.getContent().forEach(dto -> assertEquals(1L, dto.getTotalRentals()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 10, 50 })
+    void vehiclePageCostsThreeStatements(int pageSize) {
+        Page<AdminVehicleManagementDto> page = service.getAllVehicles(0, pageSize, "vehicleId", "asc");
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(pageSize, page.getContent().size());
+        page.getContent().forEach(dto -> assertEquals(1L, dto.getTotalRentals()));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = { 1, 10, 50 })
+    void rentalPageCostsThreeStatements(int pageSize) {
+        Page<AdminRentalDto> page = service.getAllRentals(0, pageSize, "rentalId", "asc");
+
+        assertEquals(3, statistics.getPrepareStatementCount());
+        assertEquals(pageSize, page.getContent().size());
+        AdminRentalDto partlyPaid = page.getContent().get(0);
+        assertEquals(new BigDecimal("100.00"), partlyPaid.getTotalPaid());
+        assertEquals(new BigDecimal("200.00"), partlyPaid.getRemainingAmount());
+        if (pageSize > 1) {
+            assertEquals(BigDecimal.ZERO, page.getContent().get(1).getTotalPaid());
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoOccurrenceModelTest {
+
+    private static CoOccurrenceModel.Counts counts() {
+        CoOccurrenceModel.Counts counts = new CoOccurrenceModel.Counts();
+        counts.addAll(1, new int[] { 10, 20, 30 });
+        counts.addAll(2, new int[] { 10, 20 });
+        counts.addAll(3, new int[] { 10, 20 });
+        counts.addAll(4, new int[] { 10, 40 });
+        counts.addAll(5, new int[] { 50 });
+        return counts;
+    }
+
+    @Test
+    void ranksByCoOccurrenceAndExcludesHistory() {
+        CoOccurrenceModel model = CoOccurrenceModel.from(counts(), CoOccurrenceModel.DEFAULT_NEIGHBOURS);
+
+        assertArrayEquals(new int[] { 20, 30, 40 }, model.recommend(new int[] { 10 }, 5));
+        assertArrayEquals(new int[] { 20 }, model.recommend(new int[] { 10 }, 1));
+        assertArrayEquals(new int[] { 10, 30 }, model.recommend(new int[] { 20 }, 5));
+        assertArrayEquals(new int[0], model.recommend(new int[] { 50 }, 5));
+        assertArrayEquals(new int[0], model.recommend(new int[] { 99 }, 5));
+        assertEquals(5, model.itemCount());
+        assertEquals(4, model.pairCount());
+    }
+
+    @Test
+    void truncatesNeighbourLists() {
+        CoOccurrenceModel model = CoOccurrenceModel.from(counts(), 1);
+
+        assertEquals(4, model.neighbourCount());
+        assertArrayEquals(new int[] { 20 }, model.recommend(new int[] { 10 }, 5));
+    }
+
+    @Test
+    void incrementalAddMatchesFullBuild() {
+        CoOccurrenceModel.Counts incremental = counts();
+        assertFalse(incremental.add(1, 10));
+        assertTrue(incremental.add(5, 20));
+
+        Map<Integer, int[]> baskets = new HashMap<>();
+        baskets.put(1, new int[] { 10, 20, 30 });
+        baskets.put(2, new int[] { 10, 20 });
+        baskets.put(3, new int[] { 10, 20 });
+        baskets.put(4, new int[] { 10, 40 });
+        baskets.put(5, new int[] { 50, 20 });
+        CoOccurrenceModel.Counts full = CoOccurrenceModel.Counts.of(baskets);
+
+        CoOccurrenceModel a = CoOccurrenceModel.from(incremental, 20);
+        CoOccurrenceModel b = CoOccurrenceModel.from(full, 20);
+        for (int item : new int[] { 10, 20, 30, 40, 50 }) {
+            assertArrayEquals(b.recommend(new int[] { item }, 5), a.recommend(new int[] { item }, 5));
+        }
+        assertEquals(5, full.customerCount());
+    }
+
+    @Test
+    void removeUndoesAdd() {
+        CoOccurrenceModel.Counts counts = counts();
+        assertTrue(counts.add(5, 30));
+        assertTrue(counts.remove(5, 30));
+        assertFalse(counts.remove(5, 30));
+        assertFalse(counts.remove(9, 10));
+        // Müşteri 4'ün tek ortak kiralaması iptal edildi
+        assertTrue(counts.remove(4, 40));
+
+        Map<Integer, int[]> baskets = new HashMap<>();
+        baskets.put(1, new int[] { 10, 20, 30 });
+        baskets.put(2, new int[] { 10, 20 });
+        baskets.put(3, new int[] { 10, 20 });
+        baskets.put(4, new int[] { 10 });
+        baskets.put(5, new int[] { 50 });
+        CoOccurrenceModel expected = CoOccurrenceModel.from(CoOccurrenceModel.Counts.of(baskets), 20);
+        CoOccurrenceModel actual = CoOccurrenceModel.from(counts, 20);
+
+        assertEquals(expected.pairCount(), actual.pairCount());
+        assertArrayEquals(new int[0], actual.recommend(new int[] { 40 }, 5));
+        for (int item : new int[] { 10, 20, 30, 50 }) {
+            assertArrayEquals(expected.recommend(new int[] { item }, 5), actual.recommend(new int[] { item }, 5));
+        }
+    }
+
+    @Test
+    void parallelBuildMatchesSequentialBuild() {
+        Random random = new Random(42);
+        Map<Integer, int[]> baskets = new HashMap<>();
+        CoOccurrenceModel.Counts sequential = new CoOccurrenceModel.Counts();
+        for (int customer = 0; customer < 20_000; customer++) {
+            int[] items = random.ints(1 + random.nextInt(6), 1, 300).toArray();
+            baskets.put(customer, items);
+            sequential.addAll(customer, items);
+        }
+
+        CoOccurrenceModel parallel = CoOccurrenceModel.from(CoOccurrenceModel.Counts.of(baskets), 20);
+        CoOccurrenceModel expected = CoOccurrenceModel.from(sequential, 20);
+
+        assertEquals(expected.pairCount(), parallel.pairCount());
+        for (int item = 1; item < 300; item += 7) {
+            assertArrayEquals(expected.recommend(new int[] { item }, 10), parallel.recommend(new int[] { item }, 10));
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CurrencyServiceTest {
+
+    @TempDir
+    Path dir;
+
+    private Path ratesFile;
+    private final CurrencyService service = new CurrencyService(null, new DefaultResourceLoader());
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ratesFile = dir.resolve("rates.properties");
+        write("# 1 birim = x TRY\nEUR=44.50\nusd = 38.50\n");
+        ReflectionTestUtils.setField(service, "baseCurrency", "TRY");
+        ReflectionTestUtils.setField(service, "ratesLocation", ratesFile.toUri().toString());
+    }
+
+    private void write(String content) throws IOException {
+        Files.writeString(ratesFile, content, StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void parsesRatesAndAddsBaseCurrency() {
+        CurrencyService.RateTable table = service.reloadFromFile();
+
+        assertEquals(new BigDecimal("44.50"), table.rate("EUR"));
+        assertEquals(new BigDecimal("38.50"), table.rate("USD"));
+        assertEquals(BigDecimal.ONE, table.rate("TRY"));
+        assertEquals(new BigDecimal("4450.00"), service.convert(new BigDecimal("100"), "EUR", "TRY"));
+        assertEquals(new BigDecimal("115.58"), service.convert(new BigDecimal("100"), "EUR", "USD"));
+    }
+
+    @Test
+    void reloadSwapsTableAndKeepsPreviousOnError() throws IOException {
+        service.reloadFromFile();
+        write("EUR=45.00\n");
+        CurrencyService.RateTable reloaded = service.reloadFromFile();
+        assertEquals(new BigDecimal("45.00"), service.getRateTable().rate("EUR"));
+
+        write("EUR=abc\n");
+        RuntimeException invalid = assertThrows(RuntimeException.class, service::reloadFromFile);
+        assertNotNull(invalid.getCause());
+        write("EUR=-1\n");
+        assertThrows(RuntimeException.class, service::reloadFromFile);
+        assertSame(reloaded, service.getRateTable());
+
+        Files.delete(ratesFile);
+        RuntimeException missing = assertThrows(RuntimeException.class, service::reloadFromFile);
+        assertNotNull(missing.getCause());
+        assertSame(reloaded, service.getRateTable());
+    }
+
+    @Test
+    void parseRejectsNonNumericValues() {
+        Properties properties = new Properties();
+        properties.setProperty("EUR", "44,50");
+
+        assertThrows(RuntimeException.class, () -> CurrencyService.parseRates(properties));
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CustomerAnalyticsTest {
+
+    private static final LocalDate JANUARY = LocalDate.of(2025, 1, 10);
+
+    private static Map<Integer, CustomerAnalytics.Score> byCustomer(List<CustomerAnalytics.Score> scores) {
+        Map<Integer, CustomerAnalytics.Score> map = new HashMap<>();
+        scores.forEach(score -> map.put(score.customerId(), score));
+        return map;
+    }
+
+    @Test
+    void scoresAreQuintilesWithTiesSharingAScore() {
+        CustomerAnalytics analytics = new CustomerAnalytics(3);
+        CustomerAnalytics.Batch batch = analytics.batch();
+        // Müşteri i: i kiralama, i*100 TL, son kiralama i gün sonra
+        for (int customer = 1; customer <= 10; customer++) {
+            for (int rental = 0; rental < customer; rental++) {
+                batch.addRental(customer, JANUARY.plusDays(customer));
+            }
+            batch.addPayment(customer, customer * 10_000L);
+        }
+        batch.addRental(11, JANUARY.plusDays(10));
+        batch.addPayment(11, 100_000L);
+        analytics.apply(batch);
+
+        Map<Integer, CustomerAnalytics.Score> scores = byCustomer(analytics.score());
+        assertEquals(11, scores.size());
+        CustomerAnalytics.Score best = scores.get(10);
+        assertEquals(5, best.recencyScore());
+        assertEquals(5, best.frequencyScore());
+        assertEquals(5, best.monetaryScore());
+        assertEquals("champions", best.segment());
+        assertEquals(1000.0, best.monetary());
+        assertEquals(JANUARY.plusDays(10), best.lastRentalDate());
+
+        // Aynı son kiralama tarihi ve tutar aynı puanı alır
+        assertEquals(best.recencyScore(), scores.get(11).recencyScore());
+        assertEquals(best.monetaryScore(), scores.get(11).monetaryScore());
+        assertEquals(1, scores.get(11).frequencyScore());
+        assertEquals("new", scores.get(11).segment());
+
+        CustomerAnalytics.Score worst = scores.get(1);
+        assertEquals(1, worst.recencyScore());
+        assertEquals(1, worst.frequencyScore());
+        assertEquals("hibernating", worst.segment());
+    }
+
+    @Test
+    void cohortsCountMembersActiveInEachMonthSinceSignup() {
+        CustomerAnalytics analytics = new CustomerAnalytics(4);
+        analytics.addCustomer(1, YearMonth.of(2025, 1));
+        analytics.addCustomer(2, YearMonth.of(2025, 1));
+        analytics.addCustomer(3, YearMonth.of(2025, 1));
+        analytics.addCustomer(4, YearMonth.of(2025, 2));
+
+        CustomerAnalytics.Batch batch = analytics.batch();
+        batch.addRental(1, JANUARY);
+        batch.addRental(1, JANUARY.plusDays(3));
+        batch.addRental(1, JANUARY.plusMonths(2));
+        batch.addRental(2, JANUARY.plusMonths(1));
+        batch.addRental(4, JANUARY.plusMonths(1));
+        // Kullanıcı kaydı olmayan müşteri ilk kiralama ayının kohortuna girer
+        batch.addRental(9, JANUARY.plusMonths(2));
+        analytics.apply(batch);
+
+        List<CustomerAnalytics.Cohort> cohorts = analytics.cohorts();
+        assertEquals(3, cohorts.size());
+        assertEquals(YearMonth.of(2025, 1), cohorts.get(0).month());
+        assertEquals(3, cohorts.get(0).size());
+        assertArrayEquals(new long[] { 1, 1, 1 }, cohorts.get(0).active());
+        assertEquals(YearMonth.of(2025, 2), cohorts.get(1).month());
+        assertArrayEquals(new long[] { 1 }, cohorts.get(1).active());
+        assertEquals(YearMonth.of(2025, 3), cohorts.get(2).month());
+        assertEquals(1, cohorts.get(2).size());
+
+        // Daha önceki bir kiralama gelirse kayıt ayı geriye çekilir
+        CustomerAnalytics.Batch earlier = analytics.batch();
+        earlier.addRental(9, JANUARY);
+        analytics.apply(earlier);
+        List<CustomerAnalytics.Cohort> updated = analytics.cohorts();
+        assertEquals(2, updated.size());
+        assertEquals(4, updated.get(0).size());
+        assertArrayEquals(new long[] { 2, 1, 2 }, updated.get(0).active());
+    }
+
+    @Test
+    void incrementalBatchesMatchASingleFullLoadForAnyPartitionCount() {
+        Random random = new Random(11);
+        int[] customers = new int[50_000];
+        LocalDate[] days = new LocalDate[customers.length];
+        long[] amounts = new long[customers.length];
+        for (int i = 0; i < customers.length; i++) {
+            customers[i] = 1 + random.nextInt(2_000);
+            days[i] = JANUARY.plusDays(random.nextInt(700));
+            amounts[i] = 10_000 + random.nextInt(500_000);
+        }
+
+        CustomerAnalytics full = new CustomerAnalytics(1);
+        CustomerAnalytics.Batch all = full.batch();
+        for (int i = 0; i < customers.length; i++) {
+            all.addRental(customers[i], days[i]);
+            all.addPayment(customers[i], amounts[i]);
+        }
+        full.apply(all);
+
+        CustomerAnalytics incremental = new CustomerAnalytics(7);
+        for (int from = 0; from < customers.length; from += 4_096) {
+            CustomerAnalytics.Batch batch = incremental.batch();
+            for (int i = from; i < Math.min(customers.length, from + 4_096); i++) {
+                batch.addRental(customers[i], days[i]);
+                batch.addPayment(customers[i], amounts[i]);
+            }
+            incremental.apply(batch);
+        }
+
+        assertEquals(byCustomer(full.score()), byCustomer(incremental.score()));
+        List<CustomerAnalytics.Cohort> expected = full.cohorts();
+        List<CustomerAnalytics.Cohort> actual = incremental.cohorts();
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).month(), actual.get(i).month());
+            assertEquals(expected.get(i).size(), actual.get(i).size());
+            assertArrayEquals(expected.get(i).active(), actual.get(i).active());
+        }
+    }
+}
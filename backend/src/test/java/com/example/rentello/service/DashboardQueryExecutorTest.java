@@ -0,0 +1,97 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DashboardQueryExecutorTest {
+
+    private static long sleepAndReturn(long millis, long value) throws InterruptedException {
+        Thread.sleep(millis);
+        return value;
+    }
+
+    @Test
+    void latencyIsCloseToSlowestQuery() {
+        DashboardQueryExecutor executor = new DashboardQueryExecutor(10, 2000);
+        long start = System.nanoTime();
+        List<DashboardQueryExecutor.Task<Long>> tasks = new ArrayList<>();
+        try (DashboardQueryExecutor.Scope scope = executor.open("test")) {
+            for (int i = 0; i < 10; i++) {
+                long value = i;
+                tasks.add(scope.fork("q" + i, () -> sleepAndReturn(200, value), -1L));
+            }
+            assertTrue(scope.join().isEmpty());
+        }
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals(i, tasks.get(i).get());
+        }
+        assertTrue(tookMillis < 1000, "took " + tookMillis + " ms");
+    }
+
+    @Test
+    void boundsConcurrentQueries() {
+        DashboardQueryExecutor executor = new DashboardQueryExecutor(3, 5000);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        try (DashboardQueryExecutor.Scope scope = executor.open("test")) {
+            for (int i = 0; i < 12; i++) {
+                scope.fork("q" + i, () -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    try {
+                        return sleepAndReturn(50, 1L);
+                    } finally {
+                        running.decrementAndGet();
+                    }
+                }, 0L);
+            }
+            assertTrue(scope.join().isEmpty());
+        }
+        assertEquals(3, peak.get());
+    }
+
+    @Test
+    void slowAndFailingQueriesFallBack() {
+        DashboardQueryExecutor executor = new DashboardQueryExecutor(4, 300);
+        long start = System.nanoTime();
+        try (DashboardQueryExecutor.Scope scope = executor.open("test")) {
+            DashboardQueryExecutor.Task<Long> fast = scope.fork("fast", () -> 7L, 0L);
+            DashboardQueryExecutor.Task<Long> slow = scope.fork("slow", () -> sleepAndReturn(5000, 1L), -1L);
+            DashboardQueryExecutor.Task<Long> failing = scope.fork("failing", () -> {
+                throw new IllegalStateException("boom");
+            }, -2L);
+            DashboardQueryExecutor.Task<Long> nullResult = scope.fork("null", () -> null, -3L);
+
+            List<String> unavailable = scope.join();
+
+            assertEquals(List.of("slow", "failing"), unavailable);
+            assertEquals(7L, fast.get());
+            assertEquals(-1L, slow.get());
+            assertEquals(-2L, failing.get());
+            assertEquals(-3L, nullResult.get());
+        }
+        long tookMillis = (System.nanoTime() - start) / 1_000_000;
+        assertTrue(tookMillis < 2000, "took " + tookMillis + " ms");
+    }
+
+    @Test
+    void queuedQueriesGetTheirOwnTimeout() {
+        DashboardQueryExecutor executor = new DashboardQueryExecutor(1, 400);
+        try (DashboardQueryExecutor.Scope scope = executor.open("test")) {
+            List<DashboardQueryExecutor.Task<Long>> tasks = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                tasks.add(scope.fork("q" + i, () -> sleepAndReturn(150, 1L), 0L));
+            }
+            // Üçü sırayla ~450 ms sürer; her biri kendi 400 ms'sine sığar
+            assertTrue(scope.join().isEmpty());
+            tasks.forEach(task -> assertEquals(1L, task.get()));
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.DashboardStatsDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DashboardSnapshotServiceTest {
+
+    private static class FakeAdminService extends AdminService {
+        final AtomicInteger calls = new AtomicInteger();
+        long totalRentals = 10;
+        boolean partial;
+
+        @Override
+        public DashboardStatsDto getDashboardStats() {
+            calls.incrementAndGet();
+            DashboardStatsDto stats = new DashboardStatsDto();
+            stats.setTotalRentals(totalRentals);
+            stats.setTotalRevenue(new BigDecimal("1250.00"));
+            Map<LocalDate, Integer> daily = new HashMap<>();
+            for (int i = 0; i < 7; i++) {
+                daily.put(LocalDate.of(2025, 1, 1).plusDays(i), i);
+            }
+            stats.setDailyRentals(daily);
+            stats.setPartial(partial);
+            stats.setUnavailableMetrics(partial ? List.of("totalRevenue") : List.of());
+            return stats;
+        }
+    }
+
+    private final FakeAdminService adminService = new FakeAdminService();
+    private final DashboardSnapshotService service =
+            new DashboardSnapshotService(adminService, new ObjectMapper().findAndRegisterModules());
+
+    @Test
+    void pollsAreServedFromOneRefresh() {
+        DashboardSnapshotService.Snapshot first = service.getSnapshot();
+        for (int i = 0; i < 100; i++) {
+            DashboardSnapshotService.Snapshot polled = service.getSnapshot();
+            assertSame(first, polled);
+            assertTrue(polled.matches(first.etag()));
+        }
+        assertEquals(1, adminService.calls.get());
+        assertTrue(new String(first.body()).contains("\"asOf\""));
+    }
+
+    @Test
+    void etagChangesOnlyWhenNumbersChange() {
+        DashboardSnapshotService.Snapshot first = service.refresh();
+        DashboardSnapshotService.Snapshot same = service.refresh();
+        assertSame(first, same);
+
+        adminService.totalRentals = 11;
+        DashboardSnapshotService.Snapshot changed = service.refresh();
+        assertNotEquals(first.etag(), changed.etag());
+        assertFalse(changed.matches(first.etag()));
+        assertEquals(3, adminService.calls.get());
+    }
+
+    @Test
+    void partialRefreshKeepsPreviousSnapshot() {
+        DashboardSnapshotService.Snapshot first = service.refresh();
+        adminService.partial = true;
+        adminService.totalRentals = 99;
+
+        assertSame(first, service.refresh());
+        assertEquals(Boolean.TRUE, service.getStats().get("dirty"));
+    }
+
+    @Test
+    void ifNoneMatchHandlesListsWeakTagsAndWildcard() {
+        DashboardSnapshotService.Snapshot snapshot = service.getSnapshot();
+
+        assertTrue(snapshot.matches("\"other\", " + snapshot.etag()));
+        assertTrue(snapshot.matches("W/" + snapshot.etag()));
+        assertTrue(snapshot.matches("*"));
+        assertFalse(snapshot.matches("\"other\""));
+        assertFalse(snapshot.matches(null));
+    }
+}
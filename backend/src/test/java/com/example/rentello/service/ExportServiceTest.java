@@ -0,0 +1,205 @@
+package com.example.rentello.service;
+
+import com.example.rentello.util.TabularExportWriter;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.ResultSetExtractor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The export path from the JDBC cursor to the response stream, with the database replaced by a generated result set
+ */
+class ExportServiceTest {
+
+    private static final List<String> COLUMNS = List.of("PaymentID", "RentalID", "PaymentMethod", "PaymentAmount", "PaymentDate");
+    private static final LocalDateTime BASE = LocalDateTime.of(2025, 1, 1, 9, 0);
+
+    private static Object[] payment(int i) {
+        return new Object[] { i, 1000 + i, (i & 1) == 0 ? "Kredi Kartı" : "=Nakit", BigDecimal.valueOf(i % 100_000, 2),
+            Timestamp.valueOf(BASE.plusMinutes(i)) };
+    }
+
+    @Test
+    void streamsFilteredRowsFromAForwardOnlyCursor() {
+        CursorJdbcTemplate jdbc = new CursorJdbcTemplate(2, ExportServiceTest::payment);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = new ExportService(jdbc).export(ExportService.Dataset.PAYMENTS, TabularExportWriter.Format.CSV, false,
+            BASE, BASE.plusDays(1), out);
+
+        assertEquals(2, rows);
+        assertTrue(jdbc.sql.endsWith(" WHERE p.PaymentDate >= ? AND p.PaymentDate < ? ORDER BY 1"), jdbc.sql);
+        assertEquals(List.of(Timestamp.valueOf(BASE), Timestamp.valueOf(BASE.plusDays(1))), jdbc.params);
+        assertEquals(ResultSet.TYPE_FORWARD_ONLY, jdbc.resultSetType);
+        assertEquals(1000, jdbc.fetchSize);
+        assertEquals("PaymentID,RentalID,PaymentMethod,PaymentAmount,PaymentDate\r\n" +
+                "0,1000,Kredi Kartı,0.00,2025-01-01T09:00\r\n" +
+                "1,1001,'=Nakit,0.01,2025-01-01T09:01\r\n",
+            out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void unfilteredExportHasNoWhereClauseAndRejectsEmptyRanges() {
+        CursorJdbcTemplate jdbc = new CursorJdbcTemplate(0, ExportServiceTest::payment);
+        ExportService service = new ExportService(jdbc);
+
+        assertEquals(0, service.export(ExportService.Dataset.PAYMENTS, TabularExportWriter.Format.NDJSON, false,
+            null, null, new ByteArrayOutputStream()));
+        assertTrue(jdbc.sql.endsWith("p.PaymentMethodID = pm.PaymentMethodID ORDER BY 1"), jdbc.sql);
+        assertTrue(jdbc.params.isEmpty());
+        assertThrows(RuntimeException.class, () -> service.export(ExportService.Dataset.PAYMENTS,
+            TabularExportWriter.Format.CSV, false, BASE, BASE, new ByteArrayOutputStream()));
+    }
+
+    /**
+     * Half a million rows through the cursor, writer and gzip must not grow the heap; nothing is buffered per row
+     */
+    @Test
+    void heapStaysFlatWhileStreamingHalfAMillionRows() {
+        int rows = 500_000;
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        long[] peak = new long[1];
+        CursorJdbcTemplate jdbc = new CursorJdbcTemplate(rows, i -> {
+            if (i % 125_000 == 124_999) {
+                System.gc();
+                peak[0] = Math.max(peak[0], memory.getHeapMemoryUsage().getUsed());
+            }
+            return payment(i);
+        });
+        CountingOutputStream out = new CountingOutputStream();
+
+        System.gc();
+        long baseline = memory.getHeapMemoryUsage().getUsed();
+        long exported = new ExportService(jdbc).export(ExportService.Dataset.PAYMENTS, TabularExportWriter.Format.NDJSON,
+            true, null, null, out);
+
+        assertEquals(rows, exported);
+        assertTrue(out.count > rows, "compressed output should still be non-trivial");
+        long retained = peak[0] - baseline;
+        assertTrue(retained < 16L * 1024 * 1024, "retained heap grew by " + retained + " bytes");
+    }
+
+    /**
+     * Five million rows in a 64 MB heap: buffering the rows or the output fails with an OutOfMemoryError.
+     * Runs in the separate low-heap surefire execution
+     */
+    @Test
+    @Tag("low-heap")
+    void streamsFiveMillionRowsWithinASmallHeap() {
+        assumeTrue(Runtime.getRuntime().maxMemory() <= 128L * 1024 * 1024, "needs a small -Xmx to be meaningful");
+        int rows = 5_000_000;
+        CountingOutputStream out = new CountingOutputStream();
+
+        long exported = new ExportService(new CursorJdbcTemplate(rows, ExportServiceTest::payment))
+            .export(ExportService.Dataset.PAYMENTS, TabularExportWriter.Format.CSV, true, null, null, out);
+
+        assertEquals(rows, exported);
+        assertTrue(out.count > rows, "compressed output should still be non-trivial");
+    }
+
+    /**
+     * Runs the statement creator against a recording connection and feeds the extractor a generated cursor
+     */
+    private static final class CursorJdbcTemplate extends JdbcTemplate {
+
+        private final int rows;
+        private final IntFunction<Object[]> rowAt;
+        private String sql;
+        private int resultSetType;
+        private int fetchSize;
+        private final List<Object> params = new ArrayList<>();
+
+        CursorJdbcTemplate(int rows, IntFunction<Object[]> rowAt) {
+            this.rows = rows;
+            this.rowAt = rowAt;
+        }
+
+        @Override
+        public <T> T query(PreparedStatementCreator psc, ResultSetExtractor<T> rse) {
+            try {
+                psc.createPreparedStatement(proxy(Connection.class, (method, args) -> {
+                    sql = (String) args[0];
+                    resultSetType = (Integer) args[1];
+                    return proxy(PreparedStatement.class, (statementMethod, statementArgs) -> {
+                        if (statementMethod.equals("setFetchSize")) {
+                            fetchSize = (Integer) statementArgs[0];
+                        } else if (statementMethod.equals("setObject")) {
+                            params.add(statementArgs[1]);
+                        }
+                        return null;
+                    });
+                }));
+                return rse.extractData(cursor());
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        private ResultSet cursor() {
+            ResultSetMetaData meta = proxy(ResultSetMetaData.class, (method, args) ->
+                method.equals("getColumnCount") ? COLUMNS.size() : COLUMNS.get((Integer) args[0] - 1));
+            int[] position = { -1 };
+            Object[][] current = new Object[1][];
+            return proxy(ResultSet.class, (method, args) -> switch (method) {
+                case "getMetaData" -> meta;
+                case "next" -> {
+                    if (++position[0] >= rows) {
+                        yield false;
+                    }
+                    current[0] = rowAt.apply(position[0]);
+                    yield true;
+                }
+                case "getObject" -> current[0][(Integer) args[0] - 1];
+                default -> throw new AssertionError("Unexpected result set call: " + method);
+            });
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, Answer answer) {
+            return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                (proxy, method, args) -> answer.apply(method.getName(), args));
+        }
+
+        private interface Answer {
+            Object apply(String method, Object[] args);
+        }
+    }
+
+    private static class CountingOutputStream extends OutputStream {
+        long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.rentello.service;
+
+import com.example.rentello.event.VehicleChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+import java.util.Set;
+
+import static com.example.rentello.service.SearchFixtures.vehicleRow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FacetedSearchServiceTest {
+
+    @Test
+    void changeCommittedDuringRebuildSurvivesTheSwap() {
+        SearchFixtures.FleetTable fleet = new SearchFixtures.FleetTable();
+        fleet.rows.put(1, vehicleRow(1, "İstanbul", "Fiat", "Benzin", "900.00", 1000, 2022, 5, true));
+        fleet.rows.put(2, vehicleRow(2, "İstanbul", "Renault", "Dizel", "1100.00", 1000, 2022, 5, true));
+        FacetedSearchService service = new FacetedSearchService(fleet);
+        service.rebuildIndex();
+
+        // Tam yükleme eski satırları okuduktan sonra araç 1 Ankara'ya taşınır, araç 2 silinir
+        fleet.duringFullLoad = () -> {
+            fleet.rows.put(1, vehicleRow(1, "Ankara", "Fiat", "Benzin", "900.00", 1000, 2022, 5, true));
+            fleet.rows.remove(2);
+            service.onVehicleChanged(new VehicleChangedEvent(1, VehicleChangedEvent.ChangeType.UPDATED));
+            service.onVehicleChanged(new VehicleChangedEvent(2, VehicleChangedEvent.ChangeType.DELETED));
+        };
+        service.rebuildIndex();
+
+        assertEquals(1, service.search(Map.of(VehicleFacetIndex.Facet.CITY, Set.of("Ankara")), null, null, 0, 10).getTotalElements());
+        assertEquals(0, service.search(Map.of(VehicleFacetIndex.Facet.CITY, Set.of("İstanbul")), null, null, 0, 10).getTotalElements());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.rentello.service;
+
+import com.example.rentello.entity.view.AvailableVehicle;
+import com.example.rentello.event.VehicleChangedEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.example.rentello.service.SearchFixtures.ids;
+import static com.example.rentello.service.SearchFixtures.vehicleRow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FleetSnapshotServiceTest {
+
+    @Test
+    void changeCommittedDuringRebuildSurvivesTheSwap() {
+        SearchFixtures.FleetTable fleet = new SearchFixtures.FleetTable();
+        fleet.rows.put(1, vehicleRow(1, "İstanbul", "Fiat", "Benzin", "900.00", 1000, 2022, 5, true));
+        fleet.rows.put(2, vehicleRow(2, "İstanbul", "Fiat", "Benzin", "800.00", 1000, 2022, 5, true));
+        FleetSnapshotService service = new FleetSnapshotService(fleet);
+        service.rebuild();
+
+        // Tam yükleme eski satırları okuduktan sonra araç 1 kiralanır, araç 3 eklenir
+        fleet.duringFullLoad = () -> {
+            fleet.rows.put(1, vehicleRow(1, "İstanbul", "Fiat", "Benzin", "900.00", 1000, 2022, 5, false));
+            fleet.rows.put(3, vehicleRow(3, "İstanbul", "Fiat", "Benzin", "700.00", 1000, 2022, 5, true));
+            service.onVehicleChanged(new VehicleChangedEvent(1, VehicleChangedEvent.ChangeType.UPDATED));
+            service.onVehicleChanged(new VehicleChangedEvent(3, VehicleChangedEvent.ChangeType.CREATED));
+        };
+        service.rebuild();
+
+        List<AvailableVehicle> available = service.getAvailableOrderedBy(FleetSnapshot.SortKey.RATE, false);
+        assertEquals(List.of(3, 2), ids(available, AvailableVehicle::getVehicleId));
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.rentello.service;
+
+import com.example.rentello.repository.FleetProjectionRepository.VehicleRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static com.example.rentello.service.SearchFixtures.ids;
+import static com.example.rentello.service.SearchFixtures.vehicleRow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class FleetSnapshotTest {
+
+    private static VehicleRow vehicle(int id, String rate, int mileage, int year, int seats, boolean available) {
+        return vehicleRow(id, "İstanbul", "Fiat", "Benzin", rate, mileage, year, seats, available);
+    }
+
+    @Test
+    void filtersRangesAndSortsTopN() {
+        FleetSnapshot snapshot = new FleetSnapshot();
+        snapshot.replaceAll(List.of(
+                vehicle(1, "900.00", 40_000, 2019, 5, true),
+                vehicle(2, "1200.50", 10_000, 2023, 5, true),
+                vehicle(3, "1500.00", 5_000, 2024, 7, true),
+                vehicle(4, "1100.00", 2_000, 2024, 5, false),
+                vehicle(5, "1000.00", 25_000, 2021, 5, true)));
+
+        FleetSnapshot.Result cheap = snapshot.query(FleetSnapshot.Criteria.of(new BigDecimal("950"), new BigDecimal("1200.50"),
+                null, 30_000, null, null, 5, 5, FleetSnapshot.SortKey.RATE, false, 10));
+        assertEquals(List.of(5, 2), ids(cheap.vehicles(), VehicleRow::vehicleId));
+        assertEquals(2, cheap.totalMatches());
+
+        FleetSnapshot.Result newest = snapshot.query(FleetSnapshot.Criteria.of(null, null, null, null,
+                2020, null, null, null, FleetSnapshot.SortKey.YEAR, true, 2));
+        assertEquals(2, newest.vehicles().size());
+        assertEquals(2024, newest.vehicles().get(0).manufactureYear());
+        assertEquals(3, newest.totalMatches());
+    }
+
+    @Test
+    void appliesIncrementalChanges() {
+        FleetSnapshot snapshot = new FleetSnapshot();
+        snapshot.replaceAll(List.of(vehicle(1, "900.00", 1, 2020, 5, true), vehicle(2, "950.00", 1, 2020, 5, true)));
+
+        snapshot.put(vehicle(1, "900.00", 1, 2020, 5, false));
+        snapshot.put(vehicle(3, "700.00", 1, 2020, 5, true));
+        snapshot.remove(2);
+
+        FleetSnapshot.Result result = snapshot.query(FleetSnapshot.Criteria.of(null, null, null, null,
+                null, null, null, null, FleetSnapshot.SortKey.RATE, false, 10));
+        assertEquals(List.of(3), ids(result.vehicles(), VehicleRow::vehicleId));
+        assertEquals(2, snapshot.size());
+    }
+
+    @Test
+    void scansLargeFleet() {
+        List<VehicleRow> rows = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            rows.add(vehicle(i, String.valueOf(500 + i % 2000), i % 150_000, 2010 + i % 15, 2 + i % 7, i % 10 != 0));
+        }
+        FleetSnapshot snapshot = new FleetSnapshot();
+        snapshot.replaceAll(rows);
+
+        FleetSnapshot.Result result = snapshot.query(FleetSnapshot.Criteria.of(new BigDecimal("800"), new BigDecimal("1200"),
+                null, 50_000, 2018, null, 5, null, FleetSnapshot.SortKey.MILEAGE, false, 50));
+        assertEquals(50, result.vehicles().size());
+        assertTrue(result.totalMatches() > 50);
+        for (int i = 1; i < result.vehicles().size(); i++) {
+            assertTrue(result.vehicles().get(i - 1).mileage() <= result.vehicles().get(i).mileage());
+        }
+    }
+
+    @Test
+    void vectorAndScalarScansAgree() {
+        assumeTrue(FleetSnapshot.VECTOR_AVAILABLE, "jdk.incubator.vector is not enabled");
+        Random random = new Random(5);
+        List<VehicleRow> rows = new ArrayList<>();
+        // Vektör genişliğine bölünmeyen boyut: kuyruk skaler döngüye kalır
+        for (int i = 0; i < 10_007; i++) {
+            rows.add(vehicle(i, (500 + random.nextInt(1500)) + ".00", random.nextInt(100_000),
+                    2010 + random.nextInt(15), 2 + random.nextInt(7), random.nextInt(5) != 0));
+        }
+        FleetSnapshot snapshot = new FleetSnapshot();
+        snapshot.replaceAll(rows);
+        snapshot.remove(17);
+        snapshot.put(vehicle(10_007, "999.99", 0, 2024, 5, true));
+
+        for (int run = 0; run < 200; run++) {
+            FleetSnapshot.Criteria criteria = FleetSnapshot.Criteria.of(
+                    random.nextBoolean() ? new BigDecimal(500 + random.nextInt(1500)) : null,
+                    random.nextBoolean() ? new BigDecimal(500 + random.nextInt(1500)) : null,
+                    null, random.nextBoolean() ? random.nextInt(100_000) : null,
+                    random.nextBoolean() ? 2010 + random.nextInt(15) : null, null,
+                    random.nextBoolean() ? 2 + random.nextInt(7) : null, null,
+                    FleetSnapshot.SortKey.values()[random.nextInt(4)], random.nextBoolean(), 30);
+
+            FleetSnapshot.Result scalar = snapshot.query(criteria, false);
+            FleetSnapshot.Result vector = snapshot.query(criteria, true);
+            assertEquals(scalar.totalMatches(), vector.totalMatches());
+            assertEquals(ids(scalar.vehicles(), VehicleRow::vehicleId), ids(vector.vehicles(), VehicleRow::vehicleId));
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.rentello.service;
+
+import com.example.rentello.event.VehicleChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FullTextSearchServiceTest {
+
+    private static VehicleSearchIndex.Document vehicle(int id, String color) {
+        return new VehicleSearchIndex.Document(id, "34 AA " + id, "Renault", "Clio", "Ekonomi", color, null,
+                2022, new BigDecimal("1500.00"), "Musait");
+    }
+
+    @Test
+    void changeCommittedDuringRebuildSurvivesTheSwap() {
+        VehicleTable vehicles = new VehicleTable();
+        vehicles.rows.put(1, vehicle(1, "Kırmızı"));
+        vehicles.rows.put(2, vehicle(2, "Gri"));
+        FullTextSearchService service = new FullTextSearchService(vehicles, null);
+        service.rebuildIndex();
+
+        // Tam yükleme eski satırları okuduktan sonra araç 1 güncellenir, araç 2 silinir
+        vehicles.duringFullLoad = () -> {
+            vehicles.rows.put(1, vehicle(1, "Mavi"));
+            vehicles.rows.remove(2);
+            service.onVehicleChanged(new VehicleChangedEvent(1, VehicleChangedEvent.ChangeType.UPDATED));
+            service.onVehicleChanged(new VehicleChangedEvent(2, VehicleChangedEvent.ChangeType.DELETED));
+        };
+        service.rebuildIndex();
+
+        assertEquals(1, service.search("mavi", 0, 10).getTotalElements());
+        assertEquals(0, service.search("kirmizi", 0, 10).getTotalElements());
+        assertEquals(0, service.search("gri", 0, 10).getTotalElements());
+    }
+
+    /**
+     * Serves the document queries from a map; the full load returns a snapshot taken before its callback runs
+     */
+    private static final class VehicleTable extends JdbcTemplate {
+
+        private final Map<Integer, VehicleSearchIndex.Document> rows = new HashMap<>();
+        private Runnable duringFullLoad = () -> { };
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper) {
+            List<T> snapshot = (List<T>) List.copyOf(rows.values());
+            duringFullLoad.run();
+            duringFullLoad = () -> { };
+            return snapshot;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            VehicleSearchIndex.Document row = rows.get((Integer) args[0]);
+            return row == null ? List.of() : (List<T>) List.of(row);
+        }
+    }
+}
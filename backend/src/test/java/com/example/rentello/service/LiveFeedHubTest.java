@@ -0,0 +1,187 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LiveFeedHubTest {
+
+    private static class RecordingSink implements LiveFeedHub.Sink {
+        final List<LiveFeedHub.LiveEvent> events = Collections.synchronizedList(new ArrayList<>());
+        final CountDownLatch closed = new CountDownLatch(1);
+        final CountDownLatch release;
+
+        RecordingSink(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        public void send(LiveFeedHub.LiveEvent event) throws IOException {
+            try {
+                // Yavaş istemci: serbest bırakılana kadar ilk gönderimde bekler
+                release.await();
+            } catch (InterruptedException e) {
+                throw new IOException(e);
+            }
+            events.add(event);
+        }
+
+        @Override
+        public void close() {
+            closed.countDown();
+        }
+
+        List<String> types() {
+            synchronized (events) {
+                return events.stream().map(LiveFeedHub.LiveEvent::type).toList();
+            }
+        }
+    }
+
+    private static RecordingSink fastSink() {
+        return new RecordingSink(new CountDownLatch(0));
+    }
+
+    private static void awaitEvents(RecordingSink sink, int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sink.events.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(count, sink.events.size(), sink.types().toString());
+    }
+
+    @Test
+    void everySubscriberGetsEveryDeltaInOrder() throws InterruptedException {
+        LiveFeedHub hub = new LiveFeedHub(64, 3, 100);
+        List<RecordingSink> sinks = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            RecordingSink sink = fastSink();
+            sinks.add(sink);
+            hub.subscribe(sink, Set.of(), null);
+        }
+
+        for (int i = 0; i < 20; i++) {
+            hub.publish("rental", "{\"n\":" + i + "}");
+        }
+
+        for (RecordingSink sink : sinks) {
+            awaitEvents(sink, 20);
+            for (int i = 0; i < 20; i++) {
+                assertEquals(i + 1, sink.events.get(i).id());
+            }
+        }
+        assertEquals(500, hub.getSubscriberCount());
+    }
+
+    @Test
+    void overflowingSubscriberIsResynced() throws InterruptedException {
+        LiveFeedHub hub = new LiveFeedHub(4, 1, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(release);
+        hub.subscribe(slow, Set.of(), null);
+
+        for (int i = 0; i < 6; i++) {
+            hub.publish("payment", "{}");
+        }
+        release.countDown();
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!slow.types().contains(LiveFeedHub.RESYNC) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertTrue(slow.types().contains(LiveFeedHub.RESYNC), slow.types().toString());
+        assertEquals(1, hub.getResyncCount());
+        assertEquals(1, hub.getSubscriberCount());
+    }
+
+    @Test
+    void subscriberThatKeepsOverflowingIsDroppedWithoutBlockingPublisher() throws InterruptedException {
+        LiveFeedHub hub = new LiveFeedHub(4, 1, 100);
+        CountDownLatch release = new CountDownLatch(1);
+        RecordingSink slow = new RecordingSink(release);
+        RecordingSink fast = fastSink();
+        hub.subscribe(slow, Set.of(), null);
+        hub.subscribe(fast, Set.of(), null);
+
+        // Hızlı istemci her olayı alırken yavaş olan hiç ilerlemez
+        for (int i = 0; i < 20; i++) {
+            long start = System.nanoTime();
+            hub.publish("payment", "{}");
+            assertTrue(System.nanoTime() - start < TimeUnit.MILLISECONDS.toNanos(100));
+            awaitEvents(fast, i + 1);
+        }
+        assertEquals(1, hub.getSubscriberCount());
+        assertEquals(1, hub.getDroppedCount());
+        release.countDown();
+
+        assertTrue(slow.closed.await(5, TimeUnit.SECONDS));
+        assertEquals(LiveFeedHub.DROPPED, slow.types().get(slow.types().size() - 1));
+    }
+
+    @Test
+    void reconnectReplaysMissedEventsOrResyncs() throws InterruptedException {
+        LiveFeedHub hub = new LiveFeedHub(16, 3, 5);
+        for (int i = 0; i < 8; i++) {
+            hub.publish("vehicle", "{}");
+        }
+
+        RecordingSink resumed = fastSink();
+        hub.subscribe(resumed, Set.of(), 5L);
+        awaitEvents(resumed, 3);
+        assertEquals(List.of(6L, 7L, 8L), resumed.events.stream().map(LiveFeedHub.LiveEvent::id).toList());
+
+        // 1'den sonrası artık geçmişte yok
+        RecordingSink tooOld = fastSink();
+        hub.subscribe(tooOld, Set.of(), 1L);
+        awaitEvents(tooOld, 1);
+        assertEquals(LiveFeedHub.RESYNC, tooOld.events.get(0).type());
+    }
+
+    @Test
+    void idsNotIssuedByThisRunAreResynced() throws InterruptedException {
+        LiveFeedHub before = new LiveFeedHub(16, 3, 100);
+        before.publish("rental", "{}");
+        before.publish("rental", "{}");
+
+        // Yeniden başlatma: id'ler öncekinden büyük başlar, geçmiş boştur
+        LiveFeedHub restarted = new LiveFeedHub(16, 3, 100, 1_000);
+        RecordingSink old = fastSink();
+        restarted.subscribe(old, Set.of(), before.getLastEventId());
+        awaitEvents(old, 1);
+        assertEquals(LiveFeedHub.RESYNC, old.events.get(0).type());
+
+        restarted.publish("rental", "{}");
+        RecordingSink future = fastSink();
+        restarted.subscribe(future, Set.of(), 5_000L);
+        awaitEvents(future, 1);
+        assertEquals(LiveFeedHub.RESYNC, future.events.get(0).type());
+
+        RecordingSink current = fastSink();
+        restarted.subscribe(current, Set.of(), 1_000L);
+        awaitEvents(current, 1);
+        assertEquals(1_001L, current.events.get(0).id());
+    }
+
+    @Test
+    void typeFilterAppliesToDeltasOnly() throws InterruptedException {
+        LiveFeedHub hub = new LiveFeedHub(16, 3, 100);
+        RecordingSink sink = fastSink();
+        hub.subscribe(sink, Set.of("payment"), null);
+
+        hub.publish("rental", "{}");
+        hub.publish("payment", "{}");
+        hub.broadcast("counters", "{}");
+
+        awaitEvents(sink, 2);
+        assertEquals(List.of("payment", "counters"), sink.types());
+    }
+}
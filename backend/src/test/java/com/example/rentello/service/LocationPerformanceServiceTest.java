@@ -0,0 +1,114 @@
+package com.example.rentello.service;
+
+import com.example.rentello.event.RentalChangedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LocationPerformanceServiceTest {
+
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        final List<Object[]> groupedQueries = new ArrayList<>();
+        Timestamp pickup;
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+            if (sql.contains("GROUP BY r.PickupLocationID")) {
+                groupedQueries.add(args);
+            }
+        }
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch) {
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> query(String sql, RowMapper<T> rowMapper, Object... args) {
+            return (List<T>) List.of(pickup);
+        }
+    }
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final LocationPerformanceService service = new LocationPerformanceService(jdbcTemplate);
+
+    @Test
+    void oneWayRentalsAreOutboundAtPickupAndInboundAtReturn() {
+        LocationPerformanceTable table = LocationPerformanceTable.builder()
+            .add(1, 1, 10, new BigDecimal("1000.00"), 10 * 24 * 60)
+            .add(1, 2, 4, new BigDecimal("600.00"), 4 * 48 * 60)
+            .add(2, 1, 1, null, 12 * 60)
+            .build();
+
+        LocationPerformanceTable.Totals first = table.get(1);
+        assertEquals(14, first.rentals());
+        assertEquals(new BigDecimal("1600.00"), first.revenue());
+        assertEquals(4, first.outbound());
+        assertEquals(1, first.inbound());
+        assertEquals(-3, first.netFlow());
+        // (10 x 24 + 4 x 48) / 14 saat
+        assertEquals(30.86, first.averageDurationHours());
+
+        LocationPerformanceTable.Totals second = table.get(2);
+        assertEquals(1, second.rentals());
+        assertEquals(BigDecimal.ZERO, second.revenue());
+        assertEquals(3, second.netFlow());
+        assertEquals(0, table.get(3).rentals());
+    }
+
+    @Test
+    void periodsMergeByAddition() {
+        LocationPerformanceTable march = LocationPerformanceTable.builder().add(1, 2, 2, new BigDecimal("100"), 120).build();
+        LocationPerformanceTable april = LocationPerformanceTable.builder().add(1, 1, 3, new BigDecimal("50"), 60).build();
+
+        LocationPerformanceTable merged = march.merge(april).merge(LocationPerformanceTable.empty());
+
+        assertEquals(5, merged.get(1).rentals());
+        assertEquals(new BigDecimal("150"), merged.get(1).revenue());
+        assertEquals(2, merged.get(1).outbound());
+        assertEquals(2, merged.get(2).inbound());
+        assertEquals(5, merged.getRentals());
+        // Kaynak tablolar değişmez
+        assertEquals(2, march.get(1).rentals());
+    }
+
+    @Test
+    void closedMonthsAreCachedAndOnlyTodayIsRequeried() {
+        YearMonth current = YearMonth.now();
+        LocalDate today = LocalDate.now();
+        int openMonthQueries = today.getDayOfMonth() == 1 ? 1 : 2;
+
+        service.getPerformance(current.minusMonths(2), current);
+        assertEquals(2 + openMonthQueries, jdbcTemplate.groupedQueries.size());
+
+        service.getPerformance(current.minusMonths(2), current);
+        assertEquals(2 + openMonthQueries, jdbcTemplate.groupedQueries.size());
+
+        jdbcTemplate.pickup = Timestamp.valueOf(today.atTime(9, 30));
+        service.onRentalChanged(new RentalChangedEvent(7, RentalChangedEvent.ChangeType.UPDATED));
+        service.getPerformance(current.minusMonths(2), current);
+
+        assertEquals(3 + openMonthQueries, jdbcTemplate.groupedQueries.size());
+        Object[] last = jdbcTemplate.groupedQueries.get(jdbcTemplate.groupedQueries.size() - 1);
+        assertEquals(Timestamp.valueOf(today.atStartOfDay()), last[0]);
+        assertEquals(Timestamp.valueOf(today.plusDays(1).atStartOfDay()), last[1]);
+
+        // Kapanmış aya düşen değişiklik önbelleği bozmaz
+        jdbcTemplate.pickup = Timestamp.valueOf(current.minusMonths(1).atDay(3).atStartOfDay());
+        service.onRentalChanged(new RentalChangedEvent(8, RentalChangedEvent.ChangeType.UPDATED));
+        service.getPerformance(current.minusMonths(2), current);
+
+        assertEquals(3 + openMonthQueries, jdbcTemplate.groupedQueries.size());
+        assertEquals(1L, service.getStats().get("lateChanges"));
+    }
+}
@@ -0,0 +1,152 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.PriceCalendarDto;
+import com.example.rentello.entity.Vehicle;
+import com.example.rentello.event.RentalChangedEvent;
+import com.example.rentello.repository.RentalRepository;
+import com.example.rentello.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PriceCalendarServiceTest {
+
+    private static final LocalDate FIRST = LocalDate.of(2025, 3, 3);
+
+    private final List<Object[]> bookedPeriods = new ArrayList<>();
+    private final AtomicInteger monthsBuilt = new AtomicInteger();
+
+    private PriceCalendarService service() {
+        VehicleRepository vehicles = proxy(VehicleRepository.class, Map.of("findById", args -> {
+            Vehicle vehicle = new Vehicle();
+            vehicle.setVehicleId((Integer) args[0]);
+            vehicle.setDailyRentalRate(new BigDecimal("100.00"));
+            return Optional.of(vehicle);
+        }));
+        RentalRepository rentals = proxy(RentalRepository.class, Map.of(
+            "findBookedPeriods", args -> {
+                monthsBuilt.incrementAndGet();
+                return bookedPeriods;
+            },
+            // Kiralama kimliği test için aracın kimliğiyle aynı
+            "findVehicleIdByRentalId", args -> Optional.of(args[0])));
+        PriceCalendarService service = new PriceCalendarService(new PricingService(), vehicles, rentals);
+        ReflectionTestUtils.setField(service, "cacheTtlSeconds", 300L);
+        return service;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R proxy(Class<R> type, Map<String, Function<Object[], Object>> answers) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            Function<Object[], Object> answer = answers.get(method.getName());
+            if (answer != null) {
+                return answer.apply(args);
+            }
+            throw new AssertionError("Unexpected repository call: " + method.getName());
+        });
+    }
+
+    private static List<PriceCalendarDto.CalendarDay> days(String... rates) {
+        List<PriceCalendarDto.CalendarDay> days = new ArrayList<>();
+        for (int i = 0; i < rates.length; i++) {
+            // "x" ile biten fiyat dolu günü gösterir
+            boolean booked = rates[i].endsWith("x");
+            days.add(new PriceCalendarDto.CalendarDay(FIRST.plusDays(i),
+                new BigDecimal(booked ? rates[i].substring(0, rates[i].length() - 1) : rates[i]),
+                !booked, false, false, false));
+        }
+        return days;
+    }
+
+    @Test
+    void cheapestWindowsSkipBookedDaysAndBreakTiesByStart() {
+        List<PriceCalendarDto.CalendarDay> days = days("100", "90", "50x", "80", "70", "80", "70", "120");
+
+        List<PriceCalendarDto.PriceWindow> windows = service().findCheapestWindows(days, 2, 3);
+
+        // 50'lik gün dolu olduğu için onu içeren pencereler aday değil
+        assertEquals(3, windows.size());
+        assertEquals(FIRST.plusDays(3), windows.get(0).getStartDate());
+        assertEquals(FIRST.plusDays(4), windows.get(0).getEndDate());
+        assertEquals(new BigDecimal("150.00"), windows.get(0).getTotalPrice());
+        assertEquals(new BigDecimal("75.00"), windows.get(0).getAverageRate());
+        assertEquals(FIRST.plusDays(4), windows.get(1).getStartDate());
+        assertEquals(FIRST.plusDays(5), windows.get(2).getStartDate());
+    }
+
+    @Test
+    void cheapestWindowsHandleDegenerateInputs() {
+        PriceCalendarService service = service();
+        List<PriceCalendarDto.CalendarDay> days = days("100", "90", "80");
+
+        assertTrue(service.findCheapestWindows(days, 4, 3).isEmpty());
+        assertTrue(service.findCheapestWindows(days, 2, 0).isEmpty());
+        assertTrue(service.findCheapestWindows(days("100", "90x", "80"), 2, 3).isEmpty());
+        assertEquals(1, service.findCheapestWindows(days, 3, 5).size());
+        assertEquals(new BigDecimal("270.00"), service.findCheapestWindows(days, 3, 5).get(0).getTotalPrice());
+    }
+
+    @Test
+    void calendarMarksBookedDaysUnavailable() {
+        bookedPeriods.add(new Object[] { LocalDateTime.of(2025, 2, 27, 10, 0), LocalDateTime.of(2025, 3, 2, 10, 0) });
+
+        PriceCalendarDto calendar = service().getCalendar(1, YearMonth.of(2025, 3), 1, 3, 2);
+
+        assertEquals(31, calendar.getDays().size());
+        assertFalse(calendar.getDays().get(1).isAvailable());
+        assertTrue(calendar.getDays().get(2).isAvailable());
+        calendar.getCheapestWindows()
+            .forEach(window -> assertTrue(window.getStartDate().isAfter(LocalDate.of(2025, 3, 2))));
+    }
+
+    @Test
+    void monthCacheEvictsTheOldestMonthAtCapacity() {
+        PriceCalendarService service = service();
+        YearMonth march = YearMonth.of(2025, 3);
+        for (int vehicleId = 1; vehicleId <= PriceCalendarService.MAX_CACHED_MONTHS + 1; vehicleId++) {
+            service.getCalendar(vehicleId, march, 1, 1, 1);
+        }
+        assertEquals(PriceCalendarService.MAX_CACHED_MONTHS, service.cachedMonths());
+
+        // Son eklenen ay önbellekte, ilk eklenen atıldı
+        int built = monthsBuilt.get();
+        service.getCalendar(PriceCalendarService.MAX_CACHED_MONTHS + 1, march, 1, 1, 1);
+        assertEquals(built, monthsBuilt.get());
+        service.getCalendar(1, march, 1, 1, 1);
+        assertEquals(built + 1, monthsBuilt.get());
+        assertEquals(PriceCalendarService.MAX_CACHED_MONTHS, service.cachedMonths());
+    }
+
+    @Test
+    void rentalChangesEvictTheMonthsOfTheirVehicle() {
+        PriceCalendarService service = service();
+        YearMonth march = YearMonth.of(2025, 3);
+        service.getCalendar(1, march, 1, 1, 1);
+        service.getCalendar(2, march, 1, 1, 1);
+        int built = monthsBuilt.get();
+
+        service.onRentalChanged(new RentalChangedEvent(1, RentalChangedEvent.ChangeType.CREATED));
+        service.getCalendar(1, march, 1, 1, 1);
+        service.getCalendar(2, march, 1, 1, 1);
+        assertEquals(built + 1, monthsBuilt.get());
+
+        // Silinen kiralamanın aracı bilinmediği için önbellek tümüyle boşalır
+        service.onRentalChanged(new RentalChangedEvent(7, RentalChangedEvent.ChangeType.DELETED));
+        assertEquals(0, service.cachedMonths());
+    }
+}
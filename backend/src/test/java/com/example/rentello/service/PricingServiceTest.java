@@ -0,0 +1,85 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingServiceTest {
+
+    private static final BigDecimal BASE = new BigDecimal("100.00");
+
+    private final PricingService service = new PricingService();
+
+    @Test
+    void dailyRateStacksEveryApplicableMultiplier() {
+        // Kış, hafta içi
+        assertEquals(new BigDecimal("90.00"), service.calculateDailyRate(BASE, LocalDate.of(2025, 2, 4)));
+        // İlkbahar/sonbahar, cumartesi
+        assertEquals(new BigDecimal("132.00"), service.calculateDailyRate(BASE, LocalDate.of(2025, 11, 8)));
+        // Yaz, Demokrasi Günü, yoğun dönem (salı)
+        assertEquals(new BigDecimal("273.00"), service.calculateDailyRate(BASE, LocalDate.of(2025, 7, 15)));
+        // Yaz, cumartesi, yoğun dönem
+        assertEquals(new BigDecimal("218.40"), service.calculateDailyRate(BASE, LocalDate.of(2025, 7, 19)));
+        // Kış, Yılbaşı, yoğun dönem, çarşamba
+        assertEquals(new BigDecimal("189.00"), service.calculateDailyRate(BASE, LocalDate.of(2025, 1, 1)));
+    }
+
+    @Test
+    void dynamicPriceIncludesBothEndDays() {
+        // Cuma 110.00 + cumartesi 132.00
+        assertEquals(new BigDecimal("242.00"),
+            service.calculateDynamicPrice(BASE, LocalDate.of(2025, 11, 7), LocalDate.of(2025, 11, 8)));
+        assertEquals(new BigDecimal("110.00"),
+            service.calculateDynamicPrice(BASE, LocalDate.of(2025, 11, 7), LocalDate.of(2025, 11, 7)));
+        assertEquals(BASE, service.calculateDynamicPrice(BASE, null, LocalDate.of(2025, 11, 7)));
+    }
+
+    @Test
+    void dailyPricesFlagTheAppliedMultipliers() {
+        List<PricingService.DailyPrice> prices =
+            service.getDailyPrices(BASE, LocalDate.of(2025, 7, 14), LocalDate.of(2025, 7, 15));
+
+        assertEquals(2, prices.size());
+        assertFalse(prices.get(0).isHoliday());
+        assertTrue(prices.get(0).isHighDemand());
+        assertTrue(prices.get(1).isHoliday());
+        assertFalse(prices.get(1).isWeekend());
+        assertEquals(service.calculateDailyRate(BASE, LocalDate.of(2025, 7, 15)), prices.get(1).getRate());
+    }
+
+    @Test
+    void candidateMultipliersReplaceTheLiveOnes() {
+        PricingService.Multipliers flatWeekend = service.getDefaultMultipliers();
+        flatWeekend.setWeekend(BigDecimal.ONE);
+
+        assertEquals(new BigDecimal("110.00"), service.calculateDailyRate(BASE, LocalDate.of(2025, 11, 8), flatWeekend));
+        // Kopya üzerinde yapılan değişiklik canlı fiyatı etkilemez
+        assertEquals(new BigDecimal("132.00"), service.calculateDailyRate(BASE, LocalDate.of(2025, 11, 8)));
+    }
+
+    @Test
+    void nonPositiveMultipliersAreRejected() {
+        assertDoesNotThrow(() -> service.getDefaultMultipliers().validate());
+
+        PricingService.Multipliers zero = service.getDefaultMultipliers();
+        zero.setHoliday(BigDecimal.ZERO);
+        RuntimeException error = assertThrows(RuntimeException.class, zero::validate);
+        assertTrue(error.getMessage().contains("holiday"));
+
+        PricingService.Multipliers negative = service.getDefaultMultipliers();
+        negative.setSummer(new BigDecimal("-1.3"));
+        assertThrows(RuntimeException.class, negative::validate);
+
+        PricingService.Multipliers missing = service.getDefaultMultipliers();
+        missing.setWeekend(null);
+        assertThrows(RuntimeException.class, missing::validate);
+    }
+}
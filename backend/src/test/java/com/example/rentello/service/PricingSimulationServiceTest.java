@@ -0,0 +1,177 @@
+package com.example.rentello.service;
+
+import com.example.rentello.dto.PricingSimulationResultDto;
+import com.example.rentello.entity.Location;
+import com.example.rentello.entity.VehicleCategory;
+import com.example.rentello.repository.LocationRepository;
+import com.example.rentello.repository.VehicleCategoryRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The prefix-sum replay must price every rental like the live per-day loop
+ */
+class PricingSimulationServiceTest {
+
+    private static final LocalDate FROM = LocalDate.of(2025, 7, 1);
+    private static final LocalDate TO = LocalDate.of(2025, 11, 30);
+
+    private final PricingService pricingService = new PricingService();
+    private final List<Object[]> rentals = new ArrayList<>();
+
+    private PricingSimulationService service() {
+        VehicleCategory economy = new VehicleCategory();
+        economy.setCategoryId(1);
+        economy.setCategoryName("Ekonomi");
+        VehicleCategory suv = new VehicleCategory();
+        suv.setCategoryId(2);
+        suv.setCategoryName("SUV");
+        Location airport = new Location();
+        airport.setLocationId(1);
+        airport.setLocationName("Havalimanı");
+
+        return new PricingSimulationService(new RowsJdbcTemplate(rentals), pricingService,
+            findAll(VehicleCategoryRepository.class, List.of(economy, suv)),
+            findAll(LocationRepository.class, List.of(airport)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <R> R findAll(Class<R> type, List<?> rows) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (method.getName().equals("findAll") && method.getParameterCount() == 0) {
+                return rows;
+            }
+            throw new AssertionError("Unexpected repository call: " + method.getName());
+        });
+    }
+
+    private void rental(LocalDate pickup, LocalDate dropoff, String rate, int categoryId, int locationId) {
+        rentals.add(new Object[] { Timestamp.valueOf(pickup.atTime(10, 0)), Timestamp.valueOf(dropoff.atTime(10, 0)),
+            new BigDecimal(rate), categoryId, locationId });
+    }
+
+    private BigDecimal livePrice(PricingService.Multipliers multipliers) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (Object[] row : rentals) {
+            LocalDate day = ((Timestamp) row[0]).toLocalDateTime().toLocalDate();
+            LocalDate last = ((Timestamp) row[1]).toLocalDateTime().toLocalDate();
+            for (; !day.isAfter(last); day = day.plusDays(1)) {
+                total = total.add(pricingService.calculateDailyRate((BigDecimal) row[2], day, multipliers));
+            }
+        }
+        return total;
+    }
+
+    @Test
+    void replayMatchesLivePricingForBaselineAndCandidate() {
+        // Yoğun dönem + Demokrasi Günü, hafta sonu, bilinmeyen kategori/lokasyon
+        rental(LocalDate.of(2025, 7, 14), LocalDate.of(2025, 7, 16), "100.00", 1, 1);
+        rental(LocalDate.of(2025, 11, 7), LocalDate.of(2025, 11, 9), "250.50", 2, 1);
+        rental(LocalDate.of(2025, 11, 29), LocalDate.of(2025, 12, 2), "80.00", 99, 7);
+
+        PricingService.Multipliers candidate = new PricingService.Multipliers();
+        candidate.setWeekend(BigDecimal.ONE);
+        candidate.setHighDemand(new BigDecimal("1.5"));
+        PricingSimulationResultDto result = service().simulate(FROM, TO, candidate);
+
+        PricingService.Multipliers effective = pricingService.getDefaultMultipliers();
+        effective.setWeekend(BigDecimal.ONE);
+        effective.setHighDemand(new BigDecimal("1.5"));
+        BigDecimal baseline = livePrice(pricingService.getDefaultMultipliers());
+        BigDecimal expected = livePrice(effective);
+
+        assertEquals(3L, result.getRentalsProcessed());
+        assertEquals(baseline, result.getTotal().getBaselineRevenue());
+        assertEquals(expected, result.getTotal().getCandidateRevenue());
+        assertEquals(expected.subtract(baseline), result.getTotal().getDelta());
+        assertEquals(0, result.getCandidateMultipliers().getHoliday().compareTo(new BigDecimal("1.5")));
+
+        assertEquals(1L, result.getByCategory().get("Ekonomi").getRentals());
+        assertEquals(1L, result.getByCategory().get("Diğer").getRentals());
+        assertEquals(2L, result.getByLocation().get("Havalimanı").getRentals());
+        assertEquals(1L, result.getByLocation().get("Diğer").getRentals());
+        assertEquals(5, result.getByMonth().size());
+        assertEquals(2L, result.getByMonth().get("2025-11").getRentals());
+        assertEquals(0L, result.getByMonth().get("2025-08").getRentals());
+    }
+
+    @Test
+    void unchangedMultipliersGiveNoDelta() {
+        rental(LocalDate.of(2025, 8, 1), LocalDate.of(2025, 8, 31), "199.99", 2, 1);
+
+        PricingSimulationResultDto result = service().simulate(FROM, TO, null);
+
+        assertEquals(0, result.getTotal().getDelta().signum());
+        assertEquals(livePrice(pricingService.getDefaultMultipliers()), result.getTotal().getBaselineRevenue());
+    }
+
+    @Test
+    void everyDayIsRoundedToTheCentLikeLiveQuotes() {
+        // Kesirli günlük fiyatlar: yuvarlanmamış toplam canlı tekliften kuruş kuruş sapar
+        for (int i = 0; i < 400; i++) {
+            LocalDate pickup = FROM.plusDays(i % 150);
+            rental(pickup, pickup.plusDays(1 + i % 9), BigDecimal.valueOf(1234 + i * 37L, 2).toPlainString(), 1 + i % 2, 1);
+        }
+        PricingService.Multipliers candidate = new PricingService.Multipliers();
+        candidate.setSummer(new BigDecimal("1.337"));
+        candidate.setWeekend(new BigDecimal("1.0725"));
+
+        PricingSimulationResultDto result = service().simulate(FROM, TO, candidate);
+
+        PricingService.Multipliers effective = pricingService.getDefaultMultipliers();
+        effective.setSummer(new BigDecimal("1.337"));
+        effective.setWeekend(new BigDecimal("1.0725"));
+        assertEquals(livePrice(pricingService.getDefaultMultipliers()), result.getTotal().getBaselineRevenue());
+        assertEquals(livePrice(effective), result.getTotal().getCandidateRevenue());
+    }
+
+    @Test
+    void nonPositiveCandidateMultipliersAreRejected() {
+        PricingService.Multipliers candidate = new PricingService.Multipliers();
+        candidate.setWinter(BigDecimal.ZERO);
+
+        RuntimeException error = assertThrows(RuntimeException.class, () -> service().simulate(FROM, TO, candidate));
+        assertTrue(error.getMessage().contains("winter"));
+        assertThrows(RuntimeException.class, () -> service().simulate(TO, FROM, null));
+    }
+
+    /**
+     * Streams the given rows through the row callback as the rental query would
+     */
+    private static final class RowsJdbcTemplate extends JdbcTemplate {
+
+        private final List<Object[]> rows;
+
+        RowsJdbcTemplate(List<Object[]> rows) {
+            this.rows = rows;
+        }
+
+        @Override
+        public void query(PreparedStatementCreator psc, RowCallbackHandler rch) {
+            for (Object[] row : rows) {
+                ResultSet rs = (ResultSet) Proxy.newProxyInstance(ResultSet.class.getClassLoader(),
+                    new Class<?>[] { ResultSet.class }, (proxy, method, args) -> row[(Integer) args[0] - 1]);
+                try {
+                    rch.processRow(rs);
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        }
+    }
+}
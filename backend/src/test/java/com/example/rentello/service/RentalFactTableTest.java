@@ -0,0 +1,151 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RentalFactTableTest {
+
+    private static final LocalDate MARCH = LocalDate.of(2025, 3, 3);
+
+    private static RentalFactTable.Fact fact(int id, String brand, String model, String pickup, String returned,
+                                             LocalDate day, double amount, double hours) {
+        return new RentalFactTable.Fact(id, brand, model, "SUV".equals(model) ? "SUV" : "Ekonomi", pickup,
+            pickup.startsWith("Istanbul") ? "Istanbul" : "Ankara", returned, "Tamamlandi", day, amount, hours);
+    }
+
+    private static RentalFactTable.Query query(List<RentalFactTable.Dimension> groupBy,
+                                               Map<RentalFactTable.Dimension, Set<String>> filters) {
+        return new RentalFactTable.Query(groupBy, filters, null, null,
+            List.of(RentalFactTable.Measure.COUNT, RentalFactTable.Measure.REVENUE), null, 0);
+    }
+
+    private final RentalFactTable table = new RentalFactTable();
+
+    @Test
+    void revenueByBrandByMonthForOneWayRentals() {
+        table.upsert(fact(1, "Renault", "Clio", "Istanbul Havalimani", "Ankara Merkez", MARCH, 1000, 48));
+        table.upsert(fact(2, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 700, 24));
+        table.upsert(fact(3, "Toyota", "Corolla", "Ankara Merkez", "Istanbul Havalimani", MARCH.plusMonths(1), 900, 72));
+        table.upsert(fact(4, "Renault", "Megane", "Ankara Merkez", "Istanbul Havalimani", MARCH.plusMonths(1), 400, 24));
+        table.upsert(fact(5, "Renault", "Clio", "Ankara Merkez", "Istanbul Havalimani", MARCH.plusMonths(1), 600, 24));
+
+        RentalFactTable.Result result = table.query(query(
+            List.of(RentalFactTable.Dimension.BRAND, RentalFactTable.Dimension.MONTH),
+            Map.of(RentalFactTable.Dimension.ONE_WAY, Set.of("true"))));
+
+        assertEquals(3, result.rows().size());
+        assertEquals(List.of("Renault", "2025-03"), result.rows().get(0).keys());
+        assertEquals(1000.0, result.rows().get(0).values()[1]);
+        assertEquals(List.of("Renault", "2025-04"), result.rows().get(1).keys());
+        assertEquals(2.0, result.rows().get(1).values()[0]);
+        assertEquals(1000.0, result.rows().get(1).values()[1]);
+        assertEquals(List.of("Toyota", "2025-04"), result.rows().get(2).keys());
+        assertEquals(4, result.matchedRows());
+    }
+
+    @Test
+    void derivedDimensionsAndDateRange() {
+        table.upsert(fact(1, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 100, 10));
+        table.upsert(fact(2, "Toyota", "SUV", "Istanbul Kadikoy", "Istanbul Kadikoy", MARCH.plusDays(1), 300, 30));
+        table.upsert(fact(3, "Toyota", "SUV", "Ankara Merkez", "Ankara Merkez", MARCH.plusDays(10), 500, 50));
+
+        RentalFactTable.Result byCity = table.query(new RentalFactTable.Query(List.of(RentalFactTable.Dimension.CITY),
+            Map.of(), MARCH, MARCH.plusDays(5), List.of(RentalFactTable.Measure.AVG_DURATION_HOURS), null, 0));
+        assertEquals(1, byCity.rows().size());
+        assertEquals(List.of("Istanbul"), byCity.rows().get(0).keys());
+        assertEquals(20.0, byCity.rows().get(0).values()[0]);
+
+        // 3 Mart 2025 Pazartesi
+        RentalFactTable.Result byWeekday = table.query(query(List.of(RentalFactTable.Dimension.DAY_OF_WEEK),
+            Map.of(RentalFactTable.Dimension.CATEGORY, Set.of("SUV"))));
+        assertEquals(List.of("THURSDAY", "TUESDAY"),
+            byWeekday.rows().stream().map(row -> row.keys().get(0)).toList());
+    }
+
+    @Test
+    void updatesAndDeletesApplyInPlace() {
+        table.upsert(fact(1, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 100, 10));
+        table.upsert(fact(2, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 200, 10));
+
+        table.upsert(fact(1, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 150, 10));
+        table.remove(2);
+
+        RentalFactTable.Result total = table.query(query(List.of(), Map.of()));
+        assertEquals(1, table.size());
+        assertEquals(1.0, total.rows().get(0).values()[0]);
+        assertEquals(150.0, total.rows().get(0).values()[1]);
+
+        table.upsert(fact(2, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 200, 10));
+        assertEquals(350.0, table.query(query(List.of(), Map.of())).rows().get(0).values()[1]);
+    }
+
+    @Test
+    void sparseRentalIdsAreFoundAgainForUpdatesAndDeletes() {
+        table.upsert(fact(0, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 100, 10));
+        table.upsert(fact(250_000, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 200, 10));
+        table.upsert(fact(250_000, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 300, 10));
+
+        assertEquals(2, table.size());
+        assertEquals(400.0, table.query(query(List.of(), Map.of())).rows().get(0).values()[1]);
+        assertTrue(table.remove(0));
+        assertFalse(table.remove(0));
+        assertFalse(table.remove(1));
+        assertFalse(table.remove(9_999_999));
+        assertEquals(1, table.size());
+        assertThrows(RuntimeException.class,
+            () -> table.upsert(fact(-1, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 1, 1)));
+    }
+
+    @Test
+    void unknownFilterValueMatchesNothing() {
+        table.upsert(fact(1, "Renault", "Clio", "Istanbul Havalimani", "Istanbul Havalimani", MARCH, 100, 10));
+
+        assertTrue(table.query(query(List.of(), Map.of(RentalFactTable.Dimension.BRAND, Set.of("Tesla")))).rows().isEmpty());
+        assertThrows(RuntimeException.class, () -> RentalFactTable.Dimension.from("colour"));
+    }
+
+    @Test
+    void parallelChunkScanMatchesSequentialTotals() {
+        Random random = new Random(7);
+        String[] brands = { "Renault", "Toyota", "Fiat", "BMW" };
+        String[] locations = { "Istanbul Havalimani", "Istanbul Kadikoy", "Ankara Merkez" };
+        Map<String, double[]> expected = new HashMap<>();
+        int rows = RentalFactTable.CHUNK_SIZE * 3 + 1234;
+        for (int id = 1; id <= rows; id++) {
+            String brand = brands[random.nextInt(brands.length)];
+            String pickup = locations[random.nextInt(locations.length)];
+            String returned = locations[random.nextInt(locations.length)];
+            LocalDate day = MARCH.plusDays(random.nextInt(400));
+            double amount = 100 + random.nextInt(900);
+            table.upsert(fact(id, brand, "Clio", pickup, returned, day, amount, 24));
+            if (!pickup.equals(returned)) {
+                double[] sums = expected.computeIfAbsent(brand + "|" + day.getYear(), key -> new double[2]);
+                sums[0]++;
+                sums[1] += amount;
+            }
+        }
+
+        RentalFactTable.Result result = table.query(query(
+            List.of(RentalFactTable.Dimension.BRAND, RentalFactTable.Dimension.YEAR),
+            Map.of(RentalFactTable.Dimension.ONE_WAY, Set.of("true"))));
+
+        assertEquals(expected.size(), result.rows().size());
+        for (RentalFactTable.Row row : result.rows()) {
+            double[] sums = expected.get(String.join("|", row.keys()));
+            assertEquals(sums[0], row.values()[0], Arrays.toString(row.values()));
+            assertEquals(sums[1], row.values()[1], 0.001);
+        }
+    }
+}
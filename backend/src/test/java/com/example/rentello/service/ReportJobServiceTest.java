@@ -0,0 +1,219 @@
+package com.example.rentello.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReportJobServiceTest {
+
+    private static class FakeReportService extends ReportService {
+        final AtomicInteger revenueRuns = new AtomicInteger();
+        final CountDownLatch started = new CountDownLatch(1);
+        volatile CountDownLatch release = new CountDownLatch(0);
+
+        FakeReportService() {
+            super(null, null, null, null, null, null, null);
+        }
+
+        @Override
+        public Map<String, Object> getRevenueReport(LocalDateTime startDate, LocalDateTime endDate) {
+            revenueRuns.incrementAndGet();
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return Map.of("totalRevenue", 1250, "startDate", startDate.toString());
+        }
+
+        @Override
+        public Map<String, Object> getFleetStatusReport() {
+            return Map.of("totalVehicles", 40);
+        }
+
+        @Override
+        public Map<String, Object> getCustomerReport() {
+            return Map.of("totalCustomers", 300);
+        }
+
+        @Override
+        public Map<String, Object> getMaintenanceReport() {
+            return Map.of("scheduledMaintenance", 8);
+        }
+
+        @Override
+        public Map<String, Object> getLocationPerformanceReport() {
+            return Map.of("totalLocations", 3);
+        }
+    }
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 1, 1, 0, 0);
+    private static final ReportJobService.Params JANUARY = new ReportJobService.Params(START, START.plusMonths(1), null, null);
+
+    @TempDir
+    Path cacheDir;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final FakeReportService reports = new FakeReportService();
+    private ReportResultCache cache;
+    private ReportJobService service;
+
+    private ReportJobService service(int workers, int queueSize) {
+        cache = new ReportResultCache(cacheDir.toString(), 60, objectMapper);
+        service = new ReportJobService(reports, cache, workers, queueSize, 60);
+        return service;
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        if (service != null) {
+            service.shutdown();
+            // Geçici dizin silinmeden önce yazmakta olan işçi bitmeli
+            ThreadPoolExecutor workers = (ThreadPoolExecutor) ReflectionTestUtils.getField(service, "workers");
+            assertTrue(workers.awaitTermination(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private ReportJobService.JobView await(ReportJobService service, String id) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        ReportJobService.JobView job = service.getJob(id).orElseThrow();
+        while (job.finishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+            job = service.getJob(id).orElseThrow();
+        }
+        return job;
+    }
+
+    private String read(Path file) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cache.copyTo(file, false, out);
+        return out.toString();
+    }
+
+    @Test
+    void analyticsJobRunsEveryStepAndWritesACompressedResult() throws Exception {
+        ReportJobService service = service(2, 10);
+
+        ReportJobService.JobView submitted = service.submit(ReportJobService.ReportType.ADVANCED_ANALYTICS, JANUARY);
+        ReportJobService.JobView done = await(service, submitted.id());
+
+        assertEquals(ReportJobService.Status.COMPLETED, done.status());
+        assertEquals(100, done.progress());
+        Path result = service.getResult(done.id());
+        assertTrue(result.getFileName().toString().endsWith(".json.gz"));
+        Map<?, ?> sections = objectMapper.readValue(read(result), Map.class);
+        assertEquals(List.of("revenue", "fleet", "customers", "maintenance", "locations"),
+            new ArrayList<>(sections.keySet()));
+    }
+
+    @Test
+    void repeatedPastPeriodIsServedFromDisk() throws Exception {
+        ReportJobService service = service(1, 10);
+
+        await(service, service.submit(ReportJobService.ReportType.REVENUE, JANUARY).id());
+        ReportJobService.JobView repeated = service.submit(ReportJobService.ReportType.REVENUE,
+            new ReportJobService.Params(START, START.plusMonths(1), null, null));
+
+        assertEquals(ReportJobService.Status.COMPLETED, repeated.status());
+        assertTrue(repeated.fromCache());
+        assertEquals(1, reports.revenueRuns.get());
+        assertTrue(read(service.getResult(repeated.id())).contains("1250"));
+
+        // Bitmemiş dönem her seferinde yeniden hesaplanır
+        ReportJobService.Params open = new ReportJobService.Params(LocalDateTime.now().minusDays(2),
+            LocalDateTime.now().plusDays(1), null, null);
+        await(service, service.submit(ReportJobService.ReportType.REVENUE, open).id());
+        await(service, service.submit(ReportJobService.ReportType.REVENUE, open).id());
+        assertEquals(3, reports.revenueRuns.get());
+
+        // Eksik sınır "şimdi"ye göre doldurulacağından kabul edilmez
+        assertThrows(RuntimeException.class, () -> service.submit(ReportJobService.ReportType.REVENUE,
+            new ReportJobService.Params(null, START.plusMonths(1), null, null)));
+        assertThrows(RuntimeException.class, () -> service.submit(ReportJobService.ReportType.ADVANCED_ANALYTICS,
+            new ReportJobService.Params(START, null, null, null)));
+    }
+
+    @Test
+    void snapshotSectionsKeepAnalyticsOutOfTheCache() throws Exception {
+        ReportJobService service = service(1, 10);
+
+        await(service, service.submit(ReportJobService.ReportType.ADVANCED_ANALYTICS, JANUARY).id());
+        ReportJobService.JobView repeated = service.submit(ReportJobService.ReportType.ADVANCED_ANALYTICS, JANUARY);
+
+        assertFalse(repeated.fromCache());
+        await(service, repeated.id());
+        assertEquals(2, reports.revenueRuns.get());
+    }
+
+    @Test
+    void runningAndQueuedJobsCanBeCancelled() throws Exception {
+        ReportJobService service = service(1, 10);
+        reports.release = new CountDownLatch(1);
+
+        ReportJobService.JobView running = service.submit(ReportJobService.ReportType.ADVANCED_ANALYTICS, JANUARY);
+        assertTrue(reports.started.await(5, TimeUnit.SECONDS));
+        ReportJobService.JobView queued = service.submit(ReportJobService.ReportType.FLEET_STATUS, JANUARY);
+        assertEquals(ReportJobService.Status.QUEUED, queued.status());
+
+        assertEquals(ReportJobService.Status.CANCELLED, service.cancel(queued.id()).status());
+        service.cancel(running.id());
+        reports.release.countDown();
+
+        assertEquals(ReportJobService.Status.CANCELLED, await(service, running.id()).status());
+        assertThrows(RuntimeException.class, () -> service.getResult(running.id()));
+        // İptal edilen işin sonucu önbelleğe yazılmaz
+        assertTrue(service.submit(ReportJobService.ReportType.ADVANCED_ANALYTICS, JANUARY).status()
+            != ReportJobService.Status.COMPLETED);
+    }
+
+    @Test
+    void fullQueueRejectsNewJobs() throws Exception {
+        ReportJobService service = service(1, 1);
+        reports.release = new CountDownLatch(1);
+
+        service.submit(ReportJobService.ReportType.REVENUE, JANUARY);
+        assertTrue(reports.started.await(5, TimeUnit.SECONDS));
+        service.submit(ReportJobService.ReportType.CUSTOMERS, JANUARY);
+
+        RuntimeException rejected = assertThrows(RuntimeException.class,
+            () -> service.submit(ReportJobService.ReportType.FLEET_STATUS, JANUARY));
+        assertTrue(rejected.getMessage().contains("queue is full"));
+        reports.release.countDown();
+    }
+
+    @Test
+    void expiredResultsAreEvicted() throws Exception {
+        ReportJobService service = service(1, 10);
+        ReportJobService.JobView done = await(service, service.submit(ReportJobService.ReportType.REVENUE, JANUARY).id());
+        Path result = service.getResult(done.id());
+
+        Files.setLastModifiedTime(result, FileTime.fromMillis(System.currentTimeMillis() - TimeUnit.HOURS.toMillis(2)));
+
+        assertEquals(1, cache.evictExpired());
+        assertTrue(Files.notExists(result));
+        assertThrows(RuntimeException.class, () -> service.getResult(done.id()));
+    }
+}
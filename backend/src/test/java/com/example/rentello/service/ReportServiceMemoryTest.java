@@ -0,0 +1,129 @@
+package com.example.rentello.service;
+
+import com.example.rentello.repository.PaymentRepository;
+import com.example.rentello.repository.RentalRepository;
+import com.example.rentello.repository.UserRepository;
+import com.example.rentello.repository.VehicleRepository;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Reports over 1M rentals must only issue aggregate queries; any repository method returning entities
+ * fails the test, and the heap allocated while building every report stays far below one entity page
+ */
+class ReportServiceMemoryTest {
+
+    private static final long ROWS = 1_000_000L;
+
+    private static final LocationPerformanceService.Report LOCATIONS = new LocationPerformanceService.Report(
+        YearMonth.now(), YearMonth.now(), List.of(new LocationPerformanceService.LocationRow(1, "Istanbul Havalimani",
+            "Istanbul", true, ROWS, new BigDecimal("125000000.00"), 52.5, 1200, 900, -300, 400)));
+
+    private final List<String> calls = new ArrayList<>();
+
+    @SuppressWarnings("unchecked")
+    private <R> R repository(Class<R> type) {
+        return (R) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, (proxy, method, args) -> {
+            if (method.getDeclaringClass() == Object.class) {
+                return method.invoke(this, args);
+            }
+            calls.add(type.getSimpleName() + "." + method.getName());
+            Class<?> returnType = method.getReturnType();
+            if (returnType == long.class || returnType == Long.class) {
+                return ROWS;
+            }
+            return switch (method.getName()) {
+                case "summarizeByDateRange" -> List.<Object[]>of(new Object[] { ROWS, new BigDecimal("125000000.00") });
+                case "countGroupedByStatus" -> List.of(new Object[] { "Musait", 600_000L },
+                    new Object[] { "Bakimda", 300_000L }, new Object[] { "Hasarli", 100_000L });
+                default -> throw new AssertionError("Report loaded entities through " + method.getName()
+                    + " (returns " + returnType.getSimpleName() + ")");
+            };
+        });
+    }
+
+    private ReportService service() {
+        return new ReportService(repository(RentalRepository.class), repository(VehicleRepository.class),
+            repository(PaymentRepository.class), repository(UserRepository.class), new UtilizationService(null, 1) {
+                @Override
+                public double getFleetUtilization(int days) {
+                    return 62.5;
+                }
+            }, new LocationPerformanceService(null) {
+                @Override
+                public Report getPerformance(YearMonth from, YearMonth to) {
+                    return LOCATIONS;
+                }
+            }, new CustomerAnalyticsService(null, null, 1) {
+                @Override
+                public long getNewCustomers(YearMonth month) {
+                    return 42;
+                }
+
+                @Override
+                public Map<String, Long> getSegmentCounts() {
+                    return Map.of("champions", 10L);
+                }
+            });
+    }
+
+    @Test
+    void reportsOnlyIssueAggregateQueries() {
+        ReportService service = service();
+
+        Map<String, Object> summary = service.getDashboardSummary();
+        Map<String, Object> analytics = service.getAdvancedAnalytics(LocalDateTime.now().minusDays(30), LocalDateTime.now());
+        service.getVehicleUtilizationReport();
+
+        assertEquals(ROWS, summary.get("totalRentals"));
+        Map<?, ?> revenue = (Map<?, ?>) analytics.get("revenue");
+        assertEquals(ROWS, revenue.get("totalTransactions"));
+        assertEquals(new BigDecimal("125000000.00"), revenue.get("totalRevenue"));
+        Map<?, ?> fleet = (Map<?, ?>) analytics.get("fleet");
+        assertEquals(ROWS, fleet.get("totalVehicles"));
+        assertEquals(300_000L, fleet.get("maintenanceVehicles"));
+        Map<?, ?> customers = (Map<?, ?>) analytics.get("customers");
+        assertEquals(42L, customers.get("newCustomersThisMonth"));
+        assertTrue(calls.stream().noneMatch(call -> call.endsWith("findAll")), calls.toString());
+    }
+
+    @Test
+    void reportsRunInConstantMemory() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        assumeTrue(threads.isThreadAllocatedMemorySupported());
+        threads.setThreadAllocatedMemoryEnabled(true);
+
+        ReportService service = service();
+        // Sınıf yükleme ve proxy ısınması ölçüme girmesin
+        runAllReports(service);
+
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10; i++) {
+            runAllReports(service);
+        }
+        long perRun = (threads.getThreadAllocatedBytes(threadId) - before) / 10;
+
+        // 1M Rental entity'si yüzlerce MB tutardı; projeksiyonlarla birkaç KB kalır
+        assertTrue(perRun < 256 * 1024, "allocated " + perRun + " bytes per run");
+    }
+
+    private static void runAllReports(ReportService service) {
+        service.getDashboardSummary();
+        service.getAdvancedAnalytics(null, null);
+        service.getVehicleUtilizationReport();
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevenueLedgerTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 3, 1);
+
+    private final RevenueLedger ledger = new RevenueLedger(START, START.plusMonths(1));
+
+    private static RevenueLedger.Contribution payment(int day, int location, int category, String amount) {
+        return new RevenueLedger.Contribution(START.plusDays(day - 1), location, category, new BigDecimal(amount));
+    }
+
+    @Test
+    void createdUpdatedAndDeletedPaymentsMoveTheirContribution() {
+        assertTrue(ledger.apply(1, payment(1, 10, 1, "100.00")));
+        assertTrue(ledger.apply(2, payment(2, 10, 2, "50.00")));
+        assertEquals(new BigDecimal("150.00"), ledger.getTotal());
+
+        // Tutar ve lokasyon değişti
+        assertTrue(ledger.apply(1, payment(1, 20, 1, "120.00")));
+        assertEquals(new BigDecimal("170.00"), ledger.getTotal());
+        assertEquals(Map.of(10, new BigDecimal("50.00"), 20, new BigDecimal("120.00")), ledger.getByLocation());
+
+        // Ödeme iptal edildi veya silindi
+        assertTrue(ledger.apply(2, null));
+        assertEquals(new BigDecimal("120.00"), ledger.getTotal());
+        assertEquals(1, ledger.getCount());
+        assertEquals(1, ledger.getCells().size());
+    }
+
+    @Test
+    void replayedEventsDoNotDoubleCount() {
+        ledger.apply(1, payment(3, 10, 1, "80.00"));
+        assertFalse(ledger.apply(1, payment(3, 10, 1, "80.00")));
+        assertFalse(ledger.apply(7, null));
+
+        assertEquals(new BigDecimal("80.00"), ledger.getTotal());
+        assertEquals(1, ledger.getCount());
+    }
+
+    @Test
+    void paymentsOutsideThePeriodAreNotCounted() {
+        ledger.apply(1, payment(5, 10, 1, "60.00"));
+        // Tarihi önceki aya çekilen ödeme açık dönemden çıkar
+        assertTrue(ledger.apply(1, new RevenueLedger.Contribution(START.minusDays(1), 10, 1, new BigDecimal("60.00"))));
+        assertFalse(ledger.apply(2, new RevenueLedger.Contribution(START.plusMonths(1), 10, 1, new BigDecimal("10.00"))));
+
+        assertEquals(0, ledger.getTotal().signum());
+        assertEquals(0, ledger.getCount());
+    }
+
+    @Test
+    void dayAndMonthToDateTotals() {
+        ledger.apply(1, payment(1, 10, 1, "100.00"));
+        ledger.apply(2, payment(10, 10, 1, "40.00"));
+        ledger.apply(3, payment(10, 11, 2, "60.00"));
+        ledger.apply(4, payment(20, 11, 2, "25.00"));
+
+        assertEquals(new BigDecimal("100.00"), ledger.getDay(START.plusDays(9)));
+        assertEquals(new BigDecimal("125.00"), ledger.getTotalSince(START.plusDays(9)));
+        assertEquals(BigDecimal.ZERO, ledger.getDay(START.plusDays(2)));
+        assertEquals(Map.of(1, new BigDecimal("140.00"), 2, new BigDecimal("85.00")), ledger.getByCategory());
+    }
+
+    @Test
+    void cellsCompareByValueNotScale() {
+        RevenueLedger.Cell cell = new RevenueLedger.Cell(2, new BigDecimal("100.0"));
+
+        assertTrue(cell.sameAs(new RevenueLedger.Cell(2, new BigDecimal("100.00"))));
+        assertFalse(cell.sameAs(new RevenueLedger.Cell(3, new BigDecimal("100.00"))));
+        assertFalse(cell.sameAs(null));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.example.rentello.service.SearchFixtures.sortedIds;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SavedSearchMatcherTest {
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 6, 1, 10, 0);
+
+    private static SavedSearchMatcher.Query query(int id, String city, String category, int fromDay, int toDay, String maxRate) {
+        return SavedSearchMatcher.Query.of(id, 100 + id, city, category, DAY.plusDays(fromDay), DAY.plusDays(toDay),
+                maxRate != null ? new BigDecimal(maxRate) : null);
+    }
+
+    @Test
+    void matchesExactAndAnyBuckets() {
+        SavedSearchMatcher matcher = new SavedSearchMatcher();
+        matcher.replaceAll(List.of(
+                query(1, "İstanbul", "SUV", 0, 3, null),
+                query(2, "Istanbul", null, 0, 3, null),
+                query(3, null, "suv", 0, 3, null),
+                query(4, null, null, 0, 3, null),
+                query(5, "Ankara", "SUV", 0, 3, null),
+                query(6, "İstanbul", "Sedan", 0, 3, null)));
+
+        SavedSearchMatcher.Match match = matcher.match("İstanbul", "SUV", new BigDecimal("900"), DAY, DAY.plusDays(5));
+
+        assertEquals(List.of(1, 2, 3, 4), sortedIds(match.matches(), SavedSearchMatcher.Query::id));
+        assertEquals(4, match.examined());
+    }
+
+    @Test
+    void skipsSearchesWhoseMaxRateIsBelowVehicleRate() {
+        SavedSearchMatcher matcher = new SavedSearchMatcher();
+        matcher.replaceAll(List.of(
+                query(1, "Izmir", "SUV", 0, 3, "500"),
+                query(2, "Izmir", "SUV", 0, 3, "750.00"),
+                query(3, "Izmir", "SUV", 0, 3, "1200"),
+                query(4, "Izmir", "SUV", 0, 3, null)));
+
+        SavedSearchMatcher.Match match = matcher.match("Izmir", "SUV", new BigDecimal("750"), DAY, DAY.plusDays(5));
+
+        assertEquals(List.of(2, 3, 4), sortedIds(match.matches(), SavedSearchMatcher.Query::id));
+        assertEquals(3, match.examined());
+    }
+
+    @Test
+    void requiresDateOverlapWithFreedWindow() {
+        SavedSearchMatcher matcher = new SavedSearchMatcher();
+        matcher.replaceAll(List.of(
+                query(1, "Izmir", "SUV", 0, 2, null),
+                query(2, "Izmir", "SUV", 4, 6, null),
+                query(3, "Izmir", "SUV", 10, 12, null),
+                query(4, "Izmir", "SUV", -3, 1, null)));
+
+        SavedSearchMatcher.Match match = matcher.match("Izmir", "SUV", new BigDecimal("100"),
+                DAY.plusDays(1), DAY.plusDays(5));
+
+        assertEquals(List.of(1, 2), sortedIds(match.matches(), SavedSearchMatcher.Query::id));
+    }
+
+    @Test
+    void putReplacesAndRemoveUnlinks() {
+        SavedSearchMatcher matcher = new SavedSearchMatcher();
+        matcher.put(query(1, "Izmir", "SUV", 0, 3, null));
+        matcher.put(query(1, "Ankara", "SUV", 0, 3, null));
+        matcher.put(query(2, "Izmir", "SUV", 0, 3, null));
+
+        assertEquals(2, matcher.size());
+        assertEquals(List.of(2), sortedIds(matcher.match("Izmir", "SUV", BigDecimal.TEN, DAY, DAY.plusDays(1)).matches(),
+                SavedSearchMatcher.Query::id));
+
+        matcher.remove(2);
+        matcher.remove(99);
+
+        assertEquals(1, matcher.size());
+        assertTrue(matcher.match("Izmir", "SUV", BigDecimal.TEN, DAY, DAY.plusDays(1)).matches().isEmpty());
+        assertEquals(List.of(1), sortedIds(matcher.match("Ankara", "SUV", BigDecimal.TEN, DAY, DAY.plusDays(1)).matches(),
+                SavedSearchMatcher.Query::id));
+    }
+
+    @Test
+    void examinesOnlyCandidateBucketsAtScale() {
+        String[] cities = { "Istanbul", "Ankara", "Izmir", "Bursa", "Antalya", "Adana", "Konya", "Trabzon" };
+        String[] categories = { "Ekonomi", "Orta", "SUV", "Lüks", "Van" };
+        List<SavedSearchMatcher.Query> queries = new ArrayList<>();
+        for (int i = 0; i < 200_000; i++) {
+            queries.add(query(i, cities[i % cities.length], categories[(i / cities.length) % categories.length],
+                    i % 30, i % 30 + 3, String.valueOf(300 + (i / 40 % 20) * 50)));
+        }
+        SavedSearchMatcher matcher = new SavedSearchMatcher();
+        matcher.replaceAll(queries);
+
+        long start = System.nanoTime();
+        SavedSearchMatcher.Match match = matcher.match("Izmir", "SUV", new BigDecimal("1000"), DAY, DAY.plusDays(7));
+        long micros = (System.nanoTime() - start) / 1000;
+
+        long bucket = queries.stream()
+                .filter(q -> q.city().equals("Izmir") && q.category().equals("SUV"))
+                .count();
+        assertTrue(match.examined() < bucket, "examined " + match.examined() + " of " + bucket);
+        assertTrue(match.examined() < queries.size() / 40);
+        assertTrue(match.matches().stream().allMatch(q -> q.maxRateCents() >= 100_000
+                && q.pickupDate().isBefore(DAY.plusDays(7)) && q.returnDate().isAfter(DAY)));
+        assertTrue(micros < 200_000, "match took " + micros + " µs");
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.rentello.service;
+
+import com.example.rentello.repository.FleetProjectionRepository;
+import com.example.rentello.repository.FleetProjectionRepository.VehicleRow;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Row factories and id helpers shared by the in-memory index tests
+ */
+final class SearchFixtures {
+
+    private SearchFixtures() {
+    }
+
+    /**
+     * Fleet row with the fields the facet and snapshot tests vary; the rest is a fixed white economy car
+     */
+    static VehicleRow vehicleRow(int id, String city, String brand, String fuel, String rate,
+                                 int mileage, int year, int seats, boolean available) {
+        return new VehicleRow(id, "34 AA " + id, brand, "Model", "Ekonomi", "Beyaz", mileage,
+                new BigDecimal(rate), available ? "Musait" : "Kiralandi", available, "Merkez", city,
+                year, fuel, "Manuel", seats);
+    }
+
+    /**
+     * Ids in result order
+     */
+    static <T> List<Integer> ids(Collection<? extends T> items, Function<? super T, Integer> id) {
+        return items.stream().map(id).toList();
+    }
+
+    /**
+     * Ids in ascending order, for results whose order is not part of the contract
+     */
+    static <T> List<Integer> sortedIds(Collection<? extends T> items, Function<? super T, Integer> id) {
+        return items.stream().map(id).sorted().toList();
+    }
+
+    /**
+     * Fleet projection served from a map. The full load takes its snapshot before running the hook,
+     * so a test can commit changes while a rebuild is loading.
+     */
+    static final class FleetTable extends FleetProjectionRepository {
+
+        final Map<Integer, VehicleRow> rows = new TreeMap<>();
+        Runnable duringFullLoad = () -> { };
+
+        FleetTable() {
+            super(null);
+        }
+
+        @Override
+        public List<VehicleRow> findAll() {
+            List<VehicleRow> snapshot = List.copyOf(rows.values());
+            Runnable hook = duringFullLoad;
+            duringFullLoad = () -> { };
+            hook.run();
+            return snapshot;
+        }
+
+        @Override
+        public Optional<VehicleRow> findById(Integer vehicleId) {
+            return Optional.ofNullable(rows.get(vehicleId));
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimeSeriesServiceTest {
+
+    private static class RecordingJdbcTemplate extends JdbcTemplate {
+        final List<String> statements = new ArrayList<>();
+
+        @Override
+        public void query(String sql, RowCallbackHandler rch, Object... args) {
+            statements.add(sql);
+        }
+    }
+
+    private final RecordingJdbcTemplate jdbcTemplate = new RecordingJdbcTemplate();
+    private final TimeSeriesService service = new TimeSeriesService(jdbcTemplate);
+
+    @Test
+    void bucketsAlignWithSqlServerExpressions() {
+        LocalDateTime time = LocalDateTime.of(2025, 3, 13, 17, 45, 12);
+
+        assertEquals(LocalDateTime.of(2025, 3, 13, 17, 0), TimeBucket.HOUR.truncate(time));
+        assertEquals(LocalDateTime.of(2025, 3, 13, 0, 0), TimeBucket.DAY.truncate(time));
+        // 13 Mart 2025 Perşembe; hafta Pazartesi başlar
+        assertEquals(LocalDateTime.of(2025, 3, 10, 0, 0), TimeBucket.WEEK.truncate(time));
+        assertEquals(LocalDateTime.of(2025, 3, 1, 0, 0), TimeBucket.MONTH.truncate(time));
+        assertEquals(LocalDateTime.of(2025, 4, 1, 0, 0), TimeBucket.MONTH.ceil(time));
+        assertEquals(LocalDateTime.of(2025, 3, 1, 0, 0), TimeBucket.MONTH.ceil(LocalDateTime.of(2025, 3, 1, 0, 0)));
+    }
+
+    @Test
+    void missingBucketsAreZeroFilled() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        Map<LocalDateTime, BigDecimal> filled = TimeBucket.DAY.zeroFill(
+            Map.of(from.plusDays(2), new BigDecimal("5")), from, from.plusDays(5));
+
+        assertEquals(List.of(from, from.plusDays(1), from.plusDays(2), from.plusDays(3), from.plusDays(4)),
+            new ArrayList<>(filled.keySet()));
+        assertEquals(new BigDecimal("5"), filled.get(from.plusDays(2)));
+        assertEquals(BigDecimal.ZERO, filled.get(from.plusDays(4)));
+    }
+
+    @Test
+    void weekOfDailyTotalsIsOneSargableQuery() {
+        Map<LocalDate, BigDecimal> totals = service.getDailyTotals(TimeSeriesService.Metric.REVENUE,
+            LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 7));
+
+        assertEquals(1, jdbcTemplate.statements.size());
+        String sql = jdbcTemplate.statements.get(0);
+        assertTrue(sql.contains("WHERE p.PaymentDate >= ? AND p.PaymentDate < ?"), sql);
+        assertTrue(sql.contains("GROUP BY"), sql);
+        assertFalse(sql.contains("JOIN"), sql);
+        assertEquals(7, totals.size());
+        totals.values().forEach(value -> assertEquals(BigDecimal.ZERO, value));
+    }
+
+    @Test
+    void longRangesArePagedWithoutMoreQueriesPerPage() {
+        ReflectionTestUtils.setField(service, "maxBuckets", 24);
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(3);
+
+        List<TimeSeriesService.TimeSeries> pages = new ArrayList<>();
+        LocalDateTime next = from;
+        while (next != null) {
+            TimeSeriesService.TimeSeries page = service.getSeries(TimeSeriesService.Metric.RENTALS, TimeBucket.HOUR,
+                next, to, null, null, TimeSeriesService.Dimension.NONE);
+            pages.add(page);
+            next = page.nextFrom();
+        }
+
+        assertEquals(3, pages.size());
+        assertEquals(3, jdbcTemplate.statements.size());
+        pages.forEach(page -> assertEquals(24, page.series().get(0).points().size()));
+        assertNull(pages.get(2).nextFrom());
+        assertEquals(to, pages.get(2).to());
+    }
+
+    @Test
+    void dimensionsAddOnlyTheJoinsTheyNeed() {
+        List<Object> params = new ArrayList<>();
+        String sql = TimeSeriesService.buildSql(TimeSeriesService.Metric.REVENUE, TimeBucket.MONTH,
+            LocalDateTime.of(2025, 1, 1, 0, 0), LocalDateTime.of(2026, 1, 1, 0, 0),
+            3, null, TimeSeriesService.Dimension.CATEGORY, params);
+
+        assertTrue(sql.contains("JOIN Rentals r ON r.RentalID = p.RentalID"), sql);
+        assertTrue(sql.contains("JOIN VehicleCategories vc"), sql);
+        assertFalse(sql.contains("JOIN Locations"), sql);
+        assertTrue(sql.contains("AND r.PickupLocationID = ?"), sql);
+        assertTrue(sql.endsWith("GROUP BY DATEADD(MONTH, DATEDIFF(MONTH, 0, p.PaymentDate), 0), vm.CategoryID, vc.CategoryName"), sql);
+        assertEquals(3, params.size());
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static com.example.rentello.service.SearchFixtures.ids;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypeaheadTrieTest {
+
+    private static TypeaheadTrie.Entry entry(int id, String label, int weight) {
+        return new TypeaheadTrie.Entry(id, label, null, weight);
+    }
+
+    @Test
+    void prefixEndingInsideAnEdgeMatchesTheWholeSubtree() {
+        TypeaheadTrie trie = new TypeaheadTrie();
+        trie.put(entry(1, "34 ABC 123", 1), Set.of("34 abc 123", "34abc123"));
+        trie.put(entry(2, "34 ABD 456", 5), Set.of("34 abd 456", "34abd456"));
+        trie.put(entry(3, "06 XYZ 01", 9), Set.of("06 xyz 01", "06xyz01"));
+
+        assertEquals(List.of(2, 1), ids(trie.suggest("34", 10), TypeaheadTrie.Entry::id));
+        assertEquals(List.of(2, 1), ids(trie.suggest("34 ab", 10), TypeaheadTrie.Entry::id));
+        assertEquals(List.of(1), ids(trie.suggest("34abc", 10), TypeaheadTrie.Entry::id));
+        assertEquals(List.of(), ids(trie.suggest("34x", 10), TypeaheadTrie.Entry::id));
+        assertEquals(List.of(3, 2, 1), ids(trie.suggest("", 10), TypeaheadTrie.Entry::id));
+    }
+
+    @Test
+    void entryReachableFromSeveralKeysIsReturnedOnce() {
+        TypeaheadTrie trie = new TypeaheadTrie();
+        trie.put(entry(1, "Ali Alkan", 3), TypeaheadService.wordSuffixes("ali alkan"));
+
+        assertEquals(List.of(1), ids(trie.suggest("al", 10), TypeaheadTrie.Entry::id));
+    }
+
+    @Test
+    void updatesAndRemovalsRefreshCachedTops() {
+        TypeaheadTrie trie = new TypeaheadTrie();
+        trie.put(entry(1, "Yilmaz", 1), Set.of("yilmaz"));
+        trie.put(entry(2, "Yildiz", 2), Set.of("yildiz"));
+        assertEquals(List.of(2, 1), ids(trie.suggest("yil", 10), TypeaheadTrie.Entry::id));
+
+        trie.put(entry(1, "Yilmaz", 10), Set.of("yilmaz"));
+        assertEquals(List.of(1, 2), ids(trie.suggest("yil", 10), TypeaheadTrie.Entry::id));
+
+        trie.put(entry(2, "Kaya", 2), Set.of("kaya"));
+        assertEquals(List.of(1), ids(trie.suggest("yil", 10), TypeaheadTrie.Entry::id));
+        assertEquals(List.of(2), ids(trie.suggest("k", 10), TypeaheadTrie.Entry::id));
+
+        trie.remove(1);
+        assertEquals(List.of(), ids(trie.suggest("y", 10), TypeaheadTrie.Entry::id));
+        assertEquals(1, trie.size());
+    }
+
+    @Test
+    void topSuggestionsAreBoundedAndRankedByWeight() {
+        TypeaheadTrie trie = new TypeaheadTrie();
+        for (int i = 0; i < 50_000; i++) {
+            trie.put(entry(i, "Customer " + i, i % 1000), Set.of("customer " + i));
+        }
+
+        List<TypeaheadTrie.Entry> top = trie.suggest("customer 1", 5);
+        assertEquals(5, top.size());
+        assertTrue(top.stream().allMatch(e -> e.weight() == 999));
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            trie.suggest("customer " + (i % 100), 5);
+        }
+        long avgNanos = (System.nanoTime() - start) / 10_000;
+        assertTrue(avgNanos < 1_000_000, "average lookup took " + avgNanos + " ns");
+    }
+
+    @Test
+    void normalizeFoldsTurkishLettersAndWhitespace() {
+        assertEquals("sahin ozturk", TypeaheadService.normalize("  ŞAHİN   Öztürk "));
+        assertEquals(Set.of("ahmet can yilmaz", "can yilmaz", "yilmaz"), TypeaheadService.wordSuffixes("ahmet can yilmaz"));
+    }
+}
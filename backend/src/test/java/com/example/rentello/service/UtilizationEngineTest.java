@@ -0,0 +1,106 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class UtilizationEngineTest {
+
+    private static final long DAY = 86_400L;
+
+    @Test
+    void overlappingIntervalsAreMergedAndClippedToTheWindow() {
+        UtilizationEngine engine = UtilizationEngine.builder()
+            // Araç 1: iki çakışan kiralama (gün 1-4 ve 3-6) ve pencere dışından taşan bir kiralama
+            .add(1, -2 * DAY, 1 * DAY)
+            .add(1, 1 * DAY, 4 * DAY)
+            .add(1, 3 * DAY, 6 * DAY)
+            // Araç 2: birbirini tamamen kapsayan kiralamalar
+            .add(2, 2 * DAY, 8 * DAY)
+            .add(2, 3 * DAY, 5 * DAY)
+            // Araç 3: pencere bittikten sonra
+            .add(3, 10 * DAY, 12 * DAY)
+            .build();
+
+        Map<Integer, Long> busy = engine.busySeconds(0, 10 * DAY);
+
+        assertEquals(6 * DAY, busy.get(1));
+        assertEquals(6 * DAY, busy.get(2));
+        assertEquals(null, busy.get(3));
+    }
+
+    @Test
+    void ratesPerVehicleCategoryLocationAndFleet() {
+        UtilizationEngine engine = UtilizationEngine.builder()
+            .add(1, 0, 5 * DAY)
+            .add(2, 0, 10 * DAY)
+            .add(3, 2 * DAY, 4 * DAY)
+            .build();
+        Map<Integer, UtilizationEngine.VehicleInfo> fleet = new LinkedHashMap<>();
+        fleet.put(1, new UtilizationEngine.VehicleInfo(10, 100));
+        fleet.put(2, new UtilizationEngine.VehicleInfo(10, 200));
+        fleet.put(3, new UtilizationEngine.VehicleInfo(20, 200));
+        fleet.put(4, new UtilizationEngine.VehicleInfo(20, 200));
+
+        UtilizationEngine.Result result = engine.utilization(0, 10 * DAY, fleet);
+
+        assertEquals(50.0, result.byVehicle().get(1));
+        assertEquals(100.0, result.byVehicle().get(2));
+        assertEquals(0.0, result.byVehicle().get(4));
+        assertEquals(75.0, result.byCategory().get(10));
+        assertEquals(10.0, result.byCategory().get(20));
+        assertEquals(50.0, result.byLocation().get(100));
+        assertEquals(40.0, result.byLocation().get(200));
+        assertEquals(42.5, result.fleetRate());
+    }
+
+    @Test
+    void parallelSweepMatchesBruteForce() {
+        Random random = new Random(42);
+        UtilizationEngine.Builder builder = UtilizationEngine.builder();
+        Map<Integer, boolean[]> hours = new HashMap<>();
+        for (int vehicle = 1; vehicle <= 2_000; vehicle++) {
+            boolean[] occupied = new boolean[24 * 60];
+            hours.put(vehicle, occupied);
+            long start = 0;
+            for (int i = 0; i < 12; i++) {
+                start += random.nextInt(48);
+                long length = 1 + random.nextInt(96);
+                builder.add(vehicle, start * 3600, (start + length) * 3600);
+                for (long h = start; h < start + length && h < occupied.length; h++) {
+                    occupied[(int) h] = true;
+                }
+            }
+        }
+        UtilizationEngine engine = builder.build();
+        long from = 100 * 3600;
+        long to = 400 * 3600;
+
+        Map<Integer, Long> busy = engine.busySeconds(from, to);
+
+        for (Map.Entry<Integer, boolean[]> entry : hours.entrySet()) {
+            long expected = 0;
+            for (int h = 100; h < 400; h++) {
+                if (entry.getValue()[h]) {
+                    expected += 3600;
+                }
+            }
+            assertEquals(expected, busy.getOrDefault(entry.getKey(), 0L), "vehicle " + entry.getKey());
+        }
+    }
+
+    @Test
+    void intervalsMustArriveGroupedAndSorted() {
+        UtilizationEngine.Builder unsorted = UtilizationEngine.builder().add(1, 5 * DAY, 6 * DAY);
+        assertThrows(IllegalArgumentException.class, () -> unsorted.add(1, 2 * DAY, 3 * DAY));
+
+        UtilizationEngine.Builder ungrouped = UtilizationEngine.builder().add(1, 0, DAY).add(2, 0, DAY);
+        assertThrows(IllegalArgumentException.class, () -> ungrouped.add(1, 2 * DAY, 3 * DAY));
+    }
+}
@@ -0,0 +1,100 @@
+package com.example.rentello.service;
+
+import com.example.rentello.repository.FleetProjectionRepository.VehicleRow;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.example.rentello.service.SearchFixtures.vehicleRow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VehicleFacetIndexTest {
+
+    private static VehicleRow vehicle(int id, String city, String brand, String fuel,
+                                      String rate, boolean available) {
+        return vehicleRow(id, city, brand, fuel, rate, 1000, 2022, 5, available);
+    }
+
+    private static VehicleFacetIndex sampleIndex() {
+        VehicleFacetIndex index = new VehicleFacetIndex();
+        index.replaceAll(List.of(
+                vehicle(1, "İstanbul", "Fiat", "Benzin", "900.00", true),
+                vehicle(2, "İstanbul", "Renault", "Dizel", "1100.00", true),
+                vehicle(3, "Ankara", "Fiat", "Dizel", "950.00", true),
+                vehicle(4, "Ankara", "Toyota", "Hibrit", "1500.00", true),
+                vehicle(5, "İstanbul", "Fiat", "Benzin", "800.00", false)));
+        return index;
+    }
+
+    @Test
+    void filtersAndCountsOtherFacetsForSelection() {
+        VehicleFacetIndex.Result result = sampleIndex().search(
+                Map.of(VehicleFacetIndex.Facet.CITY, Set.of("İstanbul")), null, null, 0, 10);
+
+        assertEquals(2, result.total());
+        assertEquals(List.of(1, 2), result.vehicles().stream().map(VehicleRow::vehicleId).toList());
+        // Seçili facet kendi filtresini yok sayar, diğer şehirler görünür kalır
+        assertEquals(Map.of("Ankara", 2, "İstanbul", 2), result.counts().get(VehicleFacetIndex.Facet.CITY));
+        assertEquals(Map.of("Fiat", 1, "Renault", 1), result.counts().get(VehicleFacetIndex.Facet.BRAND));
+    }
+
+    @Test
+    void combinesMultiSelectAndRateRange() {
+        VehicleFacetIndex.Result result = sampleIndex().search(
+                Map.of(VehicleFacetIndex.Facet.FUEL_TYPE, Set.of("Dizel", "Hibrit")),
+                new BigDecimal("1000"), null, 0, 10);
+
+        assertEquals(List.of(2, 4), result.vehicles().stream().map(VehicleRow::vehicleId).toList());
+        assertEquals(Map.of("Dizel", 1, "Hibrit", 1), result.counts().get(VehicleFacetIndex.Facet.FUEL_TYPE));
+    }
+
+    @Test
+    void movesBitsOnStatusAndLocationChange() {
+        VehicleFacetIndex index = sampleIndex();
+        index.put(vehicle(1, "Ankara", "Fiat", "Benzin", "900.00", false));
+        index.put(vehicle(5, "Ankara", "Fiat", "Benzin", "800.00", true));
+
+        VehicleFacetIndex.Result result = index.search(
+                Map.of(VehicleFacetIndex.Facet.CITY, Set.of("Ankara")), null, null, 0, 10);
+        assertEquals(List.of(5, 3, 4), result.vehicles().stream().map(VehicleRow::vehicleId).toList());
+        assertEquals(1, result.counts().get(VehicleFacetIndex.Facet.CITY).get("İstanbul"));
+
+        index.remove(2);
+        assertFalse(index.search(Map.of(), null, null, 0, 10)
+                .counts().get(VehicleFacetIndex.Facet.BRAND).containsKey("Renault"));
+    }
+
+    @Test
+    void pagesAreOrderedByRateThenIdAndLargePagesAreEmpty() {
+        Random random = new Random(3);
+        List<VehicleRow> rows = new ArrayList<>();
+        for (int id = 1; id <= 5_000; id++) {
+            rows.add(vehicle(id, "İstanbul", "Fiat", "Benzin", (500 + random.nextInt(50)) + ".00", true));
+        }
+        VehicleFacetIndex index = new VehicleFacetIndex();
+        index.replaceAll(rows);
+
+        List<Integer> expected = rows.stream()
+                .sorted(Comparator.comparing(VehicleRow::dailyRentalRate).thenComparing(VehicleRow::vehicleId))
+                .map(VehicleRow::vehicleId)
+                .toList();
+        List<Integer> paged = new ArrayList<>();
+        for (int page = 0; page < 50; page++) {
+            index.search(Map.of(), null, null, page, 100).vehicles().forEach(row -> paged.add(row.vehicleId()));
+        }
+        assertEquals(expected, paged);
+
+        // page * size int'e sığmaz; taşıp negatif ofset olmamalı
+        VehicleFacetIndex.Result beyondEnd = index.search(Map.of(), null, null, Integer.MAX_VALUE, 100);
+        assertTrue(beyondEnd.vehicles().isEmpty());
+        assertEquals(5_000, beyondEnd.total());
+    }
+}
@@ -0,0 +1,148 @@
+package com.example.rentello.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class VehicleSearchIndexTest {
+
+    private static VehicleSearchIndex.Document vehicle(int id, String plate, String brand, String model,
+                                                       String category, String color, String description) {
+        return new VehicleSearchIndex.Document(id, plate, brand, model, category, color, description,
+                2022, new BigDecimal("1500.00"), "Musait");
+    }
+
+    private static List<Integer> ids(VehicleSearchIndex.Hits hits) {
+        return hits.hits().stream().map(hit -> hit.document().vehicleId()).toList();
+    }
+
+    @Test
+    void foldsTurkishCharacters() {
+        assertEquals("sahin", VehicleSearchIndex.fold("ŞAHİN"));
+        assertEquals("sahin", VehicleSearchIndex.fold("SAHIN"));
+        assertEquals("isikli cagri", VehicleSearchIndex.fold("Işıklı Çağrı"));
+        assertEquals("istanbul", VehicleSearchIndex.fold("İstanbul"));
+    }
+
+    @Test
+    void matchesExactPrefixAndTypos() {
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        index.put(vehicle(1, "34 ABC 123", "Tofaş", "Şahin", "Ekonomi", "Beyaz", "Klasik şehir aracı"));
+        index.put(vehicle(2, "06 XYZ 45", "Volkswagen", "Passat", "Orta Sınıf", "Siyah", "Geniş bagajlı dizel sedan"));
+
+        assertEquals(List.of(1), ids(index.search("sahin", 0, 10)));
+        assertEquals(List.of(1), ids(index.search("TOFAS", 0, 10)));
+        assertEquals(List.of(2), ids(index.search("volks", 0, 10)));
+        assertEquals(List.of(2), ids(index.search("pasat", 0, 10)));
+        assertEquals(List.of(2), ids(index.search("volkswagne", 0, 10)));
+        assertEquals(List.of(1), ids(index.search("34abc", 0, 10)));
+        assertEquals(List.of(1), ids(index.search("34 ABC", 0, 10)));
+        assertEquals(0, index.search("beyaz passat", 0, 10).total());
+    }
+
+    @Test
+    void ranksFieldMatchesAboveDescriptionMatches() {
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        index.put(vehicle(1, "34 AA 1", "Renault", "Clio", "Ekonomi", "Kırmızı", "Fiat Egea kadar geniş"));
+        index.put(vehicle(2, "34 AA 2", "Fiat", "Egea", "Ekonomi", "Gri", "Aile için ideal"));
+
+        assertEquals(List.of(2, 1), ids(index.search("fiat egea", 0, 10)));
+    }
+
+    @Test
+    void searchesOnOneThreadStartFromCleanScores() {
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        index.put(vehicle(1, "34 AA 1", "Renault", "Clio", "Ekonomi", "Kırmızı", null));
+        index.put(vehicle(2, "34 AA 2", "Renault", "Megane", "Orta Sınıf", "Kırmızı", "Clio kadar çevik"));
+        List<VehicleSearchIndex.Hit> first = index.search("renault clio", 0, 10).hits();
+
+        // Yarıda kalan aramalar ve başka bir dizin aynı iş parçacığının puan dizilerini kirletmez
+        assertEquals(0, index.search("renault clio xqzw", 0, 10).total());
+        assertEquals(0, index.search("kirmizi megane clio passat", 0, 10).total());
+        VehicleSearchIndex other = new VehicleSearchIndex();
+        other.put(vehicle(1, "06 BB 1", "Renault", "Clio", "Ekonomi", "Beyaz", null));
+        assertEquals(List.of(1), ids(other.search("clio", 0, 10)));
+
+        assertEquals(first, index.search("renault clio", 0, 10).hits());
+        assertEquals(List.of(1, 2), ids(index.search("renault clio", 0, 10)));
+    }
+
+    @Test
+    void updatesAndRemovesIncrementally() {
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        index.put(vehicle(1, "34 AA 1", "Renault", "Clio", "Ekonomi", "Kırmızı", null));
+        assertEquals(1, index.search("kirmizi", 0, 10).total());
+
+        index.put(vehicle(1, "34 AA 1", "Renault", "Clio", "Ekonomi", "Mavi", null));
+        assertEquals(0, index.search("kirmizi", 0, 10).total());
+        assertEquals(1, index.search("mavi", 0, 10).total());
+
+        index.remove(1);
+        assertEquals(0, index.search("clio", 0, 10).total());
+        assertEquals(0, index.size());
+
+        index.put(vehicle(7, "34 AA 7", "Renault", "Megane", "Orta Sınıf", "Mavi", null));
+        assertEquals(List.of(7), ids(index.search("mavi", 0, 10)));
+    }
+
+    @Test
+    void randomUpdatesKeepPostingsInSync() {
+        String[] colors = { "Beyaz", "Siyah", "Gri", "Kırmızı", "Mavi" };
+        Random random = new Random(7);
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        Map<Integer, String> expected = new HashMap<>();
+        for (int step = 0; step < 20_000; step++) {
+            int id = 1 + random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                String color = colors[random.nextInt(colors.length)];
+                index.put(vehicle(id, "34 RND " + id, "Renault", "Clio", "Ekonomi", color, null));
+                expected.put(id, color);
+            }
+        }
+
+        assertEquals(expected.size(), index.size());
+        for (String color : colors) {
+            List<Integer> colored = expected.entrySet().stream()
+                    .filter(entry -> entry.getValue().equals(color))
+                    .map(Map.Entry::getKey)
+                    .sorted()
+                    .toList();
+            assertEquals(colored, ids(index.search(color, 0, 500)));
+        }
+    }
+
+    @Test
+    void largeIndexPagesMatchAFullScan() {
+        String[] brands = { "Renault", "Fiat", "Toyota", "Hyundai", "Volkswagen" };
+        String[] colors = { "Beyaz", "Siyah", "Gri", "Kırmızı" };
+        List<VehicleSearchIndex.Document> documents = new ArrayList<>();
+        for (int i = 1; i <= 100_000; i++) {
+            documents.add(vehicle(i, "34 TST " + i, brands[i % brands.length], "Model" + (i % 50),
+                    "Ekonomi", colors[i % colors.length], "Otomatik vites klimalı araç"));
+        }
+        VehicleSearchIndex index = new VehicleSearchIndex();
+        index.replaceAll(documents);
+
+        // LIKE sorgusu gibi her aracı tek tek tarar; eşit puanlı sonuçlar araç numarasına göre sıralanır
+        List<Integer> scanned = documents.stream()
+                .filter(document -> VehicleSearchIndex.tokenize(document.brand() + " " + document.color())
+                        .containsAll(List.of("toyota", "beyaz")))
+                .map(VehicleSearchIndex.Document::vehicleId)
+                .sorted()
+                .toList();
+
+        VehicleSearchIndex.Hits hits = index.search("toyota beyaz", 2, 25);
+        assertEquals(scanned.size(), hits.total());
+        assertEquals(scanned.subList(50, 75), ids(hits));
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.rentello.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CursorCodecTest {
+
+    @Test
+    void roundTripKeepsKeyTypesAndOrder() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("createdDate", LocalDateTime.of(2025, 3, 1, 10, 15, 30));
+        keys.put("totalAmount", new BigDecimal("1250.50"));
+        keys.put("rentalId", 42);
+        String token = CursorCodec.encode(ScrollPosition.forward(keys), "createdDate:DESC");
+
+        KeysetScrollPosition decoded = CursorCodec.decode(token, "createdDate:DESC");
+
+        assertEquals(keys, decoded.getKeys());
+        assertEquals(List.copyOf(keys.keySet()), List.copyOf(decoded.getKeys().keySet()));
+    }
+
+    @Test
+    void stringKeysWithSeparatorsSurvive() {
+        Map<String, Object> keys = new LinkedHashMap<>();
+        keys.put("username", "a\tb\\n\nc");
+        keys.put("userId", 7);
+        String token = CursorCodec.encode(ScrollPosition.forward(keys), "username:ASC");
+
+        assertEquals(keys, CursorCodec.decode(token, "username:ASC").getKeys());
+    }
+
+    @Test
+    void blankCursorStartsFromFirstPage() {
+        assertTrue(CursorCodec.decode(null, "vehicleId:ASC").isInitial());
+        assertTrue(CursorCodec.decode(" ", "vehicleId:ASC").isInitial());
+    }
+
+    @Test
+    void cursorIssuedForAnotherSortIsRejected() {
+        String token = CursorCodec.encode(ScrollPosition.forward(Map.of("vehicleId", 5)), "vehicleId:ASC");
+
+        RuntimeException e = assertThrows(RuntimeException.class, () -> CursorCodec.decode(token, "vehicleId:DESC"));
+        assertEquals("Cursor does not match the requested sort", e.getMessage());
+        assertThrows(RuntimeException.class, () -> CursorCodec.decode("not-a-cursor!", "vehicleId:ASC"));
+    }
+}
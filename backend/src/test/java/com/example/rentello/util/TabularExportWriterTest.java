@@ -0,0 +1,82 @@
+package com.example.rentello.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TabularExportWriterTest {
+
+    private static final List<String> COLUMNS = List.of("RentalID", "CustomerName", "TotalAmount", "CreatedDate", "Notes");
+
+    @Test
+    void csvQuotesSeparatorsAndLeavesNullsEmpty() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularExportWriter writer = new TabularExportWriter(out, TabularExportWriter.Format.CSV, false, COLUMNS)) {
+            writer.writeRow(new Object[] { 1, "Ali, Veli", new BigDecimal("1E+3"), LocalDateTime.of(2025, 1, 2, 3, 4, 5), null });
+            writer.writeRow(new Object[] { 2, "say \"hi\"", new BigDecimal("10.50"), null, "line1\nline2" });
+        }
+
+        assertEquals("RentalID,CustomerName,TotalAmount,CreatedDate,Notes\r\n" +
+                "1,\"Ali, Veli\",1000,2025-01-02T03:04:05,\r\n" +
+                "2,\"say \"\"hi\"\"\",10.50,,\"line1\nline2\"\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLineWithTypedValues() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularExportWriter writer = new TabularExportWriter(out, TabularExportWriter.Format.NDJSON, false, COLUMNS)) {
+            writer.writeRow(new Object[] { 7, "Şule \"Ş\"\t", new BigDecimal("99.90"), LocalDateTime.of(2025, 5, 6, 7, 8), null });
+        }
+
+        assertEquals("{\"RentalID\":7,\"CustomerName\":\"Şule \\\"Ş\\\"\\t\",\"TotalAmount\":99.90," +
+                "\"CreatedDate\":\"2025-05-06T07:08\",\"Notes\":null}\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void gzipOutputDecompressesToPlainRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularExportWriter writer = new TabularExportWriter(out, TabularExportWriter.Format.CSV, true, List.of("a"))) {
+            writer.writeRow(new Object[] { "x" });
+        }
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            assertEquals("a\r\nx\r\n", new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void csvPrefixesCellsThatWouldRunAsFormulas() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularExportWriter writer = new TabularExportWriter(out, TabularExportWriter.Format.CSV, false, List.of("a", "b", "c", "d"))) {
+            writer.writeRow(new Object[] { "=HYPERLINK(\"http://x\")", "+90 555", "@SUM(A1)", "-1+1" });
+            // Negatif tutarlar sayı olarak kalır; ortadaki işaretler dokunulmaz
+            writer.writeRow(new Object[] { new BigDecimal("-12.50"), -3, "a=b", "" });
+        }
+
+        assertEquals("a,b,c,d\r\n" +
+                "\"'=HYPERLINK(\"\"http://x\"\")\",'+90 555,'@SUM(A1),'-1+1\r\n" +
+                "-12.50,-3,a=b,\r\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjsonKeepsTextAsIs() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (TabularExportWriter writer = new TabularExportWriter(out, TabularExportWriter.Format.NDJSON, false, List.of("a"))) {
+            writer.writeRow(new Object[] { "=1+1" });
+        }
+
+        assertEquals("{\"a\":\"=1+1\"}\n", out.toString(StandardCharsets.UTF_8));
+    }
+}